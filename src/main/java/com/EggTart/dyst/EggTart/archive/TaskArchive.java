@@ -0,0 +1,210 @@
+package com.EggTart.dyst.EggTart.archive;
+
+import com.EggTart.dyst.EggTart.exception.EggTartException;
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.stats.CounterKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Local-disk cold storage for task instances.
+ *
+ * Files are partitioned by scheduled date and by dog bucket:
+ * {@code <directory>/date=2025-01-31/bucket=07/part-<millis>-<n>-<first id>.tcol}
+ * so that reading one dog's day only opens a small slice of the archive.
+ */
+@Component
+@Slf4j
+public class TaskArchive {
+    
+    static final int BUCKETS = 16;
+    private static final String DATE_PREFIX = "date=";
+    private static final String PART_SUFFIX = ".tcol";
+    
+    private final Path directory;
+    private final ConcurrentMap<LocalDate, Map<CounterKey, Long>> dayCounts = new ConcurrentHashMap<>();
+    private final ReadWriteLock moves = new ReentrantReadWriteLock();
+    private final AtomicLong partsWritten = new AtomicLong();
+    
+    public TaskArchive(@Value("${eggtart.archive.directory:data/archive/task-instances}") String directory) {
+        this.directory = Paths.get(directory);
+    }
+    
+    /**
+     * Runs one archival step, writing a chunk and deleting it from the hot
+     * table, exclusive of {@link #whileSettled} readers.
+     */
+    public void move(Runnable step) {
+        moves.writeLock().lock();
+        try {
+            step.run();
+        } finally {
+            moves.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Runs a read spanning the hot table and the archive while no chunk is
+     * between the two.
+     */
+    public <T> T whileSettled(Supplier<T> read) {
+        moves.readLock().lock();
+        try {
+            return read.get();
+        } finally {
+            moves.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Writes one part file per (date, bucket) partition. Each file is written
+     * to a temporary name first and atomically moved into place.
+     */
+    public void write(LocalDate date, int bucket, List<TaskInstance> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        Path partition = partition(date, bucket);
+        try {
+            Files.createDirectories(partition);
+            // Unique even for two chunks written in the same millisecond, which the move would otherwise replace
+            String name = "part-" + System.currentTimeMillis() + "-" + partsWritten.incrementAndGet()
+                + "-" + tasks.get(0).getId();
+            Path temp = partition.resolve(name + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                TaskArchiveCodec.write(tasks, out);
+            }
+            Files.move(temp, partition.resolve(name + PART_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+            // Waits for a count of the day in progress, so it cannot be cached stale
+            dayCounts.remove(date);
+        } catch (IOException ex) {
+            throw new EggTartException("Failed to write task archive partition " + partition, ex);
+        }
+    }
+    
+    /**
+     * Reads archived instances of one dog scheduled within the given range.
+     */
+    public List<TaskInstance> read(Long dogId, LocalDateTime startDate, LocalDateTime endDate) {
+        List<TaskInstance> result = new ArrayList<>();
+        int bucket = bucketOf(dogId);
+        for (LocalDate date = startDate.toLocalDate(); !date.isAfter(endDate.toLocalDate()); date = date.plusDays(1)) {
+            Path partition = partition(date, bucket);
+            if (!Files.isDirectory(partition)) {
+                continue;
+            }
+            for (Path part : parts(partition)) {
+                for (TaskInstance task : readPart(part)) {
+                    if (task.getDogId().equals(dogId)
+                            && !task.getScheduledTime().isBefore(startDate)
+                            && !task.getScheduledTime().isAfter(endDate)) {
+                        result.add(task);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+    
+    public boolean hasDate(LocalDate date) {
+        return Files.isDirectory(directory.resolve(DATE_PREFIX + date));
+    }
+    
+    /**
+     * The archived dates, oldest first.
+     */
+    public List<LocalDate> dates() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> partitions = Files.list(directory)) {
+            return partitions
+                .map(p -> p.getFileName().toString())
+                .filter(name -> name.startsWith(DATE_PREFIX))
+                .map(name -> LocalDate.parse(name.substring(DATE_PREFIX.length())))
+                .sorted()
+                .toList();
+        } catch (IOException ex) {
+            throw new EggTartException("Failed to list task archive " + directory, ex);
+        }
+    }
+    
+    /**
+     * Counts the instances archived for one day per status and type, leaving
+     * out the given ids. An instance archived twice by an interrupted run is
+     * counted once. Counts without exclusions are cached until the day is
+     * written again.
+     */
+    public Map<CounterKey, Long> count(LocalDate date, Set<Long> excludedIds) {
+        if (excludedIds.isEmpty()) {
+            return dayCounts.computeIfAbsent(date, d -> countDay(d, Set.of()));
+        }
+        return countDay(date, excludedIds);
+    }
+    
+    static int bucketOf(Long dogId) {
+        return (int) Math.floorMod(dogId, (long) BUCKETS);
+    }
+    
+    private Map<CounterKey, Long> countDay(LocalDate date, Set<Long> excludedIds) {
+        Map<Long, CounterKey> keys = new HashMap<>();
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            Path partition = partition(date, bucket);
+            if (!Files.isDirectory(partition)) {
+                continue;
+            }
+            for (Path part : parts(partition)) {
+                for (TaskInstance task : readPart(part)) {
+                    if (!excludedIds.contains(task.getId())) {
+                        keys.put(task.getId(), new CounterKey(task.getStatus(), task.getType(), date));
+                    }
+                }
+            }
+        }
+        
+        Map<CounterKey, Long> counts = new HashMap<>();
+        keys.values().forEach(key -> counts.merge(key, 1L, Long::sum));
+        return Collections.unmodifiableMap(counts);
+    }
+    
+    private Path partition(LocalDate date, int bucket) {
+        return directory.resolve(DATE_PREFIX + date).resolve(String.format("bucket=%02d", bucket));
+    }
+    
+    private List<Path> parts(Path partition) {
+        try (Stream<Path> files = Files.list(partition)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(PART_SUFFIX)).sorted().toList();
+        } catch (IOException ex) {
+            throw new EggTartException("Failed to list task archive partition " + partition, ex);
+        }
+    }
+    
+    private List<TaskInstance> readPart(Path part) {
+        try (InputStream in = Files.newInputStream(part)) {
+            return TaskArchiveCodec.read(in);
+        } catch (IOException ex) {
+            throw new EggTartException("Failed to read task archive file " + part, ex);
+        }
+    }
+}
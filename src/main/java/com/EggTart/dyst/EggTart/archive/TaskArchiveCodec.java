@@ -0,0 +1,206 @@
+package com.EggTart.dyst.EggTart.archive;
+
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+
+import java.io.*;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Columnar encoding for archived task instances.
+ *
+ * Rows are sorted by scheduled time and written column by column into a
+ * gzip stream. Ids, dog ids and scheduled times are delta-encoded zig-zag
+ * varints, enums are dictionary-encoded into single bytes, and the remaining
+ * timestamps are stored as offsets from the scheduled time (0 meaning null).
+ * All timestamps are kept at second precision.
+ */
+final class TaskArchiveCodec {
+    
+    private static final int MAGIC = 0x45544331; // "ETC1"
+    
+    private TaskArchiveCodec() {
+    }
+    
+    static void write(List<TaskInstance> tasks, OutputStream target) throws IOException {
+        List<TaskInstance> rows = new ArrayList<>(tasks);
+        rows.sort(Comparator.comparing(TaskInstance::getScheduledTime).thenComparing(TaskInstance::getId));
+        
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new GZIPOutputStream(target)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(rows.size());
+            writeDictionary(out, TaskType.values());
+            writeDictionary(out, TaskStatus.values());
+            
+            long previous = 0;
+            for (TaskInstance row : rows) {
+                writeVarLong(out, zigZag(row.getId() - previous));
+                previous = row.getId();
+            }
+            previous = 0;
+            for (TaskInstance row : rows) {
+                writeVarLong(out, zigZag(row.getDogId() - previous));
+                previous = row.getDogId();
+            }
+            for (TaskInstance row : rows) {
+                writeVarLong(out, row.getTaskTemplateId() == null ? 0 : row.getTaskTemplateId() + 1);
+            }
+            for (TaskInstance row : rows) {
+                out.writeByte(row.getType().ordinal());
+            }
+            for (TaskInstance row : rows) {
+                out.writeByte(row.getStatus().ordinal());
+            }
+            previous = 0;
+            for (TaskInstance row : rows) {
+                long scheduled = toEpochSecond(row.getScheduledTime());
+                writeVarLong(out, zigZag(scheduled - previous));
+                previous = scheduled;
+            }
+            writeOffsetColumn(out, rows, TaskInstance::getStartTime);
+            writeOffsetColumn(out, rows, TaskInstance::getEndTime);
+            writeOffsetColumn(out, rows, TaskInstance::getCountdownStartTime);
+            writeOffsetColumn(out, rows, TaskInstance::getCreatedAt);
+            writeOffsetColumn(out, rows, TaskInstance::getUpdatedAt);
+        }
+    }
+    
+    static List<TaskInstance> read(InputStream source) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(source)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a task archive file");
+            }
+            int count = in.readInt();
+            TaskType[] types = readDictionary(in, TaskType.class);
+            TaskStatus[] statuses = readDictionary(in, TaskStatus.class);
+            
+            List<TaskInstance> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                rows.add(new TaskInstance());
+            }
+            
+            long previous = 0;
+            for (TaskInstance row : rows) {
+                previous += unZigZag(readVarLong(in));
+                row.setId(previous);
+            }
+            previous = 0;
+            for (TaskInstance row : rows) {
+                previous += unZigZag(readVarLong(in));
+                row.setDogId(previous);
+            }
+            for (TaskInstance row : rows) {
+                long templateId = readVarLong(in);
+                row.setTaskTemplateId(templateId == 0 ? null : templateId - 1);
+            }
+            for (TaskInstance row : rows) {
+                row.setType(types[in.readUnsignedByte()]);
+            }
+            for (TaskInstance row : rows) {
+                row.setStatus(statuses[in.readUnsignedByte()]);
+            }
+            long[] scheduled = new long[count];
+            previous = 0;
+            for (int i = 0; i < count; i++) {
+                previous += unZigZag(readVarLong(in));
+                scheduled[i] = previous;
+                rows.get(i).setScheduledTime(fromEpochSecond(previous));
+            }
+            readOffsetColumn(in, rows, scheduled, TaskInstance::setStartTime);
+            readOffsetColumn(in, rows, scheduled, TaskInstance::setEndTime);
+            readOffsetColumn(in, rows, scheduled, TaskInstance::setCountdownStartTime);
+            readOffsetColumn(in, rows, scheduled, TaskInstance::setCreatedAt);
+            readOffsetColumn(in, rows, scheduled, TaskInstance::setUpdatedAt);
+            return rows;
+        }
+    }
+    
+    private static void writeDictionary(DataOutputStream out, Enum<?>[] values) throws IOException {
+        out.writeByte(values.length);
+        for (Enum<?> value : values) {
+            out.writeUTF(value.name());
+        }
+    }
+    
+    private static <E extends Enum<E>> E[] readDictionary(DataInputStream in, Class<E> type) throws IOException {
+        int size = in.readUnsignedByte();
+        @SuppressWarnings("unchecked")
+        E[] dictionary = (E[]) java.lang.reflect.Array.newInstance(type, size);
+        for (int i = 0; i < size; i++) {
+            dictionary[i] = Enum.valueOf(type, in.readUTF());
+        }
+        return dictionary;
+    }
+    
+    private interface TimeGetter {
+        LocalDateTime get(TaskInstance row);
+    }
+    
+    private interface TimeSetter {
+        void set(TaskInstance row, LocalDateTime value);
+    }
+    
+    private static void writeOffsetColumn(DataOutputStream out, List<TaskInstance> rows, TimeGetter getter)
+            throws IOException {
+        for (TaskInstance row : rows) {
+            LocalDateTime value = getter.get(row);
+            if (value == null) {
+                writeVarLong(out, 0);
+            } else {
+                long offset = toEpochSecond(value) - toEpochSecond(row.getScheduledTime());
+                writeVarLong(out, zigZag(offset) + 1);
+            }
+        }
+    }
+    
+    private static void readOffsetColumn(DataInputStream in, List<TaskInstance> rows, long[] scheduled,
+                                         TimeSetter setter) throws IOException {
+        for (int i = 0; i < rows.size(); i++) {
+            long encoded = readVarLong(in);
+            setter.set(rows.get(i), encoded == 0 ? null : fromEpochSecond(scheduled[i] + unZigZag(encoded - 1)));
+        }
+    }
+    
+    private static long toEpochSecond(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC);
+    }
+    
+    private static LocalDateTime fromEpochSecond(long value) {
+        return LocalDateTime.ofEpochSecond(value, 0, ZoneOffset.UTC);
+    }
+    
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+    
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+    
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,100 @@
+package com.EggTart.dyst.EggTart.archive;
+
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.repository.TaskInstanceRepository;
+import com.EggTart.dyst.EggTart.service.TaskTransitions;
+import com.EggTart.dyst.EggTart.sharding.ShardContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Moves task instances older than the configured horizon out of the hot
+ * table into {@link TaskArchive}.
+ *
+ * Each chunk is written to disk before it is deleted, each delete runs in its
+ * own short transaction, and a crash in between only leaves duplicates in the
+ * archive, which readers drop in favour of the live row. Deletes go through
+ * {@link TaskTransitions}, which may keep a task with transitions not yet
+ * written; it is archived again on a later run, as are the tasks of a bucket
+ * that is being moved to another shard.
+ */
+@Component
+@ConditionalOnProperty(name = "eggtart.archive.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class TaskArchiveJob {
+    
+    private final TaskInstanceRepository taskInstanceRepository;
+    private final TaskTransitions taskTransitions;
+    private final TaskArchive taskArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final int horizonDays;
+    private final int chunkSize;
+    
+    public TaskArchiveJob(TaskInstanceRepository taskInstanceRepository,
+                          TaskTransitions taskTransitions,
+                          TaskArchive taskArchive,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${eggtart.archive.horizon-days:90}") int horizonDays,
+                          @Value("${eggtart.archive.chunk-size:500}") int chunkSize) {
+        this.taskInstanceRepository = taskInstanceRepository;
+        this.taskTransitions = taskTransitions;
+        this.taskArchive = taskArchive;
+        this.transactionTemplate = transactionTemplate;
+        this.horizonDays = horizonDays;
+        this.chunkSize = chunkSize;
+    }
+    
+    @Scheduled(cron = "${eggtart.archive.cron:0 30 3 * * *}")
+    public void archiveOldTasks() {
+        LocalDateTime cutoff = LocalDate.now().minusDays(horizonDays).atStartOfDay();
+        ShardContext.forEachShard(() -> archiveShard(cutoff));
+    }
+    
+    private void archiveShard(LocalDateTime cutoff) {
+        log.info("Archiving task instances scheduled before {} on shard {}", cutoff, ShardContext.currentShard());
+        
+        long archived = 0;
+        long afterId = 0;
+        List<TaskInstance> chunk;
+        do {
+            chunk = taskInstanceRepository.findScheduledBeforeAfterId(cutoff, afterId, PageRequest.ofSize(chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+            List<TaskInstance> movable = chunk.stream()
+                .filter(task -> !ShardContext.isFrozen(task.getDogId()))
+                .toList();
+            if (movable.isEmpty()) {
+                continue;
+            }
+            
+            Map<LocalDate, Map<Integer, List<TaskInstance>>> partitions = movable.stream()
+                .collect(Collectors.groupingBy(
+                    task -> task.getScheduledTime().toLocalDate(),
+                    Collectors.groupingBy(task -> TaskArchive.bucketOf(task.getDogId()))
+                ));
+            List<Long> ids = movable.stream().map(TaskInstance::getId).toList();
+            int[] deleted = new int[1];
+            taskArchive.move(() -> {
+                partitions.forEach((date, buckets) ->
+                    buckets.forEach((bucket, tasks) -> taskArchive.write(date, bucket, tasks)));
+                deleted[0] = transactionTemplate.execute(status -> taskTransitions.deleteArchivedTasks(ids)).size();
+            });
+            archived += deleted[0];
+        } while (chunk.size() == chunkSize);
+        
+        log.info("Archived {} task instances", archived);
+    }
+}
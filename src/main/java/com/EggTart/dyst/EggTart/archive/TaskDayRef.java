@@ -0,0 +1,9 @@
+package com.EggTart.dyst.EggTart.archive;
+
+import java.time.LocalDate;
+
+/**
+ * A live task instance and the day it is scheduled on.
+ */
+public record TaskDayRef(Long id, LocalDate day) {
+}
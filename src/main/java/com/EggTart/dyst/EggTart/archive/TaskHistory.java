@@ -0,0 +1,100 @@
+package com.EggTart.dyst.EggTart.archive;
+
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.repository.TaskInstanceRepository;
+import com.EggTart.dyst.EggTart.sharding.ShardContext;
+import com.EggTart.dyst.EggTart.stats.CounterKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Task history across the hot table and {@link TaskArchive}, so nothing past
+ * the archival horizon drops out of a dog's history, its care reports or the
+ * task counts. Live rows win over archived copies of the same instance.
+ *
+ * Reads that only look at recent or future days stay on task_instances:
+ * sync changes, walk planning, instance generation and the warm-up probes.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskHistory {
+    
+    private final TaskArchive taskArchive;
+    private final TaskInstanceRepository taskInstanceRepository;
+    
+    public boolean hasArchived(LocalDate from, LocalDate to) {
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (taskArchive.hasDate(date)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Adds a dog's archived instances in the range to its live ones, sorted
+     * by scheduled time.
+     */
+    public List<TaskInstance> withArchived(List<TaskInstance> liveTasks, Long dogId,
+                                           LocalDateTime startDate, LocalDateTime endDate) {
+        if (!hasArchived(startDate.toLocalDate(), endDate.toLocalDate())) {
+            return liveTasks;
+        }
+        
+        Map<Long, TaskInstance> merged = new HashMap<>();
+        taskArchive.read(dogId, startDate, endDate).forEach(task -> merged.put(task.getId(), task));
+        liveTasks.forEach(task -> merged.put(task.getId(), task));
+        
+        return merged.values().stream()
+            .sorted(Comparator.comparing(TaskInstance::getScheduledTime))
+            .toList();
+    }
+    
+    /**
+     * Instances per status, type and day across every shard and the archive.
+     * Read while no archival chunk is moving, so an instance is neither
+     * missed nor counted twice.
+     */
+    public Map<CounterKey, Long> counts() {
+        return taskArchive.whileSettled(() -> {
+            Map<CounterKey, Long> counts = new HashMap<>();
+            ShardContext.forEachShard(() -> taskInstanceRepository.countByStatusTypeAndDay()
+                .forEach(row -> counts.merge(row.key(), row.count(), Long::sum)));
+            archivedCounts().forEach((key, count) -> counts.merge(key, count, Long::sum));
+            return counts;
+        });
+    }
+    
+    /**
+     * Archived instances per status, type and day, without those still in
+     * task_instances on any shard.
+     */
+    private Map<CounterKey, Long> archivedCounts() {
+        List<LocalDate> dates = taskArchive.dates();
+        if (dates.isEmpty()) {
+            return Map.of();
+        }
+        
+        // Normally empty: only rows archival has not deleted yet
+        LocalDateTime end = dates.get(dates.size() - 1).plusDays(1).atStartOfDay();
+        Map<LocalDate, Set<Long>> liveIds = new HashMap<>();
+        ShardContext.forEachShard(() -> taskInstanceRepository.findDaysScheduledBefore(end)
+            .forEach(ref -> liveIds.computeIfAbsent(ref.day(), day -> new HashSet<>()).add(ref.id())));
+        
+        Map<CounterKey, Long> counts = new HashMap<>();
+        for (LocalDate date : dates) {
+            taskArchive.count(date, liveIds.getOrDefault(date, Set.of()))
+                .forEach((key, count) -> counts.merge(key, count, Long::sum));
+        }
+        return counts;
+    }
+}
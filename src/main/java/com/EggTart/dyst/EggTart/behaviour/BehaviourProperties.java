@@ -0,0 +1,20 @@
+package com.EggTart.dyst.EggTart.behaviour;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "eggtart.behaviour")
+public class BehaviourProperties {
+    
+    /** Finished tasks a template needs before its time is adjusted. */
+    private int minSamples = 7;
+    
+    /** Smaller expected shifts are not worth suggesting. */
+    private Duration minShift = Duration.ofMinutes(10);
+    
+    /** Suggested times are rounded to this step. */
+    private Duration rounding = Duration.ofMinutes(5);
+}
@@ -0,0 +1,221 @@
+package com.EggTart.dyst.EggTart.behaviour;
+
+import com.EggTart.dyst.EggTart.event.TaskTransitionEvent;
+import com.EggTart.dyst.EggTart.model.entity.BehaviourSketch;
+import com.EggTart.dyst.EggTart.repository.BehaviourSketchRepository;
+import com.EggTart.dyst.EggTart.sharding.ShardContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link TemplateBehaviour} per task template, kept current from
+ * {@link TaskTransitionEvent}s so suggestions never scan task history.
+ *
+ * Each template holds its total and the delta since the last persist. The
+ * persist adds the delta to the stored row, which may already contain the
+ * deltas of other instances, and takes the result as the new total. Totals
+ * are loaded on startup and merged into whatever arrived in the meantime.
+ * The deltas of a dog whose bucket is being moved wait for the move.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BehaviourSketches {
+    
+    private static final int LOAD_BATCH_SIZE = 1000;
+    
+    private final BehaviourSketchRepository behaviourSketchRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    private final ConcurrentMap<Long, Sketches> byTemplate = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Set<Long>> templatesByDog = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskTransition(TaskTransitionEvent event) {
+        if (event.templateId() == null || event.previousStatus() == null || event.status() == null) {
+            return;
+        }
+        Sketches sketches = sketches(event.templateId(), event.dogId());
+        synchronized (sketches) {
+            sketches.total.record(event);
+            sketches.delta.record(event);
+        }
+        dirty.add(event.templateId());
+    }
+    
+    /** A copy of the template's statistics, empty if none were recorded. */
+    public TemplateBehaviour forTemplate(Long templateId) {
+        Sketches sketches = byTemplate.get(templateId);
+        if (sketches == null) {
+            return new TemplateBehaviour();
+        }
+        synchronized (sketches) {
+            return sketches.total.copy();
+        }
+    }
+    
+    /** The statistics of all the dog's templates merged into one. */
+    public TemplateBehaviour forDog(Long dogId) {
+        TemplateBehaviour merged = new TemplateBehaviour();
+        for (Long templateId : templatesByDog.getOrDefault(dogId, Set.of())) {
+            Sketches sketches = byTemplate.get(templateId);
+            if (sketches == null) {
+                continue;
+            }
+            synchronized (sketches) {
+                merged.merge(sketches.total);
+            }
+        }
+        return merged;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.nanoTime();
+        int[] rows = new int[1];
+        ShardContext.forEachShard(() -> rows[0] += loadShard());
+        loaded = true;
+        log.info("Loaded {} behaviour sketches in {} ms", rows[0], (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    private int loadShard() {
+        int rows = 0;
+        long afterId = Long.MIN_VALUE;
+        List<BehaviourSketch> batch;
+        do {
+            batch = behaviourSketchRepository.findLoadBatch(afterId, PageRequest.ofSize(LOAD_BATCH_SIZE));
+            for (BehaviourSketch row : batch) {
+                Sketches sketches = sketches(row.getTemplateId(), row.getDogId());
+                synchronized (sketches) {
+                    sketches.total.merge(TemplateBehaviour.fromBytes(row.getData()));
+                }
+                afterId = row.getTemplateId();
+            }
+            rows += batch.size();
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        return rows;
+    }
+    
+    /**
+     * Adds each changed template's delta to its stored row.
+     *
+     * @return number of rows written
+     */
+    @Scheduled(fixedDelayString = "${eggtart.behaviour.persist-interval-ms:60000}")
+    public int persist() {
+        // Totals would count the stored rows twice if written before loading
+        if (!loaded || dirty.isEmpty()) {
+            return 0;
+        }
+        
+        Map<Integer, Map<Long, TemplateBehaviour>> deltasByShard = new HashMap<>();
+        for (Long templateId : List.copyOf(dirty)) {
+            Sketches sketches = byTemplate.get(templateId);
+            if (ShardContext.isFrozen(sketches.dogId)) {
+                // Stays dirty until its bucket has moved
+                continue;
+            }
+            dirty.remove(templateId);
+            TemplateBehaviour delta;
+            synchronized (sketches) {
+                delta = sketches.delta;
+                sketches.delta = new TemplateBehaviour();
+            }
+            if (!delta.isEmpty()) {
+                deltasByShard.computeIfAbsent(ShardContext.directory().shardForId(sketches.dogId), s -> new HashMap<>())
+                    .put(templateId, delta);
+            }
+        }
+        
+        int written = 0;
+        for (Map.Entry<Integer, Map<Long, TemplateBehaviour>> shard : deltasByShard.entrySet()) {
+            Map<Long, TemplateBehaviour> deltas = shard.getValue();
+            try {
+                Map<Long, TemplateBehaviour> stored = ShardContext.callOnShard(shard.getKey(),
+                    () -> transactionTemplate.execute(status -> write(deltas)));
+                stored.forEach(this::refresh);
+                written += stored.size();
+            } catch (RuntimeException ex) {
+                // Includes a concurrent write by another instance; retried next round
+                log.warn("Failed to persist {} behaviour sketches on shard {}: {}",
+                    deltas.size(), shard.getKey(), ex.getMessage());
+                deltas.forEach(this::restore);
+            }
+        }
+        return written;
+    }
+    
+    private Map<Long, TemplateBehaviour> write(Map<Long, TemplateBehaviour> deltas) {
+        Map<Long, BehaviourSketch> rows = new HashMap<>();
+        behaviourSketchRepository.findAllById(deltas.keySet()).forEach(row -> rows.put(row.getTemplateId(), row));
+        
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, TemplateBehaviour> stored = new HashMap<>();
+        List<BehaviourSketch> changed = new ArrayList<>();
+        deltas.forEach((templateId, delta) -> {
+            BehaviourSketch row = rows.computeIfAbsent(templateId, id -> BehaviourSketch.builder()
+                .templateId(id)
+                .dogId(byTemplate.get(id).dogId)
+                .build());
+            TemplateBehaviour total = row.getData() != null
+                ? TemplateBehaviour.fromBytes(row.getData())
+                : new TemplateBehaviour();
+            total.merge(delta);
+            row.setData(total.toBytes());
+            row.setUpdatedAt(now);
+            changed.add(row);
+            stored.put(templateId, total);
+        });
+        behaviourSketchRepository.saveAll(changed);
+        return stored;
+    }
+    
+    /** Takes the stored total, which now includes other instances' deltas, plus what arrived since. */
+    private void refresh(Long templateId, TemplateBehaviour stored) {
+        Sketches sketches = byTemplate.get(templateId);
+        synchronized (sketches) {
+            stored.merge(sketches.delta);
+            sketches.total = stored;
+        }
+    }
+    
+    private void restore(Long templateId, TemplateBehaviour delta) {
+        Sketches sketches = byTemplate.get(templateId);
+        synchronized (sketches) {
+            sketches.delta.merge(delta);
+        }
+        dirty.add(templateId);
+    }
+    
+    private Sketches sketches(Long templateId, Long dogId) {
+        return byTemplate.computeIfAbsent(templateId, id -> {
+            templatesByDog.computeIfAbsent(dogId, d -> ConcurrentHashMap.newKeySet()).add(id);
+            return new Sketches(dogId);
+        });
+    }
+    
+    private static final class Sketches {
+        
+        private final long dogId;
+        private TemplateBehaviour total = new TemplateBehaviour();
+        private TemplateBehaviour delta = new TemplateBehaviour();
+        
+        private Sketches(long dogId) {
+            this.dogId = dogId;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.EggTart.dyst.EggTart.behaviour;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Mergeable quantile sketch of signed minute offsets.
+ *
+ * Offsets fall into fixed buckets: one minute wide within an hour of zero,
+ * five minutes up to four hours and thirty minutes up to twelve hours, where
+ * larger offsets are clamped. Adding is a single array increment, merging
+ * adds the arrays, and a quantile is off by at most half its bucket width,
+ * which is well below what a schedule suggestion is rounded to.
+ *
+ * Not thread-safe.
+ */
+public final class OffsetSketch {
+    
+    private static final int EXACT_LIMIT = 60;
+    private static final int COARSE_LIMIT = 240;
+    private static final int COARSE_WIDTH = 5;
+    private static final int WIDE_LIMIT = 720;
+    private static final int WIDE_WIDTH = 30;
+    
+    private static final int COARSE_BUCKETS = EXACT_LIMIT + (COARSE_LIMIT - EXACT_LIMIT) / COARSE_WIDTH;
+    private static final int SIDE_BUCKETS = COARSE_BUCKETS + (WIDE_LIMIT - COARSE_LIMIT) / WIDE_WIDTH;
+    private static final int BUCKETS = 2 * SIDE_BUCKETS + 1;
+    
+    private final int[] counts = new int[BUCKETS];
+    private long total;
+    
+    public void add(long minutes) {
+        counts[bucketOf(minutes)]++;
+        total++;
+    }
+    
+    public void merge(OffsetSketch other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+    }
+    
+    public OffsetSketch copy() {
+        OffsetSketch copy = new OffsetSketch();
+        copy.merge(this);
+        return copy;
+    }
+    
+    public long count() {
+        return total;
+    }
+    
+    /**
+     * The offset below which the given share of values falls, or null when
+     * nothing was added.
+     */
+    public Integer quantile(double q) {
+        if (total == 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return valueOf(i);
+            }
+        }
+        return valueOf(BUCKETS - 1);
+    }
+    
+    /** Writes the non-empty buckets only; most offsets cluster near zero. */
+    public void write(DataOutput out) throws IOException {
+        int used = 0;
+        for (int count : counts) {
+            if (count != 0) {
+                used++;
+            }
+        }
+        out.writeShort(used);
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0) {
+                out.writeShort(i);
+                out.writeInt(counts[i]);
+            }
+        }
+    }
+    
+    public static OffsetSketch read(DataInput in) throws IOException {
+        OffsetSketch sketch = new OffsetSketch();
+        int used = in.readUnsignedShort();
+        for (int i = 0; i < used; i++) {
+            int bucket = in.readUnsignedShort();
+            if (bucket >= BUCKETS) {
+                throw new IOException("Offset bucket out of range: " + bucket);
+            }
+            int count = in.readInt();
+            sketch.counts[bucket] += count;
+            sketch.total += count;
+        }
+        return sketch;
+    }
+    
+    static int bucketOf(long minutes) {
+        long magnitude = Math.min(Math.abs(minutes), WIDE_LIMIT);
+        int offset;
+        if (magnitude <= EXACT_LIMIT) {
+            offset = (int) magnitude;
+        } else if (magnitude <= COARSE_LIMIT) {
+            offset = EXACT_LIMIT + 1 + (int) ((magnitude - EXACT_LIMIT - 1) / COARSE_WIDTH);
+        } else {
+            offset = COARSE_BUCKETS + 1 + (int) ((magnitude - COARSE_LIMIT - 1) / WIDE_WIDTH);
+        }
+        return SIDE_BUCKETS + (minutes < 0 ? -offset : offset);
+    }
+    
+    /** The middle of the bucket's range. */
+    static int valueOf(int bucket) {
+        int offset = Math.abs(bucket - SIDE_BUCKETS);
+        int magnitude;
+        if (offset <= EXACT_LIMIT) {
+            magnitude = offset;
+        } else if (offset <= COARSE_BUCKETS) {
+            magnitude = EXACT_LIMIT + (offset - EXACT_LIMIT) * COARSE_WIDTH - COARSE_WIDTH / 2;
+        } else {
+            magnitude = COARSE_LIMIT + (offset - COARSE_BUCKETS) * WIDE_WIDTH - WIDE_WIDTH / 2;
+        }
+        return bucket < SIDE_BUCKETS ? -magnitude : magnitude;
+    }
+}
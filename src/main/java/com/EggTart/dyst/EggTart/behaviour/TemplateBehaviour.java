@@ -0,0 +1,124 @@
+package com.EggTart.dyst.EggTart.behaviour;
+
+import com.EggTart.dyst.EggTart.event.TaskTransitionEvent;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+
+import java.io.*;
+import java.time.Duration;
+
+/**
+ * Streaming statistics of how the tasks of one template actually go: start
+ * offsets against the scheduled time, delays and outcomes. Each transition
+ * is folded in with a few increments and two instances merge into their
+ * union, so per-instance deltas can be added to the persisted totals.
+ *
+ * Not thread-safe.
+ */
+public final class TemplateBehaviour {
+    
+    private static final byte FORMAT_VERSION = 1;
+    
+    private final OffsetSketch startOffsets;
+    private final OffsetSketch delays;
+    private long completed;
+    private long skipped;
+    
+    public TemplateBehaviour() {
+        this(new OffsetSketch(), new OffsetSketch(), 0, 0);
+    }
+    
+    private TemplateBehaviour(OffsetSketch startOffsets, OffsetSketch delays, long completed, long skipped) {
+        this.startOffsets = startOffsets;
+        this.delays = delays;
+        this.completed = completed;
+        this.skipped = skipped;
+    }
+    
+    /** Folds in one transition; creations and deletions carry nothing and are ignored. */
+    public void record(TaskTransitionEvent event) {
+        if (event.previousStatus() == null || event.status() == null) {
+            return;
+        }
+        // The write-behind store may coalesce a start with what followed it
+        if (event.previousStatus() == TaskStatus.PENDING && event.startTime() != null) {
+            startOffsets.add(Duration.between(event.scheduledTime(), event.startTime()).toMinutes());
+        }
+        if (event.previousScheduledTime() != null && event.scheduledTime().isAfter(event.previousScheduledTime())) {
+            delays.add(Duration.between(event.previousScheduledTime(), event.scheduledTime()).toMinutes());
+        }
+        if (event.previousStatus() != event.status()) {
+            if (event.status() == TaskStatus.COMPLETED) {
+                completed++;
+            } else if (event.status() == TaskStatus.SKIPPED) {
+                skipped++;
+            }
+        }
+    }
+    
+    public void merge(TemplateBehaviour other) {
+        startOffsets.merge(other.startOffsets);
+        delays.merge(other.delays);
+        completed += other.completed;
+        skipped += other.skipped;
+    }
+    
+    public TemplateBehaviour copy() {
+        return new TemplateBehaviour(startOffsets.copy(), delays.copy(), completed, skipped);
+    }
+    
+    public boolean isEmpty() {
+        return startOffsets.count() == 0 && delays.count() == 0 && completed == 0 && skipped == 0;
+    }
+    
+    /** Minutes between the scheduled and the actual start. */
+    public OffsetSketch startOffsets() {
+        return startOffsets;
+    }
+    
+    /** Minutes each delay pushed a task back by. */
+    public OffsetSketch delays() {
+        return delays;
+    }
+    
+    /** Tasks that ended, completed or skipped. */
+    public long finished() {
+        return completed + skipped;
+    }
+    
+    public double skipRate() {
+        return finished() == 0 ? 0 : (double) skipped / finished();
+    }
+    
+    /** Delays per finished task; above one, tasks are pushed back more than once on average. */
+    public double delayRate() {
+        return finished() == 0 ? 0 : (double) delays.count() / finished();
+    }
+    
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(completed);
+            out.writeLong(skipped);
+            startOffsets.write(out);
+            delays.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    public static TemplateBehaviour fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported behaviour sketch version " + version);
+            }
+            long completed = in.readLong();
+            long skipped = in.readLong();
+            return new TemplateBehaviour(OffsetSketch.read(in), OffsetSketch.read(in), completed, skipped);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Corrupt behaviour sketch", e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.EggTart.dyst.EggTart.config;
+
+import com.EggTart.dyst.EggTart.behaviour.BehaviourProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(BehaviourProperties.class)
+public class BehaviourConfig {
+}
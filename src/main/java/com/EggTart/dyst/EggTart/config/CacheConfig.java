@@ -0,0 +1,76 @@
+package com.EggTart.dyst.EggTart.config;
+
+import com.EggTart.dyst.EggTart.invalidation.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * Caffeine caches for dog profiles, templates and today's tasks (see
+ * {@code spring.cache.*}), invalidated on change through the
+ * {@link InvalidationBus}. The expiry is only a safety net.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties({InvalidationProperties.class, CacheProperties.class})
+public class CacheConfig {
+    
+    /**
+     * Boot's Caffeine cache manager, except that its caches are
+     * {@link GenerationCheckedCache}s.
+     */
+    @Bean
+    public CaffeineCacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new GenerationCheckedCache(name, cache, isAllowNullValues());
+            }
+        };
+        String spec = cacheProperties.getCaffeine().getSpec();
+        if (StringUtils.hasText(spec)) {
+            cacheManager.setCacheSpecification(spec);
+        }
+        cacheManager.setCacheNames(cacheProperties.getCacheNames());
+        return cacheManager;
+    }
+    
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public InvalidationBus invalidationBus(CacheManager cacheManager,
+                                           InvalidationProperties properties,
+                                           MeterRegistry meterRegistry) {
+        return new InvalidationBus(cacheManager, transport(properties), properties, meterRegistry);
+    }
+    
+    private static InvalidationTransport transport(InvalidationProperties properties) {
+        return switch (properties.getTransport()) {
+            case NONE -> null;
+            case IN_PROCESS -> new InProcessInvalidationTransport(properties.getChannel());
+            case UDP -> {
+                InvalidationProperties.Udp udp = properties.getUdp();
+                List<InetSocketAddress> peers = udp.getPeers().stream()
+                    .map(CacheConfig::peerAddress)
+                    .toList();
+                yield new UdpInvalidationTransport(new InetSocketAddress(udp.getBindAddress(), udp.getPort()), peers);
+            }
+        };
+    }
+    
+    private static InetSocketAddress peerAddress(String peer) {
+        int colon = peer.lastIndexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Invalidation peer must be host:port, got " + peer);
+        }
+        return new InetSocketAddress(peer.substring(0, colon).trim(), Integer.parseInt(peer.substring(colon + 1).trim()));
+    }
+}
@@ -0,0 +1,41 @@
+package com.EggTart.dyst.EggTart.config;
+
+import com.EggTart.dyst.EggTart.idempotency.IdempotencyFilter;
+import com.EggTart.dyst.EggTart.idempotency.IdempotencyProperties;
+import com.EggTart.dyst.EggTart.idempotency.IdempotencyStore;
+import com.EggTart.dyst.EggTart.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@ConditionalOnProperty(name = "eggtart.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+    
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyRecordRepository repository,
+                                             TransactionTemplate transactionTemplate,
+                                             IdempotencyProperties properties) {
+        return new IdempotencyStore(repository, transactionTemplate, properties);
+    }
+    
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore idempotencyStore,
+                                                                     IdempotencyProperties properties,
+                                                                     ObjectMapper objectMapper,
+                                                                     MeterRegistry meterRegistry) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+            new IdempotencyFilter(idempotencyStore, properties, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        // After load shedding, so retries waiting on a key still count against their group
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 18);
+        return registration;
+    }
+}
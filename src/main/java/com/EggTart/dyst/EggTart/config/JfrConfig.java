@@ -0,0 +1,54 @@
+package com.EggTart.dyst.EggTart.config;
+
+import com.EggTart.dyst.EggTart.jfr.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.text.ParseException;
+
+/**
+ * JDK Flight Recorder events for task transitions, repository calls and
+ * response serialization, plus the continuous recording behind the
+ * {@code jfr} actuator endpoint.
+ */
+@Configuration
+@ConditionalOnProperty(name = "eggtart.jfr.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(JfrProperties.class)
+public class JfrConfig {
+    
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor transitionJfrAdvisor() {
+        return JfrAdvisors.transitions();
+    }
+    
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor repositoryJfrAdvisor() {
+        return JfrAdvisors.repositories();
+    }
+    
+    /** Replaces Boot's default Jackson converter. */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new JfrJacksonHttpMessageConverter(objectMapper);
+    }
+    
+    @Bean
+    public ContinuousRecording continuousRecording(JfrProperties properties) throws IOException, ParseException {
+        return new ContinuousRecording(properties);
+    }
+    
+    @Bean
+    public JfrEndpoint jfrEndpoint(ContinuousRecording continuousRecording) {
+        return new JfrEndpoint(continuousRecording);
+    }
+}
@@ -0,0 +1,68 @@
+package com.EggTart.dyst.EggTart.config;
+
+import com.EggTart.dyst.EggTart.outbox.*;
+import com.EggTart.dyst.EggTart.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Transactional outbox for task events. Sinks are every {@link OutboxSink}
+ * bean: the logging sink always, the HTTP sink once
+ * {@code eggtart.outbox.http.url} is set.
+ */
+@Configuration
+@ConditionalOnProperty(name = "eggtart.outbox.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+    
+    @Bean
+    public OutboxEventFactory outboxEventFactory(ObjectMapper objectMapper) {
+        return new OutboxEventFactory(objectMapper);
+    }
+    
+    @Bean
+    public OutboxWriter outboxWriter(OutboxEventRepository outboxEventRepository,
+                                     OutboxEventFactory outboxEventFactory) {
+        return new OutboxWriter(outboxEventRepository, outboxEventFactory);
+    }
+    
+    @Bean
+    public LoggingOutboxSink loggingOutboxSink() {
+        return new LoggingOutboxSink();
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "eggtart.outbox.http.url")
+    public HttpOutboxSink httpOutboxSink(OutboxProperties properties) {
+        return new HttpOutboxSink(properties.getHttp());
+    }
+    
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService outboxRelayExecutor(OutboxProperties properties) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("outbox-relay-");
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(properties.getRelayThreads(), threadFactory);
+    }
+    
+    @Bean
+    public OutboxRelay outboxRelay(OutboxEventRepository outboxEventRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   List<OutboxSink> sinks,
+                                   @Qualifier("outboxRelayExecutor") ExecutorService outboxRelayExecutor,
+                                   OutboxProperties properties,
+                                   MeterRegistry meterRegistry) {
+        return new OutboxRelay(outboxEventRepository, transactionTemplate, sinks, outboxRelayExecutor,
+            properties, meterRegistry);
+    }
+}
@@ -0,0 +1,29 @@
+package com.EggTart.dyst.EggTart.config;
+
+import com.EggTart.dyst.EggTart.planner.GroupWalkPlanner;
+import com.EggTart.dyst.EggTart.planner.PlannerProperties;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+@EnableConfigurationProperties(PlannerProperties.class)
+public class PlannerConfig {
+    
+    /**
+     * Own pool rather than the common one, so a planning run does not hold up
+     * parallel streams elsewhere for its whole time budget.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ForkJoinPool walkPlannerPool(PlannerProperties properties) {
+        return new ForkJoinPool(properties.getParallelism());
+    }
+    
+    @Bean
+    public GroupWalkPlanner groupWalkPlanner(@Qualifier("walkPlannerPool") ForkJoinPool walkPlannerPool) {
+        return new GroupWalkPlanner(walkPlannerPool);
+    }
+}
@@ -0,0 +1,117 @@
+package com.EggTart.dyst.EggTart.config;
+
+import com.EggTart.dyst.EggTart.reactive.DogHandler;
+import com.EggTart.dyst.EggTart.reactive.ReactiveTaskInstanceRepository;
+import com.EggTart.dyst.EggTart.reactive.TaskHandler;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.util.List;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.path;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Alternative non-blocking runtime, started with {@code --spring.profiles.active=reactive}.
+ * Serves the /api/tasks and /api/dogs contract from functional handlers over
+ * R2DBC; the other endpoints and the servlet filters stay on the MVC runtime.
+ *
+ * Onboarding and profile updates still go through the blocking JPA DogService
+ * on boundedElastic, since they share its validation and task generation.
+ */
+@Configuration
+@Profile("reactive")
+@EnableR2dbcRepositories(basePackageClasses = ReactiveTaskInstanceRepository.class)
+@EnableConfigurationProperties(DataSourceProperties.class)
+@Slf4j
+public class ReactiveConfig {
+    
+    private static final List<String> UNSUPPORTED_MODES = List.of(
+        "eggtart.sharding.enabled", "eggtart.replicas.enabled", "eggtart.write-behind.enabled");
+    
+    public ReactiveConfig(Environment environment) {
+        // R2DBC talks to a single database and bypasses the write-behind buffer
+        for (String mode : UNSUPPORTED_MODES) {
+            if (environment.getProperty(mode, Boolean.class, false)) {
+                throw new IllegalStateException("The reactive runtime does not support " + mode);
+            }
+        }
+    }
+    
+    /**
+     * DataSourceAutoConfiguration backs off once an R2DBC ConnectionFactory
+     * exists, but the JPA services and background jobs still need one.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    /**
+     * Built inline rather than registered as a bean so @Transactional keeps
+     * resolving to the single JPA transaction manager.
+     */
+    @Bean
+    public TransactionalOperator transactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+    
+    @Bean
+    public RouterFunction<ServerResponse> taskRoutes(TaskHandler taskHandler) {
+        return route()
+            .nest(path("/api/tasks"), builder -> builder
+                .GET(taskHandler::getTasks)
+                .POST("/{id}/start", taskHandler::startTask)
+                .POST("/{id}/complete", taskHandler::completeTask)
+                .POST("/{id}/delay", taskHandler::delayTask)
+                .POST("/{id}/skip", taskHandler::skipTask))
+            .build();
+    }
+    
+    @Bean
+    public RouterFunction<ServerResponse> dogRoutes(DogHandler dogHandler) {
+        return route()
+            .nest(path("/api/dogs"), builder -> builder
+                .POST(dogHandler::createDogProfile)
+                .GET("/{id}", dogHandler::getDogProfile)
+                .PUT("/{id}", dogHandler::updateDogProfile)
+                .GET("/{id}/templates", dogHandler::getTaskTemplates)
+                .GET("/{id}/calendar", dogHandler::getCalendar)
+                .GET("/{id}/schedule-suggestions", dogHandler::getScheduleSuggestions))
+            .build();
+    }
+    
+    /**
+     * Same policy as WebConfig's MVC CORS mapping.
+     */
+    @Bean
+    public CorsWebFilter corsWebFilter() {
+        CorsConfiguration cors = new CorsConfiguration();
+        cors.setAllowedOriginPatterns(List.of("http://localhost:[*]", "https://*.eggtart.app"));
+        cors.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        cors.addAllowedHeader("*");
+        cors.setAllowCredentials(true);
+        cors.setMaxAge(3600L);
+        
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/api/**", cors);
+        return new CorsWebFilter(source);
+    }
+}
@@ -0,0 +1,81 @@
+package com.EggTart.dyst.EggTart.config;
+
+import com.EggTart.dyst.EggTart.replica.*;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read/write splitting, enabled with {@code eggtart.replicas.enabled=true}.
+ * Not meant to be combined with sharding, which owns the datasource as well.
+ */
+@Configuration
+@ConditionalOnProperty(name = "eggtart.replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+@Slf4j
+public class ReplicaConfig {
+    
+    @Bean
+    public ReplicaPool replicaPool(ReplicaProperties properties) {
+        List<ReplicaNode> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getNodes().size(); i++) {
+            replicas.add(new ReplicaNode("replica-" + i,
+                pool("replica-" + i, properties.getNodes().get(i), properties.getMaximumPoolSize())));
+        }
+        return new ReplicaPool(replicas);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaProperties properties, ReplicaPool replicaPool) {
+        Map<Object, Object> targets = new HashMap<>();
+        DataSource primary = pool("primary", properties.getPrimary(), properties.getMaximumPoolSize());
+        targets.put("primary", primary);
+        replicaPool.getNodes().forEach(replica -> targets.put(replica.getName(), replica));
+        
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(replicaPool);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        
+        log.info("Routing read-only transactions across {} replicas", replicaPool.getNodes().size());
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+    
+    @Bean
+    public ReplicaHealthChecker replicaHealthChecker(ReplicaPool replicaPool, ReplicaProperties properties) {
+        return new ReplicaHealthChecker(replicaPool, properties);
+    }
+    
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaProperties properties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+            new FilterRegistrationBean<>(new ReadYourWritesFilter(properties.getReadYourWritesSeconds()));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+    
+    private static HikariDataSource pool(String name, ReplicaProperties.Node node, int maximumPoolSize) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(node.getUrl());
+        dataSource.setUsername(node.getUsername());
+        dataSource.setPassword(node.getPassword());
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        return dataSource;
+    }
+}
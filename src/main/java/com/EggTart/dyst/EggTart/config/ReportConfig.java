@@ -0,0 +1,33 @@
+package com.EggTart.dyst.EggTart.config;
+
+import com.EggTart.dyst.EggTart.report.ReportProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(ReportProperties.class)
+public class ReportConfig {
+    
+    /**
+     * Dedicated report workers with a bounded queue; a full queue rejects new
+     * jobs instead of growing without limit.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor reportExecutor(ReportProperties properties) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("report-");
+        threadFactory.setDaemon(true);
+        threadFactory.setThreadPriority(Thread.NORM_PRIORITY - 1);
+        return new ThreadPoolExecutor(
+            properties.getWorkerThreads(), properties.getWorkerThreads(),
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+            threadFactory,
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,114 @@
+package com.EggTart.dyst.EggTart.config;
+
+import com.EggTart.dyst.EggTart.sharding.*;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dog-id sharding across several datasources, enabled with
+ * {@code eggtart.sharding.enabled=true} and one {@code eggtart.sharding.shards[n].url}
+ * per shard. Shard 0 also holds the bucket directory and the id block sequence.
+ */
+@Configuration
+@ConditionalOnProperty(name = "eggtart.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+@Slf4j
+public class ShardingConfig implements WebMvcConfigurer {
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardingProperties properties) {
+        List<ShardingProperties.Shard> shards = properties.getShards();
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("Sharding is enabled but no eggtart.sharding.shards are configured");
+        }
+        
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            HikariDataSource shard = new HikariDataSource();
+            shard.setPoolName("shard-" + i);
+            shard.setJdbcUrl(shards.get(i).getUrl());
+            shard.setUsername(shards.get(i).getUsername());
+            shard.setPassword(shards.get(i).getPassword());
+            shard.setMaximumPoolSize(properties.getMaximumPoolSize());
+            targets.put(i, shard);
+        }
+        
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(targets.get(0));
+        log.info("Routing repository calls across {} shards", shards.size());
+        return routing;
+    }
+    
+    @Bean
+    public ShardDirectoryStore shardDirectoryStore(DataSource dataSource, ShardingProperties properties) {
+        ShardDirectoryStore store = new ShardDirectoryStore(
+            dataSource, properties.getShards().size(), properties.getVirtualNodes());
+        store.load();
+        return store;
+    }
+    
+    @Bean
+    public ShardRebalancer shardRebalancer(DataSource dataSource, ShardDirectoryStore shardDirectoryStore,
+                                           ShardingProperties properties) {
+        return new ShardRebalancer((ShardRoutingDataSource) dataSource, shardDirectoryStore,
+            properties.getFreezeGraceMs());
+    }
+    
+    /**
+     * Hibernate creates the schema on shard 0 only; mirror it to the others.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public ApplicationRunner shardSchemaInitializer(EntityManagerFactory entityManagerFactory,
+                                                    ShardDirectoryStore shardDirectoryStore,
+                                                    @Value("${spring.jpa.hibernate.ddl-auto:create-drop}") String ddlAuto) {
+        return args -> {
+            if ("none".equals(ddlAuto) || "validate".equals(ddlAuto)) {
+                return;
+            }
+            SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+            for (int shard = 1; shard < shardDirectoryStore.shardCount(); shard++) {
+                ShardContext.callOnShard(shard, () -> {
+                    sessionFactory.getSchemaManager().exportMappedObjects(true);
+                    return null;
+                });
+            }
+        };
+    }
+    
+    /**
+     * Migration tool: start with {@code --eggtart.sharding.rebalance=true} after
+     * changing the shard list to move buckets to their new owners.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @ConditionalOnProperty(name = "eggtart.sharding.rebalance", havingValue = "true")
+    public ApplicationRunner shardRebalanceRunner(ShardRebalancer shardRebalancer) {
+        return args -> shardRebalancer.rebalance();
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ShardRoutingInterceptor()).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,103 @@
+package com.EggTart.dyst.EggTart.config;
+
+import com.EggTart.dyst.EggTart.tracing.*;
+import com.EggTart.dyst.EggTart.warmup.WarmupRunner;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationPredicate;
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spans for controllers, the task service, repository calls and walk record
+ * inserts on top of the HTTP server spans Spring Boot already creates, with
+ * W3C trace context propagation. Kept traces go to local JSON-lines files
+ * and an in-memory store, so no collector is needed.
+ *
+ * Every span is recorded ({@code management.tracing.sampling.probability=1.0})
+ * and {@link TailSamplingSpanProcessor} decides per trace what to keep.
+ */
+@Configuration
+@ConditionalOnProperty(name = "eggtart.tracing.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingConfig {
+    
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor controllerTracingAdvisor(ObjectProvider<Tracer> tracerProvider) {
+        return TracingAdvisors.controllers(tracerProvider);
+    }
+    
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor taskServiceTracingAdvisor(ObjectProvider<Tracer> tracerProvider) {
+        return TracingAdvisors.taskServices(tracerProvider);
+    }
+    
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor repositoryTracingAdvisor(ObjectProvider<Tracer> tracerProvider) {
+        return TracingAdvisors.repositories(tracerProvider);
+    }
+    
+    /** Warm-up requests get no server span, so they start no trace. */
+    @Bean
+    public ObservationPredicate warmupRequestObservations() {
+        return (name, context) -> !(context instanceof ServerRequestObservationContext server
+            && WarmupRunner.isSynthetic(server.getCarrier()));
+    }
+    
+    @Bean
+    public TraceStore traceStore(TracingProperties properties) {
+        return new TraceStore(properties.getMemory().getCapacity());
+    }
+    
+    /** Picked up by Spring Boot's tracer provider next to its own span processors. */
+    @Bean
+    public TailSamplingSpanProcessor tailSamplingSpanProcessor(TracingProperties properties,
+                                                               TraceStore traceStore,
+                                                               ObjectMapper objectMapper,
+                                                               MeterRegistry meterRegistry) {
+        List<SpanExporter> exporters = new ArrayList<>();
+        exporters.add(traceStore.exporter());
+        if (properties.getFile().isEnabled()) {
+            exporters.add(new FileSpanExporter(objectMapper, properties.getFile().getDirectory()));
+        }
+        BatchSpanProcessor export = BatchSpanProcessor.builder(SpanExporter.composite(exporters)).build();
+        return new TailSamplingSpanProcessor(export, properties, meterRegistry);
+    }
+    
+    @Bean
+    public WalkRecordInsertSpans walkRecordInsertSpans(EntityManagerFactory entityManagerFactory,
+                                                       ObjectProvider<Tracer> tracerProvider) {
+        WalkRecordInsertSpans listener = new WalkRecordInsertSpans(tracerProvider.getIfAvailable(() -> Tracer.NOOP));
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.PRE_INSERT, listener);
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        return listener;
+    }
+    
+    @Bean
+    public TracesEndpoint tracesEndpoint(TraceStore traceStore) {
+        return new TracesEndpoint(traceStore);
+    }
+}
@@ -2,22 +2,33 @@ package com.EggTart.dyst.EggTart.controller;
 
 import com.EggTart.dyst.EggTart.dto.request.OnboardingDto;
 import com.EggTart.dyst.EggTart.dto.response.ApiResponse;
+import com.EggTart.dyst.EggTart.dto.response.CalendarDayDto;
+import com.EggTart.dyst.EggTart.dto.response.DogProfileResponseDto;
+import com.EggTart.dyst.EggTart.dto.response.ScheduleSuggestionsResponseDto;
+import com.EggTart.dyst.EggTart.dto.response.TaskTemplateResponseDto;
 import com.EggTart.dyst.EggTart.exception.EntityNotFoundException;
+import com.EggTart.dyst.EggTart.exception.InvalidRecurrenceRuleException;
 import com.EggTart.dyst.EggTart.model.entity.DogProfile;
-import com.EggTart.dyst.EggTart.model.entity.TaskTemplate;
+import com.EggTart.dyst.EggTart.projection.FieldSelection;
+import com.EggTart.dyst.EggTart.projection.SparseFieldset;
 import com.EggTart.dyst.EggTart.service.DogService;
+import com.EggTart.dyst.EggTart.service.ScheduleSuggestionService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/dogs")
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"})
 @Validated
@@ -25,58 +36,106 @@ import java.util.List;
 @Slf4j
 public class DogController {
     
+    private static final int CALENDAR_DEFAULT_DAYS = 7;
+    
     private final DogService dogService;
+    private final ScheduleSuggestionService scheduleSuggestionService;
     
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<DogProfile>> getDogProfile(
-            @PathVariable @NotNull @Min(1) Long id) {
+    @SparseFieldset(DogProfileResponseDto.class)
+    public ResponseEntity<ApiResponse<DogProfileResponseDto>> getDogProfile(
+            @PathVariable @NotNull @Min(1) Long id,
+            @RequestParam(required = false) String fields) {
         
-        log.debug("GET /api/dogs/{}", id);
+        log.debug("GET /api/dogs/{} - fields: {}", id, fields);
         
-        DogProfile dogProfile = dogService.getDogProfile(id);
+        DogProfileResponseDto dogProfile = dogService.getDogProfile(
+            id, FieldSelection.parse(fields, DogProfileResponseDto.class));
         
         return ResponseEntity.ok(ApiResponse.success(dogProfile));
     }
     
     @PostMapping
-    public ResponseEntity<ApiResponse<DogProfile>> createDogProfile(
+    public ResponseEntity<ApiResponse<DogProfileResponseDto>> createDogProfile(
             @RequestBody @Valid OnboardingDto onboardingDto) {
         
-        log.info("POST /api/dogs - Creating dog: {}", onboardingDto.getDogName());
+        log.debug("POST /api/dogs - Creating dog: {}", onboardingDto.getDogName());
         
         DogProfile dogProfile = dogService.createDogProfile(onboardingDto);
         
         return ResponseEntity.status(HttpStatus.CREATED)
-            .body(ApiResponse.success(dogProfile, "Dog profile created successfully"));
+            .body(ApiResponse.success(DogProfileResponseDto.from(dogProfile), "Dog profile created successfully"));
     }
     
     @PutMapping("/{id}")
-    public ResponseEntity<ApiResponse<DogProfile>> updateDogProfile(
+    public ResponseEntity<ApiResponse<DogProfileResponseDto>> updateDogProfile(
             @PathVariable @NotNull @Min(1) Long id,
             @RequestBody @Valid OnboardingDto onboardingDto) {
         
-        log.info("PUT /api/dogs/{} - Updating dog: {}", id, onboardingDto.getDogName());
+        log.debug("PUT /api/dogs/{} - Updating dog: {}", id, onboardingDto.getDogName());
         
         DogProfile dogProfile = dogService.updateDogProfile(id, onboardingDto);
         
-        return ResponseEntity.ok(ApiResponse.success(dogProfile, "Dog profile updated successfully"));
+        return ResponseEntity.ok(ApiResponse.success(DogProfileResponseDto.from(dogProfile), "Dog profile updated successfully"));
     }
     
     @GetMapping("/{id}/templates")
-    public ResponseEntity<ApiResponse<List<TaskTemplate>>> getTaskTemplates(
-            @PathVariable @NotNull @Min(1) Long id) {
+    @SparseFieldset(TaskTemplateResponseDto.class)
+    public ResponseEntity<ApiResponse<List<TaskTemplateResponseDto>>> getTaskTemplates(
+            @PathVariable @NotNull @Min(1) Long id,
+            @RequestParam(required = false) String fields) {
         
-        log.debug("GET /api/dogs/{}/templates", id);
+        log.debug("GET /api/dogs/{}/templates - fields: {}", id, fields);
         
-        List<TaskTemplate> templates = dogService.getTaskTemplates(id);
+        List<TaskTemplateResponseDto> templates = dogService.getTaskTemplates(
+            id, FieldSelection.parse(fields, TaskTemplateResponseDto.class));
         
         return ResponseEntity.ok(ApiResponse.success(templates));
     }
     
+    @GetMapping("/{id}/calendar")
+    public ResponseEntity<ApiResponse<List<CalendarDayDto>>> getCalendar(
+            @PathVariable @NotNull @Min(1) Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusDays(CALENDAR_DEFAULT_DAYS - 1);
+        
+        log.debug("GET /api/dogs/{}/calendar - from: {}, to: {}", id, start, end);
+        
+        List<CalendarDayDto> calendar = dogService.getCalendar(id, start, end);
+        
+        return ResponseEntity.ok(ApiResponse.success(calendar));
+    }
+    
+    @GetMapping("/{id}/schedule-suggestions")
+    public ResponseEntity<ApiResponse<ScheduleSuggestionsResponseDto>> getScheduleSuggestions(
+            @PathVariable @NotNull @Min(1) Long id) {
+        
+        log.debug("GET /api/dogs/{}/schedule-suggestions", id);
+        
+        return ResponseEntity.ok(ApiResponse.success(scheduleSuggestionService.getSuggestions(id)));
+    }
+    
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<ApiResponse<Void>> handleEntityNotFound(EntityNotFoundException ex) {
         log.warn("Entity not found: {}", ex.getMessage());
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
             .body(ApiResponse.error(ex.getMessage()));
     }
-} 
\ No newline at end of file
+    
+    @ExceptionHandler(InvalidRecurrenceRuleException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidRecurrenceRule(InvalidRecurrenceRuleException ex) {
+        log.warn("Invalid recurrence rule: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            .body(ApiResponse.error(ex.getMessage()));
+    }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIllegalArgument(IllegalArgumentException ex) {
+        log.warn("Invalid request: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            .body(ApiResponse.error(ex.getMessage()));
+    }
+}
@@ -0,0 +1,79 @@
+package com.EggTart.dyst.EggTart.controller;
+
+import com.EggTart.dyst.EggTart.dto.request.MeasurementDto;
+import com.EggTart.dyst.EggTart.dto.response.ApiResponse;
+import com.EggTart.dyst.EggTart.dto.response.MeasurementPointDto;
+import com.EggTart.dyst.EggTart.exception.EntityNotFoundException;
+import com.EggTart.dyst.EggTart.model.enums.MeasurementType;
+import com.EggTart.dyst.EggTart.service.MeasurementService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/dogs/{id}/measurements")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"})
+@Validated
+@RequiredArgsConstructor
+@Slf4j
+public class MeasurementController {
+    
+    private static final Duration MIN_RESOLUTION = Duration.ofMinutes(1);
+    
+    private final MeasurementService measurementService;
+    
+    @PostMapping
+    public ResponseEntity<ApiResponse<Integer>> recordMeasurements(
+            @PathVariable @NotNull @Min(1) Long id,
+            @RequestBody @NotEmpty @Size(max = 1000) List<@Valid MeasurementDto> measurements) {
+        
+        log.debug("POST /api/dogs/{}/measurements - {} readings", id, measurements.size());
+        
+        int recorded = measurementService.recordMeasurements(id, measurements);
+        
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .body(ApiResponse.success(recorded, "Measurements recorded successfully"));
+    }
+    
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<MeasurementPointDto>>> getSeries(
+            @PathVariable @NotNull @Min(1) Long id,
+            @RequestParam(defaultValue = "WEIGHT") MeasurementType type,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "P1D") Duration resolution) {
+        
+        log.debug("GET /api/dogs/{}/measurements - type: {}, from: {}, to: {}, resolution: {}",
+            id, type, from, to, resolution);
+        
+        Duration step = resolution.compareTo(MIN_RESOLUTION) < 0 ? MIN_RESOLUTION : resolution;
+        List<MeasurementPointDto> series = measurementService.getSeries(
+            id,
+            type,
+            from.atStartOfDay(),
+            (to != null ? to : LocalDate.now()).atTime(23, 59, 59),
+            step
+        );
+        
+        return ResponseEntity.ok(ApiResponse.success(series));
+    }
+    
+    @ExceptionHandler(EntityNotFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handleEntityNotFound(EntityNotFoundException ex) {
+        log.warn("Entity not found: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+            .body(ApiResponse.error(ex.getMessage()));
+    }
+}
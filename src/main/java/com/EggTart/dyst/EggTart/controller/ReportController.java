@@ -0,0 +1,109 @@
+package com.EggTart.dyst.EggTart.controller;
+
+import com.EggTart.dyst.EggTart.dto.request.ReportRequestDto;
+import com.EggTart.dyst.EggTart.dto.response.ApiResponse;
+import com.EggTart.dyst.EggTart.dto.response.ReportJobResponseDto;
+import com.EggTart.dyst.EggTart.exception.EntityNotFoundException;
+import com.EggTart.dyst.EggTart.exception.ReportCapacityExceededException;
+import com.EggTart.dyst.EggTart.exception.ReportNotReadyException;
+import com.EggTart.dyst.EggTart.model.entity.ReportJob;
+import com.EggTart.dyst.EggTart.report.ReportJobService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"})
+@Validated
+@RequiredArgsConstructor
+@Slf4j
+public class ReportController {
+    
+    private static final String RETRY_AFTER_SECONDS = "30";
+    
+    private final ReportJobService reportJobService;
+    
+    @PostMapping
+    public ResponseEntity<ApiResponse<ReportJobResponseDto>> requestReport(
+            @RequestBody @Valid ReportRequestDto reportRequestDto) {
+        
+        log.debug("POST /api/reports - dogId: {}, from: {}, to: {}, format: {}", reportRequestDto.getDogId(),
+            reportRequestDto.getFrom(), reportRequestDto.getTo(), reportRequestDto.getFormat());
+        
+        ReportJob job = reportJobService.submit(reportRequestDto);
+        
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .header(HttpHeaders.LOCATION, "/api/reports/" + job.getId())
+            .body(ApiResponse.success(ReportJobResponseDto.from(job), "Report queued"));
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<ReportJobResponseDto>> getReport(
+            @PathVariable @NotNull @Min(1) Long id) {
+        
+        log.debug("GET /api/reports/{}", id);
+        
+        ReportJob job = reportJobService.getJob(id);
+        
+        return ResponseEntity.ok(ApiResponse.success(ReportJobResponseDto.from(job)));
+    }
+    
+    @GetMapping("/{id}/download")
+    public ResponseEntity<Resource> downloadReport(
+            @PathVariable @NotNull @Min(1) Long id) {
+        
+        log.debug("GET /api/reports/{}/download", id);
+        
+        ReportJob job = reportJobService.getJob(id);
+        Resource report = reportJobService.download(job);
+        String filename = String.format("care-summary-%d-%s-%s.%s",
+            job.getDogId(), job.getFromDate(), job.getToDate(), job.getFormat().getExtension());
+        
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(job.getFormat().getContentType()))
+            .contentLength(job.getFileSize())
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+            .body(report);
+    }
+    
+    @ExceptionHandler(EntityNotFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handleEntityNotFound(EntityNotFoundException ex) {
+        log.warn("Entity not found: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+            .body(ApiResponse.error(ex.getMessage()));
+    }
+    
+    @ExceptionHandler(ReportNotReadyException.class)
+    public ResponseEntity<ApiResponse<Void>> handleReportNotReady(ReportNotReadyException ex) {
+        log.debug("Report not ready: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .body(ApiResponse.error(ex.getMessage()));
+    }
+    
+    @ExceptionHandler(ReportCapacityExceededException.class)
+    public ResponseEntity<ApiResponse<Void>> handleCapacityExceeded(ReportCapacityExceededException ex) {
+        log.warn("Report rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+            .body(ApiResponse.error(ex.getMessage()));
+    }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIllegalArgument(IllegalArgumentException ex) {
+        log.warn("Invalid request: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            .body(ApiResponse.error(ex.getMessage()));
+    }
+}
@@ -0,0 +1,35 @@
+package com.EggTart.dyst.EggTart.controller;
+
+import com.EggTart.dyst.EggTart.dto.response.ApiResponse;
+import com.EggTart.dyst.EggTart.dto.response.TaskStatsResponseDto;
+import com.EggTart.dyst.EggTart.service.TaskStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"})
+@RequiredArgsConstructor
+@Slf4j
+public class StatsController {
+    
+    private final TaskStatsService taskStatsService;
+    
+    @GetMapping("/tasks")
+    public ResponseEntity<ApiResponse<TaskStatsResponseDto>> getTaskStats(
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        
+        log.debug("GET /api/stats/tasks - date: {}", date);
+        
+        LocalDate targetDate = date != null ? date : LocalDate.now();
+        return ResponseEntity.ok(ApiResponse.success(taskStatsService.getTaskStats(targetDate)));
+    }
+}
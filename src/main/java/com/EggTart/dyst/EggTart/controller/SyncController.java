@@ -0,0 +1,70 @@
+package com.EggTart.dyst.EggTart.controller;
+
+import com.EggTart.dyst.EggTart.dto.request.SyncRequestDto;
+import com.EggTart.dyst.EggTart.dto.response.ApiResponse;
+import com.EggTart.dyst.EggTart.dto.response.SyncResponseDto;
+import com.EggTart.dyst.EggTart.exception.EntityNotFoundException;
+import com.EggTart.dyst.EggTart.exception.InvalidSyncCursorException;
+import com.EggTart.dyst.EggTart.service.SyncService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"})
+@Validated
+@RequiredArgsConstructor
+@Slf4j
+public class SyncController {
+    
+    private final SyncService syncService;
+    
+    @GetMapping
+    public ResponseEntity<ApiResponse<SyncResponseDto>> pull(
+            @RequestParam @NotNull @Min(1) Long dogId,
+            @RequestParam(required = false) String cursor) {
+        
+        log.debug("GET /api/sync - dogId: {}, cursor: {}", dogId, cursor);
+        
+        SyncResponseDto response = syncService.sync(SyncRequestDto.builder()
+            .dogId(dogId)
+            .cursor(cursor)
+            .build());
+        
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
+    @PostMapping
+    public ResponseEntity<ApiResponse<SyncResponseDto>> pushAndPull(
+            @RequestBody @Valid SyncRequestDto syncRequest) {
+        
+        log.debug("POST /api/sync - dogId: {}, operations: {}", syncRequest.getDogId(),
+            syncRequest.getOperations() != null ? syncRequest.getOperations().size() : 0);
+        
+        SyncResponseDto response = syncService.sync(syncRequest);
+        
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
+    @ExceptionHandler(EntityNotFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handleEntityNotFound(EntityNotFoundException ex) {
+        log.warn("Entity not found: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+            .body(ApiResponse.error(ex.getMessage()));
+    }
+    
+    @ExceptionHandler(InvalidSyncCursorException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidCursor(InvalidSyncCursorException ex) {
+        log.warn("Invalid sync cursor: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            .body(ApiResponse.error(ex.getMessage()));
+    }
+}
@@ -6,11 +6,15 @@ import com.EggTart.dyst.EggTart.dto.response.ApiResponse;
 import com.EggTart.dyst.EggTart.dto.response.TaskInstanceResponseDto;
 import com.EggTart.dyst.EggTart.exception.EntityNotFoundException;
 import com.EggTart.dyst.EggTart.exception.InvalidTaskStateException;
+import com.EggTart.dyst.EggTart.projection.FieldSelection;
+import com.EggTart.dyst.EggTart.projection.SparseFieldset;
 import com.EggTart.dyst.EggTart.service.TaskService;
+import com.EggTart.dyst.EggTart.service.TaskTransitions;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +26,7 @@ import java.time.LocalDate;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/tasks")
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"})
 @Validated
@@ -30,18 +35,22 @@ import java.util.List;
 public class TaskController {
     
     private final TaskService taskService;
+    private final TaskTransitions taskTransitions;
     
     @GetMapping
+    @SparseFieldset(TaskInstanceResponseDto.class)
     public ResponseEntity<ApiResponse<List<TaskInstanceResponseDto>>> getTasks(
             @RequestParam @NotNull @Min(1) Long dogId,
             @RequestParam(required = false) 
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String fields) {
         
-        log.debug("GET /api/tasks - dogId: {}, date: {}", dogId, date);
+        log.debug("GET /api/tasks - dogId: {}, date: {}, fields: {}", dogId, date, fields);
         
+        FieldSelection selection = FieldSelection.parse(fields, TaskInstanceResponseDto.class);
         List<TaskInstanceResponseDto> tasks = date != null 
-            ? taskService.getTasksForDate(dogId, date)
-            : taskService.getTodayTasks(dogId);
+            ? taskService.getTasksForDate(dogId, date, selection)
+            : taskService.getTodayTasks(dogId, selection);
         
         return ResponseEntity.ok(ApiResponse.success(tasks));
     }
@@ -50,9 +59,9 @@ public class TaskController {
     public ResponseEntity<ApiResponse<TaskInstanceResponseDto>> startTask(
             @PathVariable @NotNull @Min(1) Long id) {
         
-        log.info("POST /api/tasks/{}/start", id);
+        log.debug("POST /api/tasks/{}/start", id);
         
-        TaskInstanceResponseDto task = taskService.startTask(id);
+        TaskInstanceResponseDto task = taskTransitions.startTask(id);
         
         return ResponseEntity.ok(ApiResponse.success(task));
     }
@@ -62,9 +71,9 @@ public class TaskController {
             @PathVariable @NotNull @Min(1) Long id,
             @RequestBody(required = false) @Valid WalkRecordDto walkRecordDto) {
         
-        log.info("POST /api/tasks/{}/complete", id);
+        log.debug("POST /api/tasks/{}/complete", id);
         
-        TaskInstanceResponseDto task = taskService.completeTask(id, walkRecordDto);
+        TaskInstanceResponseDto task = taskTransitions.completeTask(id, walkRecordDto);
         
         return ResponseEntity.ok(ApiResponse.success(task));
     }
@@ -74,9 +83,9 @@ public class TaskController {
             @PathVariable @NotNull @Min(1) Long id,
             @RequestBody @Valid DelayTaskDto delayDto) {
         
-        log.info("POST /api/tasks/{}/delay - minutes: {}", id, delayDto.getDelayMinutes());
+        log.debug("POST /api/tasks/{}/delay - minutes: {}", id, delayDto.getDelayMinutes());
         
-        TaskInstanceResponseDto task = taskService.delayTask(id, delayDto.getDelayMinutes());
+        TaskInstanceResponseDto task = taskTransitions.delayTask(id, delayDto.getDelayMinutes());
         
         return ResponseEntity.ok(ApiResponse.success(task));
     }
@@ -85,9 +94,9 @@ public class TaskController {
     public ResponseEntity<ApiResponse<TaskInstanceResponseDto>> skipTask(
             @PathVariable @NotNull @Min(1) Long id) {
         
-        log.info("POST /api/tasks/{}/skip", id);
+        log.debug("POST /api/tasks/{}/skip", id);
         
-        TaskInstanceResponseDto task = taskService.skipTask(id);
+        TaskInstanceResponseDto task = taskTransitions.skipTask(id);
         
         return ResponseEntity.ok(ApiResponse.success(task));
     }
@@ -105,4 +114,11 @@ public class TaskController {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
             .body(ApiResponse.error(ex.getMessage()));
     }
-} 
\ No newline at end of file
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIllegalArgument(IllegalArgumentException ex) {
+        log.warn("Invalid request: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            .body(ApiResponse.error(ex.getMessage()));
+    }
+}
@@ -0,0 +1,60 @@
+package com.EggTart.dyst.EggTart.controller;
+
+import com.EggTart.dyst.EggTart.dto.response.ApiResponse;
+import com.EggTart.dyst.EggTart.dto.response.WalkSearchResultDto;
+import com.EggTart.dyst.EggTart.service.WalkSearchService;
+import jakarta.validation.constraints.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/walks")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"})
+@Validated
+@RequiredArgsConstructor
+@Slf4j
+public class WalkController {
+    
+    private final WalkSearchService walkSearchService;
+    
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<WalkSearchResultDto>>> searchWalks(
+            @RequestParam @NotBlank @Size(max = 200) String q,
+            @RequestParam(required = false) @Min(1) Long dogId,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(200) int limit) {
+        
+        log.debug("GET /api/walks/search - q: {}, dogId: {}, from: {}, to: {}", q, dogId, from, to);
+        
+        List<WalkSearchResultDto> results = walkSearchService.searchWalks(
+            q,
+            dogId,
+            from != null ? from.atStartOfDay() : null,
+            to != null ? to.atTime(23, 59, 59) : null,
+            limit
+        );
+        
+        return ResponseEntity.ok(ApiResponse.success(results));
+    }
+    
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<ApiResponse<Integer>> rebuildIndex() {
+        log.info("POST /api/walks/search/rebuild");
+        
+        int documents = walkSearchService.rebuildIndex();
+        
+        return ResponseEntity.ok(ApiResponse.success(documents, "Walk note index rebuilt"));
+    }
+}
@@ -0,0 +1,46 @@
+package com.EggTart.dyst.EggTart.controller;
+
+import com.EggTart.dyst.EggTart.dto.request.WalkPlanRequestDto;
+import com.EggTart.dyst.EggTart.dto.response.ApiResponse;
+import com.EggTart.dyst.EggTart.dto.response.WalkPlanResponseDto;
+import com.EggTart.dyst.EggTart.service.WalkPlanService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/walk-plans")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"})
+@Validated
+@RequiredArgsConstructor
+@Slf4j
+public class WalkPlanController {
+    
+    private final WalkPlanService walkPlanService;
+    
+    @PostMapping
+    public ResponseEntity<ApiResponse<WalkPlanResponseDto>> planWalks(
+            @RequestBody @Valid WalkPlanRequestDto walkPlanRequestDto) {
+        
+        log.debug("POST /api/walk-plans - date: {}, dogs: {}, apply: {}",
+            walkPlanRequestDto.getDate(), walkPlanRequestDto.getDogIds().size(), walkPlanRequestDto.isApply());
+        
+        WalkPlanResponseDto plan = walkPlanService.plan(walkPlanRequestDto);
+        
+        return ResponseEntity.ok(ApiResponse.success(plan,
+            plan.getRescheduled() != null ? "Walk plan applied" : "Walk plan computed"));
+    }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIllegalArgument(IllegalArgumentException ex) {
+        log.warn("Invalid walk plan request: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            .body(ApiResponse.error(ex.getMessage()));
+    }
+}
@@ -0,0 +1,27 @@
+package com.EggTart.dyst.EggTart.dto.request;
+
+import com.EggTart.dyst.EggTart.model.enums.MeasurementType;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MeasurementDto {
+    
+    @NotNull(message = "Measurement type is required")
+    private MeasurementType type;
+    
+    @NotNull(message = "Value is required")
+    @Positive(message = "Value must be positive")
+    private Double value;
+    
+    // Defaults to the time the reading is received
+    @PastOrPresent(message = "Recorded time cannot be in the future")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime recordedAt;
+}
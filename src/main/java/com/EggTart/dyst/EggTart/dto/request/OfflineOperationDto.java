@@ -0,0 +1,34 @@
+package com.EggTart.dyst.EggTart.dto.request;
+
+import com.EggTart.dyst.EggTart.model.enums.SyncAction;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OfflineOperationDto {
+    
+    @NotNull(message = "Task ID is required")
+    @Min(value = 1, message = "Task ID must be positive")
+    private Long taskId;
+    
+    @NotNull(message = "Action is required")
+    private SyncAction action;
+    
+    @NotNull(message = "Occurred at is required")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime occurredAt;
+    
+    @Min(value = 1, message = "Delay must be at least 1 minute")
+    @Max(value = 1440, message = "Delay cannot exceed 24 hours")
+    private Integer delayMinutes;
+    
+    @Valid
+    private WalkRecordDto walkRecord;
+}
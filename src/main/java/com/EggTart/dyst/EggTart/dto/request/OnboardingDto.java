@@ -1,6 +1,7 @@
 package com.EggTart.dyst.EggTart.dto.request;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.*;
 
@@ -36,4 +37,8 @@ public class OnboardingDto {
     
     @Size(max = 5, message = "Maximum 5 drink times allowed")
     private List<@NotNull LocalTime> drinkTimes;
+    
+    // Templates that do not repeat every day, such as weekend walks or medication
+    @Size(max = 20, message = "Maximum 20 scheduled templates allowed")
+    private List<@NotNull @Valid TemplateScheduleDto> schedules;
 } 
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.EggTart.dyst.EggTart.dto.request;
+
+import com.EggTart.dyst.EggTart.model.enums.ReportFormat;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportRequestDto {
+    
+    @NotNull(message = "Dog ID is required")
+    @Min(value = 1, message = "Dog ID must be positive")
+    private Long dogId;
+    
+    @NotNull(message = "Start date is required")
+    private LocalDate from;
+    
+    @NotNull(message = "End date is required")
+    private LocalDate to;
+    
+    @Builder.Default
+    private ReportFormat format = ReportFormat.CSV;
+}
@@ -0,0 +1,23 @@
+package com.EggTart.dyst.EggTart.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncRequestDto {
+    
+    @NotNull(message = "Dog ID is required")
+    @Min(value = 1, message = "Dog ID must be positive")
+    private Long dogId;
+    
+    private String cursor;
+    
+    @Size(max = 500, message = "Maximum 500 queued operations per sync")
+    private List<@Valid @NotNull OfflineOperationDto> operations;
+}
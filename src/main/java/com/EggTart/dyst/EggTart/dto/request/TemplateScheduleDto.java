@@ -0,0 +1,24 @@
+package com.EggTart.dyst.EggTart.dto.request;
+
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.time.LocalTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TemplateScheduleDto {
+    
+    @NotNull(message = "Task type is required")
+    private TaskType type;
+    
+    @NotNull(message = "Time is required")
+    private LocalTime time;
+    
+    // e.g. FREQ=WEEKLY;BYDAY=SA,SU or FREQ=DAILY;INTERVAL=3
+    @Size(max = 200, message = "Recurrence rule must be at most 200 characters")
+    private String recurrence;
+}
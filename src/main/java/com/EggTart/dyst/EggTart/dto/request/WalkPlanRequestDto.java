@@ -0,0 +1,44 @@
+package com.EggTart.dyst.EggTart.dto.request;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalkPlanRequestDto {
+    
+    @NotNull(message = "Date is required")
+    private LocalDate date;
+    
+    @NotEmpty(message = "At least one dog is required")
+    @Size(max = 2000, message = "Maximum 2000 dogs per plan")
+    private List<@NotNull Long> dogIds;
+    
+    // Planner defaults apply to the settings left out
+    @Min(value = 1, message = "Group size must be at least 1")
+    @Max(value = 20, message = "Group size must be at most 20")
+    private Integer maxGroupSize;
+    
+    @Min(value = 0, message = "Window must not be negative")
+    @Max(value = 240, message = "Window must be at most 240 minutes")
+    private Integer windowMinutes;
+    
+    @Min(value = 5, message = "Walk length must be at least 5 minutes")
+    @Max(value = 240, message = "Walk length must be at most 240 minutes")
+    private Integer walkMinutes;
+    
+    // Pairs of dog IDs that must not walk together
+    @Size(max = 10000, message = "Maximum 10000 incompatible pairs")
+    private List<@NotNull @Size(min = 2, max = 2) List<@NotNull Long>> incompatibleDogs;
+    
+    @Min(value = 10, message = "Time budget must be at least 10 ms")
+    private Long timeBudgetMs;
+    
+    // Reschedules the walks to their group times when set
+    private boolean apply;
+}
@@ -0,0 +1,20 @@
+package com.EggTart.dyst.EggTart.dto.response;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The templates that occur on one calendar day, ordered by time.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarDayDto {
+    
+    private LocalDate date;
+    
+    private List<TaskTemplateResponseDto> tasks;
+}
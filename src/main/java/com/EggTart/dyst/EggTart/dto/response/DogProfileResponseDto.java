@@ -0,0 +1,75 @@
+package com.EggTart.dyst.EggTart.dto.response;
+
+import com.EggTart.dyst.EggTart.model.entity.DogProfile;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.persistence.Tuple;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter("dogProfileFields")
+public class DogProfileResponseDto {
+    
+    private Long id;
+    
+    private String name;
+    
+    private Integer ageMo;
+    
+    private BigDecimal weight;
+    
+    private Boolean puppyFlag;
+    
+    private Integer mealOffsetMinutes;
+    
+    private Integer drinkOffsetMinutes;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime updatedAt;
+    
+    /** Only set by the profile endpoint; sync sends templates separately. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<TaskTemplateResponseDto> taskTemplates;
+    
+    // Conversion methods
+    public static DogProfileResponseDto from(DogProfile entity) {
+        return DogProfileResponseDto.builder()
+            .id(entity.getId())
+            .name(entity.getName())
+            .ageMo(entity.getAgeMo())
+            .weight(entity.getWeight())
+            .puppyFlag(entity.getPuppyFlag())
+            .mealOffsetMinutes(entity.getMealOffsetMinutes())
+            .drinkOffsetMinutes(entity.getDrinkOffsetMinutes())
+            .updatedAt(entity.getUpdatedAt())
+            .build();
+    }
+    
+    /** Builds a partial DTO from a projection selecting the given fields, aliased by name. */
+    public static DogProfileResponseDto from(Tuple tuple, Collection<String> fields) {
+        DogProfileResponseDto dto = new DogProfileResponseDto();
+        for (String field : fields) {
+            switch (field) {
+                case "id" -> dto.setId(tuple.get(field, Long.class));
+                case "name" -> dto.setName(tuple.get(field, String.class));
+                case "ageMo" -> dto.setAgeMo(tuple.get(field, Integer.class));
+                case "weight" -> dto.setWeight(tuple.get(field, BigDecimal.class));
+                case "puppyFlag" -> dto.setPuppyFlag(tuple.get(field, Boolean.class));
+                case "mealOffsetMinutes" -> dto.setMealOffsetMinutes(tuple.get(field, Integer.class));
+                case "drinkOffsetMinutes" -> dto.setDrinkOffsetMinutes(tuple.get(field, Integer.class));
+                case "updatedAt" -> dto.setUpdatedAt(tuple.get(field, LocalDateTime.class));
+                default -> throw new IllegalArgumentException("Unknown dog profile field: " + field);
+            }
+        }
+        return dto;
+    }
+}
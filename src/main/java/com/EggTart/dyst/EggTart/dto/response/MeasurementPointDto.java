@@ -0,0 +1,29 @@
+package com.EggTart.dyst.EggTart.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One downsampled bucket of a measurement series.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MeasurementPointDto {
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime bucketStart;
+    
+    private Integer count;
+    
+    private Double min;
+    
+    private Double max;
+    
+    private Double avg;
+    
+    private Double last;
+}
@@ -0,0 +1,50 @@
+package com.EggTart.dyst.EggTart.dto.response;
+
+import com.EggTart.dyst.EggTart.model.entity.ReportJob;
+import com.EggTart.dyst.EggTart.model.enums.ReportFormat;
+import com.EggTart.dyst.EggTart.model.enums.ReportStatus;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobResponseDto {
+    
+    private Long id;
+    private Long dogId;
+    private ReportFormat format;
+    private LocalDate from;
+    private LocalDate to;
+    private ReportStatus status;
+    private Integer daysWritten;
+    private Long fileSize;
+    private String errorMessage;
+    private String downloadUrl;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    
+    public static ReportJobResponseDto from(ReportJob job) {
+        return ReportJobResponseDto.builder()
+            .id(job.getId())
+            .dogId(job.getDogId())
+            .format(job.getFormat())
+            .from(job.getFromDate())
+            .to(job.getToDate())
+            .status(job.getStatus())
+            .daysWritten(job.getDaysWritten())
+            .fileSize(job.getFileSize())
+            .errorMessage(job.getErrorMessage())
+            .downloadUrl(job.getStatus() == ReportStatus.COMPLETED
+                ? String.format("/api/reports/%d/download", job.getId())
+                : null)
+            .createdAt(job.getCreatedAt())
+            .startedAt(job.getStartedAt())
+            .finishedAt(job.getFinishedAt())
+            .build();
+    }
+}
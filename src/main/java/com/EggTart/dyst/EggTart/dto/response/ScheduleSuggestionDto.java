@@ -0,0 +1,38 @@
+package com.EggTart.dyst.EggTart.dto.response;
+
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+
+import java.time.LocalTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleSuggestionDto {
+    
+    private Long templateId;
+    
+    private TaskType type;
+    
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime currentTime;
+    
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime suggestedTime;
+    
+    private Integer shiftMinutes;
+    
+    private Long samples;
+    
+    private Integer medianStartOffsetMinutes;
+    
+    private Integer p90StartOffsetMinutes;
+    
+    private Integer medianDelayMinutes;
+    
+    private Double delayRate;
+    
+    private Double skipRate;
+}
@@ -0,0 +1,25 @@
+package com.EggTart.dyst.EggTart.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleSuggestionsResponseDto {
+    
+    private Long dogId;
+    
+    // Across all of the dog's templates
+    private Long samples;
+    
+    private Integer medianStartOffsetMinutes;
+    
+    private Double delayRate;
+    
+    private Double skipRate;
+    
+    private List<ScheduleSuggestionDto> suggestions;
+}
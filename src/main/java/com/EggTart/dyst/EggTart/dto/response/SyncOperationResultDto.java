@@ -0,0 +1,20 @@
+package com.EggTart.dyst.EggTart.dto.response;
+
+import com.EggTart.dyst.EggTart.model.enums.SyncAction;
+import com.EggTart.dyst.EggTart.model.enums.SyncOutcome;
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncOperationResultDto {
+    
+    private Long taskId;
+    
+    private SyncAction action;
+    
+    private SyncOutcome outcome;
+    
+    private String message;
+}
@@ -0,0 +1,26 @@
+package com.EggTart.dyst.EggTart.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponseDto {
+    
+    private String cursor;
+    
+    private DogProfileResponseDto dog;
+    
+    private List<TaskTemplateResponseDto> templates;
+    
+    private List<TaskInstanceResponseDto> tasks;
+    
+    private List<Long> deletedTemplateIds;
+    
+    private List<Long> deletedTaskIds;
+    
+    private List<SyncOperationResultDto> operationResults;
+}
@@ -3,21 +3,27 @@ package com.EggTart.dyst.EggTart.dto.response;
 import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
 import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
 import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.Tuple;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonFilter("taskInstanceFields")
 public class TaskInstanceResponseDto {
     
     @NotNull(message = "Task ID is required")
     private Long id;
     
+    private Long dogId;
+    
     @NotNull(message = "Task type is required")
     private TaskType type;
     
@@ -41,6 +47,7 @@ public class TaskInstanceResponseDto {
     public static TaskInstanceResponseDto from(TaskInstance entity) {
         return TaskInstanceResponseDto.builder()
             .id(entity.getId())
+            .dogId(entity.getDogId())
             .type(entity.getType())
             .scheduledTime(entity.getScheduledTime())
             .status(entity.getStatus())
@@ -49,4 +56,23 @@ public class TaskInstanceResponseDto {
             .countdownStartTime(entity.getCountdownStartTime())
             .build();
     }
-} 
\ No newline at end of file
+    
+    /** Builds a partial DTO from a projection selecting the given fields, aliased by name. */
+    public static TaskInstanceResponseDto from(Tuple tuple, Collection<String> fields) {
+        TaskInstanceResponseDto dto = new TaskInstanceResponseDto();
+        for (String field : fields) {
+            switch (field) {
+                case "id" -> dto.setId(tuple.get(field, Long.class));
+                case "dogId" -> dto.setDogId(tuple.get(field, Long.class));
+                case "type" -> dto.setType(tuple.get(field, TaskType.class));
+                case "scheduledTime" -> dto.setScheduledTime(tuple.get(field, LocalDateTime.class));
+                case "status" -> dto.setStatus(tuple.get(field, TaskStatus.class));
+                case "startTime" -> dto.setStartTime(tuple.get(field, LocalDateTime.class));
+                case "endTime" -> dto.setEndTime(tuple.get(field, LocalDateTime.class));
+                case "countdownStartTime" -> dto.setCountdownStartTime(tuple.get(field, LocalDateTime.class));
+                default -> throw new IllegalArgumentException("Unknown task field: " + field);
+            }
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,23 @@
+package com.EggTart.dyst.EggTart.dto.response;
+
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatsResponseDto {
+    
+    private LocalDate date;
+    
+    private Map<TaskStatus, Long> byStatus;
+    
+    private Map<TaskType, Map<TaskStatus, Long>> byTypeAndStatus;
+    
+    private Map<TaskStatus, Long> totalByStatus;
+}
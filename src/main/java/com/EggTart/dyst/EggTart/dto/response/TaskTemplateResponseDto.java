@@ -0,0 +1,57 @@
+package com.EggTart.dyst.EggTart.dto.response;
+
+import com.EggTart.dyst.EggTart.model.entity.TaskTemplate;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.Tuple;
+import lombok.*;
+
+import java.time.LocalTime;
+import java.util.Collection;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter("taskTemplateFields")
+public class TaskTemplateResponseDto {
+    
+    private Long id;
+    
+    private Long dogId;
+    
+    private TaskType type;
+    
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime defaultTime;
+    
+    private String recurrence;
+    
+    // Conversion methods
+    public static TaskTemplateResponseDto from(TaskTemplate entity) {
+        return TaskTemplateResponseDto.builder()
+            .id(entity.getId())
+            .dogId(entity.getDogId())
+            .type(entity.getType())
+            .defaultTime(entity.getDefaultTime())
+            .recurrence(entity.getRecurrence())
+            .build();
+    }
+    
+    /** Builds a partial DTO from a projection selecting the given fields, aliased by name. */
+    public static TaskTemplateResponseDto from(Tuple tuple, Collection<String> fields) {
+        TaskTemplateResponseDto dto = new TaskTemplateResponseDto();
+        for (String field : fields) {
+            switch (field) {
+                case "id" -> dto.setId(tuple.get(field, Long.class));
+                case "dogId" -> dto.setDogId(tuple.get(field, Long.class));
+                case "type" -> dto.setType(tuple.get(field, TaskType.class));
+                case "defaultTime" -> dto.setDefaultTime(tuple.get(field, LocalTime.class));
+                case "recurrence" -> dto.setRecurrence(tuple.get(field, String.class));
+                default -> throw new IllegalArgumentException("Unknown template field: " + field);
+            }
+        }
+        return dto;
+    }
+}
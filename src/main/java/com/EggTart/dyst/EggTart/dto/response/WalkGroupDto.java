@@ -0,0 +1,23 @@
+package com.EggTart.dyst.EggTart.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalkGroupDto {
+    
+    private Integer walker;
+    
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime startTime;
+    
+    private List<Long> dogIds;
+    
+    private List<Long> taskIds;
+}
@@ -0,0 +1,32 @@
+package com.EggTart.dyst.EggTart.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalkPlanResponseDto {
+    
+    private LocalDate date;
+    
+    private Integer walks;
+    
+    private Integer walkers;
+    
+    private Long totalShiftMinutes;
+    
+    private Long iterations;
+    
+    private Long planningMillis;
+    
+    // Only set when the plan was applied
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer rescheduled;
+    
+    private List<WalkGroupDto> groups;
+}
@@ -0,0 +1,42 @@
+package com.EggTart.dyst.EggTart.dto.response;
+
+import com.EggTart.dyst.EggTart.model.enums.Mood;
+import com.EggTart.dyst.EggTart.projection.WalkDetail;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalkSearchResultDto {
+    
+    private Long walkRecordId;
+    
+    private Long taskId;
+    
+    private Long dogId;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime startTime;
+    
+    private Mood mood;
+    
+    private String notes;
+    
+    private double score;
+    
+    public static WalkSearchResultDto from(WalkDetail record, double score) {
+        return WalkSearchResultDto.builder()
+            .walkRecordId(record.id())
+            .taskId(record.taskId())
+            .dogId(record.dogId())
+            .startTime(record.startTime())
+            .mood(record.mood())
+            .notes(record.notes())
+            .score(score)
+            .build();
+    }
+}
@@ -0,0 +1,10 @@
+package com.EggTart.dyst.EggTart.event;
+
+/**
+ * Published whenever a dog's profile or task templates change, including
+ * the monthly age roll-forward.
+ */
+public record DogProfileChangedEvent(
+    Long dogId
+) {
+}
@@ -0,0 +1,28 @@
+package com.EggTart.dyst.EggTart.event;
+
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Published whenever a task instance changes status or scheduled time, is
+ * created (in which case the previous values are null) or is deleted (in
+ * which case status, day and scheduled time are null). Start time is set once
+ * the task has been started.
+ */
+public record TaskTransitionEvent(
+    Long taskId,
+    Long dogId,
+    Long templateId,
+    TaskType type,
+    TaskStatus previousStatus,
+    LocalDate previousDay,
+    TaskStatus status,
+    LocalDate day,
+    LocalDateTime previousScheduledTime,
+    LocalDateTime scheduledTime,
+    LocalDateTime startTime
+) {
+}
@@ -0,0 +1,17 @@
+package com.EggTart.dyst.EggTart.event;
+
+import com.EggTart.dyst.EggTart.model.enums.Mood;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by TaskService whenever a walk record is persisted.
+ */
+public record WalkRecordCreatedEvent(
+    Long walkRecordId,
+    Long dogId,
+    LocalDateTime startTime,
+    Mood mood,
+    String notes
+) {
+}
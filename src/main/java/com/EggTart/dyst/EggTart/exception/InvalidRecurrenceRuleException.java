@@ -0,0 +1,8 @@
+package com.EggTart.dyst.EggTart.exception;
+
+public class InvalidRecurrenceRuleException extends EggTartException {
+    
+    public InvalidRecurrenceRuleException(String rule, String reason) {
+        super(String.format("Invalid recurrence rule '%s': %s", rule, reason));
+    }
+}
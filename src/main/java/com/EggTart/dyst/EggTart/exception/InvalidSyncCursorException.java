@@ -0,0 +1,8 @@
+package com.EggTart.dyst.EggTart.exception;
+
+public class InvalidSyncCursorException extends EggTartException {
+    
+    public InvalidSyncCursorException(String cursor) {
+        super(String.format("Invalid sync cursor: %s", cursor));
+    }
+}
@@ -0,0 +1,8 @@
+package com.EggTart.dyst.EggTart.exception;
+
+public class ReportCapacityExceededException extends EggTartException {
+    
+    public ReportCapacityExceededException(String message) {
+        super(message);
+    }
+}
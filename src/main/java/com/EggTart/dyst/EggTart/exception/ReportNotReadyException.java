@@ -0,0 +1,10 @@
+package com.EggTart.dyst.EggTart.exception;
+
+import com.EggTart.dyst.EggTart.model.enums.ReportStatus;
+
+public class ReportNotReadyException extends EggTartException {
+    
+    public ReportNotReadyException(Long reportId, ReportStatus status) {
+        super(String.format("Report %s is not ready for download, status: %s", reportId, status));
+    }
+}
@@ -0,0 +1,286 @@
+package com.EggTart.dyst.EggTart.idempotency;
+
+import com.EggTart.dyst.EggTart.dto.response.ApiResponse;
+import com.EggTart.dyst.EggTart.model.entity.IdempotencyRecord;
+import com.EggTart.dyst.EggTart.model.enums.IdempotencyState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Idempotency-Key support for mutating API calls.
+ *
+ * The first request with a key runs normally and its response is stored.
+ * Retries with the same key get that response back, marked with an
+ * Idempotent-Replayed header, without running again. A key is tied to the
+ * method, path and a hash of the body it was first used with; reusing it
+ * for anything else is rejected. Server errors, 409 and 429 are not stored,
+ * so those can be retried for real.
+ *
+ * Before running, a request reserves its key in the store, which admits one
+ * request per key across all instances; a request finding the key reserved
+ * elsewhere gets 409. Requests sharing a key on one instance are also
+ * serialised in memory, so a retry arriving while the original still runs
+ * here waits for it and then replays it.
+ */
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+    
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    
+    private final IdempotencyStore store;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ConcurrentMap<String, KeyLock> locks = new ConcurrentHashMap<>();
+    private final Counter replayed;
+    private final Counter conflicts;
+    
+    public IdempotencyFilter(IdempotencyStore store, IdempotencyProperties properties, ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry) {
+        this.store = store;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.replayed = Counter.builder("eggtart.idempotency.replayed").register(meterRegistry);
+        this.conflicts = Counter.builder("eggtart.idempotency.conflicts").register(meterRegistry);
+        Gauge.builder("eggtart.idempotency.cached", store, IdempotencyStore::cachedEntries)
+            .register(meterRegistry);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/")
+            || !MUTATING_METHODS.contains(request.getMethod())
+            || request.getHeader(KEY_HEADER) == null;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getHeader(KEY_HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        byte[] body = request.getInputStream().readAllBytes();
+        String fingerprint = request.getMethod() + " " + request.getRequestURI() + " " + sha256(body);
+        
+        KeyLock keyLock = acquire(key);
+        if (keyLock == null) {
+            conflicts.increment();
+            writeError(response, HttpStatus.CONFLICT,
+                "A request with this " + KEY_HEADER + " is still in progress");
+            return;
+        }
+        
+        try {
+            Optional<IdempotencyRecord> stored = store.find(key);
+            if (stored.isPresent()) {
+                replay(stored.get(), fingerprint, response);
+                return;
+            }
+            
+            IdempotencyStore.Reservation reservation = store.reserve(key, fingerprint);
+            if (!reservation.reserved()) {
+                if (reservation.holder() != null) {
+                    replay(reservation.holder(), fingerprint, response);
+                } else {
+                    conflicts.increment();
+                    writeError(response, HttpStatus.CONFLICT, "A request with this " + KEY_HEADER + " is still in progress");
+                }
+                return;
+            }
+            
+            ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+            boolean remembered = false;
+            try {
+                filterChain.doFilter(new BufferedRequest(request, body), cachingResponse);
+                remembered = remember(key, reservation, fingerprint, cachingResponse);
+            } finally {
+                if (!remembered) {
+                    store.release(key, reservation);
+                }
+                cachingResponse.copyBodyToResponse();
+            }
+        } finally {
+            release(key, keyLock);
+        }
+    }
+    
+    private void replay(IdempotencyRecord record, String fingerprint, HttpServletResponse response) throws IOException {
+        if (record.getState() == IdempotencyState.IN_PROGRESS) {
+            conflicts.increment();
+            writeError(response, HttpStatus.CONFLICT, "A request with this " + KEY_HEADER + " is still in progress");
+            return;
+        }
+        if (!record.getRequestFingerprint().equals(fingerprint)) {
+            conflicts.increment();
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                KEY_HEADER + " was already used for a different request");
+            return;
+        }
+        
+        replayed.increment();
+        log.debug("Replaying stored response for {} {}", fingerprint, record.getResponseStatus());
+        response.setStatus(record.getResponseStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (record.getContentType() != null) {
+            response.setContentType(record.getContentType());
+        }
+        if (record.getResponseBody() != null) {
+            response.setContentLength(record.getResponseBody().length);
+            response.getOutputStream().write(record.getResponseBody());
+        }
+    }
+    
+    /** Stores the response on the reservation; false if it is not to be replayed. */
+    private boolean remember(String key, IdempotencyStore.Reservation reservation, String fingerprint,
+                             ContentCachingResponseWrapper response) {
+        int status = response.getStatus();
+        if (status >= 500 || status == HttpStatus.CONFLICT.value() || status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            return false;
+        }
+        byte[] body = response.getContentAsByteArray();
+        if (body.length > properties.getMaxBodySize().toBytes()) {
+            log.warn("Response for {} is {} bytes, too large to store for replay", fingerprint, body.length);
+            return false;
+        }
+        if (!store.complete(key, reservation, fingerprint, status, response.getContentType(), body)) {
+            log.warn("Reservation of an {} for {} expired before the response was stored", KEY_HEADER, fingerprint);
+        }
+        return true;
+    }
+    
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+    
+    /**
+     * Registers interest in a key and waits for its lock. The entry is
+     * removed once nobody holds or waits for it, so the map only ever holds
+     * keys that are in flight.
+     */
+    private KeyLock acquire(String key) {
+        KeyLock keyLock = locks.compute(key, (k, existing) -> {
+            KeyLock lock = existing != null ? existing : new KeyLock();
+            lock.users++;
+            return lock;
+        });
+        try {
+            if (keyLock.lock.tryLock(properties.getLockTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                return keyLock;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        unregister(key);
+        return null;
+    }
+    
+    private void release(String key, KeyLock keyLock) {
+        keyLock.lock.unlock();
+        unregister(key);
+    }
+    
+    private void unregister(String key) {
+        locks.computeIfPresent(key, (k, lock) -> --lock.users == 0 ? null : lock);
+    }
+    
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(message));
+    }
+    
+    /** Replays the body already read for the fingerprint to the rest of the chain. */
+    private static final class BufferedRequest extends HttpServletRequestWrapper {
+        
+        private final byte[] body;
+        
+        private BufferedRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+                
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+                
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("Buffered body is read synchronously");
+                }
+            };
+        }
+        
+        @Override
+        public BufferedReader getReader() throws UnsupportedEncodingException {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), encoding));
+        }
+    }
+    
+    private static final class KeyLock {
+        
+        private final ReentrantLock lock = new ReentrantLock();
+        // Guarded by the map's per-key compute
+        private int users;
+    }
+}
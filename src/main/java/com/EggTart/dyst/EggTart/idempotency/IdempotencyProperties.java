@@ -0,0 +1,31 @@
+package com.EggTart.dyst.EggTart.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "eggtart.idempotency")
+public class IdempotencyProperties {
+    
+    private boolean enabled = true;
+    
+    /** How long a stored response is replayed for. */
+    private Duration ttl = Duration.ofHours(24);
+    
+    /** Responses kept in memory; older ones are still found in the database. */
+    private int maxEntries = 10_000;
+    
+    /** Larger responses are not stored, so their retries execute again. */
+    private DataSize maxBodySize = DataSize.ofKilobytes(64);
+    
+    /** How long a retry waits for an in-progress request with the same key. */
+    private Duration lockTimeout = Duration.ofSeconds(10);
+    
+    /** How long a key stays reserved by a request that never finished, e.g. on a crashed instance. */
+    private Duration reservationTimeout = Duration.ofMinutes(5);
+    
+    private int purgeChunkSize = 500;
+}
@@ -0,0 +1,194 @@
+package com.EggTart.dyst.EggTart.idempotency;
+
+import com.EggTart.dyst.EggTart.model.entity.IdempotencyRecord;
+import com.EggTart.dyst.EggTart.model.enums.IdempotencyState;
+import com.EggTart.dyst.EggTart.repository.IdempotencyRecordRepository;
+import com.EggTart.dyst.EggTart.sharding.ShardContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stored responses by Idempotency-Key: a bounded LRU in memory in front of
+ * the idempotency_records table. The table keeps every key until it expires,
+ * so retries still replay after an entry fell out of memory or the instance
+ * restarted.
+ *
+ * A request reserves its key by inserting an IN_PROGRESS row, so the primary
+ * key lets exactly one request across all instances run for it. The
+ * reservation is completed with the response, or deleted when the response
+ * is not stored, and both only touch the row the request itself inserted.
+ *
+ * Records are not tied to a dog and live on shard 0. Lookups run in
+ * read-write transactions so they go to the primary even with replicas
+ * configured, since a retry usually follows its original within seconds.
+ */
+@Slf4j
+public class IdempotencyStore {
+    
+    private static final int PRIMARY_SHARD = 0;
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+    
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final IdempotencyProperties properties;
+    private final Map<String, IdempotencyRecord> recent;
+    
+    public IdempotencyStore(IdempotencyRecordRepository repository, TransactionTemplate transactionTemplate,
+                            IdempotencyProperties properties) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.recent = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > properties.getMaxEntries();
+            }
+        };
+    }
+    
+    /** The unexpired record for the key, completed or still in progress. */
+    public Optional<IdempotencyRecord> find(String key) {
+        IdempotencyRecord record;
+        synchronized (recent) {
+            record = recent.get(key);
+        }
+        if (record == null) {
+            record = load(key);
+            if (record != null && record.getState() == IdempotencyState.COMPLETED) {
+                remember(record);
+            }
+        }
+        
+        if (record != null && record.getExpiresAt().isBefore(LocalDateTime.now())) {
+            synchronized (recent) {
+                recent.remove(key);
+            }
+            return Optional.empty();
+        }
+        return Optional.ofNullable(record);
+    }
+    
+    /**
+     * Reserves the key for a request about to run. An expired record under
+     * the key is replaced; an unexpired one is returned as the holder.
+     */
+    public Reservation reserve(String key, String requestFingerprint) {
+        for (int attempt = 0; attempt < MAX_RESERVE_ATTEMPTS; attempt++) {
+            // Truncated to what the column keeps, since it identifies the reservation later
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            try {
+                ShardContext.callOnShard(PRIMARY_SHARD, () -> transactionTemplate.execute(status ->
+                    repository.insertInProgress(key, requestFingerprint, now,
+                        now.plus(properties.getReservationTimeout()))));
+                return new Reservation(now, null);
+            } catch (DataIntegrityViolationException ex) {
+                IdempotencyRecord holder = load(key);
+                if (holder != null && !holder.getExpiresAt().isBefore(now)) {
+                    return new Reservation(null, holder);
+                }
+                if (holder != null) {
+                    ShardContext.callOnShard(PRIMARY_SHARD, () ->
+                        transactionTemplate.execute(status -> repository.deleteExpired(key, now)));
+                }
+            }
+        }
+        // Lost every race to requests that came and went; the caller reports a conflict
+        return new Reservation(null, null);
+    }
+    
+    /**
+     * Stores the response on the reservation. Returns false if the
+     * reservation has expired and the key was taken over meanwhile.
+     */
+    public boolean complete(String key, Reservation reservation, String requestFingerprint,
+                            int status, String contentType, byte[] body) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(properties.getTtl());
+        int updated = ShardContext.callOnShard(PRIMARY_SHARD, () -> transactionTemplate.execute(tx ->
+            repository.complete(key, reservation.reservedAt(), status, contentType, body, expiresAt)));
+        if (updated == 0) {
+            return false;
+        }
+        remember(IdempotencyRecord.builder()
+            .idempotencyKey(key)
+            .requestFingerprint(requestFingerprint)
+            .state(IdempotencyState.COMPLETED)
+            .responseStatus(status)
+            .contentType(contentType)
+            .responseBody(body)
+            .createdAt(reservation.reservedAt())
+            .expiresAt(expiresAt)
+            .build());
+        return true;
+    }
+    
+    /** Gives the key up, so a retry runs the request again. */
+    public void release(String key, Reservation reservation) {
+        ShardContext.callOnShard(PRIMARY_SHARD, () -> transactionTemplate.execute(status ->
+            repository.deleteReservation(key, reservation.reservedAt())));
+    }
+    
+    public int cachedEntries() {
+        synchronized (recent) {
+            return recent.size();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${eggtart.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (recent) {
+            recent.values().removeIf(record -> record.getExpiresAt().isBefore(now));
+        }
+        
+        int purged = ShardContext.callOnShard(PRIMARY_SHARD, () -> {
+            int deleted = 0;
+            List<String> expired;
+            do {
+                expired = transactionTemplate.execute(status -> {
+                    List<String> keys = repository.findExpiredKeys(
+                        now, PageRequest.ofSize(properties.getPurgeChunkSize()));
+                    repository.deleteAllByIdInBatch(keys);
+                    return keys;
+                });
+                deleted += expired.size();
+            } while (expired.size() == properties.getPurgeChunkSize());
+            return deleted;
+        });
+        
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency records", purged);
+        }
+    }
+    
+    private IdempotencyRecord load(String key) {
+        return ShardContext.callOnShard(PRIMARY_SHARD, () ->
+            transactionTemplate.execute(status -> repository.findById(key).orElse(null)));
+    }
+    
+    private void remember(IdempotencyRecord record) {
+        synchronized (recent) {
+            recent.put(record.getIdempotencyKey(), record);
+        }
+    }
+    
+    /**
+     * Outcome of {@link #reserve}: the reservation's time when the key was
+     * reserved, otherwise the record holding it, if any.
+     */
+    public record Reservation(LocalDateTime reservedAt, IdempotencyRecord holder) {
+        
+        public boolean reserved() {
+            return reservedAt != null;
+        }
+    }
+}
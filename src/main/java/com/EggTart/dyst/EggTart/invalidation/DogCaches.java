@@ -0,0 +1,22 @@
+package com.EggTart.dyst.EggTart.invalidation;
+
+import java.time.LocalDate;
+
+/**
+ * Names and keys of the per-dog read caches kept coherent by
+ * {@link InvalidationBus}.
+ */
+public final class DogCaches {
+    
+    public static final String PROFILES = "dogProfiles";
+    public static final String TEMPLATES = "taskTemplates";
+    public static final String TODAY_TASKS = "todayTasks";
+    
+    private DogCaches() {
+    }
+    
+    /** Today's tasks are keyed by day as well, so yesterday's list is never served after midnight. */
+    public static String todayKey(Long dogId) {
+        return dogId + "@" + LocalDate.now();
+    }
+}
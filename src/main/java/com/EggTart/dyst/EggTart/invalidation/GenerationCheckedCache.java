@@ -0,0 +1,106 @@
+package com.EggTart.dyst.EggTart.invalidation;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * A Caffeine cache that drops a loaded value when the key was evicted while
+ * it was being loaded, which would otherwise put the pre-eviction read back.
+ *
+ * Keys hash onto a fixed set of stripes, each with a generation that every
+ * eviction bumps. A load notes its stripe's generation first and only stores
+ * its value if it is unchanged; evictions and the check-and-put hold the
+ * stripe's lock, so neither can slip between the other's two steps. Keys
+ * sharing a stripe now and then skip a put they could have made.
+ */
+public class GenerationCheckedCache extends CaffeineCache {
+    
+    private static final int STRIPES = 64;
+    
+    private final Object[] locks = new Object[STRIPES];
+    private final long[] generations = new long[STRIPES];
+    
+    public GenerationCheckedCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                                  boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+    
+    /**
+     * Used by {@code @Cacheable(sync = true)}. Unlike the Caffeine default,
+     * concurrent misses of one key each run the loader.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        
+        int stripe = stripe(key);
+        long generation;
+        synchronized (locks[stripe]) {
+            generation = generations[stripe];
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        synchronized (locks[stripe]) {
+            if (generations[stripe] == generation) {
+                super.put(key, value);
+            }
+        }
+        return value;
+    }
+    
+    @Override
+    public void evict(Object key) {
+        int stripe = stripe(key);
+        synchronized (locks[stripe]) {
+            generations[stripe]++;
+            super.evict(key);
+        }
+    }
+    
+    @Override
+    public boolean evictIfPresent(Object key) {
+        int stripe = stripe(key);
+        synchronized (locks[stripe]) {
+            generations[stripe]++;
+            return super.evictIfPresent(key);
+        }
+    }
+    
+    @Override
+    public void clear() {
+        bumpAll();
+        super.clear();
+    }
+    
+    @Override
+    public boolean invalidate() {
+        bumpAll();
+        return super.invalidate();
+    }
+    
+    // A put that checked before its stripe was bumped has already stored, and the clear removes it
+    private void bumpAll() {
+        for (int i = 0; i < STRIPES; i++) {
+            synchronized (locks[i]) {
+                generations[i]++;
+            }
+        }
+    }
+    
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,47 @@
+package com.EggTart.dyst.EggTart.invalidation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers messages to every other transport on the same channel in this
+ * JVM, on the sending thread. Lets several application contexts stand in
+ * for separate instances in one process.
+ */
+public class InProcessInvalidationTransport implements InvalidationTransport {
+    
+    private static final Map<String, List<InProcessInvalidationTransport>> CHANNELS = new ConcurrentHashMap<>();
+    
+    private final String channel;
+    private volatile Consumer<byte[]> receiver;
+    
+    public InProcessInvalidationTransport(String channel) {
+        this.channel = channel;
+    }
+    
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        CHANNELS.computeIfAbsent(channel, name -> new CopyOnWriteArrayList<>()).add(this);
+    }
+    
+    @Override
+    public void send(byte[] message) {
+        for (InProcessInvalidationTransport member : CHANNELS.getOrDefault(channel, List.of())) {
+            if (member != this) {
+                member.receiver.accept(message.clone());
+            }
+        }
+    }
+    
+    @Override
+    public void close() {
+        List<InProcessInvalidationTransport> members = CHANNELS.get(channel);
+        if (members != null) {
+            members.remove(this);
+        }
+    }
+}
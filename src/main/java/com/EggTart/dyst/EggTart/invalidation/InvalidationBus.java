@@ -0,0 +1,275 @@
+package com.EggTart.dyst.EggTart.invalidation;
+
+import com.EggTart.dyst.EggTart.event.DogProfileChangedEvent;
+import com.EggTart.dyst.EggTart.event.TaskTransitionEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@link DogCaches} coherent across instances. Changes are evicted
+ * locally after commit, then queued, de-duplicated and sent to the other
+ * instances in one message per batch window or per {@code maxBatchSize}
+ * entries, so a burst of writes costs a handful of messages.
+ *
+ * Every batch carries a per-node sequence number and heartbeats repeat the
+ * last one. A receiver that sees a sequence jump, or a heartbeat ahead of
+ * the last batch it got, has lost invalidations it cannot name and clears
+ * the caches altogether.
+ */
+@Slf4j
+public class InvalidationBus {
+    
+    private static final List<String> CACHES = List.of(DogCaches.PROFILES, DogCaches.TEMPLATES, DogCaches.TODAY_TASKS);
+    
+    private final CacheManager cacheManager;
+    private final InvalidationTransport transport;
+    private final InvalidationProperties properties;
+    private final long nodeId = UUID.randomUUID().getMostSignificantBits();
+    
+    private final Object pendingLock = new Object();
+    private Set<InvalidationMessage.Entry> pending = new LinkedHashSet<>();
+    private long oldestPendingMillis;
+    
+    // Held while sending, so batches leave in sequence order
+    private final Object sendLock = new Object();
+    private long sequence;
+    
+    private final Map<Long, Long> lastSequences = new HashMap<>();
+    private ScheduledExecutorService scheduler;
+    
+    private final Counter requested;
+    private final Counter gaps;
+    private final Counter messagesSent;
+    private final Counter messagesReceived;
+    private final Counter bytesSent;
+    private final Counter bytesReceived;
+    private final Counter entriesSent;
+    private final Counter entriesReceived;
+    private final DistributionSummary batchSize;
+    private final Timer propagation;
+    
+    /**
+     * @param transport null to only evict locally
+     */
+    public InvalidationBus(CacheManager cacheManager, InvalidationTransport transport,
+                           InvalidationProperties properties, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.transport = transport;
+        this.properties = properties;
+        this.requested = meterRegistry.counter("eggtart.invalidation.requested");
+        this.gaps = meterRegistry.counter("eggtart.invalidation.gaps");
+        this.messagesSent = meterRegistry.counter("eggtart.invalidation.messages", "direction", "sent");
+        this.messagesReceived = meterRegistry.counter("eggtart.invalidation.messages", "direction", "received");
+        this.bytesSent = meterRegistry.counter("eggtart.invalidation.bytes", "direction", "sent");
+        this.bytesReceived = meterRegistry.counter("eggtart.invalidation.bytes", "direction", "received");
+        this.entriesSent = meterRegistry.counter("eggtart.invalidation.entries", "direction", "sent");
+        this.entriesReceived = meterRegistry.counter("eggtart.invalidation.entries", "direction", "received");
+        this.batchSize = DistributionSummary.builder("eggtart.invalidation.batch.size")
+            .description("Entries per sent batch")
+            .register(meterRegistry);
+        this.propagation = Timer.builder("eggtart.invalidation.propagation")
+            .description("Time from queueing an invalidation to applying it on another instance")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    }
+    
+    public void start() {
+        if (transport == null) {
+            return;
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("invalidation-");
+        threadFactory.setDaemon(true);
+        scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        transport.start(this::receive);
+        
+        long window = properties.getBatchWindow().toMillis();
+        long heartbeat = properties.getHeartbeatInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::flush, window, window, TimeUnit.MILLISECONDS);
+        scheduler.scheduleAtFixedRate(this::heartbeat, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+        log.info("Invalidation bus started as node {}", Long.toHexString(nodeId));
+    }
+    
+    public void stop() {
+        if (transport == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        transport.close();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskTransition(TaskTransitionEvent event) {
+        // Only today's list is cached
+        LocalDate today = LocalDate.now();
+        if (today.equals(event.day()) || today.equals(event.previousDay())) {
+            invalidate(InvalidationScope.TASKS, event.dogId());
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDogProfileChanged(DogProfileChangedEvent event) {
+        invalidate(InvalidationScope.DOG, event.dogId());
+    }
+    
+    public void invalidate(InvalidationScope scope, long dogId) {
+        evict(scope, dogId);
+        if (transport == null) {
+            return;
+        }
+        requested.increment();
+        
+        boolean full;
+        synchronized (pendingLock) {
+            if (pending.isEmpty()) {
+                oldestPendingMillis = System.currentTimeMillis();
+            }
+            // A dog entry already covers its tasks
+            if (scope == InvalidationScope.DOG || !pending.contains(new InvalidationMessage.Entry(InvalidationScope.DOG, dogId))) {
+                pending.add(new InvalidationMessage.Entry(scope, dogId));
+            }
+            full = pending.size() >= properties.getMaxBatchSize();
+        }
+        if (full && !scheduler.isShutdown()) {
+            scheduler.execute(this::flush);
+        }
+    }
+    
+    private void flush() {
+        try {
+            synchronized (sendLock) {
+                Set<InvalidationMessage.Entry> batch;
+                long queuedAt;
+                synchronized (pendingLock) {
+                    if (pending.isEmpty()) {
+                        return;
+                    }
+                    batch = pending;
+                    queuedAt = oldestPendingMillis;
+                    pending = new LinkedHashSet<>();
+                }
+                
+                List<InvalidationMessage.Entry> entries = new ArrayList<>(batch);
+                int maxBatchSize = properties.getMaxBatchSize();
+                for (int from = 0; from < entries.size(); from += maxBatchSize) {
+                    List<InvalidationMessage.Entry> chunk = entries.subList(from, Math.min(from + maxBatchSize, entries.size()));
+                    send(new InvalidationMessage(nodeId, ++sequence, queuedAt, false, chunk));
+                    entriesSent.increment(chunk.size());
+                    batchSize.record(chunk.size());
+                }
+            }
+        } catch (RuntimeException e) {
+            // Peers notice the skipped sequence; keep the schedule alive
+            log.warn("Failed to send invalidation batch", e);
+        }
+    }
+    
+    private void heartbeat() {
+        try {
+            synchronized (sendLock) {
+                if (sequence > 0) {
+                    send(InvalidationMessage.heartbeat(nodeId, sequence, System.currentTimeMillis()));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to send invalidation heartbeat", e);
+        }
+    }
+    
+    private void send(InvalidationMessage message) {
+        byte[] bytes = message.encode();
+        transport.send(bytes);
+        messagesSent.increment();
+        bytesSent.increment(bytes.length);
+    }
+    
+    private void receive(byte[] bytes) {
+        InvalidationMessage message;
+        try {
+            message = InvalidationMessage.decode(bytes);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring invalidation message: {}", e.getMessage());
+            return;
+        }
+        if (message.nodeId() == nodeId) {
+            return;
+        }
+        messagesReceived.increment();
+        bytesReceived.increment(bytes.length);
+        
+        boolean missed;
+        synchronized (lastSequences) {
+            // The first message from a node only sets the baseline
+            Long last = lastSequences.get(message.nodeId());
+            missed = last != null && message.sequence() > (message.heartbeat() ? last : last + 1);
+            if (last == null || message.sequence() > last) {
+                lastSequences.put(message.nodeId(), message.sequence());
+            }
+        }
+        if (missed) {
+            gaps.increment();
+            log.warn("Missed invalidations from node {} before sequence {}, clearing caches",
+                Long.toHexString(message.nodeId()), message.sequence());
+            clearAll();
+        }
+        if (message.heartbeat()) {
+            return;
+        }
+        
+        // Late, reordered batches are applied too; evicting twice is harmless
+        for (InvalidationMessage.Entry entry : message.entries()) {
+            evict(entry.scope(), entry.dogId());
+        }
+        entriesReceived.increment(message.entries().size());
+        propagation.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - message.queuedAtMillis())));
+    }
+    
+    private void evict(InvalidationScope scope, long dogId) {
+        evict(DogCaches.TODAY_TASKS, DogCaches.todayKey(dogId));
+        if (scope == InvalidationScope.DOG) {
+            evict(DogCaches.PROFILES, dogId);
+            evict(DogCaches.TEMPLATES, dogId);
+        }
+    }
+    
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+    
+    private void clearAll() {
+        for (String cacheName : CACHES) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
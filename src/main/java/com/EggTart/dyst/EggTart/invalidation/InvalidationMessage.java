@@ -0,0 +1,83 @@
+package com.EggTart.dyst.EggTart.invalidation;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A batch of invalidations from one node, or a heartbeat carrying the
+ * sequence of the last batch that node sent.
+ *
+ * Wire format, big-endian: magic (2), version (1), flags (1), node id (8),
+ * sequence (8), queued-at epoch millis (8), entry count (2), then per
+ * entry the scope code (1) and dog id (8). Queued-at is when the oldest
+ * entry of the batch was queued, or the send time of a heartbeat. A batch
+ * of 128 entries is 1182 bytes and fits a single UDP datagram on a
+ * standard MTU.
+ */
+public record InvalidationMessage(
+    long nodeId,
+    long sequence,
+    long queuedAtMillis,
+    boolean heartbeat,
+    List<Entry> entries
+) {
+    
+    public static final int HEADER_BYTES = 30;
+    public static final int ENTRY_BYTES = 9;
+    
+    private static final short MAGIC = 0x4549;
+    private static final byte VERSION = 1;
+    private static final byte HEARTBEAT = 1;
+    
+    public record Entry(InvalidationScope scope, long dogId) {
+    }
+    
+    public static InvalidationMessage heartbeat(long nodeId, long sequence, long queuedAtMillis) {
+        return new InvalidationMessage(nodeId, sequence, queuedAtMillis, true, List.of());
+    }
+    
+    public byte[] encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + entries.size() * ENTRY_BYTES)
+            .putShort(MAGIC)
+            .put(VERSION)
+            .put(heartbeat ? HEARTBEAT : 0)
+            .putLong(nodeId)
+            .putLong(sequence)
+            .putLong(queuedAtMillis)
+            .putShort((short) entries.size());
+        for (Entry entry : entries) {
+            buffer.put(entry.scope().code()).putLong(entry.dogId());
+        }
+        return buffer.array();
+    }
+    
+    /**
+     * @throws IllegalArgumentException if the bytes are not a message of this version
+     */
+    public static InvalidationMessage decode(byte[] bytes) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            if (buffer.getShort() != MAGIC) {
+                throw new IllegalArgumentException("Not an invalidation message");
+            }
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported invalidation message version " + version);
+            }
+            boolean heartbeat = (buffer.get() & HEARTBEAT) != 0;
+            long nodeId = buffer.getLong();
+            long sequence = buffer.getLong();
+            long queuedAtMillis = buffer.getLong();
+            int count = Short.toUnsignedInt(buffer.getShort());
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(new Entry(InvalidationScope.fromCode(buffer.get()), buffer.getLong()));
+            }
+            return new InvalidationMessage(nodeId, sequence, queuedAtMillis, heartbeat, entries);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated invalidation message", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.EggTart.dyst.EggTart.invalidation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "eggtart.invalidation")
+public class InvalidationProperties {
+    
+    /** How invalidations reach other instances; NONE only evicts locally. */
+    private Transport transport = Transport.NONE;
+    
+    /** Invalidations are collected this long before a batch is sent. */
+    private Duration batchWindow = Duration.ofMillis(20);
+    
+    /** A batch is sent early once it holds this many entries. */
+    private int maxBatchSize = 128;
+    
+    /** Sequence announced this often so peers notice a lost trailing batch. */
+    private Duration heartbeatInterval = Duration.ofSeconds(1);
+    
+    /** In-process transports on the same channel see each other. */
+    private String channel = "eggtart";
+    
+    private Udp udp = new Udp();
+    
+    public enum Transport {
+        NONE, IN_PROCESS, UDP
+    }
+    
+    @Data
+    public static class Udp {
+        
+        private String bindAddress = "0.0.0.0";
+        
+        private int port = 47800;
+        
+        /** Other instances as host:port. */
+        private List<String> peers = new ArrayList<>();
+    }
+}
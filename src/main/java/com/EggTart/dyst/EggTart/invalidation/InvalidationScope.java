@@ -0,0 +1,32 @@
+package com.EggTart.dyst.EggTart.invalidation;
+
+/**
+ * What an invalidation entry covers, written as a single byte on the wire.
+ */
+public enum InvalidationScope {
+    
+    /** Profile, templates and today's tasks. */
+    DOG((byte) 1),
+    
+    /** Today's tasks only. */
+    TASKS((byte) 2);
+    
+    private final byte code;
+    
+    InvalidationScope(byte code) {
+        this.code = code;
+    }
+    
+    public byte code() {
+        return code;
+    }
+    
+    public static InvalidationScope fromCode(byte code) {
+        for (InvalidationScope scope : values()) {
+            if (scope.code == code) {
+                return scope;
+            }
+        }
+        throw new IllegalArgumentException("Unknown invalidation scope " + code);
+    }
+}
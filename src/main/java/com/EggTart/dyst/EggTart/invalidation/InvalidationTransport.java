@@ -0,0 +1,20 @@
+package com.EggTart.dyst.EggTart.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries encoded {@link InvalidationMessage}s between instances. Delivery is
+ * best effort; {@link InvalidationBus} detects lost messages from sequence
+ * numbers and heartbeats.
+ */
+public interface InvalidationTransport extends AutoCloseable {
+    
+    /** Starts delivering messages from other instances to the receiver. */
+    void start(Consumer<byte[]> receiver);
+    
+    /** Sends a message to every other instance. */
+    void send(byte[] message);
+    
+    @Override
+    void close();
+}
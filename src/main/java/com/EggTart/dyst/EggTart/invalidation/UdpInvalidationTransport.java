@@ -0,0 +1,83 @@
+package com.EggTart.dyst.EggTart.invalidation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Sends each message as one datagram to a fixed list of peers. Instances on
+ * the same machine only need different ports, which is how multi-JVM runs
+ * work on a single host.
+ */
+@Slf4j
+public class UdpInvalidationTransport implements InvalidationTransport {
+    
+    private static final int MAX_DATAGRAM = 65_507;
+    
+    private final DatagramSocket socket;
+    private final List<InetSocketAddress> peers;
+    private Thread receiverThread;
+    
+    public UdpInvalidationTransport(InetSocketAddress bindAddress, List<InetSocketAddress> peers) {
+        try {
+            this.socket = new DatagramSocket(bindAddress);
+        } catch (SocketException e) {
+            throw new UncheckedIOException("Cannot bind invalidation socket to " + bindAddress, e);
+        }
+        this.peers = List.copyOf(peers);
+    }
+    
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        receiverThread = Thread.ofPlatform()
+            .name("invalidation-udp")
+            .daemon()
+            .start(() -> receive(receiver));
+        log.info("Invalidation transport listening on {} with peers {}", socket.getLocalSocketAddress(), peers);
+    }
+    
+    private void receive(Consumer<byte[]> receiver) {
+        byte[] buffer = new byte[MAX_DATAGRAM];
+        while (!socket.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+                receiver.accept(Arrays.copyOf(packet.getData(), packet.getLength()));
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    log.warn("Failed to receive invalidation datagram", e);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Dropped invalidation datagram from {}", packet.getSocketAddress(), e);
+            }
+        }
+    }
+    
+    @Override
+    public void send(byte[] message) {
+        for (InetSocketAddress peer : peers) {
+            try {
+                socket.send(new DatagramPacket(message, message.length, peer));
+            } catch (IOException e) {
+                // The receiver sees the gap and drops its caches
+                log.warn("Failed to send invalidation datagram to {}", peer, e);
+            }
+        }
+    }
+    
+    @Override
+    public void close() {
+        socket.close();
+        if (receiverThread != null) {
+            receiverThread.interrupt();
+        }
+    }
+}
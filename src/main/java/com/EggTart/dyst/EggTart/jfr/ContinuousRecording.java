@@ -0,0 +1,75 @@
+package com.EggTart.dyst.EggTart.jfr;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An always-on flight recording using the JDK's low-overhead "default"
+ * settings plus the EggTart events, kept on disk for a bounded age and size
+ * so a window of recent history can be dumped at any time.
+ */
+@Slf4j
+public class ContinuousRecording {
+    
+    private final Recording recording;
+    private final Path dumpDirectory;
+    
+    public ContinuousRecording(JfrProperties properties) throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        settings.put("eggtart.TaskTransition#enabled", "true");
+        settings.put("eggtart.ResponseSerialization#enabled", "true");
+        settings.put("eggtart.RepositoryCall#enabled", "true");
+        settings.put("eggtart.RepositoryCall#threshold", properties.getRepositoryThreshold().toMillis() + " ms");
+        
+        this.recording = new Recording(settings);
+        recording.setName("eggtart-continuous");
+        recording.setToDisk(true);
+        recording.setMaxAge(properties.getMaxAge());
+        recording.setMaxSize(properties.getMaxSize().toBytes());
+        recording.start();
+        
+        this.dumpDirectory = Path.of(properties.getDumpDirectory());
+        log.info("Continuous flight recording started, keeping {} / {}", properties.getMaxAge(), properties.getMaxSize());
+    }
+    
+    /**
+     * Writes the last {@code window} of recorded data to a new file of its own
+     * and returns its path. The caller owns the file and deletes it.
+     */
+    public Path dump(Duration window) throws IOException {
+        Files.createDirectories(dumpDirectory);
+        Path file = Files.createTempFile(dumpDirectory, "dump-", ".jfr");
+        
+        Instant end = Instant.now();
+        try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot();
+             InputStream data = snapshot.getStream(end.minus(window), end)) {
+            if (data == null) {
+                throw new IOException("No flight recorder data available for the last " + window);
+            }
+            Files.copy(data, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(file);
+            throw ex;
+        }
+        return file;
+    }
+    
+    @PreDestroy
+    public void stop() {
+        recording.close();
+    }
+}
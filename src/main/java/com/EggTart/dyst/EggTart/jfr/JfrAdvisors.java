@@ -0,0 +1,48 @@
+package com.EggTart.dyst.EggTart.jfr;
+
+import com.EggTart.dyst.EggTart.service.TaskTransitions;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.data.repository.Repository;
+
+import java.lang.reflect.Method;
+
+/**
+ * Advisors that attach the JFR interceptors. Registered as infrastructure
+ * beans, so the auto-proxy creator already in place for transactions picks
+ * them up without AspectJ.
+ */
+public final class JfrAdvisors {
+    
+    private JfrAdvisors() {
+    }
+    
+    /** Every {@link TaskTransitions} operation except the state lookup. */
+    public static Advisor transitions() {
+        return new DefaultPointcutAdvisor(new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                if (!TaskTransitions.class.isAssignableFrom(targetClass) || method.getName().equals("findTask")) {
+                    return false;
+                }
+                try {
+                    TaskTransitions.class.getMethod(method.getName(), method.getParameterTypes());
+                    return true;
+                } catch (NoSuchMethodException ex) {
+                    return false;
+                }
+            }
+        }, new TransitionJfrInterceptor());
+    }
+    
+    /** Every method of every Spring Data repository. */
+    public static Advisor repositories() {
+        return new DefaultPointcutAdvisor(new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return Repository.class.isAssignableFrom(targetClass) && method.getDeclaringClass() != Object.class;
+            }
+        }, new RepositoryJfrInterceptor());
+    }
+}
@@ -0,0 +1,57 @@
+package com.EggTart.dyst.EggTart.jfr;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+/**
+ * {@code GET /actuator/jfr?seconds=N} downloads the last N seconds of the
+ * continuous recording; {@code GET /actuator/jfr/summary?seconds=N} returns
+ * the hot-spot summary of the same window. Like every actuator endpoint it
+ * is served on the management port, which only listens on localhost.
+ */
+@Endpoint(id = "jfr")
+@RequiredArgsConstructor
+public class JfrEndpoint {
+    
+    private static final int DEFAULT_SECONDS = 300;
+    
+    private final ContinuousRecording continuousRecording;
+    
+    /** Streams the dump and deletes its file once the response is written. */
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Nullable Integer seconds) throws IOException {
+        Path file = continuousRecording.dump(window(seconds));
+        return new WebEndpointResponse<>(
+            new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE)));
+    }
+    
+    @ReadOperation
+    public WebEndpointResponse<JfrHotSpotAnalyzer.Summary> report(@Selector String report, @Nullable Integer seconds)
+            throws IOException {
+        if (!"summary".equals(report)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Path file = continuousRecording.dump(window(seconds));
+        try {
+            return new WebEndpointResponse<>(JfrHotSpotAnalyzer.analyze(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    private static Duration window(Integer seconds) {
+        return Duration.ofSeconds(seconds != null && seconds > 0 ? seconds : DEFAULT_SECONDS);
+    }
+}
@@ -0,0 +1,102 @@
+package com.EggTart.dyst.EggTart.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summarises where the time went in a flight recording: the EggTart
+ * operations, GC pauses and monitor waits ranked by total duration, and the
+ * methods most often on top of the sampled stacks.
+ *
+ * Also runnable on a dump taken elsewhere:
+ * {@code java -cp <app classpath> com.EggTart.dyst.EggTart.jfr.JfrHotSpotAnalyzer dump.jfr}
+ */
+public final class JfrHotSpotAnalyzer {
+    
+    private static final int TOP = 20;
+    
+    private JfrHotSpotAnalyzer() {
+    }
+    
+    public record OperationStats(String operation, long count, double totalMs, double avgMs, double maxMs) {
+    }
+    
+    public record HotMethod(String method, long samples) {
+    }
+    
+    public record Summary(List<OperationStats> operations, List<HotMethod> hotMethods) {
+    }
+    
+    public static Summary analyze(Path recording) throws IOException {
+        Map<String, long[]> operations = new HashMap<>();
+        Map<String, Long> samples = new HashMap<>();
+        
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String operation = operationOf(event);
+                if (operation != null) {
+                    long nanos = event.getDuration().toNanos();
+                    long[] stats = operations.computeIfAbsent(operation, key -> new long[3]);
+                    stats[0]++;
+                    stats[1] += nanos;
+                    stats[2] = Math.max(stats[2], nanos);
+                } else if (event.getEventType().getName().equals("jdk.ExecutionSample")) {
+                    RecordedStackTrace stack = event.getStackTrace();
+                    if (stack != null && !stack.getFrames().isEmpty()) {
+                        RecordedFrame top = stack.getFrames().get(0);
+                        samples.merge(top.getMethod().getType().getName() + "." + top.getMethod().getName(), 1L, Long::sum);
+                    }
+                }
+            }
+        }
+        
+        List<OperationStats> ranked = operations.entrySet().stream()
+            .map(entry -> new OperationStats(entry.getKey(), entry.getValue()[0],
+                entry.getValue()[1] / 1e6, entry.getValue()[1] / 1e6 / entry.getValue()[0], entry.getValue()[2] / 1e6))
+            .sorted(Comparator.comparingDouble(OperationStats::totalMs).reversed())
+            .limit(TOP)
+            .toList();
+        List<HotMethod> hotMethods = samples.entrySet().stream()
+            .map(entry -> new HotMethod(entry.getKey(), entry.getValue()))
+            .sorted(Comparator.comparingLong(HotMethod::samples).reversed())
+            .limit(TOP)
+            .toList();
+        return new Summary(ranked, hotMethods);
+    }
+    
+    private static String operationOf(RecordedEvent event) {
+        return switch (event.getEventType().getName()) {
+            case "eggtart.TaskTransition" -> "transition " + event.getString("transition");
+            case "eggtart.RepositoryCall" -> "repository " + event.getString("repository") + "." + event.getString("method");
+            case "eggtart.ResponseSerialization" -> "serialize " + event.getString("payloadType");
+            case "jdk.GarbageCollection" -> "gc " + event.getString("name");
+            case "jdk.JavaMonitorEnter" -> "lock " + event.getClass("monitorClass").getName();
+            default -> null;
+        };
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: JfrHotSpotAnalyzer <recording.jfr>");
+            System.exit(2);
+        }
+        
+        Summary summary = analyze(Path.of(args[0]));
+        System.out.printf("%-60s %8s %12s %10s %10s%n", "operation", "count", "total ms", "avg ms", "max ms");
+        summary.operations().forEach(op -> System.out.printf("%-60s %8d %12.1f %10.2f %10.2f%n",
+            op.operation(), op.count(), op.totalMs(), op.avgMs(), op.maxMs()));
+        System.out.println();
+        System.out.printf("%-80s %8s%n", "hot method", "samples");
+        summary.hotMethods().forEach(method -> System.out.printf("%-80s %8d%n", method.method(), method.samples()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.EggTart.dyst.EggTart.jfr;
+
+import com.EggTart.dyst.EggTart.dto.response.ApiResponse;
+import com.EggTart.dyst.EggTart.dto.response.TaskInstanceResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * The regular Jackson converter, timing each response body it writes as a
+ * {@link SerializationJfrEvent}.
+ */
+public class JfrJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+    
+    public JfrJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+    
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        SerializationJfrEvent event = new SerializationJfrEvent();
+        if (!event.isEnabled()) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        
+        event.begin();
+        describe(event, object);
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            event.commit();
+        }
+    }
+    
+    private static void describe(SerializationJfrEvent event, Object body) {
+        if (body instanceof MappingJacksonValue container) {
+            // Sparse fieldset responses come wrapped with their property filter
+            body = container.getValue();
+        }
+        Object payload = body instanceof ApiResponse<?> response ? response.getData() : body;
+        if (payload == null) {
+            event.payloadType = "empty";
+            return;
+        }
+        
+        event.payloadType = payload.getClass().getSimpleName();
+        Object sample = payload;
+        if (payload instanceof Collection<?> items) {
+            event.items = items.size();
+            sample = items.isEmpty() ? null : items.iterator().next();
+            if (sample != null) {
+                event.payloadType += "<" + sample.getClass().getSimpleName() + ">";
+            }
+        } else {
+            event.items = 1;
+        }
+        
+        if (sample instanceof TaskInstanceResponseDto task) {
+            event.dogId = task.getDogId() != null ? task.getDogId() : 0;
+            event.taskType = event.items == 1 && task.getType() != null ? task.getType().name() : null;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.EggTart.dyst.EggTart.jfr;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "eggtart.jfr")
+public class JfrProperties {
+    
+    private boolean enabled = true;
+    
+    /** How far back the continuous recording reaches. */
+    private Duration maxAge = Duration.ofMinutes(30);
+    
+    private DataSize maxSize = DataSize.ofMegabytes(100);
+    
+    /** Repository calls faster than this are not recorded. */
+    private Duration repositoryThreshold = Duration.ofMillis(1);
+    
+    private String dumpDirectory = "data/jfr";
+}
@@ -0,0 +1,26 @@
+package com.EggTart.dyst.EggTart.jfr;
+
+import jdk.jfr.*;
+
+@Name("eggtart.RepositoryCall")
+@Label("Repository Call")
+@Category({"EggTart", "Persistence"})
+@Description("A Spring Data repository method invocation, including its flush and query time")
+@StackTrace(false)
+public class RepositoryCallJfrEvent extends Event {
+    
+    @Label("Repository")
+    String repository;
+    
+    @Label("Method")
+    String method;
+    
+    @Label("Dog ID")
+    long dogId;
+    
+    @Label("Task Type")
+    String taskType;
+    
+    @Label("Outcome")
+    String outcome;
+}
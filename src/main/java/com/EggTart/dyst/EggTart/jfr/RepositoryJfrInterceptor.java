@@ -0,0 +1,75 @@
+package com.EggTart.dyst.EggTart.jfr;
+
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.entity.TaskTemplate;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.data.repository.query.Param;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+/**
+ * Records a {@link RepositoryCallJfrEvent} around each repository method.
+ * The dog id and task type are taken from {@code @Param("dogId")} and
+ * {@code @Param("type")} arguments, or from a saved task entity.
+ */
+class RepositoryJfrInterceptor implements MethodInterceptor {
+    
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RepositoryCallJfrEvent event = new RepositoryCallJfrEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        
+        event.begin();
+        Method method = invocation.getMethod();
+        event.repository = repositoryName(invocation);
+        event.method = method.getName();
+        describeArguments(event, method, invocation.getArguments());
+        try {
+            Object result = invocation.proceed();
+            event.outcome = "OK";
+            return result;
+        } catch (Throwable ex) {
+            event.outcome = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            event.commit();
+        }
+    }
+    
+    private static String repositoryName(MethodInvocation invocation) {
+        // Spring Data proxies list the repository interface first
+        if (invocation.getThis() instanceof Advised advised && advised.getProxiedInterfaces().length > 0) {
+            return advised.getProxiedInterfaces()[0].getSimpleName();
+        }
+        return invocation.getMethod().getDeclaringClass().getSimpleName();
+    }
+    
+    private static void describeArguments(RepositoryCallJfrEvent event, Method method, Object[] arguments) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        for (int i = 0; i < arguments.length; i++) {
+            Object argument = arguments[i];
+            if (argument instanceof TaskInstance task) {
+                event.dogId = task.getDogId() != null ? task.getDogId() : 0;
+                event.taskType = task.getType() != null ? task.getType().name() : null;
+            } else if (argument instanceof TaskTemplate template) {
+                event.dogId = template.getDogId() != null ? template.getDogId() : 0;
+                event.taskType = template.getType() != null ? template.getType().name() : null;
+            }
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof Param param) {
+                    if ("dogId".equals(param.value()) && argument instanceof Long dogId) {
+                        event.dogId = dogId;
+                    } else if ("type".equals(param.value()) && argument instanceof TaskType type) {
+                        event.taskType = type.name();
+                    }
+                }
+            }
+        }
+    }
+}
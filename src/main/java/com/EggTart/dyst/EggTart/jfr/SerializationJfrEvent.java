@@ -0,0 +1,23 @@
+package com.EggTart.dyst.EggTart.jfr;
+
+import jdk.jfr.*;
+
+@Name("eggtart.ResponseSerialization")
+@Label("Response Serialization")
+@Category({"EggTart", "Web"})
+@Description("Jackson serialization of an API response body")
+@StackTrace(false)
+public class SerializationJfrEvent extends Event {
+    
+    @Label("Payload Type")
+    String payloadType;
+    
+    @Label("Items")
+    int items;
+    
+    @Label("Dog ID")
+    long dogId;
+    
+    @Label("Task Type")
+    String taskType;
+}
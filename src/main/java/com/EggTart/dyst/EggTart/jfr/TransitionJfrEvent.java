@@ -0,0 +1,26 @@
+package com.EggTart.dyst.EggTart.jfr;
+
+import jdk.jfr.*;
+
+@Name("eggtart.TaskTransition")
+@Label("Task Transition")
+@Category({"EggTart", "Tasks"})
+@Description("A start, complete, delay or skip of a task instance")
+@StackTrace(false)
+public class TransitionJfrEvent extends Event {
+    
+    @Label("Transition")
+    String transition;
+    
+    @Label("Task ID")
+    long taskId;
+    
+    @Label("Dog ID")
+    long dogId;
+    
+    @Label("Task Type")
+    String taskType;
+    
+    @Label("Outcome")
+    String outcome;
+}
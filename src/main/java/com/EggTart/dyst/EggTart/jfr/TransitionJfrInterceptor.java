@@ -0,0 +1,41 @@
+package com.EggTart.dyst.EggTart.jfr;
+
+import com.EggTart.dyst.EggTart.dto.response.TaskInstanceResponseDto;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Records a {@link TransitionJfrEvent} around each task transition. Dog and
+ * task type come from the returned task, so rejected transitions only carry
+ * the task id.
+ */
+class TransitionJfrInterceptor implements MethodInterceptor {
+    
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        TransitionJfrEvent event = new TransitionJfrEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        
+        event.begin();
+        event.transition = invocation.getMethod().getName();
+        if (invocation.getArguments().length > 0 && invocation.getArguments()[0] instanceof Long taskId) {
+            event.taskId = taskId;
+        }
+        try {
+            Object result = invocation.proceed();
+            if (result instanceof TaskInstanceResponseDto task) {
+                event.dogId = task.getDogId() != null ? task.getDogId() : 0;
+                event.taskType = task.getType() != null ? task.getType().name() : null;
+            }
+            event.outcome = "OK";
+            return result;
+        } catch (Throwable ex) {
+            event.outcome = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.EggTart.dyst.EggTart.limit;
+
+import com.EggTart.dyst.EggTart.dto.response.ApiResponse;
+import com.EggTart.dyst.EggTart.warmup.WarmupRunner;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Adaptive load shedding for the API.
+ *
+ * Each {@link EndpointGroup} has its own {@link GradientLimiter}. A request
+ * is rejected straight away with a 503 and a Retry-After hint when its group
+ * is at its limit, or when a higher-priority group is saturated, so task
+ * transitions keep their capacity while reads and analytics back off.
+ * Warm-up requests pass unlimited and leave the limits untouched.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    
+    private final Map<EndpointGroup, GradientLimiter> limiters = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> rejections = new EnumMap<>(EndpointGroup.class);
+    private final ObjectMapper objectMapper;
+    
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        for (EndpointGroup group : EndpointGroup.values()) {
+            GradientLimiter limiter = new GradientLimiter(properties);
+            limiters.put(group, limiter);
+            
+            String tag = group.name().toLowerCase();
+            Gauge.builder("eggtart.concurrency.limit", limiter, GradientLimiter::getLimit)
+                .tag("group", tag)
+                .register(meterRegistry);
+            Gauge.builder("eggtart.concurrency.in-flight", limiter, GradientLimiter::getInFlight)
+                .tag("group", tag)
+                .register(meterRegistry);
+            rejections.put(group, Counter.builder("eggtart.concurrency.rejected")
+                .tag("group", tag)
+                .register(meterRegistry));
+        }
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/") || WarmupRunner.isSynthetic(request);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        EndpointGroup group = EndpointGroup.of(request);
+        GradientLimiter limiter = limiters.get(group);
+        
+        if (higherPrioritySaturated(group) || !limiter.tryAcquire()) {
+            reject(group, limiter, response);
+            return;
+        }
+        
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            limiter.release(failed ? -1 : System.nanoTime() - started);
+        }
+    }
+    
+    private boolean higherPrioritySaturated(EndpointGroup group) {
+        for (EndpointGroup higher : EndpointGroup.values()) {
+            if (higher == group) {
+                return false;
+            }
+            if (limiters.get(higher).isSaturated()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void reject(EndpointGroup group, GradientLimiter limiter, HttpServletResponse response) throws IOException {
+        rejections.get(group).increment();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(limiter.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+            ApiResponse.error("Server is busy, please retry shortly"));
+    }
+}
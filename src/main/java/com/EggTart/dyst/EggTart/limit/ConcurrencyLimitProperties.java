@@ -0,0 +1,28 @@
+package com.EggTart.dyst.EggTart.limit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "eggtart.concurrency")
+public class ConcurrencyLimitProperties {
+    
+    private boolean enabled = true;
+    
+    private int initialLimit = 20;
+    
+    private int minLimit = 4;
+    
+    private int maxLimit = 200;
+    
+    /** How much the short-term latency may exceed the long-term average before the limit shrinks. */
+    private double rttTolerance = 1.5;
+    
+    private double smoothing = 0.2;
+    
+    /** Number of samples the long-term latency average spans. */
+    private int longWindow = 600;
+    
+    /** Share of its limit at which a group counts as saturated and lower groups are shed. */
+    private double saturation = 0.9;
+}
@@ -0,0 +1,24 @@
+package com.EggTart.dyst.EggTart.limit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * API endpoint groups in priority order: a group is shed while any group
+ * before it is saturated.
+ */
+public enum EndpointGroup {
+    TRANSITIONS,
+    READS,
+    ANALYTICS;
+    
+    public static EndpointGroup of(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (uri.startsWith("/api/stats") || uri.startsWith("/api/walks/search") || uri.startsWith("/api/reports")) {
+            return ANALYTICS;
+        }
+        return switch (request.getMethod()) {
+            case "POST", "PUT", "PATCH", "DELETE" -> TRANSITIONS;
+            default -> READS;
+        };
+    }
+}
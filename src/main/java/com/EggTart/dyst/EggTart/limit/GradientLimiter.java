@@ -0,0 +1,90 @@
+package com.EggTart.dyst.EggTart.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to measured latency, after the gradient
+ * algorithm used by Netflix's concurrency-limits.
+ *
+ * A long-term exponential average of request latency serves as the no-load
+ * baseline. Each sample compares it to the latest latency: while they agree
+ * the limit grows by a queue allowance of sqrt(limit), and as latency climbs
+ * above the baseline (beyond the tolerance) the limit shrinks in proportion,
+ * by at most half per update. Growth is skipped while the limiter is
+ * under-used, so an idle period cannot inflate the limit.
+ */
+public class GradientLimiter {
+    
+    private final ConcurrencyLimitProperties properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    private volatile double limit;
+    private volatile double longRttNanos;
+    private long samples;
+    
+    public GradientLimiter(ConcurrencyLimitProperties properties) {
+        this.properties = properties;
+        this.limit = properties.getInitialLimit();
+    }
+    
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Releases a permit, feeding the request's latency back into the limit.
+     * Pass a negative latency for requests that failed before doing real work.
+     */
+    public void release(long rttNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (rttNanos > 0) {
+            onSample(rttNanos, inFlightBefore);
+        }
+    }
+    
+    public int getLimit() {
+        return (int) limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    public boolean isSaturated() {
+        return inFlight.get() >= getLimit() * properties.getSaturation();
+    }
+    
+    /** Expected wait before capacity frees up, in whole seconds and at least one. */
+    public long retryAfterSeconds() {
+        return Math.max(1, (long) Math.ceil(longRttNanos / 1_000_000_000.0));
+    }
+    
+    private synchronized void onSample(long rttNanos, int inFlightAtSample) {
+        samples++;
+        int window = (int) Math.min(samples, properties.getLongWindow());
+        longRttNanos = longRttNanos + (rttNanos - longRttNanos) / window;
+        
+        // Let the baseline recover quickly after a sustained drop in latency
+        if (longRttNanos / rttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+        
+        // Don't grow the limit while most of it goes unused
+        if (inFlightAtSample < limit / 2) {
+            return;
+        }
+        
+        double gradient = Math.max(0.5, Math.min(1.0, properties.getRttTolerance() * longRttNanos / rttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - properties.getSmoothing()) + newLimit * properties.getSmoothing();
+        limit = Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), newLimit));
+    }
+}
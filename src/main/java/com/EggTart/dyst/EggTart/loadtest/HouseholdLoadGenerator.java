@@ -0,0 +1,224 @@
+package com.EggTart.dyst.EggTart.loadtest;
+
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Simulates caregivers using the API: onboarding dogs, polling today's tasks
+ * and moving tasks through start/delay/skip/complete (with walk records).
+ *
+ * Requests arrive as an open-model Poisson process whose rate is multiplied
+ * around mealtimes of a compressed simulated day. Latencies are recorded per
+ * endpoint in HdrHistograms and reported when the run ends, then checked
+ * against the p99 and error-rate limits; a breach makes the process exit
+ * non-zero so CI can gate on it. Today's task instances are created by the
+ * server itself when a dog is onboarded.
+ *
+ * Run with {@code --spring.profiles.active=loadtest}, or with
+ * {@code reactive,loadtest} to drive the non-blocking runtime with the same
+ * scenarios and compare the two reports.
+ */
+@Component
+@Profile("loadtest")
+@EnableConfigurationProperties(LoadTestProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class HouseholdLoadGenerator implements ApplicationRunner {
+    
+    private final LoadTestProperties properties;
+    private final Environment environment;
+    private final ConfigurableApplicationContext applicationContext;
+    
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final Map<Long, List<JsonNode>> knownTasks = new ConcurrentHashMap<>();
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        boolean local = properties.getBaseUrl() == null;
+        String baseUrl = local
+            ? "http://localhost:" + environment.getProperty("local.server.port", "8080")
+            : properties.getBaseUrl();
+        RestClient client = RestClient.builder().baseUrl(baseUrl).build();
+        
+        log.info("Load test against {}: {} caregivers, {} s, {} req/s base rate",
+            baseUrl, properties.getCaregivers(), properties.getDurationSeconds(), properties.getArrivalRatePerSecond());
+        
+        List<Long> dogIds = onboardDogs(client);
+        if (dogIds.isEmpty()) {
+            log.error("No dogs could be onboarded, aborting load test");
+            finish(false);
+            return;
+        }
+        runArrivals(client, dogIds);
+        
+        List<LatencyRecorder.EndpointResult> results = recorder.results();
+        log.info("Load test finished:{}", LatencyRecorder.report(results));
+        
+        List<String> breaches = new LoadTestGate(properties).breaches(results);
+        breaches.forEach(breach -> log.error("Load test limit breached: {}", breach));
+        finish(breaches.isEmpty());
+    }
+    
+    private void finish(boolean passed) {
+        if (properties.isExitOnFinish()) {
+            int exitCode = passed ? 0 : properties.getFailureExitCode();
+            System.exit(SpringApplication.exit(applicationContext, () -> exitCode));
+        }
+    }
+    
+    private List<Long> onboardDogs(RestClient client) {
+        List<Long> dogIds = new ArrayList<>();
+        for (int i = 0; i < properties.getCaregivers(); i++) {
+            Map<String, Object> onboarding = Map.of(
+                "dogName", "LoadDog-" + i,
+                "ageMo", 2 + ThreadLocalRandom.current().nextInt(150),
+                "weight", 3 + ThreadLocalRandom.current().nextInt(40),
+                "mealTimes", List.of("08:00", "18:00"),
+                "walkTimes", List.of("07:30", "12:30", "19:30"),
+                "drinkTimes", List.of("10:00", "15:00")
+            );
+            JsonNode body = call("POST /api/dogs", () -> client.post()
+                .uri("/api/dogs")
+                .body(onboarding)
+                .retrieve()
+                .body(JsonNode.class));
+            if (body != null) {
+                dogIds.add(body.path("data").path("id").asLong());
+            }
+        }
+        return dogIds;
+    }
+    
+    private void runArrivals(RestClient client, List<Long> dogIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long start = System.nanoTime();
+        long end = start + properties.getDurationSeconds() * 1_000_000_000L;
+        
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            long next = start;
+            while (true) {
+                double rate = properties.getArrivalRatePerSecond() * spikeMultiplier(next - start);
+                next += (long) (-Math.log(1 - random.nextDouble()) / rate * 1_000_000_000L);
+                if (next >= end) {
+                    break;
+                }
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Long dogId = dogIds.get(random.nextInt(dogIds.size()));
+                workers.submit(() -> simulateCaregiver(client, dogId));
+            }
+        }
+    }
+    
+    private double spikeMultiplier(long elapsedNanos) {
+        long dayNanos = properties.getDayLengthSeconds() * 1_000_000_000L;
+        int minuteOfDay = (int) ((elapsedNanos % dayNanos) * 1440 / dayNanos);
+        for (LocalTime mealtime : properties.getMealtimes()) {
+            int offset = minuteOfDay - (mealtime.getHour() * 60 + mealtime.getMinute());
+            if (offset >= 0 && offset < properties.getMealtimeSpikeMinutes()) {
+                return properties.getMealtimeSpikeMultiplier();
+            }
+        }
+        return 1.0;
+    }
+    
+    private void simulateCaregiver(RestClient client, Long dogId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<JsonNode> tasks = knownTasks.get(dogId);
+        if (tasks == null || tasks.isEmpty() || random.nextDouble() < properties.getPollRatio()) {
+            poll(client, dogId);
+            return;
+        }
+        
+        JsonNode task = tasks.get(random.nextInt(tasks.size()));
+        long taskId = task.path("id").asLong();
+        String status = task.path("status").asText();
+        double roll = random.nextDouble();
+        
+        if (TaskStatus.PENDING.name().equals(status)) {
+            if (roll < 0.6) {
+                call("POST /api/tasks/{id}/start", () -> client.post()
+                    .uri("/api/tasks/{id}/start", taskId).retrieve().body(JsonNode.class));
+            } else if (roll < 0.8) {
+                call("POST /api/tasks/{id}/delay", () -> client.post()
+                    .uri("/api/tasks/{id}/delay", taskId)
+                    .body(Map.of("delayMinutes", 5 + random.nextInt(55)))
+                    .retrieve().body(JsonNode.class));
+            } else if (roll < 0.9) {
+                call("POST /api/tasks/{id}/skip", () -> client.post()
+                    .uri("/api/tasks/{id}/skip", taskId).retrieve().body(JsonNode.class));
+            } else {
+                complete(client, task, taskId);
+            }
+        } else if (TaskStatus.IN_PROGRESS.name().equals(status)) {
+            complete(client, task, taskId);
+        } else {
+            poll(client, dogId);
+        }
+    }
+    
+    private void complete(RestClient client, JsonNode task, long taskId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<String, Object> walkRecord = "WALK".equals(task.path("type").asText())
+            ? Map.of(
+                "pee", random.nextBoolean(),
+                "poo", random.nextBoolean(),
+                "mood", "HAPPY",
+                "notes", "Load test walk, sniffed " + random.nextInt(20) + " trees")
+            : null;
+        call("POST /api/tasks/{id}/complete", () -> {
+            RestClient.RequestBodySpec request = client.post().uri("/api/tasks/{id}/complete", taskId);
+            return (walkRecord != null ? request.body(walkRecord) : request).retrieve().body(JsonNode.class);
+        });
+    }
+    
+    private void poll(RestClient client, Long dogId) {
+        JsonNode body = call("GET /api/tasks", () -> client.get()
+            .uri("/api/tasks?dogId={dogId}", dogId).retrieve().body(JsonNode.class));
+        if (body != null && body.path("data").isArray()) {
+            List<JsonNode> tasks = new ArrayList<>();
+            body.path("data").forEach(tasks::add);
+            knownTasks.put(dogId, tasks);
+        }
+    }
+    
+    private JsonNode call(String endpoint, Supplier<JsonNode> request) {
+        long started = System.nanoTime();
+        int status = 200;
+        try {
+            return request.get();
+        } catch (RestClientResponseException ex) {
+            status = ex.getStatusCode().value();
+            return null;
+        } catch (RuntimeException ex) {
+            status = -1;
+            log.debug("Request {} failed: {}", endpoint, ex.getMessage());
+            return null;
+        } finally {
+            recorder.record(endpoint, System.nanoTime() - started, status);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.EggTart.dyst.EggTart.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms and outcome counters for a load run.
+ */
+class LatencyRecorder {
+    
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.SECONDS.toNanos(60);
+    
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> rejections = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    
+    void record(String endpoint, long elapsedNanos, int status) {
+        recorders.computeIfAbsent(endpoint, e -> new Recorder(HIGHEST_TRACKABLE_NANOS, 3))
+            .recordValue(Math.min(elapsedNanos, HIGHEST_TRACKABLE_NANOS));
+        if (status >= 500 || status < 0) {
+            errors.computeIfAbsent(endpoint, e -> new LongAdder()).increment();
+        } else if (status >= 400) {
+            // Expected under concurrency: another caregiver already moved the task on
+            rejections.computeIfAbsent(endpoint, e -> new LongAdder()).increment();
+        }
+    }
+    
+    /**
+     * Everything recorded since the last call, per endpoint in name order.
+     */
+    List<EndpointResult> results() {
+        return new TreeMap<>(recorders).entrySet().stream()
+            .map(entry -> new EndpointResult(
+                entry.getKey(),
+                entry.getValue().getIntervalHistogram(),
+                count(rejections, entry.getKey()),
+                count(errors, entry.getKey())))
+            .toList();
+    }
+    
+    static String report(List<EndpointResult> results) {
+        StringBuilder report = new StringBuilder(String.format(
+            "%n%-34s %9s %8s %8s %9s %9s %9s %9s %9s%n",
+            "endpoint", "requests", "4xx", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (EndpointResult result : results) {
+            Histogram histogram = result.histogram();
+            report.append(String.format("%-34s %9d %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                result.endpoint(),
+                result.requests(),
+                result.rejections(),
+                result.errors(),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue())));
+        }
+        return report.toString();
+    }
+    
+    private static long count(Map<String, LongAdder> counters, String endpoint) {
+        LongAdder counter = counters.get(endpoint);
+        return counter != null ? counter.sum() : 0;
+    }
+    
+    static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+    
+    record EndpointResult(String endpoint, Histogram histogram, long rejections, long errors) {
+        
+        long requests() {
+            return histogram.getTotalCount();
+        }
+        
+        long p99Nanos() {
+            return histogram.getValueAtPercentile(99);
+        }
+    }
+}
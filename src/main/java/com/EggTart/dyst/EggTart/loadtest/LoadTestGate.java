@@ -0,0 +1,46 @@
+package com.EggTart.dyst.EggTart.loadtest;
+
+import com.EggTart.dyst.EggTart.loadtest.LatencyRecorder.EndpointResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks a finished run against the configured p99 and error-rate limits.
+ * Rejections (4xx) are expected under concurrency and never fail a run.
+ */
+final class LoadTestGate {
+    
+    private final LoadTestProperties properties;
+    
+    LoadTestGate(LoadTestProperties properties) {
+        this.properties = properties;
+    }
+    
+    /**
+     * @return one line per breached limit, empty when the run passed
+     */
+    List<String> breaches(List<EndpointResult> results) {
+        List<String> breaches = new ArrayList<>();
+        long requests = 0;
+        long errors = 0;
+        for (EndpointResult result : results) {
+            requests += result.requests();
+            errors += result.errors();
+            
+            Duration limit = properties.getMaxP99ByEndpoint().getOrDefault(result.endpoint(), properties.getMaxP99());
+            if (limit != null && result.requests() > 0 && result.p99Nanos() > limit.toNanos()) {
+                breaches.add(String.format("%s p99 %.2f ms exceeds %d ms",
+                    result.endpoint(), LatencyRecorder.millis(result.p99Nanos()), limit.toMillis()));
+            }
+        }
+        
+        double errorRate = requests > 0 ? (double) errors / requests : 0.0;
+        if (errorRate > properties.getMaxErrorRate()) {
+            breaches.add(String.format("error rate %.4f (%d of %d requests) exceeds %.4f",
+                errorRate, errors, requests, properties.getMaxErrorRate()));
+        }
+        return breaches;
+    }
+}
@@ -0,0 +1,57 @@
+package com.EggTart.dyst.EggTart.loadtest;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings for the household load generator ({@code loadtest} profile).
+ *
+ * The run compresses one simulated day into {@code dayLengthSeconds} so that
+ * mealtime spikes recur several times during a short run. A run that breaks
+ * a p99 or error-rate limit exits with {@link #failureExitCode}.
+ */
+@Data
+@ConfigurationProperties(prefix = "eggtart.loadtest")
+public class LoadTestProperties {
+    
+    /** Target base URL; defaults to this instance on its local port. */
+    private String baseUrl;
+    
+    private int caregivers = 50;
+    
+    private int durationSeconds = 60;
+    
+    /** Mean requests per second outside mealtime spikes. */
+    private double arrivalRatePerSecond = 20.0;
+    
+    /** Share of arrivals that are polls of GET /api/tasks. */
+    private double pollRatio = 0.6;
+    
+    private int dayLengthSeconds = 60;
+    
+    private List<LocalTime> mealtimes = List.of(LocalTime.of(8, 0), LocalTime.of(18, 0));
+    
+    private int mealtimeSpikeMinutes = 45;
+    
+    private double mealtimeSpikeMultiplier = 4.0;
+    
+    /** Shut the application down after reporting. */
+    private boolean exitOnFinish = true;
+    
+    /** p99 limit for every endpoint; unset to not gate on latency. */
+    private Duration maxP99;
+    
+    /** Per-endpoint p99 limits keyed like the report, e.g. {@code [GET\ /api/tasks]=200ms}. */
+    private Map<String, Duration> maxP99ByEndpoint = new HashMap<>();
+    
+    /** Highest share of requests that may end in a 5xx or a transport error. */
+    private double maxErrorRate = 0.01;
+    
+    private int failureExitCode = 3;
+}
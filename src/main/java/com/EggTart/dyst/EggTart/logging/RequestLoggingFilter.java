@@ -0,0 +1,92 @@
+package com.EggTart.dyst.EggTart.logging;
+
+import com.EggTart.dyst.EggTart.warmup.WarmupRunner;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Emits one structured event per API request, replacing the per-step INFO
+ * lines the controllers and services used to write.
+ *
+ * Successful requests are sampled per endpoint; client and server errors are
+ * always kept, and warm-up requests are never logged. The event is handed to an asynchronous appender, so the
+ * request thread only pays for building the key/value pairs.
+ */
+@RequiredArgsConstructor
+public class RequestLoggingFilter extends OncePerRequestFilter {
+    
+    private static final Logger REQUEST_LOG = LoggerFactory.getLogger("eggtart.requests");
+    
+    private final RequestLoggingProperties properties;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !request.getRequestURI().startsWith("/api/")
+            || WarmupRunner.isSynthetic(request);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long started = System.nanoTime();
+        Throwable failure = null;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            logRequest(request, response, System.nanoTime() - started, failure);
+        }
+    }
+    
+    private void logRequest(HttpServletRequest request, HttpServletResponse response,
+                            long elapsedNanos, Throwable failure) {
+        int status = failure != null ? 500 : response.getStatus();
+        String route = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (route != null ? route : request.getRequestURI());
+        
+        boolean failed = status >= 400;
+        if (!failed && !sampled(endpoint)) {
+            return;
+        }
+        if (!(failed ? REQUEST_LOG.isWarnEnabled() : REQUEST_LOG.isInfoEnabled())) {
+            return;
+        }
+        
+        LoggingEventBuilder event = (failed ? REQUEST_LOG.atWarn() : REQUEST_LOG.atInfo())
+            .addKeyValue("endpoint", endpoint)
+            .addKeyValue("status", status)
+            .addKeyValue("durationMs", elapsedNanos / 1_000_000.0);
+        
+        String dogId = request.getParameter("dogId");
+        if (dogId != null) {
+            event = event.addKeyValue("dogId", dogId);
+        }
+        Object pathVariables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (pathVariables instanceof Map<?, ?> variables && variables.get("id") != null) {
+            event = event.addKeyValue("id", variables.get("id"));
+        }
+        if (failure != null) {
+            event = event.addKeyValue("error", failure.getClass().getSimpleName());
+        }
+        event.log("request");
+    }
+    
+    private boolean sampled(String endpoint) {
+        double rate = properties.sampleRateFor(endpoint);
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+}
@@ -0,0 +1,29 @@
+package com.EggTart.dyst.EggTart.logging;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sampling policy for the per-request log event.
+ *
+ * Rates are keyed by {@code "<METHOD> <route pattern>"}, for example
+ * {@code eggtart.logging.requests.sample-rates.[GET\ /api/tasks]=0.05}.
+ * Failed requests are always logged regardless of the rate.
+ */
+@Data
+@ConfigurationProperties(prefix = "eggtart.logging.requests")
+public class RequestLoggingProperties {
+    
+    private boolean enabled = true;
+    
+    private double defaultSampleRate = 1.0;
+    
+    private Map<String, Double> sampleRates = new HashMap<>();
+    
+    public double sampleRateFor(String endpoint) {
+        return sampleRates.getOrDefault(endpoint, defaultSampleRate);
+    }
+}
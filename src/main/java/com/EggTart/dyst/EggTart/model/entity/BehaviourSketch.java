@@ -0,0 +1,38 @@
+package com.EggTart.dyst.EggTart.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted {@link com.EggTart.dyst.EggTart.behaviour.TemplateBehaviour} of
+ * one task template, stored on the dog's shard. Instances add their deltas
+ * to it, so the version guards against two of them writing at once.
+ */
+@Entity
+@Table(name = "behaviour_sketches", indexes = @Index(name = "idx_behaviour_sketches_dog", columnList = "dog_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "templateId")
+@ToString(exclude = "data")
+public class BehaviourSketch {
+    
+    @Id
+    @Column(name = "task_template_id")
+    private Long templateId;
+    
+    @Column(name = "dog_id", nullable = false)
+    private Long dogId;
+    
+    @Column(nullable = false, columnDefinition = "VARBINARY(4096)")
+    private byte[] data;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @Version
+    private Long version;
+}
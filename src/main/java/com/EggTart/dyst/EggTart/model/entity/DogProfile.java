@@ -1,5 +1,6 @@
 package com.EggTart.dyst.EggTart.model.entity;
 
+import com.EggTart.dyst.EggTart.sharding.ShardAwareId;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
@@ -7,11 +8,14 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(ChangeSequenceListener.class)
 @Table(name = "dog_profiles")
 @Data
 @NoArgsConstructor
@@ -22,7 +26,7 @@ import java.util.List;
 public class DogProfile {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardAwareId
     private Long id;
     
     @Column(nullable = false, length = 100)
@@ -33,6 +37,10 @@ public class DogProfile {
     @Min(value = 1, message = "Age must be positive")
     private Integer ageMo;
     
+    /** Date on which ageMo was last accurate; the age is rolled forward from here. */
+    @Column(name = "age_recorded_on")
+    private LocalDate ageRecordedOn;
+    
     @Column(precision = 5, scale = 2)
     @DecimalMin(value = "0.1", message = "Weight must be positive")
     private BigDecimal weight;
@@ -56,13 +64,40 @@ public class DogProfile {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    @Column(name = "change_seq")
+    private Long changeSeq;
+    
     @OneToMany(mappedBy = "dogId", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<TaskTemplate> taskTemplates = new ArrayList<>();
     
     @PrePersist
-    private void prePersist() {
-        if (puppyFlag == null) {
-            puppyFlag = ageMo != null && ageMo <= 12;
+    @PreUpdate
+    private void refreshAgeOnSave() {
+        rollAgeForward(LocalDate.now());
+    }
+    
+    /**
+     * Adds the whole months elapsed since the age was recorded and updates the
+     * puppy flag to match. Returns whether anything changed.
+     */
+    public boolean rollAgeForward(LocalDate today) {
+        if (ageRecordedOn == null) {
+            ageRecordedOn = today;
+        }
+        
+        boolean changed = false;
+        long elapsedMonths = ChronoUnit.MONTHS.between(ageRecordedOn, today);
+        if (ageMo != null && elapsedMonths > 0) {
+            ageMo += (int) elapsedMonths;
+            ageRecordedOn = ageRecordedOn.plusMonths(elapsedMonths);
+            changed = true;
+        }
+        
+        boolean puppy = ageMo != null && ageMo <= 12;
+        if (!Boolean.valueOf(puppy).equals(puppyFlag)) {
+            puppyFlag = puppy;
+            changed = true;
         }
+        return changed;
     }
 } 
\ No newline at end of file
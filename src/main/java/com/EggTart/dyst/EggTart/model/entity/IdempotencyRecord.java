@@ -0,0 +1,51 @@
+package com.EggTart.dyst.EggTart.model.entity;
+
+import com.EggTart.dyst.EggTart.model.enums.IdempotencyState;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * The response first returned for an Idempotency-Key, replayed to retries
+ * until it expires. While the first request runs, the row only reserves the
+ * key and has no response yet.
+ */
+@Entity
+@Table(name = "idempotency_records", indexes = @Index(name = "idx_idempotency_records_expires", columnList = "expires_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "idempotencyKey")
+@ToString(exclude = "responseBody")
+public class IdempotencyRecord {
+    
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String idempotencyKey;
+    
+    // Method, path and body hash of the original request; a key may not be reused for another request
+    @Column(name = "request_fingerprint", nullable = false, length = 300)
+    private String requestFingerprint;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private IdempotencyState state;
+    
+    @Column(name = "response_status")
+    private Integer responseStatus;
+    
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+    
+    @Lob
+    @Column(name = "response_body")
+    private byte[] responseBody;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,52 @@
+package com.EggTart.dyst.EggTart.model.entity;
+
+import com.EggTart.dyst.EggTart.model.enums.MeasurementType;
+import com.EggTart.dyst.EggTart.sharding.ShardAwareId;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * A run of consecutive measurements of one type for one dog, compressed by
+ * {@link com.EggTart.dyst.EggTart.timeseries.GorillaCodec}. Only the newest,
+ * unsealed chunk of a series is appended to; sealed chunks are rewritten
+ * only for late readings between their start and the next chunk's. Ranges
+ * of one series never overlap.
+ */
+@Entity
+@Table(name = "measurement_chunks",
+    indexes = @Index(name = "idx_measurement_chunks_series", columnList = "dog_id, type, start_epoch"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "id")
+@ToString(exclude = "data")
+public class MeasurementChunk {
+    
+    @Id
+    @ShardAwareId
+    private Long id;
+    
+    @Column(name = "dog_id", nullable = false)
+    private Long dogId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private MeasurementType type;
+    
+    /** First and last reading, in epoch seconds. */
+    @Column(name = "start_epoch", nullable = false)
+    private Long startEpoch;
+    
+    @Column(name = "end_epoch", nullable = false)
+    private Long endEpoch;
+    
+    @Column(name = "point_count", nullable = false)
+    private Integer pointCount;
+    
+    @Column(nullable = false)
+    private Boolean sealed;
+    
+    @Column(nullable = false, columnDefinition = "VARBINARY(8192)")
+    private byte[] data;
+}
@@ -0,0 +1,90 @@
+package com.EggTart.dyst.EggTart.model.entity;
+
+import com.EggTart.dyst.EggTart.model.enums.ReportFormat;
+import com.EggTart.dyst.EggTart.model.enums.ReportStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A care summary report requested for one dog, generated in the background
+ * and kept on local storage until it expires.
+ *
+ * While queued or running a job holds one of its dog's active slots, unique
+ * per dog, and is leased to the instance generating it.
+ */
+@Entity
+@Table(name = "report_jobs", indexes = {
+    @Index(name = "idx_report_jobs_status", columnList = "status, claimed_until"),
+    @Index(name = "idx_report_jobs_finished", columnList = "finished_at")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_report_jobs_active_slot", columnNames = {"dog_id", "active_slot"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "id")
+public class ReportJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "dog_id", nullable = false)
+    private Long dogId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ReportFormat format;
+    
+    @Column(name = "from_date", nullable = false)
+    private LocalDate fromDate;
+    
+    @Column(name = "to_date", nullable = false)
+    private LocalDate toDate;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private ReportStatus status = ReportStatus.QUEUED;
+    
+    // Days written so far, for progress while running
+    @Column(name = "days_written")
+    @Builder.Default
+    private Integer daysWritten = 0;
+    
+    @Column(name = "file_path", length = 500)
+    private String filePath;
+    
+    @Column(name = "file_size")
+    private Long fileSize;
+    
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    // Cleared once finished, so the dog's slot can be taken again
+    @Column(name = "active_slot")
+    private Integer activeSlot;
+    
+    @Column(name = "claimed_by", length = 80)
+    private String claimedBy;
+    
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+    
+    // Bumped when another instance takes the job over, failing the old owner's next save
+    @Version
+    private Long version;
+}
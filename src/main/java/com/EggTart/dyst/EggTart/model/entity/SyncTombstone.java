@@ -0,0 +1,41 @@
+package com.EggTart.dyst.EggTart.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks a deleted row so offline clients can drop it on their next sync.
+ */
+@Entity
+@Table(name = "sync_tombstones", indexes = @Index(name = "idx_sync_tombstones_dog_seq", columnList = "dog_id, change_seq"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "id")
+public class SyncTombstone {
+    
+    public static final String TASK_TEMPLATE = "TASK_TEMPLATE";
+    public static final String TASK_INSTANCE = "TASK_INSTANCE";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "entity_type", nullable = false, length = 40)
+    private String entityType;
+    
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+    
+    @Column(name = "dog_id", nullable = false)
+    private Long dogId;
+    
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
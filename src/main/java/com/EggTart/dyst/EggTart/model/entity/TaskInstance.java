@@ -2,6 +2,7 @@ package com.EggTart.dyst.EggTart.model.entity;
 
 import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
 import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.EggTart.dyst.EggTart.sharding.ShardAwareId;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -10,7 +11,9 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "task_instances")
+@EntityListeners(ChangeSequenceListener.class)
+@Table(name = "task_instances", uniqueConstraints = @UniqueConstraint(
+    name = "uk_task_instances_slot", columnNames = {"dog_id", "type", "slot_time"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,7 +22,7 @@ import java.time.LocalDateTime;
 public class TaskInstance {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardAwareId
     private Long id;
     
     @Column(name = "task_template_id")
@@ -35,6 +38,13 @@ public class TaskInstance {
     @Column(name = "scheduled_time", nullable = false)
     private LocalDateTime scheduledTime;
     
+    /**
+     * The time a template occurrence was generated for; unlike the scheduled
+     * time, delays never move it. Null for tasks not generated from a template.
+     */
+    @Column(name = "slot_time", updatable = false)
+    private LocalDateTime slotTime;
+    
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     @Builder.Default
@@ -56,4 +66,7 @@ public class TaskInstance {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+    
+    @Column(name = "change_seq")
+    private Long changeSeq;
 } 
\ No newline at end of file
@@ -1,14 +1,17 @@
 package com.EggTart.dyst.EggTart.model.entity;
 
 import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.EggTart.dyst.EggTart.sharding.ShardAwareId;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalTime;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(ChangeSequenceListener.class)
 @Table(name = "task_templates")
 @Data
 @NoArgsConstructor
@@ -18,7 +21,7 @@ import java.time.LocalDateTime;
 public class TaskTemplate {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardAwareId
     private Long id;
     
     @Column(name = "dog_id", nullable = false)
@@ -31,7 +34,18 @@ public class TaskTemplate {
     @Column(name = "default_time", nullable = false)
     private LocalTime defaultTime;
     
+    // RRULE-style recurrence in canonical form; null repeats every day
+    @Column(length = 200)
+    private String recurrence;
+    
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "change_seq")
+    private Long changeSeq;
 } 
\ No newline at end of file
@@ -1,28 +1,40 @@
 package com.EggTart.dyst.EggTart.model.entity;
 
 import com.EggTart.dyst.EggTart.model.enums.Mood;
+import com.EggTart.dyst.EggTart.sharding.ShardAwareId;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.LazyGroup;
 
 import java.time.LocalDateTime;
 
+/**
+ * The photo URL and notes are only read by detail views and search, so they
+ * are loaded lazily, together, on first access. This relies on the build
+ * enhancing the entity bytecode; unenhanced, Hibernate loads them eagerly.
+ * List views should use {@link com.EggTart.dyst.EggTart.projection.WalkSummary}.
+ */
 @Entity
-@Table(name = "walk_records")
+@Table(name = "walk_records", indexes = @Index(name = "idx_walk_records_dog_start", columnList = "dog_id, start_time"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @EqualsAndHashCode(of = "id")
+@ToString(exclude = {"photoURL", "notes"})
 public class WalkRecord {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardAwareId
     private Long id;
     
     @Column(name = "task_id", nullable = false)
     private Long taskId;
     
+    @Column(name = "dog_id", nullable = false)
+    private Long dogId;
+    
     @Column(name = "start_time", nullable = false)
     private LocalDateTime startTime;
     
@@ -40,9 +52,13 @@ public class WalkRecord {
     @Enumerated(EnumType.STRING)
     private Mood mood;
     
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("details")
     @Column(name = "photo_url")
     private String photoURL;
     
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("details")
     @Column(columnDefinition = "TEXT")
     private String notes;
     
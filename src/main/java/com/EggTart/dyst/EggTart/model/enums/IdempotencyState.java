@@ -0,0 +1,7 @@
+package com.EggTart.dyst.EggTart.model.enums;
+
+public enum IdempotencyState {
+    // Reserved by a request that has not finished yet
+    IN_PROGRESS,
+    COMPLETED
+}
@@ -0,0 +1,19 @@
+package com.EggTart.dyst.EggTart.model.enums;
+
+public enum MeasurementType {
+    WEIGHT("Weight", "kg"),
+    BODY_TEMPERATURE("Body Temperature", "°C"),
+    HEART_RATE("Heart Rate", "bpm"),
+    RESPIRATORY_RATE("Respiratory Rate", "breaths/min");
+    
+    private final String displayName;
+    private final String unit;
+    
+    MeasurementType(String displayName, String unit) {
+        this.displayName = displayName;
+        this.unit = unit;
+    }
+    
+    public String getDisplayName() { return displayName; }
+    public String getUnit() { return unit; }
+}
@@ -0,0 +1,7 @@
+package com.EggTart.dyst.EggTart.model.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    // Gave up after the maximum number of attempts; kept for inspection
+    DEAD
+}
@@ -0,0 +1,17 @@
+package com.EggTart.dyst.EggTart.model.enums;
+
+public enum ReportFormat {
+    CSV("text/csv", "csv"),
+    PDF("application/pdf", "pdf");
+    
+    private final String contentType;
+    private final String extension;
+    
+    ReportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+    
+    public String getContentType() { return contentType; }
+    public String getExtension() { return extension; }
+}
@@ -0,0 +1,12 @@
+package com.EggTart.dyst.EggTart.model.enums;
+
+public enum ReportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED;
+    
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
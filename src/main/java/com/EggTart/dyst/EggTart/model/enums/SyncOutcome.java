@@ -0,0 +1,8 @@
+package com.EggTart.dyst.EggTart.model.enums;
+
+public enum SyncOutcome {
+    APPLIED,
+    DUPLICATE,
+    CONFLICT,
+    NOT_FOUND
+}
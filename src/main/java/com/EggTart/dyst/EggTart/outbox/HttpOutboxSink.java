@@ -0,0 +1,43 @@
+package com.EggTart.dyst.EggTart.outbox;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+/**
+ * POSTs each dog's events as one JSON array. Any non-2xx answer or I/O
+ * error fails the batch, which the relay retries with backoff.
+ */
+public class HttpOutboxSink implements OutboxSink {
+    
+    static final String DOG_HEADER = "X-Outbox-Dog";
+    
+    private final RestClient client;
+    private final String url;
+    
+    public HttpOutboxSink(OutboxProperties.Http properties) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(properties.getConnectTimeout());
+        requestFactory.setReadTimeout(properties.getReadTimeout());
+        this.client = RestClient.builder().requestFactory(requestFactory).build();
+        this.url = properties.getUrl();
+    }
+    
+    @Override
+    public String name() {
+        return "http";
+    }
+    
+    @Override
+    public void deliver(Long dogId, List<OutboxMessage> events) {
+        client.post()
+            .uri(url)
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(DOG_HEADER, String.valueOf(dogId))
+            .body(events)
+            .retrieve()
+            .toBodilessEntity();
+    }
+}
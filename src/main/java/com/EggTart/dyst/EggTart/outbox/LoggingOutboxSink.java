@@ -0,0 +1,26 @@
+package com.EggTart.dyst.EggTart.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Logs events at DEBUG; the default sink when no integration is configured.
+ */
+@Slf4j
+public class LoggingOutboxSink implements OutboxSink {
+    
+    @Override
+    public String name() {
+        return "logging";
+    }
+    
+    @Override
+    public void deliver(Long dogId, List<OutboxMessage> events) {
+        if (log.isDebugEnabled()) {
+            for (OutboxMessage event : events) {
+                log.debug("Outbox event {} {} for dog {}: {}", event.id(), event.type(), dogId, event.payload());
+            }
+        }
+    }
+}
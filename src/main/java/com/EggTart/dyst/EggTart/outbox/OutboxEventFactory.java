@@ -0,0 +1,57 @@
+package com.EggTart.dyst.EggTart.outbox;
+
+import com.EggTart.dyst.EggTart.event.TaskTransitionEvent;
+import com.EggTart.dyst.EggTart.model.entity.OutboxEvent;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Turns task transitions into outbox rows. Shared by the JPA listener and
+ * the reactive runtime, which writes its rows itself.
+ */
+public class OutboxEventFactory {
+    
+    private final ObjectMapper objectMapper;
+    
+    public OutboxEventFactory(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * The row for a transition, or null for task creation and deletion, which
+     * integrations are not told about.
+     */
+    public OutboxEvent forTransition(TaskTransitionEvent event) {
+        if (event.previousStatus() == null || event.status() == null) {
+            return null;
+        }
+        
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize task event " + event.taskId(), ex);
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        return OutboxEvent.builder()
+            .dogId(event.dogId())
+            .aggregateId(event.taskId())
+            .eventType(eventType(event.status()))
+            .payload(payload)
+            .nextAttemptAt(now)
+            .createdAt(now)
+            .build();
+    }
+    
+    private static String eventType(TaskStatus status) {
+        // Only a delay moves an active task back to (or keeps it in) PENDING
+        return status == TaskStatus.PENDING
+            ? "task.delayed"
+            : "task." + status.name().toLowerCase(Locale.ROOT);
+    }
+}
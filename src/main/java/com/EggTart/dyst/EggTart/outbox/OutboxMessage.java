@@ -0,0 +1,31 @@
+package com.EggTart.dyst.EggTart.outbox;
+
+import com.EggTart.dyst.EggTart.model.entity.OutboxEvent;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox event as handed to sinks. The id is unique per shard and
+ * increases per dog, so receivers can drop redeliveries.
+ */
+public record OutboxMessage(
+    Long id,
+    Long dogId,
+    Long aggregateId,
+    String type,
+    LocalDateTime occurredAt,
+    @JsonRawValue String payload
+) {
+    
+    static OutboxMessage from(OutboxEvent event) {
+        return new OutboxMessage(
+            event.getId(),
+            event.getDogId(),
+            event.getAggregateId(),
+            event.getEventType(),
+            event.getCreatedAt(),
+            event.getPayload()
+        );
+    }
+}
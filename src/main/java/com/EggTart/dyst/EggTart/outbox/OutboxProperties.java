@@ -0,0 +1,58 @@
+package com.EggTart.dyst.EggTart.outbox;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "eggtart.outbox")
+public class OutboxProperties {
+    
+    private boolean enabled = true;
+    
+    /** Events loaded per relay round. */
+    private int batchSize = 500;
+    
+    /** Dogs claimed per relay round; all their pending events are leased together. */
+    private int dogsPerClaim = 200;
+    
+    /** Lease on claimed events; another instance may take them over once it runs out. */
+    private Duration claimTimeout = Duration.ofSeconds(30);
+    
+    /** Threads delivering to sinks; events of one dog are always delivered by one thread, in order. */
+    private int relayThreads = 4;
+    
+    private int maxAttempts = 12;
+    
+    private Duration initialBackoff = Duration.ofSeconds(1);
+    
+    private Duration maxBackoff = Duration.ofMinutes(10);
+    
+    private int deleteChunkSize = 500;
+    
+    private Http http = new Http();
+    
+    private Stub stub = new Stub();
+    
+    @Data
+    public static class Http {
+        
+        /** Endpoint receiving event batches; the HTTP sink is off while this is blank. */
+        private String url;
+        
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        
+        private Duration readTimeout = Duration.ofSeconds(5);
+    }
+    
+    @Data
+    public static class Stub {
+        
+        /** Serves a local receiver at /outbox-stub/events for tests and load runs. */
+        private boolean enabled = false;
+        
+        /** Share of stub requests answered with 503, to exercise retries. */
+        private double failureRate = 0.0;
+    }
+}
@@ -0,0 +1,184 @@
+package com.EggTart.dyst.EggTart.outbox;
+
+import com.EggTart.dyst.EggTart.model.entity.OutboxEvent;
+import com.EggTart.dyst.EggTart.model.enums.OutboxStatus;
+import com.EggTart.dyst.EggTart.repository.OutboxEventRepository;
+import com.EggTart.dyst.EggTart.sharding.ShardContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Delivers outbox events to the sinks and deletes them afterwards.
+ *
+ * Each round leases all pending events of a set of dogs whose oldest event
+ * is due, delivers every dog's events in id order on one relay thread (dogs
+ * run in parallel), deletes what was delivered in chunks and backs off the
+ * dogs that failed. A dog is only claimable while its oldest event is, so a
+ * failing event holds back the later events of the same dog but no one
+ * else's. Leases expire, so events claimed by a crashed instance are picked
+ * up again by any other.
+ */
+@Slf4j
+public class OutboxRelay {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<OutboxSink> sinks;
+    private final ExecutorService relayExecutor;
+    private final OutboxProperties properties;
+    private final String owner = "relay-" + ProcessHandle.current().pid() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    private final Counter delivered;
+    private final Counter failed;
+    private final Counter dead;
+    private final Timer lag;
+    
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, TransactionTemplate transactionTemplate,
+                       List<OutboxSink> sinks, ExecutorService relayExecutor, OutboxProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.sinks = sinks;
+        this.relayExecutor = relayExecutor;
+        this.properties = properties;
+        this.delivered = meterRegistry.counter("eggtart.outbox.delivered");
+        this.failed = meterRegistry.counter("eggtart.outbox.failed");
+        this.dead = meterRegistry.counter("eggtart.outbox.dead");
+        this.lag = Timer.builder("eggtart.outbox.lag")
+            .description("Time from the transition commit to delivery")
+            .register(meterRegistry);
+    }
+    
+    @Scheduled(fixedDelayString = "${eggtart.outbox.poll-interval-ms:200}")
+    public void relay() {
+        ShardContext.forEachShard(this::relayShard);
+    }
+    
+    private void relayShard() {
+        List<OutboxEvent> batch;
+        do {
+            batch = claim();
+            if (batch.isEmpty()) {
+                return;
+            }
+            deliver(batch);
+        } while (batch.size() == properties.getBatchSize());
+    }
+    
+    private List<OutboxEvent> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(properties.getClaimTimeout());
+        return transactionTemplate.execute(status -> {
+            // Events of a bucket being moved are left for the relay on its new shard
+            List<Long> dogs = outboxEventRepository.findDeliverableDogs(
+                    now, PageRequest.ofSize(properties.getDogsPerClaim())).stream()
+                .filter(dogId -> !ShardContext.isFrozen(dogId))
+                .toList();
+            if (!dogs.isEmpty()) {
+                outboxEventRepository.claimDogs(dogs, owner, until, now);
+            }
+            // Also returns events leased earlier that did not fit in the previous batch, unless frozen since
+            return outboxEventRepository.findClaimed(owner, now, PageRequest.ofSize(properties.getBatchSize())).stream()
+                .filter(event -> !ShardContext.isFrozen(event.getDogId()))
+                .toList();
+        });
+    }
+    
+    private void deliver(List<OutboxEvent> batch) {
+        Map<Long, List<OutboxEvent>> byDog = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            byDog.computeIfAbsent(event.getDogId(), dogId -> new ArrayList<>()).add(event);
+        }
+        
+        Map<Long, CompletableFuture<String>> outcomes = new LinkedHashMap<>();
+        byDog.forEach((dogId, events) ->
+            outcomes.put(dogId, CompletableFuture.supplyAsync(() -> deliverDog(dogId, events), relayExecutor)));
+        
+        List<Long> deliveredIds = new ArrayList<>(batch.size());
+        LocalDateTime now = LocalDateTime.now();
+        outcomes.forEach((dogId, outcome) -> {
+            String error = outcome.join();
+            List<OutboxEvent> events = byDog.get(dogId);
+            if (error == null) {
+                for (OutboxEvent event : events) {
+                    deliveredIds.add(event.getId());
+                    lag.record(Duration.between(event.getCreatedAt(), now));
+                }
+            } else {
+                backOff(events, error);
+            }
+        });
+        
+        for (int from = 0; from < deliveredIds.size(); from += properties.getDeleteChunkSize()) {
+            List<Long> chunk = deliveredIds.subList(from, Math.min(from + properties.getDeleteChunkSize(), deliveredIds.size()));
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteAllByIdInBatch(chunk));
+        }
+        delivered.increment(deliveredIds.size());
+    }
+    
+    /** Delivers one dog's events to every sink; returns the error, or null on success. */
+    private String deliverDog(Long dogId, List<OutboxEvent> events) {
+        List<OutboxMessage> messages = events.stream().map(OutboxMessage::from).toList();
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.deliver(dogId, messages);
+            } catch (Exception ex) {
+                log.debug("Sink {} rejected {} events for dog {}", sink.name(), messages.size(), dogId, ex);
+                return sink.name() + ": " + ex.getMessage();
+            }
+        }
+        return null;
+    }
+    
+    private void backOff(List<OutboxEvent> events, String error) {
+        failed.increment();
+        OutboxEvent head = events.get(0);
+        int attempts = head.getAttempts() + 1;
+        
+        head.setAttempts(attempts);
+        head.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+        head.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+        head.setClaimedBy(null);
+        head.setClaimedUntil(null);
+        if (attempts >= properties.getMaxAttempts()) {
+            // Stop holding back the dog's later events
+            head.setStatus(OutboxStatus.DEAD);
+            dead.increment();
+            log.error("Outbox event {} for dog {} dropped after {} attempts: {}",
+                head.getId(), head.getDogId(), attempts, error);
+        } else {
+            log.warn("Outbox delivery for dog {} failed (attempt {}), retrying: {}", head.getDogId(), attempts, error);
+        }
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.save(head);
+            outboxEventRepository.releaseDog(head.getDogId(), owner);
+        });
+    }
+    
+    private Duration backoff(int attempts) {
+        long initial = properties.getInitialBackoff().toMillis();
+        long max = properties.getMaxBackoff().toMillis();
+        long delay = initial << Math.min(attempts - 1, 30);
+        if (delay <= 0 || delay > max) {
+            delay = max;
+        }
+        // Jitter so dogs failing together do not retry in lockstep
+        return Duration.ofMillis(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+    }
+}
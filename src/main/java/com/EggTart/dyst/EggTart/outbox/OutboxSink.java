@@ -0,0 +1,17 @@
+package com.EggTart.dyst.EggTart.outbox;
+
+import java.util.List;
+
+/**
+ * A destination for outbox events. Every sink bean receives every event.
+ *
+ * Delivery is at least once: if any sink throws, the dog's events are
+ * retried on all sinks later, so a sink may see a batch again.
+ */
+public interface OutboxSink {
+    
+    String name();
+    
+    /** Delivers one dog's events, oldest first. */
+    void deliver(Long dogId, List<OutboxMessage> events) throws Exception;
+}
@@ -0,0 +1,88 @@
+package com.EggTart.dyst.EggTart.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local receiver for the HTTP sink: point {@code eggtart.outbox.http.url} at
+ * {@code http://localhost:<port>/outbox-stub/events}. Counts what arrives and
+ * checks that each dog's event ids only ever increase (duplicates from
+ * an expired lease count as violations too); a failure rate can be
+ * set to exercise retries and backoff.
+ */
+@RestController
+@Profile("!reactive")
+@ConditionalOnProperty(name = "eggtart.outbox.stub.enabled", havingValue = "true")
+@RequestMapping("/outbox-stub/events")
+@Slf4j
+public class OutboxStubController {
+    
+    private final OutboxProperties properties;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder events = new LongAdder();
+    private final LongAdder nonIncreasing = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final Map<Long, Long> lastIdByDog = new ConcurrentHashMap<>();
+    
+    public OutboxStubController(OutboxProperties properties) {
+        this.properties = properties;
+    }
+    
+    @PostMapping
+    public ResponseEntity<Void> receive(@RequestHeader(HttpOutboxSink.DOG_HEADER) Long dogId,
+                                        @RequestBody JsonNode body) {
+        if (ThreadLocalRandom.current().nextDouble() < properties.getStub().getFailureRate()) {
+            rejected.increment();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        
+        batches.increment();
+        synchronized (lastIdByDog) {
+            for (JsonNode event : body) {
+                long id = event.path("id").asLong();
+                Long last = lastIdByDog.get(dogId);
+                if (last != null && id <= last) {
+                    // Rejected batches are never recorded, so a repeat or a step back is a real violation
+                    nonIncreasing.increment();
+                    log.warn("Outbox event {} for dog {} arrived after {}", id, dogId, last);
+                }
+                lastIdByDog.merge(dogId, id, Math::max);
+                events.increment();
+            }
+        }
+        return ResponseEntity.ok().build();
+    }
+    
+    @GetMapping
+    public Map<String, Long> stats() {
+        return Map.of(
+            "batches", batches.sum(),
+            "events", events.sum(),
+            "nonIncreasing", nonIncreasing.sum(),
+            "rejected", rejected.sum(),
+            "dogs", (long) lastIdByDog.size()
+        );
+    }
+    
+    @DeleteMapping
+    public ResponseEntity<Void> reset() {
+        synchronized (lastIdByDog) {
+            lastIdByDog.clear();
+        }
+        batches.reset();
+        events.reset();
+        nonIncreasing.reset();
+        rejected.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.EggTart.dyst.EggTart.outbox;
+
+import com.EggTart.dyst.EggTart.event.TaskTransitionEvent;
+import com.EggTart.dyst.EggTart.model.entity.OutboxEvent;
+import com.EggTart.dyst.EggTart.repository.OutboxEventRepository;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Writes the outbox row inside the transaction that made the transition,
+ * so an event exists if and only if the transition committed. The write
+ * goes to the shard the transaction is already bound to.
+ */
+public class OutboxWriter {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxEventFactory outboxEventFactory;
+    
+    public OutboxWriter(OutboxEventRepository outboxEventRepository, OutboxEventFactory outboxEventFactory) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxEventFactory = outboxEventFactory;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTaskTransition(TaskTransitionEvent event) {
+        OutboxEvent outboxEvent = outboxEventFactory.forTransition(event);
+        if (outboxEvent != null) {
+            outboxEventRepository.save(outboxEvent);
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package com.EggTart.dyst.EggTart.planner;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Groups walks of many dogs into shared walks and the groups into walker
+ * shifts.
+ *
+ * A first-fit pass over the walks in time order gives a feasible start. One
+ * simulated-annealing search per fork-join worker, each with its own seed,
+ * then relocates and swaps walks between groups nearby in time until the
+ * budget runs out, and the cheapest result wins. The cost is the number of
+ * groups first and the total minutes walks are moved second. Walker shifts
+ * follow from the groups: each group goes to the walker free the earliest,
+ * which needs the fewest walkers for fixed groups.
+ */
+@Slf4j
+public class GroupWalkPlanner {
+    
+    // One group fewer is worth more than any shifting within a window
+    private static final long GROUP_COST = 10_000;
+    private static final double START_TEMPERATURE = 30;
+    private static final double END_TEMPERATURE = 0.5;
+    private static final int DEADLINE_CHECK_INTERVAL = 256;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    
+    private final ForkJoinPool pool;
+    
+    public GroupWalkPlanner(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+    
+    /**
+     * @throws IllegalArgumentException if the rules cannot be met
+     */
+    public WalkPlan plan(List<PlannedWalk> walks, PlanningRules rules, Duration budget) {
+        if (rules.maxGroupSize() < 1 || rules.windowMinutes() < 0 || rules.walkMinutes() < 1) {
+            throw new IllegalArgumentException("Group size and walk length must be positive, the window not negative");
+        }
+        if (walks.isEmpty()) {
+            return new WalkPlan(List.of(), 0, 0, 0);
+        }
+        
+        long started = System.nanoTime();
+        Problem problem = new Problem(walks, rules);
+        int[] initial = problem.firstFit();
+        
+        List<Callable<Result>> searches = new ArrayList<>();
+        long seed = started;
+        for (int i = 0; i < pool.getParallelism(); i++) {
+            long searchSeed = seed + i * 0x9E3779B97F4A7C15L;
+            searches.add(() -> new Search(problem, initial, searchSeed).run(started, budget.toNanos()));
+        }
+        
+        Result best = null;
+        long iterations = 0;
+        for (Future<Result> search : pool.invokeAll(searches)) {
+            Result result = join(search);
+            iterations += result.iterations();
+            if (best == null || result.cost() < best.cost()) {
+                best = result;
+            }
+        }
+        
+        WalkPlan plan = problem.toPlan(best.groupOf(), iterations);
+        log.debug("Planned {} walks into {} groups for {} walkers in {} ms ({} iterations)",
+            walks.size(), plan.groups().size(), plan.walkers(), (System.nanoTime() - started) / 1_000_000, iterations);
+        return plan;
+    }
+    
+    private static Result join(Future<Result> search) {
+        try {
+            return search.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Walk planning interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Walk planning failed", e.getCause());
+        }
+    }
+    
+    private record Result(int[] groupOf, long cost, long iterations) {
+    }
+    
+    /** The walks in time order with dense dog indexes for the conflict matrix. */
+    private static final class Problem {
+        
+        final PlannedWalk[] walks;
+        final int[] minute;
+        final int[] dog;
+        final int dogs;
+        final BitSet conflicts;
+        final int maxGroupSize;
+        final int window;
+        final int walkMinutes;
+        
+        Problem(List<PlannedWalk> input, PlanningRules rules) {
+            walks = input.stream()
+                .sorted(Comparator.comparingInt(PlannedWalk::minute))
+                .toArray(PlannedWalk[]::new);
+            maxGroupSize = rules.maxGroupSize();
+            window = rules.windowMinutes();
+            walkMinutes = rules.walkMinutes();
+            
+            Map<Long, Integer> dogIndex = new HashMap<>();
+            minute = new int[walks.length];
+            dog = new int[walks.length];
+            for (int i = 0; i < walks.length; i++) {
+                minute[i] = walks[i].minute();
+                dog[i] = dogIndex.computeIfAbsent(walks[i].dogId(), id -> dogIndex.size());
+            }
+            dogs = dogIndex.size();
+            
+            // Two walks of the same dog never share a group
+            conflicts = new BitSet(dogs * dogs);
+            for (int d = 0; d < dogs; d++) {
+                conflicts.set(d * dogs + d);
+            }
+            if (rules.incompatibleDogs() != null) {
+                for (List<Long> pair : rules.incompatibleDogs()) {
+                    if (pair.size() != 2) {
+                        throw new IllegalArgumentException("Incompatible dogs must be given as pairs, got " + pair);
+                    }
+                    Integer a = dogIndex.get(pair.get(0));
+                    Integer b = dogIndex.get(pair.get(1));
+                    if (a != null && b != null) {
+                        conflicts.set(a * dogs + b);
+                        conflicts.set(b * dogs + a);
+                    }
+                }
+            }
+        }
+        
+        boolean conflict(int a, int b) {
+            return conflicts.get(dog[a] * dogs + dog[b]);
+        }
+        
+        /** Each walk joins the first open group it fits, or starts one. */
+        int[] firstFit() {
+            int[] groupOf = new int[walks.length];
+            List<List<Integer>> groups = new ArrayList<>();
+            int firstOpen = 0;
+            for (int i = 0; i < walks.length; i++) {
+                // Walks come in time order, so groups too far back stay out of reach
+                while (firstOpen < groups.size() && minute[i] - minute[groups.get(firstOpen).get(0)] > 2 * window) {
+                    firstOpen++;
+                }
+                int walk = i;
+                int target = -1;
+                for (int g = firstOpen; g < groups.size() && target < 0; g++) {
+                    List<Integer> members = groups.get(g);
+                    if (members.size() < maxGroupSize && members.stream().noneMatch(m -> conflict(m, walk))) {
+                        target = g;
+                    }
+                }
+                if (target < 0) {
+                    target = groups.size();
+                    groups.add(new ArrayList<>());
+                }
+                groups.get(target).add(i);
+                groupOf[i] = target;
+            }
+            return groupOf;
+        }
+        
+        WalkPlan toPlan(int[] groupOf, long iterations) {
+            Map<Integer, List<Integer>> members = new HashMap<>();
+            for (int i = 0; i < groupOf.length; i++) {
+                members.computeIfAbsent(groupOf[i], g -> new ArrayList<>()).add(i);
+            }
+            
+            record Timed(int minute, List<Integer> walks) {
+            }
+            List<Timed> timed = new ArrayList<>();
+            long totalShift = 0;
+            for (List<Integer> group : members.values()) {
+                int[] minutes = group.stream().mapToInt(i -> minute[i]).toArray();
+                int start = startOf(minutes, minutes.length);
+                totalShift += shiftOf(minutes, minutes.length, start);
+                timed.add(new Timed(start, group));
+            }
+            timed.sort(Comparator.comparingInt(Timed::minute));
+            
+            // Earliest-free walker first; a new walker only when all are out
+            PriorityQueue<int[]> freeAt = new PriorityQueue<>(Comparator.comparingInt((int[] w) -> w[0]));
+            List<WalkPlan.Group> groups = new ArrayList<>();
+            int walkers = 0;
+            for (Timed group : timed) {
+                int walker;
+                if (!freeAt.isEmpty() && freeAt.peek()[0] <= group.minute()) {
+                    walker = freeAt.poll()[1];
+                } else {
+                    walker = walkers++;
+                }
+                freeAt.add(new int[] {group.minute() + walkMinutes, walker});
+                groups.add(new WalkPlan.Group(walker, group.minute(),
+                    group.walks().stream().map(i -> walks[i]).toList()));
+            }
+            return new WalkPlan(groups, walkers, totalShift, iterations);
+        }
+        
+        /**
+         * The median scheduled minute, clamped to the minutes every member can
+         * move to, which minimises the total shift. Sorts the array prefix.
+         */
+        int startOf(int[] minutes, int size) {
+            Arrays.sort(minutes, 0, size);
+            int earliest = minutes[size - 1] - window;
+            int latest = minutes[0] + window;
+            int start = Math.max(earliest, Math.min(latest, minutes[(size - 1) / 2]));
+            return Math.max(0, Math.min(MINUTES_PER_DAY - 1, start));
+        }
+        
+        static long shiftOf(int[] minutes, int size, int start) {
+            long shift = 0;
+            for (int i = 0; i < size; i++) {
+                shift += Math.abs(start - minutes[i]);
+            }
+            return shift;
+        }
+    }
+    
+    /** One annealing run over its own copy of the groups. Not thread-safe. */
+    private static final class Search {
+        
+        private final Problem problem;
+        private final SplittableRandom random;
+        private final int n;
+        private final int neighbourhood;
+        
+        private final int[] groupOf;
+        private final int[][] members;
+        private final int[] size;
+        private final long[] shift;
+        private final int[] scratch;
+        private int usedGroups;
+        private long totalShift;
+        
+        Search(Problem problem, int[] initial, long seed) {
+            this.problem = problem;
+            this.random = new SplittableRandom(seed);
+            this.n = initial.length;
+            this.neighbourhood = Math.max(2, 3 * problem.maxGroupSize);
+            this.groupOf = initial.clone();
+            this.members = new int[n][problem.maxGroupSize];
+            this.size = new int[n];
+            this.shift = new long[n];
+            this.scratch = new int[problem.maxGroupSize];
+            for (int i = 0; i < n; i++) {
+                members[groupOf[i]][size[groupOf[i]]++] = i;
+            }
+            for (int g = 0; g < n; g++) {
+                if (size[g] > 0) {
+                    usedGroups++;
+                    shift[g] = groupShift(g);
+                    totalShift += shift[g];
+                }
+            }
+        }
+        
+        Result run(long started, long budgetNanos) {
+            long cost = cost();
+            long bestCost = cost;
+            int[] best = groupOf.clone();
+            double temperature = START_TEMPERATURE;
+            long iterations = 0;
+            
+            while (true) {
+                if (iterations % DEADLINE_CHECK_INTERVAL == 0) {
+                    double progress = (double) (System.nanoTime() - started) / budgetNanos;
+                    if (progress >= 1 || n < 2) {
+                        break;
+                    }
+                    temperature = START_TEMPERATURE * Math.pow(END_TEMPERATURE / START_TEMPERATURE, progress);
+                }
+                iterations++;
+                
+                int i = random.nextInt(n);
+                int j = Math.floorMod(i + random.nextInt(-neighbourhood, neighbourhood + 1), n);
+                int a = groupOf[i];
+                int b = groupOf[j];
+                if (a == b) {
+                    continue;
+                }
+                boolean swap = random.nextInt(10) < 3;
+                if (swap ? !fits(i, b, j) || !fits(j, a, i) : !fits(i, b, -1)) {
+                    continue;
+                }
+                
+                if (swap) {
+                    swap(i, j);
+                } else {
+                    relocate(i, b);
+                }
+                long delta = cost() - cost;
+                if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                    cost += delta;
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        System.arraycopy(groupOf, 0, best, 0, n);
+                    }
+                } else if (swap) {
+                    swap(i, j);
+                } else {
+                    relocate(i, a);
+                }
+            }
+            return new Result(best, bestCost, iterations);
+        }
+        
+        private long cost() {
+            return usedGroups * GROUP_COST + totalShift;
+        }
+        
+        /** Whether walk i fits group g once walk {@code leaving} (or none, -1) has left it. */
+        private boolean fits(int i, int g, int leaving) {
+            int remaining = leaving >= 0 && groupOf[leaving] == g ? size[g] - 1 : size[g];
+            if (remaining >= problem.maxGroupSize) {
+                return false;
+            }
+            int earliest = problem.minute[i];
+            int latest = problem.minute[i];
+            for (int k = 0; k < size[g]; k++) {
+                int m = members[g][k];
+                if (m == leaving) {
+                    continue;
+                }
+                if (problem.conflict(i, m)) {
+                    return false;
+                }
+                earliest = Math.min(earliest, problem.minute[m]);
+                latest = Math.max(latest, problem.minute[m]);
+            }
+            return latest - earliest <= 2 * problem.window;
+        }
+        
+        private void relocate(int i, int to) {
+            int from = groupOf[i];
+            remove(i);
+            add(i, to);
+            updateShift(from);
+            updateShift(to);
+        }
+        
+        /** Both walks leave before either joins, so full groups can swap too. */
+        private void swap(int i, int j) {
+            int a = groupOf[i];
+            int b = groupOf[j];
+            remove(i);
+            remove(j);
+            add(i, b);
+            add(j, a);
+            updateShift(a);
+            updateShift(b);
+        }
+        
+        private void remove(int i) {
+            int g = groupOf[i];
+            int[] group = members[g];
+            for (int k = 0; k < size[g]; k++) {
+                if (group[k] == i) {
+                    group[k] = group[--size[g]];
+                    break;
+                }
+            }
+            if (size[g] == 0) {
+                usedGroups--;
+            }
+        }
+        
+        private void add(int i, int g) {
+            if (size[g] == 0) {
+                usedGroups++;
+            }
+            members[g][size[g]++] = i;
+            groupOf[i] = g;
+        }
+        
+        private void updateShift(int g) {
+            long updated = size[g] == 0 ? 0 : groupShift(g);
+            totalShift += updated - shift[g];
+            shift[g] = updated;
+        }
+        
+        private long groupShift(int g) {
+            for (int k = 0; k < size[g]; k++) {
+                scratch[k] = problem.minute[members[g][k]];
+            }
+            int start = problem.startOf(scratch, size[g]);
+            return Problem.shiftOf(scratch, size[g], start);
+        }
+    }
+}
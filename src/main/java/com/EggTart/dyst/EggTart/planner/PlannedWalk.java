@@ -0,0 +1,11 @@
+package com.EggTart.dyst.EggTart.planner;
+
+/**
+ * A pending walk to plan, scheduled at the given minute of the day.
+ */
+public record PlannedWalk(
+    long taskId,
+    long dogId,
+    int minute
+) {
+}
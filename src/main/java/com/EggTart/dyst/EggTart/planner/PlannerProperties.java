@@ -0,0 +1,28 @@
+package com.EggTart.dyst.EggTart.planner;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "eggtart.planner")
+public class PlannerProperties {
+    
+    /** Searches run side by side; defaults to one per core. */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    
+    /** Search time when the request does not give one. */
+    private Duration timeBudget = Duration.ofMillis(700);
+    
+    /** Upper bound on the search time a request may ask for. */
+    private Duration maxTimeBudget = Duration.ofSeconds(5);
+    
+    private int maxGroupSize = 6;
+    
+    /** How far a walk may move either way to join a group. */
+    private Duration window = Duration.ofMinutes(60);
+    
+    /** How long a walker is out with one group. */
+    private Duration walkLength = Duration.ofMinutes(45);
+}
@@ -0,0 +1,16 @@
+package com.EggTart.dyst.EggTart.planner;
+
+import java.util.List;
+
+/**
+ * Constraints on a plan. A walk may move by at most {@code windowMinutes}
+ * either way, a group holds at most {@code maxGroupSize} walks of different
+ * dogs, and no group holds both dogs of an incompatible pair.
+ */
+public record PlanningRules(
+    int maxGroupSize,
+    int windowMinutes,
+    int walkMinutes,
+    List<List<Long>> incompatibleDogs
+) {
+}
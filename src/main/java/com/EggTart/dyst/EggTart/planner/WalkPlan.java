@@ -0,0 +1,17 @@
+package com.EggTart.dyst.EggTart.planner;
+
+import java.util.List;
+
+/**
+ * Groups in start order, each assigned to one of {@code walkers} walkers.
+ */
+public record WalkPlan(
+    List<Group> groups,
+    int walkers,
+    long totalShiftMinutes,
+    long iterations
+) {
+    
+    public record Group(int walker, int minute, List<PlannedWalk> walks) {
+    }
+}
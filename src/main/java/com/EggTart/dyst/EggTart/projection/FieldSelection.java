@@ -0,0 +1,112 @@
+package com.EggTart.dyst.EggTart.projection;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The response fields requested with {@code fields=id,status,scheduledTime},
+ * checked against the properties of the response DTO. Without the parameter
+ * every field is selected.
+ */
+public final class FieldSelection {
+    
+    public static final String PARAMETER = "fields";
+    
+    private static final ClassValue<Set<String>> AVAILABLE = new ClassValue<>() {
+        @Override
+        protected Set<String> computeValue(Class<?> type) {
+            Set<String> names = new LinkedHashSet<>();
+            for (Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    names.add(field.getName());
+                }
+            }
+            return Collections.unmodifiableSet(names);
+        }
+    };
+    
+    private final Class<?> responseType;
+    private final Set<String> fields;
+    private final boolean all;
+    
+    private FieldSelection(Class<?> responseType, Set<String> fields, boolean all) {
+        this.responseType = responseType;
+        this.fields = fields;
+        this.all = all;
+    }
+    
+    public static FieldSelection all(Class<?> responseType) {
+        return new FieldSelection(responseType, AVAILABLE.get(responseType), true);
+    }
+    
+    /**
+     * @throws IllegalArgumentException if a field is not a property of the response type
+     */
+    public static FieldSelection parse(String fields, Class<?> responseType) {
+        if (fields == null || fields.isBlank()) {
+            return all(responseType);
+        }
+        
+        Set<String> available = AVAILABLE.get(responseType);
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!available.contains(name)) {
+                throw new IllegalArgumentException(
+                    String.format("Unknown field '%s', expected any of %s", name, available));
+            }
+            requested.add(name);
+        }
+        return requested.isEmpty()
+            ? all(responseType)
+            : new FieldSelection(responseType, Collections.unmodifiableSet(requested), false);
+    }
+    
+    public boolean isAll() {
+        return all;
+    }
+    
+    public boolean includes(String field) {
+        return fields.contains(field);
+    }
+    
+    /** The selected fields, in request order. */
+    public Set<String> fields() {
+        return fields;
+    }
+    
+    /** The selected fields minus the given ones, e.g. those not backed by a column. */
+    public List<String> fieldsExcept(String... excluded) {
+        List<String> skip = Arrays.asList(excluded);
+        return fields.stream()
+            .filter(field -> !skip.contains(field))
+            .toList();
+    }
+    
+    /**
+     * Jackson filters writing only the selected fields of the response type,
+     * or null when all are selected or the type has no {@code @JsonFilter}.
+     */
+    public FilterProvider filters() {
+        JsonFilter filter = responseType.getAnnotation(JsonFilter.class);
+        if (all || filter == null) {
+            return null;
+        }
+        return new SimpleFilterProvider()
+            .addFilter(filter.value(), SimpleBeanPropertyFilter.filterOutAllExcept(fields))
+            .setFailOnUnknownId(false);
+    }
+}
@@ -0,0 +1,22 @@
+package com.EggTart.dyst.EggTart.projection;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler method whose response honours {@code fields=}: only the
+ * requested properties of {@link #value()} are written. The DTO needs a
+ * {@code @JsonFilter}; the query selecting only those columns is up to the
+ * service.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SparseFieldset {
+    
+    /** The response DTO the fields refer to. */
+    Class<?> value();
+}
@@ -0,0 +1,45 @@
+package com.EggTart.dyst.EggTart.projection;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Writes only the requested fields of {@link SparseFieldset} responses by
+ * handing Jackson a property filter for the DTO's {@code @JsonFilter} id.
+ * The envelope and nested DTOs of other types are written in full.
+ */
+@ControllerAdvice
+@Profile("!reactive")
+public class SparseFieldsetResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+    
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return super.supports(returnType, converterType) && returnType.hasMethodAnnotation(SparseFieldset.class);
+    }
+    
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        String fields = servletRequest.getServletRequest().getParameter(FieldSelection.PARAMETER);
+        Class<?> responseType = returnType.getMethodAnnotation(SparseFieldset.class).value();
+        
+        // Already validated by the handler, which rejects unknown fields
+        FilterProvider filters = FieldSelection.parse(fields, responseType).filters();
+        if (filters != null) {
+            bodyContainer.setFilters(filters);
+        }
+    }
+}
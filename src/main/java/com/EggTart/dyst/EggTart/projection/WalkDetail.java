@@ -0,0 +1,20 @@
+package com.EggTart.dyst.EggTart.projection;
+
+import com.EggTart.dyst.EggTart.model.enums.Mood;
+
+import java.time.LocalDateTime;
+
+/**
+ * The walk record fields shown with a search hit, including the notes,
+ * selected in one query instead of a lazy load per record.
+ */
+public record WalkDetail(
+    Long id,
+    Long taskId,
+    Long dogId,
+    LocalDateTime startTime,
+    Mood mood,
+    String photoURL,
+    String notes
+) {
+}
@@ -0,0 +1,21 @@
+package com.EggTart.dyst.EggTart.projection;
+
+import com.EggTart.dyst.EggTart.model.enums.Mood;
+
+import java.time.LocalDateTime;
+
+/**
+ * A walk record without its photo URL and notes, for list views and reports.
+ * Selected column by column, so no entity is built or tracked.
+ */
+public record WalkSummary(
+    Long id,
+    Long taskId,
+    Long dogId,
+    LocalDateTime startTime,
+    LocalDateTime endTime,
+    Boolean pee,
+    Boolean poo,
+    Mood mood
+) {
+}
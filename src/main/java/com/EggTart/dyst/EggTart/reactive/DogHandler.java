@@ -0,0 +1,139 @@
+package com.EggTart.dyst.EggTart.reactive;
+
+import com.EggTart.dyst.EggTart.dto.request.OnboardingDto;
+import com.EggTart.dyst.EggTart.dto.response.ApiResponse;
+import com.EggTart.dyst.EggTart.dto.response.DogProfileResponseDto;
+import com.EggTart.dyst.EggTart.dto.response.TaskTemplateResponseDto;
+import com.EggTart.dyst.EggTart.exception.EntityNotFoundException;
+import com.EggTart.dyst.EggTart.exception.InvalidRecurrenceRuleException;
+import com.EggTart.dyst.EggTart.projection.FieldSelection;
+import com.EggTart.dyst.EggTart.service.ScheduleSuggestionService;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reactive counterpart of DogController, same paths and response bodies.
+ */
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class DogHandler {
+    
+    private static final int CALENDAR_DEFAULT_DAYS = 7;
+    
+    private final ReactiveDogService dogService;
+    private final ScheduleSuggestionService scheduleSuggestionService;
+    private final Validator validator;
+    
+    /**
+     * Loads the whole profile, then writes only the fields asked for.
+     */
+    public Mono<ServerResponse> getDogProfile(ServerRequest request) {
+        return Mono.fromCallable(() -> RequestValidation.positiveId(request, "id"))
+            .flatMap(id -> {
+                FieldSelection selection = RequestValidation.fields(request, DogProfileResponseDto.class);
+                return dogService.getDogProfile(id)
+                    .flatMap(dogProfile -> ok(dogProfile, selection));
+            })
+            .onErrorResume(DogHandler::handleError);
+    }
+    
+    public Mono<ServerResponse> createDogProfile(ServerRequest request) {
+        return RequestValidation.body(request, OnboardingDto.class, validator)
+            .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Request body is required")))
+            .doOnNext(onboardingDto -> log.debug("POST /api/dogs - Creating dog: {}", onboardingDto.getDogName()))
+            .flatMap(dogService::createDogProfile)
+            .flatMap(dogProfile -> ServerResponse.status(HttpStatus.CREATED)
+                .bodyValue(ApiResponse.success(dogProfile, "Dog profile created successfully")))
+            .onErrorResume(DogHandler::handleError);
+    }
+    
+    public Mono<ServerResponse> updateDogProfile(ServerRequest request) {
+        return Mono.fromCallable(() -> RequestValidation.positiveId(request, "id"))
+            .flatMap(id -> RequestValidation.body(request, OnboardingDto.class, validator)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Request body is required")))
+                .flatMap(onboardingDto -> dogService.updateDogProfile(id, onboardingDto)))
+            .flatMap(dogProfile -> ServerResponse.ok()
+                .bodyValue(ApiResponse.success(dogProfile, "Dog profile updated successfully")))
+            .onErrorResume(DogHandler::handleError);
+    }
+    
+    public Mono<ServerResponse> getTaskTemplates(ServerRequest request) {
+        return Mono.fromCallable(() -> RequestValidation.positiveId(request, "id"))
+            .flatMap(id -> {
+                FieldSelection selection = RequestValidation.fields(request, TaskTemplateResponseDto.class);
+                return dogService.getTaskTemplates(id)
+                    .flatMap(templates -> ok(templates, selection));
+            })
+            .onErrorResume(DogHandler::handleError);
+    }
+    
+    public Mono<ServerResponse> getCalendar(ServerRequest request) {
+        return Mono.fromCallable(() -> RequestValidation.positiveId(request, "id"))
+            .flatMap(id -> {
+                LocalDate start = request.queryParam("from").map(LocalDate::parse).orElseGet(LocalDate::now);
+                LocalDate end = request.queryParam("to").map(LocalDate::parse)
+                    .orElse(start.plusDays(CALENDAR_DEFAULT_DAYS - 1));
+                log.debug("GET /api/dogs/{}/calendar - from: {}, to: {}", id, start, end);
+                return dogService.getCalendar(id, start, end);
+            })
+            .flatMap(calendar -> ServerResponse.ok().bodyValue(ApiResponse.success(calendar)))
+            .onErrorResume(DogHandler::handleError);
+    }
+    
+    /**
+     * Templates are read over R2DBC; the suggestions themselves come from the
+     * in-memory behaviour sketches, so nothing here blocks.
+     */
+    public Mono<ServerResponse> getScheduleSuggestions(ServerRequest request) {
+        return Mono.fromCallable(() -> RequestValidation.positiveId(request, "id"))
+            .doOnNext(id -> log.debug("GET /api/dogs/{}/schedule-suggestions", id))
+            .flatMap(id -> dogService.getDogProfile(id)
+                .map(dogProfile -> scheduleSuggestionService.getSuggestions(id, dogProfile.getTaskTemplates())))
+            .flatMap(suggestions -> ServerResponse.ok().bodyValue(ApiResponse.success(suggestions)))
+            .onErrorResume(DogHandler::handleError);
+    }
+    
+    private static Mono<ServerResponse> ok(Object data, FieldSelection selection) {
+        MappingJacksonValue body = new MappingJacksonValue(ApiResponse.success(data));
+        body.setFilters(selection.filters());
+        return ServerResponse.ok().bodyValue(body);
+    }
+    
+    private static Mono<ServerResponse> handleError(Throwable ex) {
+        if (ex instanceof EntityNotFoundException) {
+            log.warn("Entity not found: {}", ex.getMessage());
+            return error(HttpStatus.NOT_FOUND, ex.getMessage());
+        }
+        if (ex instanceof InvalidRecurrenceRuleException) {
+            log.warn("Invalid recurrence rule: {}", ex.getMessage());
+            return error(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+        if (ex instanceof ServerWebInputException input) {
+            log.warn("Invalid request: {}", input.getReason());
+            return error(HttpStatus.BAD_REQUEST, input.getReason());
+        }
+        if (ex instanceof IllegalArgumentException || ex instanceof DateTimeParseException) {
+            log.warn("Invalid request: {}", ex.getMessage());
+            return error(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+        return Mono.error(ex);
+    }
+    
+    private static Mono<ServerResponse> error(HttpStatus status, String message) {
+        return ServerResponse.status(status).bodyValue(ApiResponse.error(message));
+    }
+}
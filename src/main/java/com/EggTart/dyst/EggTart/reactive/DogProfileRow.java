@@ -0,0 +1,46 @@
+package com.EggTart.dyst.EggTart.reactive;
+
+import com.EggTart.dyst.EggTart.model.entity.DogProfile;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of a dog_profiles row. Read-only: profile writes go through
+ * DogService, see {@link ReactiveDogService}.
+ */
+@Table("dog_profiles")
+public record DogProfileRow(
+    @Id Long id,
+    String name,
+    @Column("age_months") Integer ageMo,
+    @Column("age_recorded_on") LocalDate ageRecordedOn,
+    BigDecimal weight,
+    @Column("is_puppy") Boolean puppyFlag,
+    @Column("meal_offset_minutes") Integer mealOffsetMinutes,
+    @Column("drink_offset_minutes") Integer drinkOffsetMinutes,
+    @Column("created_at") LocalDateTime createdAt,
+    @Column("updated_at") LocalDateTime updatedAt,
+    @Column("change_seq") Long changeSeq
+) {
+    
+    public DogProfile toEntity() {
+        return DogProfile.builder()
+            .id(id)
+            .name(name)
+            .ageMo(ageMo)
+            .ageRecordedOn(ageRecordedOn)
+            .weight(weight)
+            .puppyFlag(puppyFlag)
+            .mealOffsetMinutes(mealOffsetMinutes)
+            .drinkOffsetMinutes(drinkOffsetMinutes)
+            .createdAt(createdAt)
+            .updatedAt(updatedAt)
+            .changeSeq(changeSeq)
+            .build();
+    }
+}
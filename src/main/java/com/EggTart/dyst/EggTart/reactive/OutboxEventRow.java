@@ -0,0 +1,41 @@
+package com.EggTart.dyst.EggTart.reactive;
+
+import com.EggTart.dyst.EggTart.model.entity.OutboxEvent;
+import com.EggTart.dyst.EggTart.model.enums.OutboxStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of an outbox_events row, insert only; the relay reads them
+ * back through JPA.
+ */
+@Table("outbox_events")
+public record OutboxEventRow(
+    @Id Long id,
+    @Column("dog_id") Long dogId,
+    @Column("aggregate_id") Long aggregateId,
+    @Column("event_type") String eventType,
+    String payload,
+    OutboxStatus status,
+    Integer attempts,
+    @Column("next_attempt_at") LocalDateTime nextAttemptAt,
+    @Column("created_at") LocalDateTime createdAt
+) {
+    
+    public static OutboxEventRow from(OutboxEvent event) {
+        return new OutboxEventRow(
+            null,
+            event.getDogId(),
+            event.getAggregateId(),
+            event.getEventType(),
+            event.getPayload(),
+            event.getStatus(),
+            event.getAttempts(),
+            event.getNextAttemptAt(),
+            event.getCreatedAt()
+        );
+    }
+}
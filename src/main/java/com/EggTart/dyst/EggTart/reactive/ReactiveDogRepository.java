@@ -0,0 +1,8 @@
+package com.EggTart.dyst.EggTart.reactive;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReactiveDogRepository extends R2dbcRepository<DogProfileRow, Long> {
+}
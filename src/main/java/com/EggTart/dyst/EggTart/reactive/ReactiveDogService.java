@@ -0,0 +1,80 @@
+package com.EggTart.dyst.EggTart.reactive;
+
+import com.EggTart.dyst.EggTart.dto.request.OnboardingDto;
+import com.EggTart.dyst.EggTart.dto.response.CalendarDayDto;
+import com.EggTart.dyst.EggTart.dto.response.DogProfileResponseDto;
+import com.EggTart.dyst.EggTart.dto.response.TaskTemplateResponseDto;
+import com.EggTart.dyst.EggTart.exception.EntityNotFoundException;
+import com.EggTart.dyst.EggTart.model.entity.TaskTemplate;
+import com.EggTart.dyst.EggTart.service.DogService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DogService for the reactive runtime. Reads are fully non-blocking.
+ * Onboarding and profile updates are rare and touch measurements, tombstones
+ * and instance generation, so they still run through {@link DogService} on
+ * the bounded elastic scheduler and the result is read back reactively.
+ */
+@Service
+@Profile("reactive")
+@Slf4j
+@RequiredArgsConstructor
+public class ReactiveDogService {
+    
+    private final ReactiveDogRepository dogRepository;
+    private final ReactiveTaskTemplateRepository taskTemplateRepository;
+    private final DogService dogService;
+    
+    public Mono<DogProfileResponseDto> getDogProfile(Long dogId) {
+        log.debug("Fetching dog profile for ID: {}", dogId);
+        
+        return dogRepository.findById(dogId)
+            .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Dog", dogId)))
+            .zipWith(getTaskTemplates(dogId), (row, templates) -> {
+                DogProfileResponseDto dogProfile = DogProfileResponseDto.from(row.toEntity());
+                dogProfile.setTaskTemplates(templates);
+                return dogProfile;
+            });
+    }
+    
+    public Mono<DogProfileResponseDto> createDogProfile(OnboardingDto onboardingDto) {
+        return Mono.fromCallable(() -> dogService.createDogProfile(onboardingDto))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(created -> getDogProfile(created.getId()));
+    }
+    
+    public Mono<DogProfileResponseDto> updateDogProfile(Long dogId, OnboardingDto onboardingDto) {
+        return Mono.fromCallable(() -> dogService.updateDogProfile(dogId, onboardingDto))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(updated -> getDogProfile(updated.getId()));
+    }
+    
+    public Mono<List<TaskTemplateResponseDto>> getTaskTemplates(Long dogId) {
+        return findTemplates(dogId)
+            .map(templates -> templates.stream()
+                .map(TaskTemplateResponseDto::from)
+                .toList());
+    }
+    
+    public Mono<List<CalendarDayDto>> getCalendar(Long dogId, LocalDate from, LocalDate to) {
+        return dogRepository.existsById(dogId)
+            .flatMap(exists -> exists
+                ? findTemplates(dogId)
+                : Mono.error(new EntityNotFoundException("Dog", dogId)))
+            .map(templates -> dogService.calendarFor(templates, from, to));
+    }
+    
+    private Mono<List<TaskTemplate>> findTemplates(Long dogId) {
+        return taskTemplateRepository.findByDogIdOrderByDefaultTime(dogId)
+            .map(TaskTemplateRow::toEntity)
+            .collectList();
+    }
+}
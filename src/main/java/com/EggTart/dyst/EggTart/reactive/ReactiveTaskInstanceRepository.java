@@ -0,0 +1,28 @@
+package com.EggTart.dyst.EggTart.reactive;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking counterpart of TaskInstanceRepository for the reactive runtime.
+ */
+@Repository
+public interface ReactiveTaskInstanceRepository extends R2dbcRepository<TaskInstanceRow, Long> {
+    
+    @Query("""
+        SELECT * FROM task_instances
+        WHERE dog_id = :dogId
+        AND scheduled_time BETWEEN :startDate AND :endDate
+        ORDER BY scheduled_time
+        """)
+    Flux<TaskInstanceRow> findByDogIdAndScheduledTimeBetween(
+        @Param("dogId") Long dogId,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
+    );
+}
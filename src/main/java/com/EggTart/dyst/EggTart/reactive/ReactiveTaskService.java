@@ -0,0 +1,203 @@
+package com.EggTart.dyst.EggTart.reactive;
+
+import com.EggTart.dyst.EggTart.archive.TaskHistory;
+import com.EggTart.dyst.EggTart.dto.request.WalkRecordDto;
+import com.EggTart.dyst.EggTart.dto.response.TaskInstanceResponseDto;
+import com.EggTart.dyst.EggTart.event.TaskTransitionEvent;
+import com.EggTart.dyst.EggTart.event.WalkRecordCreatedEvent;
+import com.EggTart.dyst.EggTart.exception.EntityNotFoundException;
+import com.EggTart.dyst.EggTart.model.entity.ChangeSequenceListener;
+import com.EggTart.dyst.EggTart.model.entity.OutboxEvent;
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.entity.WalkRecord;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.outbox.OutboxEventFactory;
+import com.EggTart.dyst.EggTart.service.TaskStateRules;
+import com.EggTart.dyst.EggTart.sharding.IdBlockAllocator;
+import com.EggTart.dyst.EggTart.sharding.ShardIds;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * TaskService for the reactive runtime. Transitions go through the same
+ * {@link TaskStateRules}; events are published once the transaction has
+ * committed, since there is no thread-bound transaction to defer them to.
+ */
+@Service
+@Profile("reactive")
+@Slf4j
+@RequiredArgsConstructor
+public class ReactiveTaskService {
+    
+    private final ReactiveTaskInstanceRepository taskInstanceRepository;
+    private final R2dbcEntityTemplate entityTemplate;
+    private final TransactionalOperator transactionalOperator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IdBlockAllocator idBlockAllocator;
+    private final TaskHistory taskHistory;
+    private final ObjectProvider<OutboxEventFactory> outboxEventFactoryProvider;
+    
+    public Mono<List<TaskInstanceResponseDto>> getTasksForDate(Long dogId, LocalDate date) {
+        log.debug("Fetching tasks for dog ID: {} on date: {}", dogId, date);
+        
+        LocalDateTime startOfDay = date.atStartOfDay();
+        LocalDateTime endOfDay = date.atTime(23, 59, 59);
+        
+        Mono<List<TaskInstance>> liveTasks = taskInstanceRepository
+            .findByDogIdAndScheduledTimeBetween(dogId, startOfDay, endOfDay)
+            .map(TaskInstanceRow::toEntity)
+            .collectList();
+        
+        if (taskHistory.hasArchived(date, date)) {
+            // Archive files are read with blocking I/O
+            liveTasks = liveTasks
+                .publishOn(Schedulers.boundedElastic())
+                .map(tasks -> taskHistory.withArchived(tasks, dogId, startOfDay, endOfDay));
+        }
+        
+        return liveTasks.map(tasks -> tasks.stream()
+            .map(TaskInstanceResponseDto::from)
+            .toList());
+    }
+    
+    public Mono<TaskInstanceResponseDto> startTask(Long taskId) {
+        return transition(taskId, task -> TaskStateRules.start(task, LocalDateTime.now()));
+    }
+    
+    public Mono<TaskInstanceResponseDto> completeTask(Long taskId, WalkRecordDto walkRecordDto) {
+        return findTaskById(taskId)
+            .flatMap(task -> {
+                TaskStatus previousStatus = task.getStatus();
+                LocalDateTime now = LocalDateTime.now();
+                
+                TaskStateRules.complete(task, now);
+                
+                WalkRecord walkRecord = TaskStateRules.walkRecordFor(task, walkRecordDto, now);
+                LocalDateTime scheduledTime = task.getScheduledTime();
+                if (walkRecord == null) {
+                    return saveTransition(task, previousStatus, scheduledTime)
+                        .map(transition -> new Completion(transition, null));
+                }
+                return insertWalkRecord(walkRecord, now)
+                    .flatMap(walk -> saveTransition(task, previousStatus, scheduledTime)
+                        .map(transition -> new Completion(transition, walk)));
+            })
+            .as(transactionalOperator::transactional)
+            .map(completion -> {
+                if (completion.walk() != null) {
+                    publishWalkRecord(completion.walk());
+                }
+                eventPublisher.publishEvent(completion.transition().event());
+                log.debug("Task {} completed successfully", taskId);
+                return TaskInstanceResponseDto.from(completion.transition().task());
+            });
+    }
+    
+    public Mono<TaskInstanceResponseDto> delayTask(Long taskId, Integer delayMinutes) {
+        return transition(taskId, task -> TaskStateRules.delay(task, delayMinutes));
+    }
+    
+    public Mono<TaskInstanceResponseDto> skipTask(Long taskId) {
+        return transition(taskId, task -> TaskStateRules.skip(task, LocalDateTime.now()));
+    }
+    
+    private Mono<TaskInstanceResponseDto> transition(Long taskId, Consumer<TaskInstance> rule) {
+        return findTaskById(taskId)
+            .flatMap(task -> {
+                TaskStatus previousStatus = task.getStatus();
+                LocalDateTime previousScheduledTime = task.getScheduledTime();
+                
+                rule.accept(task);
+                
+                return saveTransition(task, previousStatus, previousScheduledTime);
+            })
+            .as(transactionalOperator::transactional)
+            .map(transition -> {
+                eventPublisher.publishEvent(transition.event());
+                return TaskInstanceResponseDto.from(transition.task());
+            });
+    }
+    
+    private Mono<TaskInstance> findTaskById(Long taskId) {
+        return taskInstanceRepository.findById(taskId)
+            .switchIfEmpty(Mono.error(() -> new EntityNotFoundException(
+                String.format("Task not found with ID: %s", taskId)
+            )))
+            .map(TaskInstanceRow::toEntity);
+    }
+    
+    /**
+     * Saves the task and, inside the same transaction, its outbox row. The
+     * JPA outbox listener cannot do this here: there is no thread-bound
+     * transaction for it to join.
+     */
+    private Mono<Transition> saveTransition(TaskInstance task, TaskStatus previousStatus,
+                                            LocalDateTime previousScheduledTime) {
+        return save(task).flatMap(saved -> {
+            TaskTransitionEvent event = new TaskTransitionEvent(
+                saved.getId(),
+                saved.getDogId(),
+                saved.getTaskTemplateId(),
+                saved.getType(),
+                previousStatus,
+                previousScheduledTime.toLocalDate(),
+                saved.getStatus(),
+                saved.getScheduledTime().toLocalDate(),
+                previousScheduledTime,
+                saved.getScheduledTime(),
+                saved.getStartTime()
+            );
+            OutboxEventFactory outboxEventFactory = outboxEventFactoryProvider.getIfAvailable();
+            OutboxEvent outboxEvent = outboxEventFactory != null ? outboxEventFactory.forTransition(event) : null;
+            Mono<Transition> transition = Mono.just(new Transition(saved, event));
+            return outboxEvent != null
+                ? entityTemplate.insert(OutboxEventRow.from(outboxEvent)).then(transition)
+                : transition;
+        });
+    }
+    
+    private Mono<TaskInstance> save(TaskInstance task) {
+        // Mirrors what the JPA entity listeners do on update
+        task.setUpdatedAt(LocalDateTime.now());
+        task.setChangeSeq(ChangeSequenceListener.next());
+        return taskInstanceRepository.save(TaskInstanceRow.from(task))
+            .map(TaskInstanceRow::toEntity);
+    }
+    
+    private Mono<WalkRecordRow> insertWalkRecord(WalkRecord record, LocalDateTime now) {
+        // The allocator fetches a new id block over JDBC every thousand ids
+        return Mono.fromCallable(() -> idBlockAllocator.nextId("walk_records", ShardIds.bucketOf(record.getDogId())))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(id -> entityTemplate.insert(WalkRecordRow.from(record, id, now)));
+    }
+    
+    private void publishWalkRecord(WalkRecordRow record) {
+        eventPublisher.publishEvent(new WalkRecordCreatedEvent(
+            record.id(),
+            record.dogId(),
+            record.startTime(),
+            record.mood(),
+            record.notes()
+        ));
+        log.debug("Walk record created for task {}", record.taskId());
+    }
+    
+    private record Transition(TaskInstance task, TaskTransitionEvent event) {
+    }
+    
+    private record Completion(Transition transition, WalkRecordRow walk) {
+    }
+}
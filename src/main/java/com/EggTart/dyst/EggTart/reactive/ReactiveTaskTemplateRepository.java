@@ -0,0 +1,14 @@
+package com.EggTart.dyst.EggTart.reactive;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking counterpart of TaskTemplateRepository for the reactive runtime.
+ */
+@Repository
+public interface ReactiveTaskTemplateRepository extends R2dbcRepository<TaskTemplateRow, Long> {
+    
+    Flux<TaskTemplateRow> findByDogIdOrderByDefaultTime(Long dogId);
+}
@@ -0,0 +1,61 @@
+package com.EggTart.dyst.EggTart.reactive;
+
+import com.EggTart.dyst.EggTart.projection.FieldSelection;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The checks that {@code @Valid}, {@code @Min(1)} and friends do for the MVC
+ * controllers, for functional handlers.
+ */
+final class RequestValidation {
+    
+    private RequestValidation() {
+    }
+    
+    static Long positiveId(ServerRequest request, String variable) {
+        String value = request.pathVariables().get(variable);
+        if (value == null) {
+            value = request.queryParam(variable).orElse(null);
+        }
+        if (value == null) {
+            throw new ServerWebInputException(String.format("%s is required", variable));
+        }
+        try {
+            long id = Long.parseLong(value);
+            if (id < 1) {
+                throw new ServerWebInputException(String.format("%s must be at least 1", variable));
+            }
+            return id;
+        } catch (NumberFormatException ex) {
+            throw new ServerWebInputException(String.format("%s must be a number", variable));
+        }
+    }
+    
+    /**
+     * @throws IllegalArgumentException if a field is not a property of the response type
+     */
+    static FieldSelection fields(ServerRequest request, Class<?> responseType) {
+        return FieldSelection.parse(request.queryParam(FieldSelection.PARAMETER).orElse(null), responseType);
+    }
+    
+    static <T> Mono<T> body(ServerRequest request, Class<T> type, Validator validator) {
+        return request.bodyToMono(type)
+            .doOnNext(dto -> {
+                Set<ConstraintViolation<T>> violations = validator.validate(dto);
+                if (!violations.isEmpty()) {
+                    throw new ServerWebInputException(violations.stream()
+                        .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .collect(Collectors.joining(", ")));
+                }
+            });
+    }
+}
@@ -0,0 +1,119 @@
+package com.EggTart.dyst.EggTart.reactive;
+
+import com.EggTart.dyst.EggTart.dto.request.DelayTaskDto;
+import com.EggTart.dyst.EggTart.dto.request.WalkRecordDto;
+import com.EggTart.dyst.EggTart.dto.response.ApiResponse;
+import com.EggTart.dyst.EggTart.dto.response.TaskInstanceResponseDto;
+import com.EggTart.dyst.EggTart.exception.EntityNotFoundException;
+import com.EggTart.dyst.EggTart.exception.InvalidTaskStateException;
+import com.EggTart.dyst.EggTart.projection.FieldSelection;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/**
+ * Reactive counterpart of TaskController, same paths and response bodies.
+ */
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class TaskHandler {
+    
+    private final ReactiveTaskService taskService;
+    private final Validator validator;
+    
+    public Mono<ServerResponse> getTasks(ServerRequest request) {
+        return Mono.fromCallable(() -> {
+                Long dogId = RequestValidation.positiveId(request, "dogId");
+                LocalDate date = request.queryParam("date").map(LocalDate::parse).orElseGet(LocalDate::now);
+                FieldSelection selection = RequestValidation.fields(request, TaskInstanceResponseDto.class);
+                log.debug("GET /api/tasks - dogId: {}, date: {}, fields: {}", dogId, date, selection.fields());
+                return new TasksQuery(dogId, date, selection);
+            })
+            .flatMap(query -> taskService.getTasksForDate(query.dogId(), query.date())
+                .flatMap(tasks -> {
+                    // Full rows are read; only the requested fields are written
+                    MappingJacksonValue body = new MappingJacksonValue(ApiResponse.success(tasks));
+                    body.setFilters(query.selection().filters());
+                    return ServerResponse.ok().bodyValue(body);
+                }))
+            .onErrorResume(TaskHandler::handleError);
+    }
+    
+    public Mono<ServerResponse> startTask(ServerRequest request) {
+        return Mono.fromCallable(() -> RequestValidation.positiveId(request, "id"))
+            .flatMap(taskService::startTask)
+            .flatMap(TaskHandler::ok)
+            .onErrorResume(TaskHandler::handleError);
+    }
+    
+    public Mono<ServerResponse> completeTask(ServerRequest request) {
+        return Mono.fromCallable(() -> RequestValidation.positiveId(request, "id"))
+            .flatMap(id -> RequestValidation.body(request, WalkRecordDto.class, validator)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(walkRecordDto -> taskService.completeTask(id, walkRecordDto.orElse(null))))
+            .flatMap(TaskHandler::ok)
+            .onErrorResume(TaskHandler::handleError);
+    }
+    
+    public Mono<ServerResponse> delayTask(ServerRequest request) {
+        return Mono.fromCallable(() -> RequestValidation.positiveId(request, "id"))
+            .flatMap(id -> RequestValidation.body(request, DelayTaskDto.class, validator)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Request body is required")))
+                .flatMap(delayDto -> taskService.delayTask(id, delayDto.getDelayMinutes())))
+            .flatMap(TaskHandler::ok)
+            .onErrorResume(TaskHandler::handleError);
+    }
+    
+    public Mono<ServerResponse> skipTask(ServerRequest request) {
+        return Mono.fromCallable(() -> RequestValidation.positiveId(request, "id"))
+            .flatMap(taskService::skipTask)
+            .flatMap(TaskHandler::ok)
+            .onErrorResume(TaskHandler::handleError);
+    }
+    
+    private static Mono<ServerResponse> ok(TaskInstanceResponseDto task) {
+        return ServerResponse.ok().bodyValue(ApiResponse.success(task));
+    }
+    
+    private static Mono<ServerResponse> handleError(Throwable ex) {
+        if (ex instanceof EntityNotFoundException) {
+            log.warn("Entity not found: {}", ex.getMessage());
+            return error(HttpStatus.NOT_FOUND, ex.getMessage());
+        }
+        if (ex instanceof InvalidTaskStateException) {
+            log.warn("Invalid task state: {}", ex.getMessage());
+            return error(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+        if (ex instanceof ServerWebInputException input) {
+            log.warn("Invalid request: {}", input.getReason());
+            return error(HttpStatus.BAD_REQUEST, input.getReason());
+        }
+        if (ex instanceof IllegalArgumentException || ex instanceof DateTimeParseException) {
+            log.warn("Invalid request: {}", ex.getMessage());
+            return error(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+        return Mono.error(ex);
+    }
+    
+    private static Mono<ServerResponse> error(HttpStatus status, String message) {
+        return ServerResponse.status(status).bodyValue(ApiResponse.error(message));
+    }
+    
+    private record TasksQuery(Long dogId, LocalDate date, FieldSelection selection) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.EggTart.dyst.EggTart.reactive;
+
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of a task_instances row. Converted to and from
+ * {@link TaskInstance} so transitions go through the same TaskStateRules.
+ */
+@Table("task_instances")
+public record TaskInstanceRow(
+    @Id Long id,
+    @Column("task_template_id") Long taskTemplateId,
+    @Column("dog_id") Long dogId,
+    TaskType type,
+    @Column("scheduled_time") LocalDateTime scheduledTime,
+    TaskStatus status,
+    @Column("start_time") LocalDateTime startTime,
+    @Column("end_time") LocalDateTime endTime,
+    @Column("countdown_start_time") LocalDateTime countdownStartTime,
+    @Column("created_at") LocalDateTime createdAt,
+    @Column("updated_at") LocalDateTime updatedAt,
+    @Column("change_seq") Long changeSeq
+) {
+    
+    public static TaskInstanceRow from(TaskInstance task) {
+        return new TaskInstanceRow(
+            task.getId(),
+            task.getTaskTemplateId(),
+            task.getDogId(),
+            task.getType(),
+            task.getScheduledTime(),
+            task.getStatus(),
+            task.getStartTime(),
+            task.getEndTime(),
+            task.getCountdownStartTime(),
+            task.getCreatedAt(),
+            task.getUpdatedAt(),
+            task.getChangeSeq()
+        );
+    }
+    
+    public TaskInstance toEntity() {
+        return TaskInstance.builder()
+            .id(id)
+            .taskTemplateId(taskTemplateId)
+            .dogId(dogId)
+            .type(type)
+            .scheduledTime(scheduledTime)
+            .status(status)
+            .startTime(startTime)
+            .endTime(endTime)
+            .countdownStartTime(countdownStartTime)
+            .createdAt(createdAt)
+            .updatedAt(updatedAt)
+            .changeSeq(changeSeq)
+            .build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.EggTart.dyst.EggTart.reactive;
+
+import com.EggTart.dyst.EggTart.model.entity.TaskTemplate;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * R2DBC mapping of a task_templates row.
+ */
+@Table("task_templates")
+public record TaskTemplateRow(
+    @Id Long id,
+    @Column("dog_id") Long dogId,
+    TaskType type,
+    @Column("default_time") LocalTime defaultTime,
+    String recurrence,
+    @Column("created_at") LocalDateTime createdAt,
+    @Column("updated_at") LocalDateTime updatedAt,
+    @Column("change_seq") Long changeSeq
+) {
+    
+    public TaskTemplate toEntity() {
+        return TaskTemplate.builder()
+            .id(id)
+            .dogId(dogId)
+            .type(type)
+            .defaultTime(defaultTime)
+            .recurrence(recurrence)
+            .createdAt(createdAt)
+            .updatedAt(updatedAt)
+            .changeSeq(changeSeq)
+            .build();
+    }
+}
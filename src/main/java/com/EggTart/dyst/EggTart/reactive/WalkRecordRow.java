@@ -0,0 +1,45 @@
+package com.EggTart.dyst.EggTart.reactive;
+
+import com.EggTart.dyst.EggTart.model.entity.WalkRecord;
+import com.EggTart.dyst.EggTart.model.enums.Mood;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of a walk_records row, insert only. The id is assigned by the
+ * caller from the shared id block allocator.
+ */
+@Table("walk_records")
+public record WalkRecordRow(
+    @Id Long id,
+    @Column("task_id") Long taskId,
+    @Column("dog_id") Long dogId,
+    @Column("start_time") LocalDateTime startTime,
+    @Column("end_time") LocalDateTime endTime,
+    Boolean pee,
+    Boolean poo,
+    Mood mood,
+    @Column("photo_url") String photoURL,
+    String notes,
+    @Column("created_at") LocalDateTime createdAt
+) {
+    
+    public static WalkRecordRow from(WalkRecord record, Long id, LocalDateTime createdAt) {
+        return new WalkRecordRow(
+            id,
+            record.getTaskId(),
+            record.getDogId(),
+            record.getStartTime(),
+            record.getEndTime(),
+            record.getPee(),
+            record.getPoo(),
+            record.getMood(),
+            record.getPhotoURL(),
+            record.getNotes(),
+            createdAt
+        );
+    }
+}
@@ -0,0 +1,48 @@
+package com.EggTart.dyst.EggTart.recurrence;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Read-only view of the days a rule selects within a {@link RecurrenceCalendar}.
+ * Days are indexes from the calendar's first day; the bitmap is shared with
+ * the calendar's memo and must not be handed out.
+ */
+public final class Occurrences {
+    
+    private final RecurrenceCalendar calendar;
+    private final BitSet days;
+    
+    Occurrences(RecurrenceCalendar calendar, BitSet days) {
+        this.calendar = calendar;
+        this.days = days;
+    }
+    
+    public int count() {
+        return days.cardinality();
+    }
+    
+    public boolean isEmpty() {
+        return days.isEmpty();
+    }
+    
+    public boolean includes(int day) {
+        return days.get(day);
+    }
+    
+    /** Visits the index of every selected day in order. */
+    public void forEachDay(IntConsumer action) {
+        for (int day = days.nextSetBit(0); day >= 0; day = days.nextSetBit(day + 1)) {
+            action.accept(day);
+        }
+    }
+    
+    public List<LocalDate> dates() {
+        List<LocalDate> dates = new ArrayList<>(count());
+        forEachDay(day -> dates.add(calendar.dateAt(day)));
+        return dates;
+    }
+}
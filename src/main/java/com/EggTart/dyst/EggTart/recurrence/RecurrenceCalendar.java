@@ -0,0 +1,171 @@
+package com.EggTart.dyst.EggTart.recurrence;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Day-of-week, month and day-of-month bitmaps precomputed once for a date
+ * range, bit i standing for {@code from + i days}.
+ *
+ * A rule is expanded by OR-ing the bitmaps its masks select and AND-ing the
+ * results: a handful of word operations per rule for a whole year. Expansions
+ * are memoised per distinct rule, so the many dogs sharing a rule share the
+ * work as well.
+ */
+public final class RecurrenceCalendar {
+    
+    public static final int MAX_DAYS = 3 * 366;
+    
+    private final LocalDate from;
+    private final long firstEpochDay;
+    private final int days;
+    private final BitSet[] weekdayDays = new BitSet[7];
+    private final BitSet[] monthDays = new BitSet[12];
+    // Index 0 marks the last day of each month
+    private final BitSet[] dayOfMonthDays = new BitSet[32];
+    // year * 12 + month - 1 for every day, for monthly and yearly intervals
+    private final int[] monthOrdinals;
+    private final Map<RecurrenceRule, BitSet> expansions = new ConcurrentHashMap<>();
+    
+    public RecurrenceCalendar(LocalDate from, LocalDate to) {
+        long span = ChronoUnit.DAYS.between(from, to) + 1;
+        if (span < 1 || span > MAX_DAYS) {
+            throw new IllegalArgumentException(String.format(
+                "Calendar range must cover 1 to %d days but was %s to %s", MAX_DAYS, from, to));
+        }
+        this.from = from;
+        this.firstEpochDay = from.toEpochDay();
+        this.days = (int) span;
+        this.monthOrdinals = new int[days];
+        
+        initialise(weekdayDays);
+        initialise(monthDays);
+        initialise(dayOfMonthDays);
+        
+        int weekday = from.getDayOfWeek().ordinal();
+        int dayOfMonth = from.getDayOfMonth();
+        int month = from.getMonthValue();
+        int year = from.getYear();
+        int monthLength = from.lengthOfMonth();
+        for (int day = 0; day < days; day++) {
+            weekdayDays[weekday].set(day);
+            monthDays[month - 1].set(day);
+            dayOfMonthDays[dayOfMonth].set(day);
+            if (dayOfMonth == monthLength) {
+                dayOfMonthDays[0].set(day);
+            }
+            monthOrdinals[day] = year * 12 + month - 1;
+            
+            weekday = weekday == 6 ? 0 : weekday + 1;
+            if (++dayOfMonth > monthLength) {
+                dayOfMonth = 1;
+                if (++month > 12) {
+                    month = 1;
+                    year++;
+                }
+                monthLength = Month.of(month).length(Year.isLeap(year));
+            }
+        }
+    }
+    
+    public LocalDate from() {
+        return from;
+    }
+    
+    public LocalDate to() {
+        return from.plusDays(days - 1);
+    }
+    
+    public int days() {
+        return days;
+    }
+    
+    public LocalDate dateAt(int day) {
+        return from.plusDays(day);
+    }
+    
+    public Occurrences occurrences(RecurrenceRule rule) {
+        return new Occurrences(this, expansions.computeIfAbsent(rule, this::expand));
+    }
+    
+    private BitSet expand(RecurrenceRule rule) {
+        BitSet selected = new BitSet(days);
+        long first = Math.max(0, rule.startEpochDay() - firstEpochDay);
+        long last = rule.untilEpochDay() == Long.MAX_VALUE
+            ? days
+            : Math.min(days, rule.untilEpochDay() - firstEpochDay + 1);
+        if (first >= last) {
+            return selected;
+        }
+        selected.set((int) first, (int) last);
+        
+        if (rule.weekdayMask() != 0) {
+            selected.and(union(weekdayDays, rule.weekdayMask()));
+        }
+        if (rule.monthMask() != 0) {
+            selected.and(union(monthDays, rule.monthMask()));
+        }
+        if (rule.monthDayMask() != 0) {
+            selected.and(union(dayOfMonthDays, rule.monthDayMask()));
+        }
+        if (rule.interval() > 1) {
+            selected.and(intervalDays(rule));
+        }
+        return selected;
+    }
+    
+    private BitSet intervalDays(RecurrenceRule rule) {
+        int interval = rule.interval();
+        BitSet selected = new BitSet(days);
+        switch (rule.frequency()) {
+            case DAILY -> {
+                for (int day = Math.floorMod(rule.startEpochDay() - firstEpochDay, interval); day < days; day += interval) {
+                    selected.set(day);
+                }
+            }
+            case WEEKLY -> {
+                long startWeek = weekOf(rule.startEpochDay());
+                for (int day = 0; day < days; day++) {
+                    if (Math.floorMod(weekOf(firstEpochDay + day) - startWeek, interval) == 0) {
+                        selected.set(day);
+                    }
+                }
+            }
+            case MONTHLY, YEARLY -> {
+                LocalDate start = LocalDate.ofEpochDay(rule.startEpochDay());
+                int startMonth = start.getYear() * 12 + start.getMonthValue() - 1;
+                int divisor = rule.frequency() == RecurrenceRule.Frequency.YEARLY ? 12 : 1;
+                for (int day = 0; day < days; day++) {
+                    if (Math.floorMod(monthOrdinals[day] / divisor - startMonth / divisor, interval) == 0) {
+                        selected.set(day);
+                    }
+                }
+            }
+        }
+        return selected;
+    }
+    
+    /** Monday-based week number; epoch day 0 was a Thursday. */
+    private static long weekOf(long epochDay) {
+        return Math.floorDiv(epochDay + 3, 7);
+    }
+    
+    private static BitSet union(BitSet[] bitmaps, long mask) {
+        BitSet union = new BitSet();
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            union.or(bitmaps[Long.numberOfTrailingZeros(remaining)]);
+        }
+        return union;
+    }
+    
+    private void initialise(BitSet[] bitmaps) {
+        for (int i = 0; i < bitmaps.length; i++) {
+            bitmaps[i] = new BitSet(days);
+        }
+    }
+}
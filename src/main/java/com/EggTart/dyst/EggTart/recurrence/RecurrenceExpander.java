@@ -0,0 +1,55 @@
+package com.EggTart.dyst.EggTart.recurrence;
+
+import com.EggTart.dyst.EggTart.model.entity.TaskTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles template rules once per distinct rule text and expands them
+ * against a shared calendar. Used by the instance generator and the
+ * calendar view.
+ */
+@Component
+public class RecurrenceExpander {
+    
+    private static final int MAX_COMPILED_RULES = 10_000;
+    
+    private final Map<String, RecurrenceRule> compiledRules = new ConcurrentHashMap<>();
+    private volatile RecurrenceCalendar lastCalendar;
+    
+    public RecurrenceRule compile(String rule) {
+        if (rule == null || rule.isBlank()) {
+            return RecurrenceRule.EVERY_DAY;
+        }
+        RecurrenceRule compiled = compiledRules.get(rule);
+        if (compiled == null) {
+            compiled = RecurrenceRule.compile(rule);
+            if (compiledRules.size() >= MAX_COMPILED_RULES) {
+                compiledRules.clear();
+            }
+            compiledRules.put(rule, compiled);
+        }
+        return compiled;
+    }
+    
+    /**
+     * Calendar for a date range. The last one built is reused while callers
+     * keep asking for the same range, which keeps its expansions warm.
+     */
+    public RecurrenceCalendar calendar(LocalDate from, LocalDate to) {
+        RecurrenceCalendar calendar = lastCalendar;
+        if (calendar != null && calendar.from().equals(from) && calendar.to().equals(to)) {
+            return calendar;
+        }
+        calendar = new RecurrenceCalendar(from, to);
+        lastCalendar = calendar;
+        return calendar;
+    }
+    
+    public Occurrences occurrences(RecurrenceCalendar calendar, TaskTemplate template) {
+        return calendar.occurrences(compile(template.getRecurrence()));
+    }
+}
@@ -0,0 +1,227 @@
+package com.EggTart.dyst.EggTart.recurrence;
+
+import com.EggTart.dyst.EggTart.exception.InvalidRecurrenceRuleException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * A template recurrence in compiled form. Every BY* part is a bitmask and the
+ * bounds are epoch days, so expanding a rule never touches LocalDate.
+ *
+ * The text form is a subset of RFC 5545 RRULE, for example
+ * {@code FREQ=WEEKLY;BYDAY=SA,SU}, {@code FREQ=DAILY;INTERVAL=3;DTSTART=20250601}
+ * or {@code FREQ=DAILY;BYMONTH=6,7,8}. A template without a rule repeats
+ * every day. Parts left out are derived from DTSTART the way RRULE does, e.g.
+ * a WEEKLY rule without BYDAY repeats on DTSTART's weekday.
+ *
+ * @param weekdayMask  bit 0 is Monday, 0 means any weekday
+ * @param monthMask    bit 0 is January, 0 means any month
+ * @param monthDayMask bit n is day n of the month and bit 0 the last day, 0 means any day
+ */
+public record RecurrenceRule(
+    Frequency frequency,
+    int interval,
+    int weekdayMask,
+    int monthMask,
+    long monthDayMask,
+    long startEpochDay,
+    long untilEpochDay
+) {
+    
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY, YEARLY
+    }
+    
+    public static final RecurrenceRule EVERY_DAY = new RecurrenceRule(
+        Frequency.DAILY, 1, 0, 0, 0L, LocalDate.EPOCH.toEpochDay(), Long.MAX_VALUE);
+    
+    private static final int MAX_INTERVAL = 366;
+    private static final String[] WEEKDAY_CODES = {"MO", "TU", "WE", "TH", "FR", "SA", "SU"};
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    
+    public static RecurrenceRule compile(String text) {
+        return compile(text, LocalDate.EPOCH);
+    }
+    
+    /**
+     * Validates a rule and rewrites it in canonical form with every derived
+     * part spelled out, anchoring it at {@code defaultStart} when it has no
+     * DTSTART. Returns null for a blank rule, which means every day.
+     */
+    public static String normalize(String text, LocalDate defaultStart) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        return compile(text, defaultStart).toRuleString();
+    }
+    
+    private static RecurrenceRule compile(String text, LocalDate defaultStart) {
+        if (text == null || text.isBlank()) {
+            return EVERY_DAY;
+        }
+        
+        Frequency frequency = null;
+        int interval = 1;
+        int weekdays = 0;
+        int months = 0;
+        long monthDays = 0L;
+        LocalDate start = null;
+        LocalDate until = null;
+        
+        for (String part : text.trim().toUpperCase(Locale.ROOT).split(";")) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            int separator = part.indexOf('=');
+            if (separator <= 0) {
+                throw new InvalidRecurrenceRuleException(text, "expected NAME=VALUE but found '" + part + "'");
+            }
+            String name = part.substring(0, separator);
+            String value = part.substring(separator + 1);
+            switch (name) {
+                case "FREQ" -> frequency = parseFrequency(text, value);
+                case "INTERVAL" -> interval = parseNumber(text, name, value, 1, MAX_INTERVAL);
+                case "BYDAY" -> {
+                    for (String code : value.split(",")) {
+                        weekdays |= 1 << parseWeekday(text, code);
+                    }
+                }
+                case "BYMONTH" -> {
+                    for (String month : value.split(",")) {
+                        months |= 1 << (parseNumber(text, name, month, 1, 12) - 1);
+                    }
+                }
+                case "BYMONTHDAY" -> {
+                    for (String day : value.split(",")) {
+                        int dayOfMonth = parseNumber(text, name, day, -1, 31);
+                        if (dayOfMonth == 0) {
+                            throw new InvalidRecurrenceRuleException(text, "BYMONTHDAY cannot be 0");
+                        }
+                        monthDays |= 1L << Math.max(dayOfMonth, 0);
+                    }
+                }
+                case "DTSTART" -> start = parseDate(text, name, value);
+                case "UNTIL" -> until = parseDate(text, name, value);
+                default -> throw new InvalidRecurrenceRuleException(text, "unsupported part " + name);
+            }
+        }
+        
+        if (frequency == null) {
+            throw new InvalidRecurrenceRuleException(text, "FREQ is required");
+        }
+        LocalDate anchor = start != null ? start : defaultStart;
+        if (until != null && until.isBefore(anchor)) {
+            throw new InvalidRecurrenceRuleException(text, "UNTIL is before DTSTART");
+        }
+        
+        switch (frequency) {
+            case WEEKLY -> {
+                if (weekdays == 0) {
+                    weekdays = 1 << anchor.getDayOfWeek().ordinal();
+                }
+            }
+            case MONTHLY -> {
+                if (monthDays == 0 && weekdays == 0) {
+                    monthDays = 1L << anchor.getDayOfMonth();
+                }
+            }
+            case YEARLY -> {
+                if (months == 0) {
+                    months = 1 << (anchor.getMonthValue() - 1);
+                }
+                if (monthDays == 0 && weekdays == 0) {
+                    monthDays = 1L << anchor.getDayOfMonth();
+                }
+            }
+            case DAILY -> {
+            }
+        }
+        
+        return new RecurrenceRule(frequency, interval, weekdays, months, monthDays,
+            anchor.toEpochDay(), until != null ? until.toEpochDay() : Long.MAX_VALUE);
+    }
+    
+    public String toRuleString() {
+        StringBuilder rule = new StringBuilder("FREQ=").append(frequency);
+        if (interval > 1) {
+            rule.append(";INTERVAL=").append(interval);
+        }
+        if (weekdayMask != 0) {
+            StringJoiner days = new StringJoiner(",", ";BYDAY=", "");
+            for (int day = 0; day < 7; day++) {
+                if ((weekdayMask & (1 << day)) != 0) {
+                    days.add(WEEKDAY_CODES[day]);
+                }
+            }
+            rule.append(days);
+        }
+        if (monthMask != 0) {
+            StringJoiner months = new StringJoiner(",", ";BYMONTH=", "");
+            for (int month = 0; month < 12; month++) {
+                if ((monthMask & (1 << month)) != 0) {
+                    months.add(Integer.toString(month + 1));
+                }
+            }
+            rule.append(months);
+        }
+        if (monthDayMask != 0) {
+            StringJoiner days = new StringJoiner(",", ";BYMONTHDAY=", "");
+            for (int day = 1; day <= 31; day++) {
+                if ((monthDayMask & (1L << day)) != 0) {
+                    days.add(Integer.toString(day));
+                }
+            }
+            if ((monthDayMask & 1L) != 0) {
+                days.add("-1");
+            }
+            rule.append(days);
+        }
+        rule.append(";DTSTART=").append(LocalDate.ofEpochDay(startEpochDay).format(DATE));
+        if (untilEpochDay != Long.MAX_VALUE) {
+            rule.append(";UNTIL=").append(LocalDate.ofEpochDay(untilEpochDay).format(DATE));
+        }
+        return rule.toString();
+    }
+    
+    private static Frequency parseFrequency(String text, String value) {
+        try {
+            return Frequency.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRecurrenceRuleException(text, "unsupported FREQ " + value);
+        }
+    }
+    
+    private static int parseWeekday(String text, String code) {
+        for (int day = 0; day < WEEKDAY_CODES.length; day++) {
+            if (WEEKDAY_CODES[day].equals(code)) {
+                return day;
+            }
+        }
+        throw new InvalidRecurrenceRuleException(text, "unsupported BYDAY value " + code);
+    }
+    
+    private static int parseNumber(String text, String name, String value, int min, int max) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number < min || number > max) {
+                throw new InvalidRecurrenceRuleException(text,
+                    String.format("%s must be between %d and %d", name, min, max));
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new InvalidRecurrenceRuleException(text, name + " is not a number: " + value);
+        }
+    }
+    
+    private static LocalDate parseDate(String text, String name, String value) {
+        try {
+            return LocalDate.parse(value, DATE);
+        } catch (DateTimeParseException e) {
+            throw new InvalidRecurrenceRuleException(text, name + " must be a yyyyMMdd date: " + value);
+        }
+    }
+}
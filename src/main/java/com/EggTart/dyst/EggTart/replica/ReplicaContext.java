@@ -0,0 +1,25 @@
+package com.EggTart.dyst.EggTart.replica;
+
+/**
+ * Per-thread flag forcing reads to the primary, set when the caller has
+ * written recently (or earlier in the same request) so it sees its own writes.
+ */
+public final class ReplicaContext {
+    
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+    
+    private ReplicaContext() {
+    }
+    
+    public static void forcePrimary() {
+        FORCE_PRIMARY.set(Boolean.TRUE);
+    }
+    
+    public static boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(FORCE_PRIMARY.get());
+    }
+    
+    public static void clear() {
+        FORCE_PRIMARY.remove();
+    }
+}
@@ -0,0 +1,53 @@
+package com.EggTart.dyst.EggTart.replica;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Periodically measures replica lag and ejects replicas that fail the check
+ * or lag more than the configured maximum; they rejoin once healthy again.
+ */
+@Slf4j
+public class ReplicaHealthChecker implements HealthIndicator {
+    
+    private final ReplicaPool pool;
+    private final ReplicaProperties properties;
+    
+    public ReplicaHealthChecker(ReplicaPool pool, ReplicaProperties properties) {
+        this.pool = pool;
+        this.properties = properties;
+    }
+    
+    @Scheduled(fixedDelayString = "${eggtart.replicas.health-check-interval-ms:2000}")
+    public void checkReplicas() {
+        for (ReplicaNode replica : pool.getNodes()) {
+            boolean healthy;
+            try {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(replica);
+                jdbcTemplate.setQueryTimeout(1);
+                Number lag = jdbcTemplate.queryForObject(properties.getLagQuery(), Number.class);
+                healthy = lag != null && lag.doubleValue() <= properties.getMaxLagSeconds();
+            } catch (RuntimeException ex) {
+                log.debug("Replica {} health check failed: {}", replica.getName(), ex.getMessage());
+                healthy = false;
+            }
+            
+            if (healthy != replica.isHealthy()) {
+                log.warn("Replica {} is now {}", replica.getName(), healthy ? "back in rotation" : "ejected");
+                replica.setHealthy(healthy);
+            }
+        }
+    }
+    
+    @Override
+    public Health health() {
+        long healthy = pool.getNodes().stream().filter(ReplicaNode::isHealthy).count();
+        Health.Builder builder = healthy > 0 ? Health.up() : Health.status("DEGRADED");
+        pool.getNodes().forEach(replica -> builder.withDetail(replica.getName(),
+            replica.isHealthy() ? "in rotation, " + replica.getInFlight() + " connections" : "ejected"));
+        return builder.build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.EggTart.dyst.EggTart.replica;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A replica datasource that tracks how many connections are currently
+ * checked out, used as its load, and whether it is healthy.
+ */
+public class ReplicaNode extends DelegatingDataSource {
+    
+    private final String name;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean healthy = true;
+    
+    public ReplicaNode(String name, DataSource target) {
+        super(target);
+        this.name = name;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    public boolean isHealthy() {
+        return healthy;
+    }
+    
+    void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+    
+    private Connection track(Connection connection) {
+        inFlight.incrementAndGet();
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+                    inFlight.decrementAndGet();
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException ex) {
+                    throw ex.getTargetException();
+                }
+            });
+    }
+}
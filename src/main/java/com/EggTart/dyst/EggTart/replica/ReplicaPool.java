@@ -0,0 +1,33 @@
+package com.EggTart.dyst.EggTart.replica;
+
+import java.util.List;
+
+/**
+ * The configured replicas, picked by current load among those in rotation.
+ */
+public class ReplicaPool {
+    
+    private final List<ReplicaNode> nodes;
+    
+    public ReplicaPool(List<ReplicaNode> nodes) {
+        this.nodes = List.copyOf(nodes);
+    }
+    
+    public List<ReplicaNode> getNodes() {
+        return nodes;
+    }
+    
+    /**
+     * The healthy replica with the fewest checked-out connections, or null when
+     * every replica has been ejected.
+     */
+    public ReplicaNode leastLoaded() {
+        ReplicaNode leastLoaded = null;
+        for (ReplicaNode node : nodes) {
+            if (node.isHealthy() && (leastLoaded == null || node.getInFlight() < leastLoaded.getInFlight())) {
+                leastLoaded = node;
+            }
+        }
+        return leastLoaded;
+    }
+}
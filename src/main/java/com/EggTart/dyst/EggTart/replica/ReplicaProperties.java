@@ -0,0 +1,38 @@
+package com.EggTart.dyst.EggTart.replica;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "eggtart.replicas")
+public class ReplicaProperties {
+    
+    private boolean enabled = false;
+    
+    private Node primary = new Node();
+    
+    private List<Node> nodes = new ArrayList<>();
+    
+    /** Replicas lagging further behind than this are taken out of rotation. */
+    private int maxLagSeconds = 5;
+    
+    /** Query returning the replica's replication lag in seconds. */
+    private String lagQuery = "SELECT 0";
+    
+    private long healthCheckIntervalMs = 2000;
+    
+    /** How long a client reads from the primary after its own write. */
+    private int readYourWritesSeconds = 5;
+    
+    private int maximumPoolSize = 10;
+    
+    @Data
+    public static class Node {
+        private String url;
+        private String username = "sa";
+        private String password = "";
+    }
+}
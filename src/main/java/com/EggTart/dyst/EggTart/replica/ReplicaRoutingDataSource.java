@@ -0,0 +1,42 @@
+package com.EggTart.dyst.EggTart.replica;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Sends read-only transactions to the least loaded healthy replica and
+ * everything else to the primary.
+ *
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the connection is only fetched once the transaction's read-only flag
+ * has been bound.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    
+    static final String PRIMARY = "primary";
+    
+    private final ReplicaPool pool;
+    
+    public ReplicaRoutingDataSource(ReplicaPool pool) {
+        this.pool = pool;
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // Later reads in this request must observe this write; the filter
+            // clears the flag, so only pin threads that are serving a request
+            if (RequestContextHolder.getRequestAttributes() != null) {
+                ReplicaContext.forcePrimary();
+            }
+            return PRIMARY;
+        }
+        if (ReplicaContext.isPrimaryForced()) {
+            return PRIMARY;
+        }
+        
+        ReplicaNode leastLoaded = pool.leastLoaded();
+        return leastLoaded != null ? leastLoaded.getName() : PRIMARY;
+    }
+}
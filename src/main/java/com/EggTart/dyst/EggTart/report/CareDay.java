@@ -0,0 +1,84 @@
+package com.EggTart.dyst.EggTart.report;
+
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.enums.Mood;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.EggTart.dyst.EggTart.projection.WalkSummary;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Care activity for one day, or for a whole report when used for totals.
+ * Counters are indexed by enum ordinal.
+ */
+final class CareDay {
+    
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final Mood[] MOODS = Mood.values();
+    
+    final LocalDate date;
+    final int[] scheduled = new int[TYPES.length];
+    final int[] completed = new int[TYPES.length];
+    final int[] skipped = new int[TYPES.length];
+    final int[] moods = new int[MOODS.length];
+    int walks;
+    long walkMinutes;
+    int pee;
+    int poo;
+    
+    CareDay(LocalDate date) {
+        this.date = date;
+    }
+    
+    void addTask(TaskInstance task) {
+        int type = task.getType().ordinal();
+        scheduled[type]++;
+        if (task.getStatus() == TaskStatus.COMPLETED) {
+            completed[type]++;
+        } else if (task.getStatus() == TaskStatus.SKIPPED) {
+            skipped[type]++;
+        }
+    }
+    
+    void addWalk(WalkSummary walk) {
+        walks++;
+        walkMinutes += Math.max(0, Duration.between(walk.startTime(), walk.endTime()).toMinutes());
+        if (Boolean.TRUE.equals(walk.pee())) {
+            pee++;
+        }
+        if (Boolean.TRUE.equals(walk.poo())) {
+            poo++;
+        }
+        if (walk.mood() != null) {
+            moods[walk.mood().ordinal()]++;
+        }
+    }
+    
+    void add(CareDay other) {
+        for (int i = 0; i < TYPES.length; i++) {
+            scheduled[i] += other.scheduled[i];
+            completed[i] += other.completed[i];
+            skipped[i] += other.skipped[i];
+        }
+        for (int i = 0; i < MOODS.length; i++) {
+            moods[i] += other.moods[i];
+        }
+        walks += other.walks;
+        walkMinutes += other.walkMinutes;
+        pee += other.pee;
+        poo += other.poo;
+    }
+    
+    /** Most frequent mood, or null when no walk recorded one. */
+    Mood dominantMood() {
+        int best = -1;
+        for (int i = 0; i < MOODS.length; i++) {
+            if (moods[i] > 0 && (best < 0 || moods[i] > moods[best])) {
+                best = i;
+            }
+        }
+        return best >= 0 ? MOODS[best] : null;
+    }
+}
@@ -0,0 +1,88 @@
+package com.EggTart.dyst.EggTart.report;
+
+import com.EggTart.dyst.EggTart.archive.TaskHistory;
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.projection.WalkSummary;
+import com.EggTart.dyst.EggTart.repository.TaskInstanceRepository;
+import com.EggTart.dyst.EggTart.repository.WalkRecordRepository;
+import com.EggTart.dyst.EggTart.sharding.ShardContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Streams a dog's task instances and walk records day by day, reading a
+ * chunk of days at a time so a multi-month report never holds more than one
+ * chunk in memory or keeps a transaction open across the whole range.
+ */
+@Component
+class CareHistoryReader {
+    
+    @FunctionalInterface
+    interface DaySink {
+        void accept(CareDay day) throws IOException;
+    }
+    
+    private final TaskInstanceRepository taskInstanceRepository;
+    private final WalkRecordRepository walkRecordRepository;
+    private final TaskHistory taskHistory;
+    private final TransactionTemplate readOnlyTransaction;
+    
+    CareHistoryReader(TaskInstanceRepository taskInstanceRepository,
+                      WalkRecordRepository walkRecordRepository,
+                      TaskHistory taskHistory,
+                      TransactionTemplate transactionTemplate) {
+        this.taskInstanceRepository = taskInstanceRepository;
+        this.walkRecordRepository = walkRecordRepository;
+        this.taskHistory = taskHistory;
+        // Read-only so reports are served by replicas when they are configured
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    void read(Long dogId, LocalDate from, LocalDate to, int chunkDays, DaySink sink) throws IOException {
+        int shard = ShardContext.directory().shardForId(dogId);
+        for (LocalDate chunkStart = from; !chunkStart.isAfter(to); chunkStart = chunkStart.plusDays(chunkDays)) {
+            LocalDate chunkEnd = chunkStart.plusDays(chunkDays - 1);
+            if (chunkEnd.isAfter(to)) {
+                chunkEnd = to;
+            }
+            
+            CareDay[] days = readChunk(shard, dogId, chunkStart, chunkEnd);
+            for (CareDay day : days) {
+                sink.accept(day);
+            }
+        }
+    }
+    
+    private CareDay[] readChunk(int shard, Long dogId, LocalDate from, LocalDate to) {
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        
+        Chunk chunk = ShardContext.callOnShard(shard, () -> readOnlyTransaction.execute(status -> new Chunk(
+            taskInstanceRepository.findByDogIdAndScheduledTimeBetween(dogId, start, end.minusSeconds(1)),
+            walkRecordRepository.findSummariesByDogIdAndStartTimeBetween(dogId, start, end)
+        )));
+        
+        CareDay[] days = new CareDay[(int) ChronoUnit.DAYS.between(from, to) + 1];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = new CareDay(from.plusDays(i));
+        }
+        
+        for (TaskInstance task : taskHistory.withArchived(chunk.tasks(), dogId, start, end.minusSeconds(1))) {
+            days[(int) ChronoUnit.DAYS.between(from, task.getScheduledTime().toLocalDate())].addTask(task);
+        }
+        for (WalkSummary walk : chunk.walks()) {
+            days[(int) ChronoUnit.DAYS.between(from, walk.startTime().toLocalDate())].addWalk(walk);
+        }
+        return days;
+    }
+    
+    private record Chunk(List<TaskInstance> tasks, List<WalkSummary> walks) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.EggTart.dyst.EggTart.report;
+
+import com.EggTart.dyst.EggTart.model.enums.ReportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Writes a care summary as days arrive, so only the current chunk of
+ * history is ever held in memory.
+ */
+interface CareReportWriter {
+    
+    void begin(String dogName, LocalDate from, LocalDate to) throws IOException;
+    
+    void day(CareDay day) throws IOException;
+    
+    /** Writes the totals and flushes; the caller closes the stream. */
+    void finish(CareDay totals) throws IOException;
+    
+    static CareReportWriter open(ReportFormat format, OutputStream out) {
+        return switch (format) {
+            case CSV -> new CsvCareReportWriter(out);
+            case PDF -> new PdfCareReportWriter(out);
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.EggTart.dyst.EggTart.report;
+
+import com.EggTart.dyst.EggTart.model.enums.Mood;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * One row per day plus a totals row. Columns are generated from the task
+ * types and moods, so new enum values show up without changes here.
+ */
+class CsvCareReportWriter implements CareReportWriter {
+    
+    private final Writer out;
+    
+    CsvCareReportWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+    
+    @Override
+    public void begin(String dogName, LocalDate from, LocalDate to) throws IOException {
+        StringBuilder header = new StringBuilder("date");
+        for (TaskType type : TaskType.values()) {
+            String name = type.name().toLowerCase(Locale.ROOT);
+            header.append(',').append(name).append("_scheduled")
+                .append(',').append(name).append("_completed")
+                .append(',').append(name).append("_skipped");
+        }
+        header.append(",walk_records,walk_minutes,pee,poo");
+        for (Mood mood : Mood.values()) {
+            header.append(",mood_").append(mood.name().toLowerCase(Locale.ROOT));
+        }
+        out.write(header.append('\n').toString());
+    }
+    
+    @Override
+    public void day(CareDay day) throws IOException {
+        writeRow(day.date.toString(), day);
+    }
+    
+    @Override
+    public void finish(CareDay totals) throws IOException {
+        writeRow("total", totals);
+        out.flush();
+    }
+    
+    private void writeRow(String label, CareDay day) throws IOException {
+        StringBuilder row = new StringBuilder(128).append(label);
+        for (int type = 0; type < day.scheduled.length; type++) {
+            row.append(',').append(day.scheduled[type])
+                .append(',').append(day.completed[type])
+                .append(',').append(day.skipped[type]);
+        }
+        row.append(',').append(day.walks)
+            .append(',').append(day.walkMinutes)
+            .append(',').append(day.pee)
+            .append(',').append(day.poo);
+        for (int mood : day.moods) {
+            row.append(',').append(mood);
+        }
+        out.write(row.append('\n').toString());
+    }
+}
@@ -0,0 +1,76 @@
+package com.EggTart.dyst.EggTart.report;
+
+import com.EggTart.dyst.EggTart.model.enums.Mood;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Printable summary for vets: a line per day with completed/scheduled counts
+ * per task type, walk time, pee/poo and the day's dominant mood, followed by
+ * the totals.
+ */
+class PdfCareReportWriter implements CareReportWriter {
+    
+    private static final String RULE = "-".repeat(96);
+    
+    private final OutputStream out;
+    private PdfTextDocument document;
+    
+    PdfCareReportWriter(OutputStream out) {
+        this.out = out;
+    }
+    
+    @Override
+    public void begin(String dogName, LocalDate from, LocalDate to) throws IOException {
+        document = new PdfTextDocument(out);
+        document.line("Care summary for " + dogName);
+        document.line(from + " to " + to);
+        document.line("");
+        
+        StringBuilder header = new StringBuilder(String.format("%-11s", "Date"));
+        for (TaskType type : TaskType.values()) {
+            header.append(String.format("%-10s", type.getDisplayName().split(" ")[0] + "s"));
+        }
+        header.append(String.format("%-10s%-5s%-5s%s", "Walk min", "Pee", "Poo", "Mood"));
+        document.line(header.toString());
+        document.line(RULE);
+    }
+    
+    @Override
+    public void day(CareDay day) throws IOException {
+        document.line(format(day.date.toString(), day));
+    }
+    
+    @Override
+    public void finish(CareDay totals) throws IOException {
+        document.line(RULE);
+        document.line(format("Total", totals));
+        
+        int skipped = 0;
+        for (int count : totals.skipped) {
+            skipped += count;
+        }
+        document.line("");
+        document.line(String.format("Skipped tasks: %d   Walk records: %d", skipped, totals.walks));
+        StringBuilder moods = new StringBuilder("Moods:");
+        for (Mood mood : Mood.values()) {
+            moods.append(String.format("  %s %d", mood.getDisplayName(), totals.moods[mood.ordinal()]));
+        }
+        document.line(moods.toString());
+        document.finish();
+    }
+    
+    private static String format(String label, CareDay day) {
+        StringBuilder line = new StringBuilder(String.format("%-11s", label));
+        for (int type = 0; type < day.scheduled.length; type++) {
+            line.append(String.format("%-10s", day.completed[type] + "/" + day.scheduled[type]));
+        }
+        Mood mood = day.dominantMood();
+        line.append(String.format("%-10d%-5d%-5d%s", day.walkMinutes, day.pee, day.poo,
+            mood != null ? mood.getDisplayName() : "-"));
+        return line.toString();
+    }
+}
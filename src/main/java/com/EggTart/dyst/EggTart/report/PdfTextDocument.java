@@ -0,0 +1,126 @@
+package com.EggTart.dyst.EggTart.report;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal PDF 1.4 writer for monospaced text on A4 pages. Each page is
+ * written as soon as it is full; only object offsets are kept until the
+ * cross-reference table is written on {@link #finish()}.
+ *
+ * Object 1 is the catalog, 2 the page tree and 3 the font, all written
+ * last except the font; pages take two objects each from 4 on.
+ */
+class PdfTextDocument {
+    
+    static final int LINES_PER_PAGE = 60;
+    
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+    private static final int FONT = 3;
+    
+    private final OutputStream out;
+    private final List<Long> offsets = new ArrayList<>();
+    private final List<Integer> pageObjects = new ArrayList<>();
+    private final List<String> pageLines = new ArrayList<>(LINES_PER_PAGE);
+    private long position;
+    
+    PdfTextDocument(OutputStream out) throws IOException {
+        this.out = out;
+        // Placeholders for the catalog and page tree, written at the end
+        offsets.add(0L);
+        offsets.add(0L);
+        // Binary marker comment so transfer tools treat the file as binary
+        write("%PDF-1.4\n%\u00e2\u00e3\u00cf\u00d3\n");
+        writeObject(FONT, "<< /Type /Font /Subtype /Type1 /BaseFont /Courier >>");
+    }
+    
+    void line(String text) throws IOException {
+        pageLines.add(text);
+        if (pageLines.size() == LINES_PER_PAGE) {
+            flushPage();
+        }
+    }
+    
+    void finish() throws IOException {
+        if (!pageLines.isEmpty() || pageObjects.isEmpty()) {
+            flushPage();
+        }
+        
+        StringBuilder kids = new StringBuilder();
+        for (int page : pageObjects) {
+            kids.append(page).append(" 0 R ");
+        }
+        writeObject(PAGES, "<< /Type /Pages /Kids [" + kids + "] /Count " + pageObjects.size() + " >>");
+        writeObject(CATALOG, "<< /Type /Catalog /Pages " + PAGES + " 0 R >>");
+        
+        long xref = position;
+        StringBuilder table = new StringBuilder("xref\n0 ").append(offsets.size() + 1).append('\n')
+            .append("0000000000 65535 f \n");
+        for (long offset : offsets) {
+            table.append(String.format("%010d 00000 n \n", offset));
+        }
+        table.append("trailer\n<< /Size ").append(offsets.size() + 1)
+            .append(" /Root ").append(CATALOG).append(" 0 R >>\nstartxref\n")
+            .append(xref).append("\n%%EOF\n");
+        write(table.toString());
+        out.flush();
+    }
+    
+    private void flushPage() throws IOException {
+        StringBuilder content = new StringBuilder("BT\n/F1 9 Tf\n11 TL\n40 800 Td\n");
+        for (String text : pageLines) {
+            content.append('(').append(escape(text)).append(") Tj T*\n");
+        }
+        content.append("ET\n");
+        byte[] stream = content.toString().getBytes(StandardCharsets.ISO_8859_1);
+        pageLines.clear();
+        
+        int contentObject = offsets.size() + 1;
+        int pageObject = contentObject + 1;
+        offsets.add(position);
+        write(contentObject + " 0 obj\n<< /Length " + stream.length + " >>\nstream\n");
+        writeBytes(stream);
+        write("endstream\nendobj\n");
+        writeObject(pageObject, "<< /Type /Page /Parent " + PAGES + " 0 R /MediaBox [0 0 595 842]"
+            + " /Resources << /Font << /F1 " + FONT + " 0 R >> >> /Contents " + contentObject + " 0 R >>");
+        pageObjects.add(pageObject);
+    }
+    
+    private void writeObject(int number, String body) throws IOException {
+        if (number > offsets.size()) {
+            offsets.add(position);
+        } else {
+            offsets.set(number - 1, position);
+        }
+        write(number + " 0 obj\n" + body + "\nendobj\n");
+    }
+    
+    private void write(String text) throws IOException {
+        writeBytes(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+    
+    private void writeBytes(byte[] bytes) throws IOException {
+        out.write(bytes);
+        position += bytes.length;
+    }
+    
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 32 || c > 126) {
+                // The standard fonts only cover Latin-1 reliably
+                escaped.append('?');
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
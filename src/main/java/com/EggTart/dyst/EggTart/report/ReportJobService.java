@@ -0,0 +1,325 @@
+package com.EggTart.dyst.EggTart.report;
+
+import com.EggTart.dyst.EggTart.dto.request.ReportRequestDto;
+import com.EggTart.dyst.EggTart.exception.EntityNotFoundException;
+import com.EggTart.dyst.EggTart.exception.ReportCapacityExceededException;
+import com.EggTart.dyst.EggTart.exception.ReportNotReadyException;
+import com.EggTart.dyst.EggTart.model.entity.DogProfile;
+import com.EggTart.dyst.EggTart.model.entity.ReportJob;
+import com.EggTart.dyst.EggTart.model.enums.ReportStatus;
+import com.EggTart.dyst.EggTart.repository.DogRepository;
+import com.EggTart.dyst.EggTart.repository.ReportJobRepository;
+import com.EggTart.dyst.EggTart.sharding.ShardContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Care summary reports generated off the request path.
+ *
+ * Jobs are persisted on shard 0 and run on a small dedicated pool with a
+ * bounded queue. Each dog may only have a few jobs queued or running, so a
+ * handful of large reports cannot occupy every worker; the cap is a unique
+ * (dog, slot) constraint, so it holds across instances.
+ *
+ * Each unfinished job is leased to the instance that queued it, which renews
+ * the lease while it holds the job. Jobs whose lease lapsed, because their
+ * instance stopped, are claimed by a conditional update and run again.
+ */
+@Service
+@Slf4j
+public class ReportJobService {
+    
+    private static final int PRIMARY_SHARD = 0;
+    private static final int PROGRESS_INTERVAL_DAYS = 30;
+    private static final List<ReportStatus> UNFINISHED = List.of(ReportStatus.QUEUED, ReportStatus.RUNNING);
+    
+    private final ReportJobRepository reportJobRepository;
+    private final DogRepository dogRepository;
+    private final CareHistoryReader careHistoryReader;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor reportExecutor;
+    private final ReportProperties properties;
+    private final Path directory;
+    private final String owner = "reports-" + ProcessHandle.current().pid() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    private final Timer duration;
+    
+    public ReportJobService(ReportJobRepository reportJobRepository,
+                            DogRepository dogRepository,
+                            CareHistoryReader careHistoryReader,
+                            TransactionTemplate transactionTemplate,
+                            @Qualifier("reportExecutor") ThreadPoolExecutor reportExecutor,
+                            ReportProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.reportJobRepository = reportJobRepository;
+        this.dogRepository = dogRepository;
+        this.careHistoryReader = careHistoryReader;
+        this.transactionTemplate = transactionTemplate;
+        this.reportExecutor = reportExecutor;
+        this.properties = properties;
+        this.directory = Paths.get(properties.getDirectory());
+        this.duration = Timer.builder("eggtart.reports.duration").register(meterRegistry);
+        meterRegistry.gauge("eggtart.reports.queued", reportExecutor, executor -> executor.getQueue().size());
+        meterRegistry.gauge("eggtart.reports.running", reportExecutor, ThreadPoolExecutor::getActiveCount);
+    }
+    
+    public ReportJob submit(ReportRequestDto request) {
+        long days = ChronoUnit.DAYS.between(request.getFrom(), request.getTo()) + 1;
+        if (days < 1) {
+            throw new IllegalArgumentException("Report start date must not be after its end date");
+        }
+        if (days > properties.getMaxRangeDays()) {
+            throw new IllegalArgumentException(
+                String.format("Reports cover at most %d days", properties.getMaxRangeDays()));
+        }
+        Long dogId = request.getDogId();
+        boolean dogExists = ShardContext.callOnShard(ShardContext.directory().shardForId(dogId),
+            () -> transactionTemplate.execute(status -> dogRepository.existsById(dogId)));
+        if (!dogExists) {
+            throw new EntityNotFoundException("Dog", dogId);
+        }
+        
+        ReportJob job = insertIntoFreeSlot(request);
+        enqueue(job);
+        log.info("Queued {} report {} for dog {} from {} to {}",
+            job.getFormat(), job.getId(), dogId, job.getFromDate(), job.getToDate());
+        return job;
+    }
+    
+    public ReportJob getJob(Long reportId) {
+        return ShardContext.callOnShard(PRIMARY_SHARD, () ->
+            transactionTemplate.execute(status -> reportJobRepository.findById(reportId)))
+            .orElseThrow(() -> new EntityNotFoundException("Report", reportId));
+    }
+    
+    public Resource download(ReportJob job) {
+        if (job.getStatus() != ReportStatus.COMPLETED) {
+            throw new ReportNotReadyException(job.getId(), job.getStatus());
+        }
+        Path file = Paths.get(job.getFilePath());
+        if (!Files.isRegularFile(file)) {
+            throw new EntityNotFoundException(String.format("Report file for report %s has expired", job.getId()));
+        }
+        return new FileSystemResource(file);
+    }
+    
+    /**
+     * Renews the leases of this instance's jobs, then takes over the jobs of
+     * instances that stopped renewing theirs.
+     */
+    @Scheduled(fixedDelayString = "${eggtart.reports.lease-check-ms:30000}")
+    public void renewLeases() {
+        LocalDateTime until = LocalDateTime.now().plus(properties.getLease());
+        ShardContext.callOnShard(PRIMARY_SHARD, () -> transactionTemplate.execute(status ->
+            reportJobRepository.renewClaims(owner, UNFINISHED, until)));
+        resumeUnfinishedJobs();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        List<Long> expired = ShardContext.callOnShard(PRIMARY_SHARD, () ->
+            transactionTemplate.execute(status -> reportJobRepository.findLeaseExpired(UNFINISHED, LocalDateTime.now())));
+        
+        int resumed = 0;
+        for (Long reportId : expired) {
+            Optional<ReportJob> claimed = ShardContext.callOnShard(PRIMARY_SHARD, () -> transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                int updated = reportJobRepository.claimExpired(
+                    reportId, UNFINISHED, owner, now.plus(properties.getLease()), now);
+                return updated == 1 ? reportJobRepository.findById(reportId) : Optional.<ReportJob>empty();
+            }));
+            if (claimed.isEmpty()) {
+                continue;
+            }
+            try {
+                enqueue(claimed.get());
+                resumed++;
+            } catch (ReportCapacityExceededException ex) {
+                log.warn("Could not resume report {}: {}", reportId, ex.getMessage());
+            }
+        }
+        if (resumed > 0) {
+            log.info("Resumed {} report jobs whose lease expired", resumed);
+        }
+    }
+    
+    @Scheduled(cron = "${eggtart.reports.purge-cron:0 45 3 * * *}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getRetention());
+        int purged = ShardContext.callOnShard(PRIMARY_SHARD, () -> {
+            int deleted = 0;
+            List<ReportJob> expired;
+            do {
+                expired = transactionTemplate.execute(status ->
+                    reportJobRepository.findFinishedBefore(cutoff, PageRequest.ofSize(properties.getPurgeChunkSize())));
+                for (ReportJob job : expired) {
+                    deleteFile(job.getFilePath());
+                }
+                List<Long> ids = expired.stream().map(ReportJob::getId).toList();
+                transactionTemplate.executeWithoutResult(status -> reportJobRepository.deleteAllByIdInBatch(ids));
+                deleted += ids.size();
+            } while (expired.size() == properties.getPurgeChunkSize());
+            return deleted;
+        });
+        
+        if (purged > 0) {
+            log.info("Purged {} expired reports", purged);
+        }
+    }
+    
+    /**
+     * Inserts the job into the first of the dog's slots that is free; taken
+     * slots fail the unique constraint, whichever instance holds them.
+     */
+    private ReportJob insertIntoFreeSlot(ReportRequestDto request) {
+        int limit = properties.getMaxActivePerDog();
+        for (int slot = 0; slot < limit; slot++) {
+            try {
+                return save(ReportJob.builder()
+                    .dogId(request.getDogId())
+                    .format(request.getFormat())
+                    .fromDate(request.getFrom())
+                    .toDate(request.getTo())
+                    .status(ReportStatus.QUEUED)
+                    .activeSlot(slot)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            } catch (DataIntegrityViolationException ex) {
+                log.debug("Report slot {} of dog {} is taken", slot, request.getDogId());
+            }
+        }
+        throw new ReportCapacityExceededException(String.format(
+            "Dog %s already has %d reports in progress", request.getDogId(), limit));
+    }
+    
+    private void enqueue(ReportJob job) {
+        try {
+            reportExecutor.execute(() -> run(job));
+        } catch (RejectedExecutionException ex) {
+            fail(job, "Report queue is full");
+            throw new ReportCapacityExceededException("Too many reports are being generated, try again later");
+        }
+    }
+    
+    private void run(ReportJob job) {
+        Timer.Sample sample = Timer.start();
+        try {
+            job.setStatus(ReportStatus.RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+            save(job);
+            
+            Files.createDirectories(directory);
+            Path target = directory.resolve(String.format("report-%d.%s", job.getId(), job.getFormat().getExtension()));
+            Path partial = directory.resolve(target.getFileName() + ".part");
+            
+            String dogName = ShardContext.callOnShard(ShardContext.directory().shardForId(job.getDogId()), () ->
+                transactionTemplate.execute(status -> dogRepository.findById(job.getDogId())
+                    .map(DogProfile::getName)
+                    .orElse("Dog " + job.getDogId())));
+            
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial))) {
+                write(job, dogName, out);
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            
+            job.setStatus(ReportStatus.COMPLETED);
+            job.setFilePath(target.toString());
+            job.setFileSize(Files.size(target));
+            job.setFinishedAt(LocalDateTime.now());
+            save(job);
+            log.info("Report {} written: {} days, {} bytes", job.getId(), job.getDaysWritten(), job.getFileSize());
+        } catch (OptimisticLockingFailureException ex) {
+            log.warn("Report {} was taken over by another instance after its lease expired", job.getId());
+        } catch (IOException | RuntimeException ex) {
+            log.error("Report {} failed", job.getId(), ex);
+            fail(job, ex.getMessage());
+        } finally {
+            sample.stop(duration);
+        }
+    }
+    
+    private void write(ReportJob job, String dogName, OutputStream out) throws IOException {
+        CareReportWriter writer = CareReportWriter.open(job.getFormat(), out);
+        CareDay totals = new CareDay(null);
+        AtomicInteger written = new AtomicInteger();
+        
+        writer.begin(dogName, job.getFromDate(), job.getToDate());
+        careHistoryReader.read(job.getDogId(), job.getFromDate(), job.getToDate(), properties.getChunkDays(), day -> {
+            writer.day(day);
+            totals.add(day);
+            if (written.incrementAndGet() % PROGRESS_INTERVAL_DAYS == 0) {
+                job.setDaysWritten(written.get());
+                save(job);
+            }
+        });
+        writer.finish(totals);
+        job.setDaysWritten(written.get());
+    }
+    
+    private void fail(ReportJob job, String message) {
+        job.setStatus(ReportStatus.FAILED);
+        job.setErrorMessage(message != null && message.length() > 500 ? message.substring(0, 500) : message);
+        job.setFinishedAt(LocalDateTime.now());
+        save(job);
+    }
+    
+    /**
+     * Every save of an unfinished job renews its lease; a finished job gives
+     * up its lease and its slot.
+     *
+     * @throws OptimisticLockingFailureException if another instance took the job over
+     */
+    private ReportJob save(ReportJob job) {
+        if (job.getStatus().isFinished()) {
+            job.setActiveSlot(null);
+            job.setClaimedBy(null);
+            job.setClaimedUntil(null);
+        } else {
+            job.setClaimedBy(owner);
+            job.setClaimedUntil(LocalDateTime.now().plus(properties.getLease()));
+        }
+        ReportJob saved = ShardContext.callOnShard(PRIMARY_SHARD, () ->
+            transactionTemplate.execute(status -> reportJobRepository.save(job)));
+        // The job object is saved repeatedly, so keep its version current
+        job.setVersion(saved.getVersion());
+        return saved;
+    }
+    
+    private static void deleteFile(String filePath) {
+        if (filePath == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Paths.get(filePath));
+        } catch (IOException ex) {
+            log.warn("Could not delete report file {}", filePath, ex);
+        }
+    }
+}
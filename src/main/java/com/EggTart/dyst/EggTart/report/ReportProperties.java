@@ -0,0 +1,36 @@
+package com.EggTart.dyst.EggTart.report;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "eggtart.reports")
+public class ReportProperties {
+    
+    /** Where finished reports are written. */
+    private String directory = "data/reports";
+    
+    /** Report workers; kept small so reports never compete with the API for connections. */
+    private int workerThreads = 2;
+    
+    /** Jobs waiting for a worker before new requests are refused. */
+    private int queueCapacity = 100;
+    
+    /** Queued or running jobs allowed per dog, so one account cannot fill the queue. */
+    private int maxActivePerDog = 2;
+    
+    /** How long a job stays with its instance without renewal before another one takes it over. */
+    private Duration lease = Duration.ofMinutes(2);
+    
+    /** Days read per chunk; each chunk is one short read-only transaction. */
+    private int chunkDays = 14;
+    
+    private int maxRangeDays = 731;
+    
+    /** How long finished reports are kept for download. */
+    private Duration retention = Duration.ofDays(7);
+    
+    private int purgeChunkSize = 200;
+}
@@ -0,0 +1,17 @@
+package com.EggTart.dyst.EggTart.repository;
+
+import com.EggTart.dyst.EggTart.model.entity.BehaviourSketch;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BehaviourSketchRepository extends JpaRepository<BehaviourSketch, Long> {
+    
+    @Query("SELECT s FROM BehaviourSketch s WHERE s.templateId > :afterId ORDER BY s.templateId")
+    List<BehaviourSketch> findLoadBatch(@Param("afterId") Long afterId, Pageable pageable);
+}
@@ -0,0 +1,27 @@
+package com.EggTart.dyst.EggTart.repository;
+
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Helpers for the tuple projections behind sparse fieldsets. Entity
+ * attributes and response fields share their names, so each selected
+ * attribute is aliased by that name.
+ */
+final class CriteriaProjections {
+    
+    private CriteriaProjections() {
+    }
+    
+    static List<Selection<?>> select(From<?, ?> root, Collection<String> attributes) {
+        if (attributes.isEmpty()) {
+            throw new IllegalArgumentException("A projection needs at least one attribute");
+        }
+        return attributes.stream()
+            .<Selection<?>>map(attribute -> root.get(attribute).alias(attribute))
+            .toList();
+    }
+}
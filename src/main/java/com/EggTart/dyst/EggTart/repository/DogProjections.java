@@ -0,0 +1,16 @@
+package com.EggTart.dyst.EggTart.repository;
+
+import jakarta.persistence.Tuple;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Column-level projections of dog profiles, each tuple element aliased by
+ * its attribute name.
+ */
+public interface DogProjections {
+    
+    Optional<Tuple> findProjectedById(@Param("dogId") Long dogId, Collection<String> attributes);
+}
@@ -0,0 +1,30 @@
+package com.EggTart.dyst.EggTart.repository;
+
+import com.EggTart.dyst.EggTart.model.entity.DogProfile;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public class DogProjectionsImpl implements DogProjections {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Optional<Tuple> findProjectedById(Long dogId, Collection<String> attributes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<DogProfile> dog = query.from(DogProfile.class);
+        
+        query.multiselect(CriteriaProjections.select(dog, attributes))
+            .where(cb.equal(dog.get("id"), dogId));
+        
+        return entityManager.createQuery(query).getResultStream().findFirst();
+    }
+}
@@ -1,10 +1,42 @@
 package com.EggTart.dyst.EggTart.repository;
 
 import com.EggTart.dyst.EggTart.model.entity.DogProfile;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface DogRepository extends JpaRepository<DogProfile, Long> {
+public interface DogRepository extends JpaRepository<DogProfile, Long>, DogProjections {
     // Basic CRUD operations are provided by JpaRepository
-} 
\ No newline at end of file
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM DogProfile d WHERE d.id = :id")
+    Optional<DogProfile> findByIdForUpdate(@Param("id") Long id);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM DogProfile d WHERE d.id IN :ids ORDER BY d.id")
+    List<DogProfile> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+    
+    @Query("""
+        SELECT d FROM DogProfile d 
+        WHERE (d.ageRecordedOn IS NULL OR d.ageRecordedOn <= :recordedBefore) 
+        AND d.id > :afterId 
+        ORDER BY d.id
+        """)
+    List<DogProfile> findAgeingBatch(
+        @Param("recordedBefore") LocalDate recordedBefore,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+    
+    Optional<DogProfile> findFirstByOrderByIdAsc();
+}
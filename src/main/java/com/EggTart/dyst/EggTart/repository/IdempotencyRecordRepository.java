@@ -0,0 +1,64 @@
+package com.EggTart.dyst.EggTart.repository;
+
+import com.EggTart.dyst.EggTart.model.entity.IdempotencyRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    
+    @Query("SELECT r.idempotencyKey FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    List<String> findExpiredKeys(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    /** A plain insert, so a key that is already taken fails on the primary key. */
+    @Modifying
+    @Query(value = """
+        INSERT INTO idempotency_records (idempotency_key, request_fingerprint, state, created_at, expires_at) 
+        VALUES (:key, :fingerprint, 'IN_PROGRESS', :now, :expiresAt)
+        """, nativeQuery = true)
+    int insertInProgress(
+        @Param("key") String key,
+        @Param("fingerprint") String fingerprint,
+        @Param("now") LocalDateTime now,
+        @Param("expiresAt") LocalDateTime expiresAt
+    );
+    
+    @Modifying
+    @Query("""
+        UPDATE IdempotencyRecord r 
+        SET r.state = com.EggTart.dyst.EggTart.model.enums.IdempotencyState.COMPLETED, 
+            r.responseStatus = :status, r.contentType = :contentType, r.responseBody = :body, 
+            r.expiresAt = :expiresAt 
+        WHERE r.idempotencyKey = :key 
+        AND r.state = com.EggTart.dyst.EggTart.model.enums.IdempotencyState.IN_PROGRESS 
+        AND r.createdAt = :reservedAt
+        """)
+    int complete(
+        @Param("key") String key,
+        @Param("reservedAt") LocalDateTime reservedAt,
+        @Param("status") int status,
+        @Param("contentType") String contentType,
+        @Param("body") byte[] body,
+        @Param("expiresAt") LocalDateTime expiresAt
+    );
+    
+    @Modifying
+    @Query("""
+        DELETE FROM IdempotencyRecord r 
+        WHERE r.idempotencyKey = :key 
+        AND r.state = com.EggTart.dyst.EggTart.model.enums.IdempotencyState.IN_PROGRESS 
+        AND r.createdAt = :reservedAt
+        """)
+    int deleteReservation(@Param("key") String key, @Param("reservedAt") LocalDateTime reservedAt);
+    
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.expiresAt < :now")
+    int deleteExpired(@Param("key") String key, @Param("now") LocalDateTime now);
+}
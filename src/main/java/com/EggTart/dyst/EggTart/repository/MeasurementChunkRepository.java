@@ -0,0 +1,39 @@
+package com.EggTart.dyst.EggTart.repository;
+
+import com.EggTart.dyst.EggTart.model.entity.MeasurementChunk;
+import com.EggTart.dyst.EggTart.model.enums.MeasurementType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MeasurementChunkRepository extends JpaRepository<MeasurementChunk, Long> {
+    
+    @Query("SELECT MAX(c.endEpoch) FROM MeasurementChunk c WHERE c.dogId = :dogId AND c.type = :type")
+    Long findLatestEpoch(@Param("dogId") Long dogId, @Param("type") MeasurementType type);
+    
+    /** The chunk starting closest at or before the epoch. */
+    Optional<MeasurementChunk> findFirstByDogIdAndTypeAndStartEpochLessThanEqualOrderByStartEpochDesc(
+        Long dogId, MeasurementType type, Long epoch);
+    
+    Optional<MeasurementChunk> findFirstByDogIdAndTypeOrderByStartEpochAsc(Long dogId, MeasurementType type);
+    
+    @Query("""
+        SELECT c FROM MeasurementChunk c 
+        WHERE c.dogId = :dogId 
+        AND c.type = :type 
+        AND c.endEpoch >= :fromEpoch 
+        AND c.startEpoch <= :toEpoch 
+        ORDER BY c.startEpoch
+        """)
+    List<MeasurementChunk> findOverlapping(
+        @Param("dogId") Long dogId,
+        @Param("type") MeasurementType type,
+        @Param("fromEpoch") Long fromEpoch,
+        @Param("toEpoch") Long toEpoch
+    );
+}
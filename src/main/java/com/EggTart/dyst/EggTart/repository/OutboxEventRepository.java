@@ -0,0 +1,71 @@
+package com.EggTart.dyst.EggTart.repository;
+
+import com.EggTart.dyst.EggTart.model.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    /**
+     * Dogs whose oldest pending event is due and not leased, i.e. whose
+     * events can be delivered now without overtaking an earlier one.
+     */
+    @Query("""
+        SELECT e.dogId FROM OutboxEvent e 
+        WHERE e.status = com.EggTart.dyst.EggTart.model.enums.OutboxStatus.PENDING 
+        AND e.nextAttemptAt <= :now 
+        AND (e.claimedUntil IS NULL OR e.claimedUntil < :now) 
+        AND e.id = (
+            SELECT MIN(p.id) FROM OutboxEvent p 
+            WHERE p.dogId = e.dogId 
+            AND p.status = com.EggTart.dyst.EggTart.model.enums.OutboxStatus.PENDING
+        )
+        ORDER BY e.id
+        """)
+    List<Long> findDeliverableDogs(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    @Modifying
+    @Query("""
+        UPDATE OutboxEvent e 
+        SET e.claimedBy = :owner, e.claimedUntil = :until 
+        WHERE e.dogId IN :dogIds 
+        AND e.status = com.EggTart.dyst.EggTart.model.enums.OutboxStatus.PENDING 
+        AND (e.claimedUntil IS NULL OR e.claimedUntil < :now)
+        """)
+    int claimDogs(
+        @Param("dogIds") Collection<Long> dogIds,
+        @Param("owner") String owner,
+        @Param("until") LocalDateTime until,
+        @Param("now") LocalDateTime now
+    );
+    
+    @Query("""
+        SELECT e FROM OutboxEvent e 
+        WHERE e.claimedBy = :owner 
+        AND e.claimedUntil >= :now 
+        AND e.status = com.EggTart.dyst.EggTart.model.enums.OutboxStatus.PENDING 
+        ORDER BY e.id
+        """)
+    List<OutboxEvent> findClaimed(
+        @Param("owner") String owner,
+        @Param("now") LocalDateTime now,
+        Pageable pageable
+    );
+    
+    /**
+     * Drops every lease this owner holds on the dog's events, including those
+     * that did not fit in the batch, so none of them overtakes a failed one.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedBy = NULL, e.claimedUntil = NULL WHERE e.dogId = :dogId AND e.claimedBy = :owner")
+    int releaseDog(@Param("dogId") Long dogId, @Param("owner") String owner);
+}
@@ -0,0 +1,65 @@
+package com.EggTart.dyst.EggTart.repository;
+
+import com.EggTart.dyst.EggTart.model.entity.ReportJob;
+import com.EggTart.dyst.EggTart.model.enums.ReportStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, Long> {
+    
+    /**
+     * Unfinished jobs whose instance stopped renewing its lease.
+     */
+    @Query("""
+        SELECT r.id FROM ReportJob r 
+        WHERE r.status IN :statuses 
+        AND (r.claimedUntil IS NULL OR r.claimedUntil < :now) 
+        ORDER BY r.id
+        """)
+    List<Long> findLeaseExpired(
+        @Param("statuses") Collection<ReportStatus> statuses,
+        @Param("now") LocalDateTime now
+    );
+    
+    /**
+     * Takes over a job whose lease expired and queues it again from the
+     * start; 0 if another instance got there first.
+     */
+    @Modifying
+    @Query("""
+        UPDATE ReportJob r 
+        SET r.claimedBy = :owner, r.claimedUntil = :until, 
+            r.status = com.EggTart.dyst.EggTart.model.enums.ReportStatus.QUEUED, 
+            r.daysWritten = 0, r.startedAt = NULL, r.version = r.version + 1 
+        WHERE r.id = :id 
+        AND r.status IN :statuses 
+        AND (r.claimedUntil IS NULL OR r.claimedUntil < :now)
+        """)
+    int claimExpired(
+        @Param("id") Long id,
+        @Param("statuses") Collection<ReportStatus> statuses,
+        @Param("owner") String owner,
+        @Param("until") LocalDateTime until,
+        @Param("now") LocalDateTime now
+    );
+    
+    @Modifying
+    @Query("UPDATE ReportJob r SET r.claimedUntil = :until WHERE r.claimedBy = :owner AND r.status IN :statuses")
+    int renewClaims(
+        @Param("owner") String owner,
+        @Param("statuses") Collection<ReportStatus> statuses,
+        @Param("until") LocalDateTime until
+    );
+    
+    @Query("SELECT r FROM ReportJob r WHERE r.finishedAt < :cutoff ORDER BY r.id")
+    List<ReportJob> findFinishedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+}
@@ -0,0 +1,26 @@
+package com.EggTart.dyst.EggTart.repository;
+
+import com.EggTart.dyst.EggTart.model.entity.SyncTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+    
+    @Query("""
+        SELECT s FROM SyncTombstone s 
+        WHERE s.dogId = :dogId 
+        AND (s.changeSeq > :changeSeq OR s.deletedAt >= :since)
+        ORDER BY s.changeSeq
+        """)
+    List<SyncTombstone> findChangedSince(
+        @Param("dogId") Long dogId,
+        @Param("changeSeq") Long changeSeq,
+        @Param("since") LocalDateTime since
+    );
+}
@@ -0,0 +1,22 @@
+package com.EggTart.dyst.EggTart.repository;
+
+import jakarta.persistence.Tuple;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Column-level projections of task instances, each tuple element aliased
+ * by its attribute name.
+ */
+public interface TaskInstanceProjections {
+    
+    List<Tuple> findProjectedByDogIdAndScheduledTimeBetween(
+        @Param("dogId") Long dogId,
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        Collection<String> attributes
+    );
+}
@@ -0,0 +1,35 @@
+package com.EggTart.dyst.EggTart.repository;
+
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public class TaskInstanceProjectionsImpl implements TaskInstanceProjections {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<Tuple> findProjectedByDogIdAndScheduledTimeBetween(Long dogId, LocalDateTime startDate,
+                                                                   LocalDateTime endDate, Collection<String> attributes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<TaskInstance> task = query.from(TaskInstance.class);
+        
+        query.multiselect(CriteriaProjections.select(task, attributes))
+            .where(
+                cb.equal(task.get("dogId"), dogId),
+                cb.between(task.<LocalDateTime>get("scheduledTime"), startDate, endDate))
+            .orderBy(cb.asc(task.get("scheduledTime")));
+        
+        return entityManager.createQuery(query).getResultList();
+    }
+}
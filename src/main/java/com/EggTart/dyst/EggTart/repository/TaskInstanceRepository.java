@@ -1,17 +1,23 @@
 package com.EggTart.dyst.EggTart.repository;
 
+import com.EggTart.dyst.EggTart.archive.TaskDayRef;
 import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
 import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.EggTart.dyst.EggTart.service.ScheduledSlot;
+import com.EggTart.dyst.EggTart.stats.TaskCountRow;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface TaskInstanceRepository extends JpaRepository<TaskInstance, Long> {
+public interface TaskInstanceRepository extends JpaRepository<TaskInstance, Long>, TaskInstanceProjections {
     
     @Query("""
         SELECT t FROM TaskInstance t 
@@ -25,9 +31,33 @@ public interface TaskInstanceRepository extends JpaRepository<TaskInstance, Long
         @Param("endDate") LocalDateTime endDate
     );
     
+    @Query("""
+        SELECT t FROM TaskInstance t 
+        WHERE t.dogId IN :dogIds 
+        AND t.type = :type 
+        AND t.status = :status 
+        AND t.scheduledTime BETWEEN :startDate AND :endDate 
+        ORDER BY t.scheduledTime
+        """)
+    List<TaskInstance> findByDogIdInAndTypeAndStatusAndScheduledTimeBetween(
+        @Param("dogIds") Collection<Long> dogIds,
+        @Param("type") TaskType type,
+        @Param("status") TaskStatus status,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
+    );
+    
     @Query("SELECT COUNT(t) FROM TaskInstance t WHERE t.status = :status")
     long countByStatus(@Param("status") TaskStatus status);
     
+    @Query("""
+        SELECT new com.EggTart.dyst.EggTart.stats.TaskCountRow(
+            t.status, t.type, cast(t.scheduledTime as LocalDate), COUNT(t))
+        FROM TaskInstance t 
+        GROUP BY t.status, t.type, cast(t.scheduledTime as LocalDate)
+        """)
+    List<TaskCountRow> countByStatusTypeAndDay();
+    
     @Query("""
         SELECT t FROM TaskInstance t 
         WHERE t.dogId = :dogId 
@@ -40,4 +70,56 @@ public interface TaskInstanceRepository extends JpaRepository<TaskInstance, Long
         @Param("startDate") LocalDateTime startDate,
         @Param("status") TaskStatus status
     );
-} 
\ No newline at end of file
+    
+    @Query("SELECT t FROM TaskInstance t WHERE t.scheduledTime < :cutoff AND t.id > :afterId ORDER BY t.id")
+    List<TaskInstance> findScheduledBeforeAfterId(
+        @Param("cutoff") LocalDateTime cutoff,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+    
+    @Query("""
+        SELECT new com.EggTart.dyst.EggTart.archive.TaskDayRef(t.id, cast(t.scheduledTime as LocalDate))
+        FROM TaskInstance t 
+        WHERE t.scheduledTime < :cutoff
+        """)
+    List<TaskDayRef> findDaysScheduledBefore(@Param("cutoff") LocalDateTime cutoff);
+    
+    @Query("""
+        SELECT t FROM TaskInstance t 
+        WHERE t.dogId = :dogId 
+        AND t.scheduledTime >= :scheduledFrom 
+        AND (t.changeSeq > :changeSeq OR t.updatedAt >= :since)
+        ORDER BY t.changeSeq
+        """)
+    List<TaskInstance> findChangedSince(
+        @Param("dogId") Long dogId,
+        @Param("scheduledFrom") LocalDateTime scheduledFrom,
+        @Param("changeSeq") Long changeSeq,
+        @Param("since") LocalDateTime since
+    );
+    
+    @Query("""
+        SELECT new com.EggTart.dyst.EggTart.service.ScheduledSlot(t.dogId, t.type, t.slotTime)
+        FROM TaskInstance t 
+        WHERE t.dogId IN :dogIds 
+        AND t.slotTime >= :from 
+        AND t.slotTime < :to
+        """)
+    List<ScheduledSlot> findScheduledSlots(
+        @Param("dogIds") Collection<Long> dogIds,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+    
+    @Query("""
+        SELECT t.id FROM TaskInstance t 
+        WHERE t.taskTemplateId IN :templateIds 
+        AND t.status = com.EggTart.dyst.EggTart.model.enums.TaskStatus.PENDING 
+        AND t.scheduledTime > :after
+        """)
+    List<Long> findPendingIdsByTemplates(
+        @Param("templateIds") Collection<Long> templateIds,
+        @Param("after") LocalDateTime after
+    );
+}
@@ -0,0 +1,17 @@
+package com.EggTart.dyst.EggTart.repository;
+
+import jakarta.persistence.Tuple;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Column-level projections of task templates, each tuple element aliased
+ * by its attribute name.
+ */
+public interface TaskTemplateProjections {
+    
+    /** Ordered by default time, like {@code findByDogIdOrderByDefaultTime}. */
+    List<Tuple> findProjectedByDogId(@Param("dogId") Long dogId, Collection<String> attributes);
+}
@@ -0,0 +1,31 @@
+package com.EggTart.dyst.EggTart.repository;
+
+import com.EggTart.dyst.EggTart.model.entity.TaskTemplate;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+import java.util.Collection;
+import java.util.List;
+
+public class TaskTemplateProjectionsImpl implements TaskTemplateProjections {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<Tuple> findProjectedByDogId(Long dogId, Collection<String> attributes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<TaskTemplate> template = query.from(TaskTemplate.class);
+        
+        query.multiselect(CriteriaProjections.select(template, attributes))
+            .where(cb.equal(template.get("dogId"), dogId))
+            .orderBy(cb.asc(template.get("defaultTime")));
+        
+        return entityManager.createQuery(query).getResultList();
+    }
+}
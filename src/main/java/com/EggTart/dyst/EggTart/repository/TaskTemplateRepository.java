@@ -2,15 +2,17 @@ package com.EggTart.dyst.EggTart.repository;
 
 import com.EggTart.dyst.EggTart.model.entity.TaskTemplate;
 import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface TaskTemplateRepository extends JpaRepository<TaskTemplate, Long> {
+public interface TaskTemplateRepository extends JpaRepository<TaskTemplate, Long>, TaskTemplateProjections {
     
     @Query("SELECT t FROM TaskTemplate t WHERE t.dogId = :dogId ORDER BY t.defaultTime")
     List<TaskTemplate> findByDogIdOrderByDefaultTime(@Param("dogId") Long dogId);
@@ -20,4 +22,19 @@ public interface TaskTemplateRepository extends JpaRepository<TaskTemplate, Long
         @Param("dogId") Long dogId, 
         @Param("type") TaskType type
     );
-} 
\ No newline at end of file
+    
+    @Query("""
+        SELECT t FROM TaskTemplate t 
+        WHERE t.dogId = :dogId 
+        AND (t.changeSeq > :changeSeq OR t.updatedAt >= :since)
+        ORDER BY t.changeSeq
+        """)
+    List<TaskTemplate> findChangedSince(
+        @Param("dogId") Long dogId,
+        @Param("changeSeq") Long changeSeq,
+        @Param("since") LocalDateTime since
+    );
+    
+    @Query("SELECT t FROM TaskTemplate t WHERE t.id > :afterId ORDER BY t.id")
+    List<TaskTemplate> findBatchAfter(@Param("afterId") Long afterId, Pageable pageable);
+}
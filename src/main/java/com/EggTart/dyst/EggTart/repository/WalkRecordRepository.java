@@ -1,12 +1,17 @@
 package com.EggTart.dyst.EggTart.repository;
 
 import com.EggTart.dyst.EggTart.model.entity.WalkRecord;
+import com.EggTart.dyst.EggTart.projection.WalkDetail;
+import com.EggTart.dyst.EggTart.projection.WalkSummary;
+import com.EggTart.dyst.EggTart.search.IndexedWalk;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,12 +21,47 @@ public interface WalkRecordRepository extends JpaRepository<WalkRecord, Long> {
     WalkRecord findByTaskId(@Param("taskId") Long taskId);
     
     @Query("""
-        SELECT w FROM WalkRecord w 
-        WHERE w.startTime BETWEEN :startDate AND :endDate 
+        SELECT new com.EggTart.dyst.EggTart.projection.WalkSummary(
+            w.id, w.taskId, w.dogId, w.startTime, w.endTime, w.pee, w.poo, w.mood)
+        FROM WalkRecord w
+        WHERE w.startTime BETWEEN :startDate AND :endDate
         ORDER BY w.startTime DESC
         """)
-    List<WalkRecord> findByStartTimeBetweenOrderByStartTimeDesc(
+    List<WalkSummary> findSummariesByStartTimeBetweenOrderByStartTimeDesc(
         @Param("startDate") LocalDateTime startDate,
         @Param("endDate") LocalDateTime endDate
     );
-} 
\ No newline at end of file
+    
+    @Query("""
+        SELECT new com.EggTart.dyst.EggTart.search.IndexedWalk(
+            w.id, w.dogId, w.startTime, w.mood, w.notes)
+        FROM WalkRecord w
+        WHERE w.id > :afterId
+        ORDER BY w.id
+        """)
+    List<IndexedWalk> findIndexBatch(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Served by idx_walk_records_dog_start
+    @Query("""
+        SELECT new com.EggTart.dyst.EggTart.projection.WalkSummary(
+            w.id, w.taskId, w.dogId, w.startTime, w.endTime, w.pee, w.poo, w.mood)
+        FROM WalkRecord w
+        WHERE w.dogId = :dogId
+        AND w.startTime >= :startDate AND w.startTime < :endDate
+        ORDER BY w.startTime
+        """)
+    List<WalkSummary> findSummariesByDogIdAndStartTimeBetween(
+        @Param("dogId") Long dogId,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
+    );
+    
+    // Selects the lazy columns with the rest, instead of one load per entity
+    @Query("""
+        SELECT new com.EggTart.dyst.EggTart.projection.WalkDetail(
+            w.id, w.taskId, w.dogId, w.startTime, w.mood, w.photoURL, w.notes)
+        FROM WalkRecord w
+        WHERE w.id IN :ids
+        """)
+    List<WalkDetail> findDetailsByIdIn(@Param("ids") Collection<Long> ids);
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.EggTart.dyst.EggTart.search;
+
+import com.EggTart.dyst.EggTart.model.enums.Mood;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat view of a walk record as fed to the note index, used both for
+ * incremental updates and for rebuilding from the database.
+ */
+public record IndexedWalk(
+    Long walkRecordId,
+    Long dogId,
+    LocalDateTime startTime,
+    Mood mood,
+    String notes
+) {
+}
@@ -0,0 +1,318 @@
+package com.EggTart.dyst.EggTart.search;
+
+import com.EggTart.dyst.EggTart.event.WalkRecordCreatedEvent;
+import com.EggTart.dyst.EggTart.repository.WalkRecordRepository;
+import com.EggTart.dyst.EggTart.sharding.ShardContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over walk notes and mood.
+ *
+ * Postings are kept per dog so the common "search my dog's walks" query only
+ * touches that dog's documents, while document frequencies are tracked
+ * globally for BM25 ranking. The index is rebuilt from the database on
+ * startup and then kept current from {@link WalkRecordCreatedEvent}s.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WalkNoteIndex {
+    
+    private static final int REBUILD_BATCH_SIZE = 5000;
+    private static final double BM25_K1 = 1.2;
+    private static final double BM25_B = 0.75;
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "at", "by", "for", "in", "is", "it", "of", "on", "or", "the", "to", "was", "with"
+    );
+    
+    private final WalkRecordRepository walkRecordRepository;
+    
+    private volatile Segment segment = new Segment();
+    private final Object rebuildLock = new Object();
+    private List<IndexedWalk> pendingDuringRebuild;
+    private volatile boolean ready;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        // Usually already built by the warm-up
+        if (ready) {
+            return;
+        }
+        Thread rebuilder = new Thread(this::rebuild, "walk-note-index-rebuild");
+        rebuilder.setDaemon(true);
+        rebuilder.start();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWalkRecordCreated(WalkRecordCreatedEvent event) {
+        add(new IndexedWalk(event.walkRecordId(), event.dogId(), event.startTime(), event.mood(), event.notes()));
+    }
+    
+    public void add(IndexedWalk walk) {
+        synchronized (rebuildLock) {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(walk);
+            }
+            segment.add(walk);
+        }
+    }
+    
+    /**
+     * Rebuilds the index from the database into a fresh segment and swaps it in.
+     * Walks indexed while the rebuild runs are replayed onto the new segment.
+     *
+     * @return number of documents in the new segment
+     */
+    public int rebuild() {
+        synchronized (rebuildLock) {
+            if (pendingDuringRebuild != null) {
+                log.info("Walk note index rebuild already in progress");
+                return segment.size();
+            }
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        
+        long started = System.nanoTime();
+        Segment fresh = new Segment();
+        try {
+            ShardContext.forEachShard(() -> loadShard(fresh));
+        } catch (RuntimeException ex) {
+            synchronized (rebuildLock) {
+                pendingDuringRebuild = null;
+            }
+            log.error("Walk note index rebuild failed", ex);
+            throw ex;
+        }
+        
+        synchronized (rebuildLock) {
+            pendingDuringRebuild.forEach(fresh::add);
+            pendingDuringRebuild = null;
+            segment = fresh;
+            ready = true;
+        }
+        
+        log.info("Walk note index rebuilt with {} documents in {} ms",
+            fresh.size(), (System.nanoTime() - started) / 1_000_000);
+        return fresh.size();
+    }
+    
+    private void loadShard(Segment target) {
+        long afterId = Long.MIN_VALUE;
+        List<IndexedWalk> batch;
+        do {
+            batch = walkRecordRepository.findIndexBatch(afterId, PageRequest.ofSize(REBUILD_BATCH_SIZE));
+            for (IndexedWalk walk : batch) {
+                target.add(walk);
+                afterId = walk.walkRecordId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+    }
+    
+    /**
+     * Returns walks containing every term of the query, best BM25 score first.
+     */
+    public List<WalkSearchHit> search(String query, Long dogId, LocalDateTime from, LocalDateTime to, int limit) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return segment.search(terms, dogId, from, to, limit);
+    }
+    
+    public int size() {
+        return segment.size();
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+")) {
+            if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+    
+    private static List<String> documentTerms(IndexedWalk walk) {
+        List<String> terms = new ArrayList<>(tokenize(walk.notes()));
+        if (walk.mood() != null) {
+            terms.add(walk.mood().name().toLowerCase(Locale.ROOT));
+        }
+        return terms;
+    }
+    
+    private record DocMeta(long dogId, LocalDateTime startTime, int length) {
+    }
+    
+    /**
+     * Sorted doc ids with their term frequencies for one term of one dog.
+     */
+    private static final class Postings {
+        private long[] docIds = new long[4];
+        private int[] frequencies = new int[4];
+        private int size;
+        
+        void add(long docId, int frequency) {
+            if (size == docIds.length) {
+                docIds = Arrays.copyOf(docIds, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            // Ids arrive almost always in ascending order; fall back to insertion otherwise
+            int position = size;
+            while (position > 0 && docIds[position - 1] > docId) {
+                position--;
+            }
+            System.arraycopy(docIds, position, docIds, position + 1, size - position);
+            System.arraycopy(frequencies, position, frequencies, position + 1, size - position);
+            docIds[position] = docId;
+            frequencies[position] = frequency;
+            size++;
+        }
+        
+        int frequencyOf(long docId) {
+            int index = Arrays.binarySearch(docIds, 0, size, docId);
+            return index >= 0 ? frequencies[index] : 0;
+        }
+    }
+    
+    private static final class Segment {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Map<String, Postings>> postingsByDog = new HashMap<>();
+        private final Map<String, Integer> documentFrequency = new HashMap<>();
+        private final Map<Long, DocMeta> docs = new HashMap<>();
+        private long totalLength;
+        
+        void add(IndexedWalk walk) {
+            if (walk.walkRecordId() == null || walk.dogId() == null) {
+                return;
+            }
+            List<String> terms = documentTerms(walk);
+            Map<String, Integer> counts = new HashMap<>();
+            terms.forEach(term -> counts.merge(term, 1, Integer::sum));
+            
+            lock.writeLock().lock();
+            try {
+                if (docs.containsKey(walk.walkRecordId())) {
+                    return;
+                }
+                docs.put(walk.walkRecordId(), new DocMeta(walk.dogId(), walk.startTime(), terms.size()));
+                totalLength += terms.size();
+                Map<String, Postings> dogPostings = postingsByDog.computeIfAbsent(walk.dogId(), id -> new HashMap<>());
+                counts.forEach((term, count) -> {
+                    dogPostings.computeIfAbsent(term, t -> new Postings()).add(walk.walkRecordId(), count);
+                    documentFrequency.merge(term, 1, Integer::sum);
+                });
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        int size() {
+            lock.readLock().lock();
+            try {
+                return docs.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        List<WalkSearchHit> search(List<String> terms, Long dogId, LocalDateTime from, LocalDateTime to, int limit) {
+            PriorityQueue<WalkSearchHit> top = new PriorityQueue<>(Comparator.comparingDouble(WalkSearchHit::score));
+            
+            lock.readLock().lock();
+            try {
+                if (docs.isEmpty()) {
+                    return List.of();
+                }
+                double averageLength = Math.max(1.0, (double) totalLength / docs.size());
+                double[] idf = new double[terms.size()];
+                for (int i = 0; i < terms.size(); i++) {
+                    int df = documentFrequency.getOrDefault(terms.get(i), 0);
+                    if (df == 0) {
+                        return List.of();
+                    }
+                    idf[i] = Math.log(1 + (docs.size() - df + 0.5) / (df + 0.5));
+                }
+                
+                Collection<Map<String, Postings>> candidates = dogId != null
+                    ? Optional.ofNullable(postingsByDog.get(dogId)).map(List::of).orElse(List.of())
+                    : postingsByDog.values();
+                
+                for (Map<String, Postings> dogPostings : candidates) {
+                    Postings[] lists = new Postings[terms.size()];
+                    int rarest = -1;
+                    for (int i = 0; i < terms.size(); i++) {
+                        lists[i] = dogPostings.get(terms.get(i));
+                        if (lists[i] == null) {
+                            rarest = -1;
+                            break;
+                        }
+                        if (rarest < 0 || lists[i].size < lists[rarest].size) {
+                            rarest = i;
+                        }
+                    }
+                    if (rarest < 0) {
+                        continue;
+                    }
+                    
+                    Postings driver = lists[rarest];
+                    for (int d = 0; d < driver.size; d++) {
+                        long docId = driver.docIds[d];
+                        DocMeta meta = docs.get(docId);
+                        if (from != null && meta.startTime().isBefore(from)) {
+                            continue;
+                        }
+                        if (to != null && meta.startTime().isAfter(to)) {
+                            continue;
+                        }
+                        
+                        double lengthNorm = BM25_K1 * (1 - BM25_B + BM25_B * meta.length() / averageLength);
+                        double score = 0;
+                        for (int i = 0; i < lists.length; i++) {
+                            int tf = i == rarest ? driver.frequencies[d] : lists[i].frequencyOf(docId);
+                            if (tf == 0) {
+                                score = -1;
+                                break;
+                            }
+                            score += idf[i] * tf * (BM25_K1 + 1) / (tf + lengthNorm);
+                        }
+                        if (score < 0) {
+                            continue;
+                        }
+                        
+                        if (top.size() < limit) {
+                            top.add(new WalkSearchHit(docId, meta.dogId(), meta.startTime(), score));
+                        } else if (score > top.peek().score()) {
+                            top.poll();
+                            top.add(new WalkSearchHit(docId, meta.dogId(), meta.startTime(), score));
+                        }
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            
+            List<WalkSearchHit> hits = new ArrayList<>(top);
+            hits.sort(Comparator.comparingDouble(WalkSearchHit::score).reversed());
+            return hits;
+        }
+    }
+}
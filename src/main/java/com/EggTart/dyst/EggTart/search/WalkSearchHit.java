@@ -0,0 +1,11 @@
+package com.EggTart.dyst.EggTart.search;
+
+import java.time.LocalDateTime;
+
+public record WalkSearchHit(
+    Long walkRecordId,
+    Long dogId,
+    LocalDateTime startTime,
+    double score
+) {
+}
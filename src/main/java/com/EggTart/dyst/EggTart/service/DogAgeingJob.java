@@ -0,0 +1,71 @@
+package com.EggTart.dyst.EggTart.service;
+
+import com.EggTart.dyst.EggTart.event.DogProfileChangedEvent;
+import com.EggTart.dyst.EggTart.model.entity.DogProfile;
+import com.EggTart.dyst.EggTart.repository.DogRepository;
+import com.EggTart.dyst.EggTart.sharding.ShardContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rolls recorded ages forward once a month has passed, so puppyFlag flips
+ * on its own when a dog turns one rather than only when its profile is
+ * edited. Dogs whose bucket is being moved are rolled forward on the next
+ * run.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DogAgeingJob {
+    
+    private static final int BATCH_SIZE = 500;
+    
+    private final DogRepository dogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Scheduled(cron = "${eggtart.dogs.ageing-cron:0 15 0 * * *}")
+    public void ageDogs() {
+        LocalDate today = LocalDate.now();
+        ShardContext.forEachShard(() -> ageShard(today));
+    }
+    
+    private void ageShard(LocalDate today) {
+        long afterId = 0;
+        int aged = 0;
+        List<DogProfile> batch;
+        do {
+            long from = afterId;
+            int[] agedInBatch = new int[1];
+            batch = transactionTemplate.execute(status -> {
+                List<DogProfile> dogs = dogRepository.findAgeingBatch(
+                    today.minusMonths(1), from, PageRequest.ofSize(BATCH_SIZE));
+                // Changed dogs are flushed on commit
+                dogs.stream()
+                    .filter(dog -> !ShardContext.isFrozen(dog.getId()))
+                    .forEach(dog -> {
+                        dog.rollAgeForward(today);
+                        eventPublisher.publishEvent(new DogProfileChangedEvent(dog.getId()));
+                        agedInBatch[0]++;
+                    });
+                return dogs;
+            });
+            aged += agedInBatch[0];
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == BATCH_SIZE);
+        
+        if (aged > 0) {
+            log.info("Rolled ages forward for {} dogs on shard {}", aged, ShardContext.currentShard());
+        }
+    }
+}
@@ -1,17 +1,39 @@
 package com.EggTart.dyst.EggTart.service;
 
 import com.EggTart.dyst.EggTart.dto.request.OnboardingDto;
+import com.EggTart.dyst.EggTart.dto.request.TemplateScheduleDto;
+import com.EggTart.dyst.EggTart.dto.response.CalendarDayDto;
+import com.EggTart.dyst.EggTart.dto.response.DogProfileResponseDto;
+import com.EggTart.dyst.EggTart.dto.response.TaskTemplateResponseDto;
+import com.EggTart.dyst.EggTart.event.DogProfileChangedEvent;
 import com.EggTart.dyst.EggTart.exception.EntityNotFoundException;
+import com.EggTart.dyst.EggTart.invalidation.DogCaches;
+import com.EggTart.dyst.EggTart.model.entity.ChangeSequenceListener;
 import com.EggTart.dyst.EggTart.model.entity.DogProfile;
+import com.EggTart.dyst.EggTart.model.entity.SyncTombstone;
 import com.EggTart.dyst.EggTart.model.entity.TaskTemplate;
+import com.EggTart.dyst.EggTart.model.enums.MeasurementType;
 import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.EggTart.dyst.EggTart.projection.FieldSelection;
+import com.EggTart.dyst.EggTart.recurrence.RecurrenceCalendar;
+import com.EggTart.dyst.EggTart.recurrence.RecurrenceExpander;
+import com.EggTart.dyst.EggTart.recurrence.RecurrenceRule;
 import com.EggTart.dyst.EggTart.repository.DogRepository;
+import com.EggTart.dyst.EggTart.repository.SyncTombstoneRepository;
+import com.EggTart.dyst.EggTart.repository.TaskInstanceRepository;
 import com.EggTart.dyst.EggTart.repository.TaskTemplateRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -20,8 +42,17 @@ import java.util.List;
 @RequiredArgsConstructor
 public class DogService {
     
+    private static final String TASK_TEMPLATES = "taskTemplates";
+    
     private final DogRepository dogRepository;
     private final TaskTemplateRepository taskTemplateRepository;
+    private final TaskInstanceRepository taskInstanceRepository;
+    private final TaskTransitions taskTransitions;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final MeasurementService measurementService;
+    private final TaskInstanceGenerator taskInstanceGenerator;
+    private final RecurrenceExpander recurrenceExpander;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional(readOnly = true)
     public DogProfile getDogProfile(Long dogId) {
@@ -31,9 +62,39 @@ public class DogService {
             .orElseThrow(() -> new EntityNotFoundException("Dog", dogId));
     }
     
+    /**
+     * The profile with its templates, reading only the columns behind the
+     * requested fields. Templates are loaded only when requested. Full
+     * profiles are cached until the dog changes.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = DogCaches.PROFILES, key = "#dogId", condition = "#fields.all", sync = true)
+    public DogProfileResponseDto getDogProfile(Long dogId, FieldSelection fields) {
+        log.debug("Fetching dog profile fields {} for ID: {}", fields.fields(), dogId);
+        
+        DogProfileResponseDto dogProfile;
+        List<String> columns = fields.fieldsExcept(TASK_TEMPLATES);
+        if (fields.isAll()) {
+            dogProfile = DogProfileResponseDto.from(getDogProfile(dogId));
+        } else if (!columns.isEmpty()) {
+            dogProfile = dogRepository.findProjectedById(dogId, columns)
+                .map(tuple -> DogProfileResponseDto.from(tuple, columns))
+                .orElseThrow(() -> new EntityNotFoundException("Dog", dogId));
+        } else if (dogRepository.existsById(dogId)) {
+            dogProfile = new DogProfileResponseDto();
+        } else {
+            throw new EntityNotFoundException("Dog", dogId);
+        }
+        
+        if (fields.includes(TASK_TEMPLATES)) {
+            dogProfile.setTaskTemplates(getTaskTemplates(dogId, FieldSelection.all(TaskTemplateResponseDto.class)));
+        }
+        return dogProfile;
+    }
+    
     @Transactional
     public DogProfile createDogProfile(OnboardingDto onboardingDto) {
-        log.info("Creating dog profile for: {}", onboardingDto.getDogName());
+        log.debug("Creating dog profile for: {}", onboardingDto.getDogName());
         
         // Create dog profile
         DogProfile dogProfile = DogProfile.builder()
@@ -43,23 +104,35 @@ public class DogService {
             .build();
         
         DogProfile savedDog = dogRepository.save(dogProfile);
+        recordWeight(savedDog.getId(), onboardingDto.getWeight());
         
         // Create task templates
         createTaskTemplates(savedDog.getId(), onboardingDto);
+        taskInstanceGenerator.generateForDog(savedDog.getId());
+        eventPublisher.publishEvent(new DogProfileChangedEvent(savedDog.getId()));
         
-        log.info("Dog profile created successfully with ID: {}", savedDog.getId());
+        log.debug("Dog profile created successfully with ID: {}", savedDog.getId());
         return savedDog;
     }
     
     @Transactional
     public DogProfile updateDogProfile(Long dogId, OnboardingDto onboardingDto) {
-        log.info("Updating dog profile for ID: {}", dogId);
+        log.debug("Updating dog profile for ID: {}", dogId);
+        
+        // Locked like any other measurement append, before the weight is recorded
+        DogProfile existingDog = dogRepository.findByIdForUpdate(dogId)
+            .orElseThrow(() -> new EntityNotFoundException("Dog", dogId));
         
-        DogProfile existingDog = getDogProfile(dogId);
+        // Keep the weight history before the profile value is overwritten
+        if (onboardingDto.getWeight() != null
+                && (existingDog.getWeight() == null || existingDog.getWeight().compareTo(onboardingDto.getWeight()) != 0)) {
+            recordWeight(dogId, onboardingDto.getWeight());
+        }
         
         // Update basic info
         existingDog.setName(onboardingDto.getDogName());
         existingDog.setAgeMo(onboardingDto.getAgeMo());
+        existingDog.setAgeRecordedOn(LocalDate.now());
         existingDog.setWeight(onboardingDto.getWeight());
         
         DogProfile savedDog = dogRepository.save(existingDog);
@@ -67,14 +140,59 @@ public class DogService {
         // Delete existing task templates and create new ones
         List<TaskTemplate> existingTemplates = taskTemplateRepository
             .findByDogIdOrderByDefaultTime(dogId);
+        deleteUpcomingTasks(dogId, existingTemplates);
         taskTemplateRepository.deleteAll(existingTemplates);
+        recordTemplateTombstones(dogId, existingTemplates);
         
+        // The new templates fill in the slots the deleted tasks left
         createTaskTemplates(dogId, onboardingDto);
+        taskInstanceGenerator.generateForDog(dogId);
+        eventPublisher.publishEvent(new DogProfileChangedEvent(dogId));
         
-        log.info("Dog profile updated successfully");
+        log.debug("Dog profile updated successfully");
         return savedDog;
     }
     
+    private void recordWeight(Long dogId, BigDecimal weight) {
+        if (weight != null) {
+            measurementService.append(dogId, MeasurementType.WEIGHT, LocalDateTime.now(), weight.doubleValue());
+        }
+    }
+    
+    /**
+     * Deletes the pending tasks the templates still have ahead, so none of
+     * them outlives the schedule it came from. Tasks already started or
+     * finished are kept.
+     */
+    private void deleteUpcomingTasks(Long dogId, List<TaskTemplate> templates) {
+        if (templates.isEmpty()) {
+            return;
+        }
+        List<Long> upcoming = taskInstanceRepository.findPendingIdsByTemplates(
+            templates.stream().map(TaskTemplate::getId).toList(), LocalDateTime.now());
+        List<Long> deleted = taskTransitions.deletePendingTasks(upcoming);
+        recordTombstones(dogId, SyncTombstone.TASK_INSTANCE, deleted);
+    }
+    
+    private void recordTemplateTombstones(Long dogId, List<TaskTemplate> deletedTemplates) {
+        recordTombstones(dogId, SyncTombstone.TASK_TEMPLATE,
+            deletedTemplates.stream().map(TaskTemplate::getId).toList());
+    }
+    
+    private void recordTombstones(Long dogId, String entityType, List<Long> entityIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<SyncTombstone> tombstones = entityIds.stream()
+            .map(entityId -> SyncTombstone.builder()
+                .entityType(entityType)
+                .entityId(entityId)
+                .dogId(dogId)
+                .changeSeq(ChangeSequenceListener.next())
+                .deletedAt(now)
+                .build())
+            .toList();
+        syncTombstoneRepository.saveAll(tombstones);
+    }
+    
     private void createTaskTemplates(Long dogId, OnboardingDto onboardingDto) {
         // Create meal time templates
         if (onboardingDto.getMealTimes() != null) {
@@ -112,11 +230,74 @@ public class DogService {
             }
         }
         
+        // Create templates with their own recurrence, stored in canonical form
+        if (onboardingDto.getSchedules() != null) {
+            LocalDate today = LocalDate.now();
+            for (TemplateScheduleDto schedule : onboardingDto.getSchedules()) {
+                TaskTemplate scheduledTemplate = TaskTemplate.builder()
+                    .dogId(dogId)
+                    .type(schedule.getType())
+                    .defaultTime(schedule.getTime())
+                    .recurrence(RecurrenceRule.normalize(schedule.getRecurrence(), today))
+                    .build();
+                taskTemplateRepository.save(scheduledTemplate);
+            }
+        }
+        
         log.debug("Created task templates for dog ID: {}", dogId);
     }
     
     @Transactional(readOnly = true)
-    public List<TaskTemplate> getTaskTemplates(Long dogId) {
-        return taskTemplateRepository.findByDogIdOrderByDefaultTime(dogId);
+    @Cacheable(cacheNames = DogCaches.TEMPLATES, key = "#dogId", condition = "#fields.all", sync = true)
+    public List<TaskTemplateResponseDto> getTaskTemplates(Long dogId, FieldSelection fields) {
+        if (fields.isAll()) {
+            return taskTemplateRepository.findByDogIdOrderByDefaultTime(dogId).stream()
+                .map(TaskTemplateResponseDto::from)
+                .toList();
+        }
+        return taskTemplateRepository.findProjectedByDogId(dogId, fields.fields()).stream()
+            .map(tuple -> TaskTemplateResponseDto.from(tuple, fields.fields()))
+            .toList();
+    }
+    
+    /**
+     * Expands the dog's templates over a date range, one entry per day.
+     */
+    @Transactional(readOnly = true)
+    public List<CalendarDayDto> getCalendar(Long dogId, LocalDate from, LocalDate to) {
+        if (!dogRepository.existsById(dogId)) {
+            throw new EntityNotFoundException("Dog", dogId);
+        }
+        
+        return calendarFor(taskTemplateRepository.findByDogIdOrderByDefaultTime(dogId), from, to);
+    }
+    
+    /**
+     * Expands already loaded templates, ordered by time, over a date range.
+     * Touches no repository, so the reactive runtime can share it.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<CalendarDayDto> calendarFor(List<TaskTemplate> templates, LocalDate from, LocalDate to) {
+        RecurrenceCalendar calendar = recurrenceExpander.calendar(from, to);
+        List<List<TaskTemplateResponseDto>> tasksByDay = new ArrayList<>(calendar.days());
+        for (int day = 0; day < calendar.days(); day++) {
+            tasksByDay.add(new ArrayList<>());
+        }
+        
+        // Templates come ordered by time, so each day's list is too
+        for (TaskTemplate template : templates) {
+            TaskTemplateResponseDto task = TaskTemplateResponseDto.from(template);
+            recurrenceExpander.occurrences(calendar, template)
+                .forEachDay(day -> tasksByDay.get(day).add(task));
+        }
+        
+        List<CalendarDayDto> days = new ArrayList<>(calendar.days());
+        for (int day = 0; day < calendar.days(); day++) {
+            days.add(CalendarDayDto.builder()
+                .date(calendar.dateAt(day))
+                .tasks(tasksByDay.get(day))
+                .build());
+        }
+        return days;
     }
-} 
\ No newline at end of file
+}
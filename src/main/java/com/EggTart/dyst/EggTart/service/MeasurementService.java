@@ -0,0 +1,216 @@
+package com.EggTart.dyst.EggTart.service;
+
+import com.EggTart.dyst.EggTart.dto.request.MeasurementDto;
+import com.EggTart.dyst.EggTart.dto.response.MeasurementPointDto;
+import com.EggTart.dyst.EggTart.event.DogProfileChangedEvent;
+import com.EggTart.dyst.EggTart.exception.EntityNotFoundException;
+import com.EggTart.dyst.EggTart.model.entity.DogProfile;
+import com.EggTart.dyst.EggTart.model.entity.MeasurementChunk;
+import com.EggTart.dyst.EggTart.model.enums.MeasurementType;
+import com.EggTart.dyst.EggTart.repository.DogRepository;
+import com.EggTart.dyst.EggTart.repository.MeasurementChunkRepository;
+import com.EggTart.dyst.EggTart.timeseries.GorillaCodec;
+import com.EggTart.dyst.EggTart.timeseries.SeriesPoints;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Weight and health measurement history, stored as compressed chunks.
+ *
+ * Appends for a dog are serialised by locking its profile row. Chunk ranges
+ * never overlap: a reading goes into the chunk starting closest at or before
+ * it, which extends that chunk's range at most up to the next chunk, and
+ * only the first chunk of a series is ever extended backwards. A reading
+ * past the newest chunk once it is sealed starts a new open chunk. The open
+ * chunk is sealed once it holds the configured number of points, and a chunk
+ * that outgrows its column, or twice that number of points, through late
+ * readings is split in two.
+ */
+@Service
+@Transactional
+@Slf4j
+public class MeasurementService {
+    
+    /** Size of the data column. */
+    static final int MAX_CHUNK_BYTES = 8192;
+    
+    private final MeasurementChunkRepository measurementChunkRepository;
+    private final DogRepository dogRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkPoints;
+    
+    public MeasurementService(MeasurementChunkRepository measurementChunkRepository,
+                              DogRepository dogRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${eggtart.measurements.chunk-points:240}") int chunkPoints) {
+        this.measurementChunkRepository = measurementChunkRepository;
+        this.dogRepository = dogRepository;
+        this.eventPublisher = eventPublisher;
+        this.chunkPoints = chunkPoints;
+    }
+    
+    @Transactional
+    public int recordMeasurements(Long dogId, List<MeasurementDto> measurements) {
+        log.debug("Recording {} measurements for dog ID: {}", measurements.size(), dogId);
+        
+        DogProfile dog = dogRepository.findByIdForUpdate(dogId)
+            .orElseThrow(() -> new EntityNotFoundException("Dog", dogId));
+        
+        LocalDateTime now = LocalDateTime.now();
+        BigDecimal weightBefore = dog.getWeight();
+        for (MeasurementDto measurement : measurements) {
+            LocalDateTime recordedAt = measurement.getRecordedAt() != null ? measurement.getRecordedAt() : now;
+            boolean latest = append(dogId, measurement.getType(), recordedAt, measurement.getValue());
+            
+            // The profile always shows the most recent weigh-in
+            if (latest && measurement.getType() == MeasurementType.WEIGHT) {
+                dog.setWeight(BigDecimal.valueOf(measurement.getValue()).setScale(2, RoundingMode.HALF_UP));
+            }
+        }
+        if (weightBefore == null ? dog.getWeight() != null : weightBefore.compareTo(dog.getWeight()) != 0) {
+            // Cached profiles show the weight
+            eventPublisher.publishEvent(new DogProfileChangedEvent(dogId));
+        }
+        return measurements.size();
+    }
+    
+    /**
+     * Appends one reading. The caller must own the dog row in its transaction,
+     * either by having just created it or by holding its lock. Returns whether
+     * the reading is the newest of its series.
+     */
+    @Transactional
+    public boolean append(Long dogId, MeasurementType type, LocalDateTime recordedAt, double value) {
+        long epoch = recordedAt.toEpochSecond(ZoneOffset.UTC);
+        Long latestEpoch = measurementChunkRepository.findLatestEpoch(dogId, type);
+        
+        MeasurementChunk chunk = chunkFor(dogId, type, epoch, latestEpoch);
+        
+        SeriesPoints points = chunk.getPointCount() == 0
+            ? new SeriesPoints(1)
+            : GorillaCodec.decode(chunk.getData(), chunk.getPointCount());
+        points.put(epoch, value);
+        
+        if (!chunk.getSealed() && points.size() >= chunkPoints) {
+            chunk.setSealed(true);
+        }
+        write(chunk, points);
+        
+        return latestEpoch == null || epoch >= latestEpoch;
+    }
+    
+    private MeasurementChunk chunkFor(Long dogId, MeasurementType type, long epoch, Long latestEpoch) {
+        Optional<MeasurementChunk> preceding = measurementChunkRepository
+            .findFirstByDogIdAndTypeAndStartEpochLessThanEqualOrderByStartEpochDesc(dogId, type, epoch);
+        if (preceding.isPresent()) {
+            MeasurementChunk chunk = preceding.get();
+            boolean pastNewestSealed = chunk.getSealed() && epoch > chunk.getEndEpoch()
+                && chunk.getEndEpoch().equals(latestEpoch);
+            return pastNewestSealed ? newChunk(dogId, type, false) : chunk;
+        }
+        return measurementChunkRepository.findFirstByDogIdAndTypeOrderByStartEpochAsc(dogId, type)
+            .orElseGet(() -> newChunk(dogId, type, false));
+    }
+    
+    /**
+     * Stores the points in the chunk, splitting them across it and a new
+     * chunk when they no longer fit. The earlier half is always sealed.
+     */
+    private void write(MeasurementChunk chunk, SeriesPoints points) {
+        byte[] data = GorillaCodec.encode(points);
+        if (data.length <= MAX_CHUNK_BYTES && points.size() <= 2 * chunkPoints) {
+            chunk.setData(data);
+            chunk.setPointCount(points.size());
+            chunk.setStartEpoch(points.time(0));
+            chunk.setEndEpoch(points.time(points.size() - 1));
+            measurementChunkRepository.save(chunk);
+            return;
+        }
+        
+        int half = points.size() / 2;
+        MeasurementChunk later = newChunk(chunk.getDogId(), chunk.getType(), chunk.getSealed());
+        chunk.setSealed(true);
+        write(chunk, points.slice(0, half));
+        write(later, points.slice(half, points.size()));
+    }
+    
+    private static MeasurementChunk newChunk(Long dogId, MeasurementType type, boolean sealed) {
+        return MeasurementChunk.builder()
+            .dogId(dogId)
+            .type(type)
+            .pointCount(0)
+            .sealed(sealed)
+            .build();
+    }
+    
+    /**
+     * Readings in {@code [from, to]} aggregated into buckets of the given
+     * resolution, aligned to multiples of it since the epoch.
+     */
+    @Transactional(readOnly = true)
+    public List<MeasurementPointDto> getSeries(Long dogId, MeasurementType type,
+                                               LocalDateTime from, LocalDateTime to, Duration resolution) {
+        log.debug("Fetching {} series for dog ID: {} from {} to {}", type, dogId, from, to);
+        
+        long fromEpoch = from.toEpochSecond(ZoneOffset.UTC);
+        long toEpoch = to.toEpochSecond(ZoneOffset.UTC);
+        long step = Math.max(1, resolution.getSeconds());
+        
+        Map<Long, Bucket> buckets = new TreeMap<>();
+        for (MeasurementChunk chunk : measurementChunkRepository.findOverlapping(dogId, type, fromEpoch, toEpoch)) {
+            SeriesPoints points = GorillaCodec.decode(chunk.getData(), chunk.getPointCount());
+            for (int i = 0; i < points.size(); i++) {
+                long time = points.time(i);
+                if (time >= fromEpoch && time <= toEpoch) {
+                    buckets.computeIfAbsent(Math.floorDiv(time, step) * step, key -> new Bucket())
+                        .add(time, points.value(i));
+                }
+            }
+        }
+        
+        List<MeasurementPointDto> series = new ArrayList<>(buckets.size());
+        buckets.forEach((start, bucket) -> series.add(MeasurementPointDto.builder()
+            .bucketStart(LocalDateTime.ofEpochSecond(start, 0, ZoneOffset.UTC))
+            .count(bucket.count)
+            .min(bucket.min)
+            .max(bucket.max)
+            .avg(bucket.sum / bucket.count)
+            .last(bucket.last)
+            .build()));
+        return series;
+    }
+    
+    private static final class Bucket {
+        private int count;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private double sum;
+        private long lastTime = Long.MIN_VALUE;
+        private double last;
+        
+        void add(long time, double value) {
+            count++;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+            if (time >= lastTime) {
+                lastTime = time;
+                last = value;
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.EggTart.dyst.EggTart.service;
+
+import com.EggTart.dyst.EggTart.behaviour.BehaviourProperties;
+import com.EggTart.dyst.EggTart.behaviour.BehaviourSketches;
+import com.EggTart.dyst.EggTart.behaviour.TemplateBehaviour;
+import com.EggTart.dyst.EggTart.dto.response.DogProfileResponseDto;
+import com.EggTart.dyst.EggTart.dto.response.ScheduleSuggestionDto;
+import com.EggTart.dyst.EggTart.dto.response.ScheduleSuggestionsResponseDto;
+import com.EggTart.dyst.EggTart.dto.response.TaskTemplateResponseDto;
+import com.EggTart.dyst.EggTart.projection.FieldSelection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Suggests moving task templates to when their tasks actually start, from
+ * the {@link BehaviourSketches}; task history is never read.
+ *
+ * The expected shift of a template is the median start offset plus, when
+ * most of its tasks get delayed, the median delay. Templates with too few
+ * finished tasks or a shift below the minimum are left alone.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduleSuggestionService {
+    
+    private final DogService dogService;
+    private final BehaviourSketches behaviourSketches;
+    private final BehaviourProperties properties;
+    
+    public ScheduleSuggestionsResponseDto getSuggestions(Long dogId) {
+        log.debug("Computing schedule suggestions for dog ID: {}", dogId);
+        
+        DogProfileResponseDto dogProfile = dogService.getDogProfile(dogId, FieldSelection.all(DogProfileResponseDto.class));
+        return getSuggestions(dogId, dogProfile.getTaskTemplates());
+    }
+    
+    /**
+     * Suggestions for templates already loaded, e.g. by the reactive runtime;
+     * only reads the in-memory sketches.
+     */
+    public ScheduleSuggestionsResponseDto getSuggestions(Long dogId, List<TaskTemplateResponseDto> templates) {
+        List<ScheduleSuggestionDto> suggestions = new ArrayList<>();
+        for (TaskTemplateResponseDto template : templates) {
+            ScheduleSuggestionDto suggestion = suggest(template, behaviourSketches.forTemplate(template.getId()));
+            if (suggestion != null) {
+                suggestions.add(suggestion);
+            }
+        }
+        
+        TemplateBehaviour overall = behaviourSketches.forDog(dogId);
+        return ScheduleSuggestionsResponseDto.builder()
+            .dogId(dogId)
+            .samples(overall.finished())
+            .medianStartOffsetMinutes(overall.startOffsets().quantile(0.5))
+            .delayRate(overall.delayRate())
+            .skipRate(overall.skipRate())
+            .suggestions(suggestions)
+            .build();
+    }
+    
+    private ScheduleSuggestionDto suggest(TaskTemplateResponseDto template, TemplateBehaviour behaviour) {
+        if (behaviour.finished() < properties.getMinSamples()) {
+            return null;
+        }
+        
+        Integer medianStart = behaviour.startOffsets().quantile(0.5);
+        Integer medianDelay = behaviour.delays().quantile(0.5);
+        // The median task is only delayed when at least half of them are
+        double delayedShare = Math.min(1.0, behaviour.delayRate());
+        long expected = (medianStart != null ? medianStart : 0)
+            + (delayedShare >= 0.5 && medianDelay != null ? medianDelay : 0);
+        
+        long step = properties.getRounding().toMinutes();
+        long shift = step > 0 ? Math.round((double) expected / step) * step : expected;
+        if (Math.abs(shift) < properties.getMinShift().toMinutes()) {
+            return null;
+        }
+        
+        return ScheduleSuggestionDto.builder()
+            .templateId(template.getId())
+            .type(template.getType())
+            .currentTime(template.getDefaultTime())
+            .suggestedTime(template.getDefaultTime().plusMinutes(shift))
+            .shiftMinutes((int) shift)
+            .samples(behaviour.finished())
+            .medianStartOffsetMinutes(medianStart)
+            .p90StartOffsetMinutes(behaviour.startOffsets().quantile(0.9))
+            .medianDelayMinutes(medianDelay)
+            .delayRate(behaviour.delayRate())
+            .skipRate(behaviour.skipRate())
+            .build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.EggTart.dyst.EggTart.service;
+
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Identity of a generated task instance: one per dog, type and the time it
+ * was generated for.
+ */
+public record ScheduledSlot(Long dogId, TaskType type, LocalDateTime slotTime) {
+}
@@ -0,0 +1,232 @@
+package com.EggTart.dyst.EggTart.service;
+
+import com.EggTart.dyst.EggTart.dto.request.OfflineOperationDto;
+import com.EggTart.dyst.EggTart.dto.request.SyncRequestDto;
+import com.EggTart.dyst.EggTart.dto.response.*;
+import com.EggTart.dyst.EggTart.exception.InvalidTaskStateException;
+import com.EggTart.dyst.EggTart.model.entity.DogProfile;
+import com.EggTart.dyst.EggTart.model.entity.SyncTombstone;
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.entity.TaskTemplate;
+import com.EggTart.dyst.EggTart.model.enums.SyncAction;
+import com.EggTart.dyst.EggTart.model.enums.SyncOutcome;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.repository.SyncTombstoneRepository;
+import com.EggTart.dyst.EggTart.repository.TaskInstanceRepository;
+import com.EggTart.dyst.EggTart.repository.TaskTemplateRepository;
+import com.EggTart.dyst.EggTart.sharding.ShardContext;
+import com.EggTart.dyst.EggTart.sync.SyncCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Delta sync for offline-first clients.
+ *
+ * Queued offline transitions are applied first, in a deterministic order
+ * (occurred-at, then action, then task id), each in its own transaction and
+ * through the regular {@link TaskStateRules}, so the server state
+ * always wins a conflict. A queued delay is also refused once the task has
+ * changed past the change sequence in the client's cursor, since the client
+ * never saw that change; client clocks play no part in it. The response then
+ * carries every row changed since the client's cursor, plus tombstones for
+ * deleted templates.
+ */
+@Service
+@Slf4j
+public class SyncService {
+    
+    private final DogService dogService;
+    private final TaskTransitions taskTransitions;
+    private final TaskInstanceRepository taskInstanceRepository;
+    private final TaskTemplateRepository taskTemplateRepository;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long graceSeconds;
+    private final int taskHorizonDays;
+    
+    public SyncService(DogService dogService,
+                       TaskTransitions taskTransitions,
+                       TaskInstanceRepository taskInstanceRepository,
+                       TaskTemplateRepository taskTemplateRepository,
+                       SyncTombstoneRepository syncTombstoneRepository,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${eggtart.sync.grace-seconds:5}") long graceSeconds,
+                       @Value("${eggtart.sync.task-horizon-days:7}") int taskHorizonDays) {
+        this.dogService = dogService;
+        this.taskTransitions = taskTransitions;
+        this.taskInstanceRepository = taskInstanceRepository;
+        this.taskTemplateRepository = taskTemplateRepository;
+        this.syncTombstoneRepository = syncTombstoneRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.graceSeconds = graceSeconds;
+        this.taskHorizonDays = taskHorizonDays;
+    }
+    
+    public SyncResponseDto sync(SyncRequestDto request) {
+        // The dog id only arrives in the body here, so bind its shard before any transaction opens
+        return ShardContext.callOnShard(
+            ShardContext.directory().shardForId(request.getDogId()),
+            () -> syncOnShard(request)
+        );
+    }
+    
+    private SyncResponseDto syncOnShard(SyncRequestDto request) {
+        SyncCursor cursor = SyncCursor.parse(request.getCursor());
+        log.debug("Syncing dog ID: {} from cursor {}", request.getDogId(), request.getCursor());
+        
+        List<SyncOperationResultDto> results = applyOperations(
+            request.getDogId(),
+            request.getCursor() == null || request.getCursor().isBlank() ? null : cursor.changeSeq(),
+            Optional.ofNullable(request.getOperations()).orElse(List.of())
+        );
+        
+        SyncResponseDto response = readOnlyTransaction.execute(status -> changesSince(request.getDogId(), cursor));
+        response.setOperationResults(results);
+        return response;
+    }
+    
+    private List<SyncOperationResultDto> applyOperations(Long dogId, Long seenChangeSeq,
+                                                         List<OfflineOperationDto> operations) {
+        List<OfflineOperationDto> ordered = new ArrayList<>(operations);
+        ordered.sort(Comparator.comparing(OfflineOperationDto::getOccurredAt)
+            .thenComparing(OfflineOperationDto::getAction)
+            .thenComparing(OfflineOperationDto::getTaskId));
+        
+        // Changes this batch makes itself do not count against its later operations
+        Map<Long, Long> appliedChangeSeqs = new HashMap<>();
+        List<SyncOperationResultDto> results = new ArrayList<>(ordered.size());
+        for (OfflineOperationDto operation : ordered) {
+            SyncOperationResultDto result = applyOperation(dogId, seenChangeSeq, appliedChangeSeqs, operation);
+            if (result.getOutcome() == SyncOutcome.APPLIED) {
+                taskTransitions.findTask(operation.getTaskId())
+                    .map(TaskInstance::getChangeSeq)
+                    .ifPresent(changeSeq -> appliedChangeSeqs.put(operation.getTaskId(), changeSeq));
+            }
+            results.add(result);
+        }
+        return results;
+    }
+    
+    private SyncOperationResultDto applyOperation(Long dogId, Long seenChangeSeq, Map<Long, Long> appliedChangeSeqs,
+                                                  OfflineOperationDto operation) {
+        Optional<TaskInstance> current = taskTransitions.findTask(operation.getTaskId())
+            .filter(task -> task.getDogId().equals(dogId));
+        if (current.isEmpty()) {
+            return result(operation, SyncOutcome.NOT_FOUND, "Task not found for this dog");
+        }
+        
+        TaskInstance task = current.get();
+        if (isAlreadyApplied(task.getStatus(), operation)) {
+            return result(operation, SyncOutcome.DUPLICATE, "Task already in status " + task.getStatus());
+        }
+        if (operation.getAction() == SyncAction.DELAY
+                && changedSince(task, seenChangeSeq, appliedChangeSeqs.get(task.getId()))) {
+            // A reschedule queued offline never overrides a server-side change the client has not seen
+            return result(operation, SyncOutcome.CONFLICT, "Task changed on server since the client's cursor");
+        }
+        
+        if (operation.getAction() == SyncAction.DELAY && operation.getDelayMinutes() == null) {
+            return result(operation, SyncOutcome.CONFLICT, "Delay minutes is required");
+        }
+        
+        try {
+            switch (operation.getAction()) {
+                case START -> taskTransitions.startTask(operation.getTaskId());
+                case DELAY -> taskTransitions.delayTask(operation.getTaskId(), operation.getDelayMinutes());
+                case COMPLETE -> taskTransitions.completeTask(operation.getTaskId(), operation.getWalkRecord());
+                case SKIP -> taskTransitions.skipTask(operation.getTaskId());
+            }
+            return result(operation, SyncOutcome.APPLIED, null);
+        } catch (InvalidTaskStateException ex) {
+            log.debug("Offline {} for task {} rejected: {}", operation.getAction(), operation.getTaskId(), ex.getMessage());
+            return result(operation, SyncOutcome.CONFLICT, ex.getMessage());
+        }
+    }
+    
+    // A client that has never synced has nothing to compare against
+    private static boolean changedSince(TaskInstance task, Long seenChangeSeq, Long appliedChangeSeq) {
+        Long changeSeq = task.getChangeSeq();
+        return seenChangeSeq != null && changeSeq != null
+            && changeSeq > seenChangeSeq && !changeSeq.equals(appliedChangeSeq);
+    }
+    
+    private boolean isAlreadyApplied(TaskStatus status, OfflineOperationDto operation) {
+        return switch (operation.getAction()) {
+            case START -> status == TaskStatus.IN_PROGRESS || status.isCompleted();
+            case COMPLETE -> status.isCompleted();
+            case SKIP -> status == TaskStatus.SKIPPED;
+            case DELAY -> false;
+        };
+    }
+    
+    private SyncResponseDto changesSince(Long dogId, SyncCursor cursor) {
+        DogProfile dog = dogService.getDogProfile(dogId);
+        LocalDateTime since = cursor.updatedAt().minusSeconds(graceSeconds);
+        LocalDateTime scheduledFrom = LocalDate.now().minusDays(taskHorizonDays).atStartOfDay();
+        
+        List<TaskTemplate> templates = taskTemplateRepository.findChangedSince(dogId, cursor.changeSeq(), since);
+        List<TaskInstance> tasks = taskInstanceRepository
+            .findChangedSince(dogId, scheduledFrom, cursor.changeSeq(), since);
+        List<SyncTombstone> tombstones = syncTombstoneRepository.findChangedSince(dogId, cursor.changeSeq(), since);
+        
+        SyncCursor next = cursor;
+        boolean dogChanged = isNewer(dog.getChangeSeq(), dog.getUpdatedAt(), cursor, since);
+        if (dogChanged) {
+            next = next.advance(dog.getUpdatedAt(), dog.getChangeSeq());
+        }
+        for (TaskTemplate template : templates) {
+            next = next.advance(template.getUpdatedAt(), template.getChangeSeq());
+        }
+        for (TaskInstance task : tasks) {
+            next = next.advance(task.getUpdatedAt(), task.getChangeSeq());
+        }
+        for (SyncTombstone tombstone : tombstones) {
+            next = next.advance(tombstone.getDeletedAt(), tombstone.getChangeSeq());
+        }
+        
+        log.debug("Sync for dog ID: {} returned {} templates, {} tasks, {} tombstones",
+            dogId, templates.size(), tasks.size(), tombstones.size());
+        
+        return SyncResponseDto.builder()
+            .cursor(next.encode())
+            .dog(dogChanged ? DogProfileResponseDto.from(dog) : null)
+            .templates(templates.stream().map(TaskTemplateResponseDto::from).toList())
+            .tasks(tasks.stream().map(TaskInstanceResponseDto::from).toList())
+            .deletedTemplateIds(tombstones.stream()
+                .filter(t -> SyncTombstone.TASK_TEMPLATE.equals(t.getEntityType()))
+                .map(SyncTombstone::getEntityId)
+                .toList())
+            .deletedTaskIds(tombstones.stream()
+                .filter(t -> SyncTombstone.TASK_INSTANCE.equals(t.getEntityType()))
+                .map(SyncTombstone::getEntityId)
+                .toList())
+            .build();
+    }
+    
+    private boolean isNewer(Long changeSeq, LocalDateTime updatedAt, SyncCursor cursor, LocalDateTime since) {
+        return (changeSeq != null && changeSeq > cursor.changeSeq())
+            || (updatedAt != null && !updatedAt.isBefore(since));
+    }
+    
+    private SyncOperationResultDto result(OfflineOperationDto operation, SyncOutcome outcome, String message) {
+        return SyncOperationResultDto.builder()
+            .taskId(operation.getTaskId())
+            .action(operation.getAction())
+            .outcome(outcome)
+            .message(message)
+            .build();
+    }
+}
@@ -0,0 +1,180 @@
+package com.EggTart.dyst.EggTart.service;
+
+import com.EggTart.dyst.EggTart.event.TaskTransitionEvent;
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.entity.TaskTemplate;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.recurrence.RecurrenceCalendar;
+import com.EggTart.dyst.EggTart.recurrence.RecurrenceExpander;
+import com.EggTart.dyst.EggTart.repository.DogRepository;
+import com.EggTart.dyst.EggTart.repository.TaskInstanceRepository;
+import com.EggTart.dyst.EggTart.repository.TaskTemplateRepository;
+import com.EggTart.dyst.EggTart.sharding.ShardContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Creates task instances from templates for today and the next few days.
+ * Existing instances are matched on dog, type and the time they were
+ * generated for, which a delay never changes, so running it again, or after
+ * a profile update recreated the templates, never duplicates a task.
+ *
+ * The dogs of a batch are locked while it is generated, which serialises
+ * the nightly run with profile updates. A unique index on the slot backs
+ * this up: a batch that still collides with a concurrent writer is retried,
+ * and the slots it wrote count as already generated.
+ *
+ * Dogs whose bucket is being moved to another shard are skipped and get
+ * their tasks on the next run.
+ */
+@Component
+@Slf4j
+public class TaskInstanceGenerator {
+    
+    private static final int BATCH_SIZE = 500;
+    
+    private final TaskTemplateRepository taskTemplateRepository;
+    private final TaskInstanceRepository taskInstanceRepository;
+    private final DogRepository dogRepository;
+    private final RecurrenceExpander recurrenceExpander;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int horizonDays;
+    
+    public TaskInstanceGenerator(TaskTemplateRepository taskTemplateRepository,
+                                 TaskInstanceRepository taskInstanceRepository,
+                                 DogRepository dogRepository,
+                                 RecurrenceExpander recurrenceExpander,
+                                 ApplicationEventPublisher eventPublisher,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${eggtart.tasks.generator.horizon-days:1}") int horizonDays) {
+        this.taskTemplateRepository = taskTemplateRepository;
+        this.taskInstanceRepository = taskInstanceRepository;
+        this.dogRepository = dogRepository;
+        this.recurrenceExpander = recurrenceExpander;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.horizonDays = horizonDays;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void generateOnStartup() {
+        generateAll();
+    }
+    
+    @Scheduled(cron = "${eggtart.tasks.generator.cron:0 5 0 * * *}")
+    public void generateAll() {
+        RecurrenceCalendar calendar = horizon();
+        AtomicInteger created = new AtomicInteger();
+        ShardContext.forEachShard(() -> created.addAndGet(generateShard(calendar)));
+        log.info("Generated {} task instances from {} to {}", created.get(), calendar.from(), calendar.to());
+    }
+    
+    /**
+     * Fills in the horizon for one dog, in the caller's transaction; used
+     * right after its templates are created or replaced.
+     */
+    @Transactional
+    public int generateForDog(Long dogId) {
+        return generate(taskTemplateRepository.findByDogIdOrderByDefaultTime(dogId), horizon());
+    }
+    
+    private RecurrenceCalendar horizon() {
+        LocalDate today = LocalDate.now();
+        return recurrenceExpander.calendar(today, today.plusDays(horizonDays));
+    }
+    
+    private int generateShard(RecurrenceCalendar calendar) {
+        long afterId = 0;
+        int created = 0;
+        List<TaskTemplate> batch;
+        do {
+            long from = afterId;
+            int[] createdInBatch = new int[1];
+            Supplier<List<TaskTemplate>> generateBatch = () -> transactionTemplate.execute(status -> {
+                List<TaskTemplate> templates = taskTemplateRepository.findBatchAfter(
+                    from, PageRequest.ofSize(BATCH_SIZE));
+                createdInBatch[0] = generate(templates.stream()
+                    .filter(template -> !ShardContext.isFrozen(template.getDogId()))
+                    .toList(), calendar);
+                return templates;
+            });
+            try {
+                batch = generateBatch.get();
+            } catch (DataIntegrityViolationException ex) {
+                log.debug("Task instances generated concurrently after template {}, retrying: {}", from, ex.getMessage());
+                batch = generateBatch.get();
+            }
+            created += createdInBatch[0];
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == BATCH_SIZE);
+        return created;
+    }
+    
+    private int generate(List<TaskTemplate> templates, RecurrenceCalendar calendar) {
+        if (templates.isEmpty()) {
+            return 0;
+        }
+        
+        Set<Long> dogIds = new HashSet<>();
+        templates.forEach(template -> dogIds.add(template.getDogId()));
+        dogRepository.findAllByIdForUpdate(dogIds);
+        Set<ScheduledSlot> taken = new HashSet<>(taskInstanceRepository.findScheduledSlots(
+            dogIds,
+            calendar.from().atStartOfDay(),
+            calendar.to().plusDays(1).atStartOfDay()
+        ));
+        
+        List<TaskInstance> instances = new ArrayList<>();
+        for (TaskTemplate template : templates) {
+            recurrenceExpander.occurrences(calendar, template).forEachDay(day -> {
+                LocalDateTime scheduledTime = calendar.dateAt(day).atTime(template.getDefaultTime());
+                if (taken.add(new ScheduledSlot(template.getDogId(), template.getType(), scheduledTime))) {
+                    instances.add(TaskInstance.builder()
+                        .taskTemplateId(template.getId())
+                        .dogId(template.getDogId())
+                        .type(template.getType())
+                        .scheduledTime(scheduledTime)
+                        .slotTime(scheduledTime)
+                        .status(TaskStatus.PENDING)
+                        .build());
+                }
+            });
+        }
+        
+        taskInstanceRepository.saveAll(instances);
+        
+        // Counters pick these up as creations once the transaction commits
+        instances.forEach(task -> eventPublisher.publishEvent(new TaskTransitionEvent(
+            task.getId(),
+            task.getDogId(),
+            task.getTaskTemplateId(),
+            task.getType(),
+            null,
+            null,
+            task.getStatus(),
+            task.getScheduledTime().toLocalDate(),
+            null,
+            task.getScheduledTime(),
+            null
+        )));
+        return instances.size();
+    }
+}
@@ -1,169 +1,247 @@
 package com.EggTart.dyst.EggTart.service;
 
+import com.EggTart.dyst.EggTart.archive.TaskHistory;
 import com.EggTart.dyst.EggTart.dto.request.WalkRecordDto;
 import com.EggTart.dyst.EggTart.dto.response.TaskInstanceResponseDto;
+import com.EggTart.dyst.EggTart.event.TaskTransitionEvent;
+import com.EggTart.dyst.EggTart.event.WalkRecordCreatedEvent;
 import com.EggTart.dyst.EggTart.exception.EntityNotFoundException;
-import com.EggTart.dyst.EggTart.exception.InvalidTaskStateException;
+import com.EggTart.dyst.EggTart.invalidation.DogCaches;
 import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
 import com.EggTart.dyst.EggTart.model.entity.WalkRecord;
 import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.projection.FieldSelection;
 import com.EggTart.dyst.EggTart.repository.TaskInstanceRepository;
 import com.EggTart.dyst.EggTart.repository.WalkRecordRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 @Slf4j
 @RequiredArgsConstructor
-public class TaskService {
+public class TaskService implements TaskTransitions {
     
     private final TaskInstanceRepository taskInstanceRepository;
     private final WalkRecordRepository walkRecordRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskHistory taskHistory;
     
     @Transactional(readOnly = true)
-    public List<TaskInstanceResponseDto> getTodayTasks(Long dogId) {
+    @Cacheable(cacheNames = DogCaches.TODAY_TASKS,
+               key = "T(com.EggTart.dyst.EggTart.invalidation.DogCaches).todayKey(#dogId)",
+               condition = "#fields.all", sync = true)
+    public List<TaskInstanceResponseDto> getTodayTasks(Long dogId, FieldSelection fields) {
         log.debug("Fetching today's tasks for dog ID: {}", dogId);
         
         LocalDate today = LocalDate.now();
         LocalDateTime startOfDay = today.atStartOfDay();
         LocalDateTime endOfDay = today.atTime(23, 59, 59);
         
-        List<TaskInstance> tasks = taskInstanceRepository
-            .findByDogIdAndScheduledTimeBetween(dogId, startOfDay, endOfDay);
+        List<TaskInstanceResponseDto> tasks = findTasks(dogId, startOfDay, endOfDay, fields);
         
-        log.info("Found {} tasks for dog ID: {} on {}", tasks.size(), dogId, today);
+        log.debug("Found {} tasks for dog ID: {} on {}", tasks.size(), dogId, today);
         
-        return tasks.stream()
-            .map(TaskInstanceResponseDto::from)
-            .collect(Collectors.toList());
+        return tasks;
     }
     
     @Transactional(readOnly = true)
-    public List<TaskInstanceResponseDto> getTasksForDate(Long dogId, LocalDate date) {
+    public List<TaskInstanceResponseDto> getTasksForDate(Long dogId, LocalDate date, FieldSelection fields) {
         log.debug("Fetching tasks for dog ID: {} on date: {}", dogId, date);
         
         LocalDateTime startOfDay = date.atStartOfDay();
         LocalDateTime endOfDay = date.atTime(23, 59, 59);
         
-        List<TaskInstance> tasks = taskInstanceRepository
-            .findByDogIdAndScheduledTimeBetween(dogId, startOfDay, endOfDay);
+        if (!taskHistory.hasArchived(date, date)) {
+            return findTasks(dogId, startOfDay, endOfDay, fields);
+        }
+        
+        // Merging with the archive needs whole tasks; the serializer still writes only the requested fields
+        List<TaskInstance> tasks = taskHistory.withArchived(
+            taskInstanceRepository.findByDogIdAndScheduledTimeBetween(dogId, startOfDay, endOfDay),
+            dogId, startOfDay, endOfDay);
         
         return tasks.stream()
             .map(TaskInstanceResponseDto::from)
             .collect(Collectors.toList());
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<TaskInstance> findTask(Long taskId) {
+        return taskInstanceRepository.findById(taskId);
+    }
+    
+    @Override
     @Transactional
     public TaskInstanceResponseDto startTask(Long taskId) {
-        log.info("Starting task with ID: {}", taskId);
+        log.debug("Starting task with ID: {}", taskId);
         
         TaskInstance task = findTaskById(taskId);
+        TaskStatus previousStatus = task.getStatus();
         
-        // Validate state transition
-        if (task.getStatus() != TaskStatus.PENDING) {
-            throw new InvalidTaskStateException(
-                String.format("Cannot start task in status: %s", task.getStatus())
-            );
-        }
-        
-        task.setStatus(TaskStatus.IN_PROGRESS);
-        task.setStartTime(LocalDateTime.now());
-        task.setCountdownStartTime(LocalDateTime.now());
+        TaskStateRules.start(task, LocalDateTime.now());
         
         TaskInstance savedTask = taskInstanceRepository.save(task);
+        publishTransition(savedTask, previousStatus, savedTask.getScheduledTime());
         
-        log.info("Task {} started successfully", taskId);
+        log.debug("Task {} started successfully", taskId);
         return TaskInstanceResponseDto.from(savedTask);
     }
     
+    @Override
     @Transactional
     public TaskInstanceResponseDto completeTask(Long taskId, WalkRecordDto walkRecordDto) {
-        log.info("Completing task with ID: {}", taskId);
+        log.debug("Completing task with ID: {}", taskId);
         
         TaskInstance task = findTaskById(taskId);
+        TaskStatus previousStatus = task.getStatus();
+        LocalDateTime now = LocalDateTime.now();
         
-        // Validate state
-        if (!task.getStatus().isActive()) {
-            throw new InvalidTaskStateException(
-                String.format("Cannot complete task in status: %s", task.getStatus())
-            );
-        }
-        
-        // Update task
-        task.setStatus(TaskStatus.COMPLETED);
-        task.setEndTime(LocalDateTime.now());
+        TaskStateRules.complete(task, now);
         
         // Create walk record if provided
-        if (walkRecordDto != null && task.getType().name().equals("WALK")) {
-            createWalkRecord(task, walkRecordDto);
+        WalkRecord walkRecord = TaskStateRules.walkRecordFor(task, walkRecordDto, now);
+        if (walkRecord != null) {
+            saveWalkRecord(walkRecord);
         }
         
         TaskInstance savedTask = taskInstanceRepository.save(task);
+        publishTransition(savedTask, previousStatus, savedTask.getScheduledTime());
         
-        log.info("Task {} completed successfully", taskId);
+        log.debug("Task {} completed successfully", taskId);
         return TaskInstanceResponseDto.from(savedTask);
     }
     
+    @Override
     @Transactional
     public TaskInstanceResponseDto delayTask(Long taskId, Integer delayMinutes) {
-        log.info("Delaying task {} by {} minutes", taskId, delayMinutes);
+        log.debug("Delaying task {} by {} minutes", taskId, delayMinutes);
         
         TaskInstance task = findTaskById(taskId);
+        TaskStatus previousStatus = task.getStatus();
+        LocalDateTime previousScheduledTime = task.getScheduledTime();
         
-        // Validate state
-        if (!task.getStatus().isActive()) {
-            throw new InvalidTaskStateException(
-                String.format("Cannot delay task in status: %s", task.getStatus())
-            );
-        }
-        
-        // Update scheduled time
-        LocalDateTime newScheduledTime = task.getScheduledTime().plusMinutes(delayMinutes);
-        task.setScheduledTime(newScheduledTime);
-        
-        // If task was in progress, reset to pending
-        if (task.getStatus() == TaskStatus.IN_PROGRESS) {
-            task.setStatus(TaskStatus.PENDING);
-            task.setStartTime(null);
-            task.setCountdownStartTime(null);
-        }
+        TaskStateRules.delay(task, delayMinutes);
         
         TaskInstance savedTask = taskInstanceRepository.save(task);
+        publishTransition(savedTask, previousStatus, previousScheduledTime);
         
-        log.info("Task {} delayed successfully", taskId);
+        log.debug("Task {} delayed successfully", taskId);
         return TaskInstanceResponseDto.from(savedTask);
     }
     
+    @Override
     @Transactional
     public TaskInstanceResponseDto skipTask(Long taskId) {
-        log.info("Skipping task with ID: {}", taskId);
+        log.debug("Skipping task with ID: {}", taskId);
         
         TaskInstance task = findTaskById(taskId);
+        TaskStatus previousStatus = task.getStatus();
         
-        // Validate state
-        if (task.getStatus().isCompleted()) {
-            throw new InvalidTaskStateException(
-                String.format("Cannot skip completed task in status: %s", task.getStatus())
-            );
-        }
-        
-        task.setStatus(TaskStatus.SKIPPED);
-        task.setEndTime(LocalDateTime.now());
+        TaskStateRules.skip(task, LocalDateTime.now());
         
         TaskInstance savedTask = taskInstanceRepository.save(task);
+        publishTransition(savedTask, previousStatus, savedTask.getScheduledTime());
         
-        log.info("Task {} skipped successfully", taskId);
+        log.debug("Task {} skipped successfully", taskId);
         return TaskInstanceResponseDto.from(savedTask);
     }
     
+    /**
+     * Applies all reschedules in one transaction with a single batched save,
+     * rather than a load and save per task.
+     */
+    @Override
+    @Transactional
+    public List<TaskInstanceResponseDto> rescheduleTasks(Map<Long, LocalDateTime> scheduledTimes) {
+        log.debug("Rescheduling {} tasks", scheduledTimes.size());
+        
+        Map<Long, LocalDateTime> previousTimes = new HashMap<>();
+        List<TaskInstance> moved = new ArrayList<>();
+        for (TaskInstance task : taskInstanceRepository.findAllById(scheduledTimes.keySet())) {
+            int minutes = (int) Duration.between(task.getScheduledTime(), scheduledTimes.get(task.getId())).toMinutes();
+            if (task.getStatus() != TaskStatus.PENDING || minutes == 0) {
+                continue;
+            }
+            previousTimes.put(task.getId(), task.getScheduledTime());
+            TaskStateRules.delay(task, minutes);
+            moved.add(task);
+        }
+        
+        List<TaskInstance> savedTasks = taskInstanceRepository.saveAll(moved);
+        savedTasks.forEach(task -> publishTransition(task, TaskStatus.PENDING, previousTimes.get(task.getId())));
+        
+        log.debug("Rescheduled {} of {} tasks", savedTasks.size(), scheduledTimes.size());
+        return savedTasks.stream()
+            .map(TaskInstanceResponseDto::from)
+            .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<Long> deletePendingTasks(Collection<Long> taskIds) {
+        List<TaskInstance> tasks = taskInstanceRepository.findAllById(taskIds).stream()
+            .filter(task -> task.getStatus() == TaskStatus.PENDING)
+            .toList();
+        taskInstanceRepository.deleteAll(tasks);
+        tasks.forEach(task -> eventPublisher.publishEvent(new TaskTransitionEvent(
+            task.getId(),
+            task.getDogId(),
+            task.getTaskTemplateId(),
+            task.getType(),
+            task.getStatus(),
+            task.getScheduledTime().toLocalDate(),
+            null,
+            null,
+            task.getScheduledTime(),
+            null,
+            task.getStartTime()
+        )));
+        
+        log.debug("Deleted {} of {} pending tasks", tasks.size(), taskIds.size());
+        return tasks.stream().map(TaskInstance::getId).toList();
+    }
+    
+    @Override
+    public List<Long> deleteArchivedTasks(Collection<Long> taskIds) {
+        // Archived tasks still count, so this is not a transition
+        List<Long> ids = List.copyOf(taskIds);
+        taskInstanceRepository.deleteAllByIdInBatch(ids);
+        return ids;
+    }
+    
+    /**
+     * Tasks in the range, reading only the columns behind the requested
+     * fields unless all of them are wanted.
+     */
+    private List<TaskInstanceResponseDto> findTasks(Long dogId, LocalDateTime startOfDay, LocalDateTime endOfDay,
+                                                    FieldSelection fields) {
+        if (fields.isAll()) {
+            return taskInstanceRepository.findByDogIdAndScheduledTimeBetween(dogId, startOfDay, endOfDay).stream()
+                .map(TaskInstanceResponseDto::from)
+                .collect(Collectors.toList());
+        }
+        return taskInstanceRepository
+            .findProjectedByDogIdAndScheduledTimeBetween(dogId, startOfDay, endOfDay, fields.fields()).stream()
+            .map(tuple -> TaskInstanceResponseDto.from(tuple, fields.fields()))
+            .collect(Collectors.toList());
+    }
+    
     private TaskInstance findTaskById(Long taskId) {
         return taskInstanceRepository.findById(taskId)
             .orElseThrow(() -> new EntityNotFoundException(
@@ -171,19 +249,31 @@ public class TaskService {
             ));
     }
     
-    private void createWalkRecord(TaskInstance task, WalkRecordDto dto) {
-        WalkRecord record = WalkRecord.builder()
-            .taskId(task.getId())
-            .startTime(task.getStartTime() != null ? task.getStartTime() : LocalDateTime.now())
-            .endTime(LocalDateTime.now())
-            .pee(dto.getPee())
-            .poo(dto.getPoo())
-            .mood(dto.getMood())
-            .photoURL(dto.getPhotoURL())
-            .notes(dto.getNotes())
-            .build();
-        
-        walkRecordRepository.save(record);
-        log.debug("Walk record created for task {}", task.getId());
+    private void publishTransition(TaskInstance task, TaskStatus previousStatus, LocalDateTime previousScheduledTime) {
+        eventPublisher.publishEvent(new TaskTransitionEvent(
+            task.getId(),
+            task.getDogId(),
+            task.getTaskTemplateId(),
+            task.getType(),
+            previousStatus,
+            previousScheduledTime.toLocalDate(),
+            task.getStatus(),
+            task.getScheduledTime().toLocalDate(),
+            previousScheduledTime,
+            task.getScheduledTime(),
+            task.getStartTime()
+        ));
+    }
+    
+    private void saveWalkRecord(WalkRecord record) {
+        WalkRecord savedRecord = walkRecordRepository.save(record);
+        eventPublisher.publishEvent(new WalkRecordCreatedEvent(
+            savedRecord.getId(),
+            savedRecord.getDogId(),
+            savedRecord.getStartTime(),
+            savedRecord.getMood(),
+            savedRecord.getNotes()
+        ));
+        log.debug("Walk record created for task {}", record.getTaskId());
     }
 } 
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.EggTart.dyst.EggTart.service;
+
+import com.EggTart.dyst.EggTart.dto.request.WalkRecordDto;
+import com.EggTart.dyst.EggTart.exception.InvalidTaskStateException;
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.entity.WalkRecord;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+
+import java.time.LocalDateTime;
+
+/**
+ * The task state machine, shared by the transactional and write-behind
+ * transition paths. Each method validates the transition and applies it to
+ * the given instance, or throws {@link InvalidTaskStateException} leaving it
+ * untouched.
+ */
+public final class TaskStateRules {
+    
+    private TaskStateRules() {
+    }
+    
+    public static void start(TaskInstance task, LocalDateTime now) {
+        if (task.getStatus() != TaskStatus.PENDING) {
+            throw new InvalidTaskStateException(
+                String.format("Cannot start task in status: %s", task.getStatus())
+            );
+        }
+        
+        task.setStatus(TaskStatus.IN_PROGRESS);
+        task.setStartTime(now);
+        task.setCountdownStartTime(now);
+    }
+    
+    public static void complete(TaskInstance task, LocalDateTime now) {
+        if (!task.getStatus().isActive()) {
+            throw new InvalidTaskStateException(
+                String.format("Cannot complete task in status: %s", task.getStatus())
+            );
+        }
+        
+        task.setStatus(TaskStatus.COMPLETED);
+        task.setEndTime(now);
+    }
+    
+    public static void delay(TaskInstance task, int delayMinutes) {
+        if (!task.getStatus().isActive()) {
+            throw new InvalidTaskStateException(
+                String.format("Cannot delay task in status: %s", task.getStatus())
+            );
+        }
+        
+        task.setScheduledTime(task.getScheduledTime().plusMinutes(delayMinutes));
+        
+        // If task was in progress, reset to pending
+        if (task.getStatus() == TaskStatus.IN_PROGRESS) {
+            task.setStatus(TaskStatus.PENDING);
+            task.setStartTime(null);
+            task.setCountdownStartTime(null);
+        }
+    }
+    
+    public static void skip(TaskInstance task, LocalDateTime now) {
+        if (task.getStatus().isCompleted()) {
+            throw new InvalidTaskStateException(
+                String.format("Cannot skip completed task in status: %s", task.getStatus())
+            );
+        }
+        
+        task.setStatus(TaskStatus.SKIPPED);
+        task.setEndTime(now);
+    }
+    
+    /**
+     * The walk record to store for a completed task, or null when the task is
+     * not a walk or no record was provided.
+     */
+    public static WalkRecord walkRecordFor(TaskInstance task, WalkRecordDto dto, LocalDateTime now) {
+        if (dto == null || task.getType() != TaskType.WALK) {
+            return null;
+        }
+        return WalkRecord.builder()
+            .taskId(task.getId())
+            .dogId(task.getDogId())
+            .startTime(task.getStartTime() != null ? task.getStartTime() : now)
+            .endTime(now)
+            .pee(dto.getPee())
+            .poo(dto.getPoo())
+            .mood(dto.getMood())
+            .photoURL(dto.getPhotoURL())
+            .notes(dto.getNotes())
+            .build();
+    }
+}
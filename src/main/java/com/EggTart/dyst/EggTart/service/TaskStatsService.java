@@ -0,0 +1,45 @@
+package com.EggTart.dyst.EggTart.service;
+
+import com.EggTart.dyst.EggTart.dto.response.TaskStatsResponseDto;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.EggTart.dyst.EggTart.stats.TaskCounters;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Task statistics served from the in-process counters, never from
+ * task_instances.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskStatsService {
+    
+    private final TaskCounters taskCounters;
+    
+    public TaskStatsResponseDto getTaskStats(LocalDate date) {
+        Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        Map<TaskType, Map<TaskStatus, Long>> byTypeAndStatus = new EnumMap<>(TaskType.class);
+        Map<TaskStatus, Long> totalByStatus = new EnumMap<>(TaskStatus.class);
+        
+        for (TaskStatus status : TaskStatus.values()) {
+            totalByStatus.put(status, taskCounters.countByStatus(status));
+            for (TaskType type : TaskType.values()) {
+                long count = taskCounters.count(status, type, date);
+                byStatus.merge(status, count, Long::sum);
+                byTypeAndStatus.computeIfAbsent(type, t -> new EnumMap<>(TaskStatus.class)).put(status, count);
+            }
+        }
+        
+        return TaskStatsResponseDto.builder()
+            .date(date)
+            .byStatus(byStatus)
+            .byTypeAndStatus(byTypeAndStatus)
+            .totalByStatus(totalByStatus)
+            .build();
+    }
+}
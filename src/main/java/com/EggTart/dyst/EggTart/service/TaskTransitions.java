@@ -0,0 +1,63 @@
+package com.EggTart.dyst.EggTart.service;
+
+import com.EggTart.dyst.EggTart.dto.request.WalkRecordDto;
+import com.EggTart.dyst.EggTart.dto.response.TaskInstanceResponseDto;
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * State-changing task operations. {@link TaskService} applies them in one
+ * transaction per call; the write-behind store, when enabled, takes over as
+ * the primary implementation.
+ */
+public interface TaskTransitions {
+    
+    /** Current state of a task as seen by the transitions, never a stale copy. */
+    Optional<TaskInstance> findTask(Long taskId);
+    
+    /**
+     * Deletes those of the tasks that are still pending, in the caller's
+     * transaction, and returns their ids. All tasks must be on the current
+     * shard.
+     */
+    List<Long> deletePendingTasks(Collection<Long> taskIds);
+    
+    /**
+     * Deletes tasks that have been copied to the archive, in the caller's
+     * transaction, and returns their ids. Tasks with transitions not yet in
+     * task_instances are kept for a later run. All tasks must be on the
+     * current shard.
+     */
+    List<Long> deleteArchivedTasks(Collection<Long> taskIds);
+    
+    TaskInstanceResponseDto startTask(Long taskId);
+    
+    TaskInstanceResponseDto completeTask(Long taskId, WalkRecordDto walkRecordDto);
+    
+    TaskInstanceResponseDto delayTask(Long taskId, Integer delayMinutes);
+    
+    TaskInstanceResponseDto skipTask(Long taskId);
+    
+    /**
+     * Moves each pending task to its new scheduled time, like a delay by the
+     * difference. Tasks no longer pending, or already at that time, are left
+     * as they are and not returned. All tasks must be on the current shard.
+     */
+    default List<TaskInstanceResponseDto> rescheduleTasks(Map<Long, LocalDateTime> scheduledTimes) {
+        List<TaskInstanceResponseDto> rescheduled = new ArrayList<>();
+        scheduledTimes.forEach((taskId, scheduledTime) -> findTask(taskId)
+            .filter(task -> task.getStatus() == TaskStatus.PENDING)
+            .map(task -> (int) Duration.between(task.getScheduledTime(), scheduledTime).toMinutes())
+            .filter(minutes -> minutes != 0)
+            .ifPresent(minutes -> rescheduled.add(delayTask(taskId, minutes))));
+        return rescheduled;
+    }
+}
@@ -0,0 +1,130 @@
+package com.EggTart.dyst.EggTart.service;
+
+import com.EggTart.dyst.EggTart.dto.request.WalkPlanRequestDto;
+import com.EggTart.dyst.EggTart.dto.response.WalkGroupDto;
+import com.EggTart.dyst.EggTart.dto.response.WalkPlanResponseDto;
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.EggTart.dyst.EggTart.planner.*;
+import com.EggTart.dyst.EggTart.repository.TaskInstanceRepository;
+import com.EggTart.dyst.EggTart.sharding.ShardContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Plans a day's pending walks of a set of dogs into group walks with
+ * {@link GroupWalkPlanner} and, on request, moves each walk to its group's
+ * start with one batched reschedule per shard.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WalkPlanService {
+    
+    private final TaskInstanceRepository taskInstanceRepository;
+    private final TaskTransitions taskTransitions;
+    private final GroupWalkPlanner groupWalkPlanner;
+    private final PlannerProperties properties;
+    
+    public WalkPlanResponseDto plan(WalkPlanRequestDto request) {
+        LocalDate date = request.getDate();
+        log.debug("Planning walks for {} dogs on {}", request.getDogIds().size(), date);
+        
+        List<PlannedWalk> walks = loadWalks(request.getDogIds(), date);
+        
+        long started = System.nanoTime();
+        WalkPlan plan = groupWalkPlanner.plan(walks, rules(request), timeBudget(request));
+        long planningMillis = (System.nanoTime() - started) / 1_000_000;
+        
+        Integer rescheduled = request.isApply() ? apply(plan, date) : null;
+        
+        log.debug("Planned {} walks into {} groups for {} walkers in {} ms",
+            walks.size(), plan.groups().size(), plan.walkers(), planningMillis);
+        
+        return WalkPlanResponseDto.builder()
+            .date(date)
+            .walks(walks.size())
+            .walkers(plan.walkers())
+            .totalShiftMinutes(plan.totalShiftMinutes())
+            .iterations(plan.iterations())
+            .planningMillis(planningMillis)
+            .rescheduled(rescheduled)
+            .groups(plan.groups().stream().map(WalkPlanService::toDto).toList())
+            .build();
+    }
+    
+    private List<PlannedWalk> loadWalks(List<Long> dogIds, LocalDate date) {
+        LocalDateTime startOfDay = date.atStartOfDay();
+        LocalDateTime endOfDay = date.atTime(23, 59, 59);
+        Set<Long> distinctDogIds = new LinkedHashSet<>(dogIds);
+        
+        List<PlannedWalk> walks = new ArrayList<>();
+        ShardContext.forEachShard(() -> {
+            for (TaskInstance task : taskInstanceRepository.findByDogIdInAndTypeAndStatusAndScheduledTimeBetween(
+                    distinctDogIds, TaskType.WALK, TaskStatus.PENDING, startOfDay, endOfDay)) {
+                LocalTime time = task.getScheduledTime().toLocalTime();
+                walks.add(new PlannedWalk(task.getId(), task.getDogId(), time.getHour() * 60 + time.getMinute()));
+            }
+        });
+        return walks;
+    }
+    
+    /**
+     * Reschedules the walks whose group starts at a different minute. Tasks
+     * started or finished since planning are left alone by the reschedule.
+     */
+    private int apply(WalkPlan plan, LocalDate date) {
+        Map<Integer, Map<Long, LocalDateTime>> byShard = new HashMap<>();
+        for (WalkPlan.Group group : plan.groups()) {
+            LocalDateTime start = date.atTime(LocalTime.MIN.plusMinutes(group.minute()));
+            for (PlannedWalk walk : group.walks()) {
+                if (walk.minute() != group.minute()) {
+                    byShard.computeIfAbsent(ShardContext.directory().shardForId(walk.taskId()), s -> new HashMap<>())
+                        .put(walk.taskId(), start);
+                }
+            }
+        }
+        
+        int rescheduled = 0;
+        for (Map.Entry<Integer, Map<Long, LocalDateTime>> shard : byShard.entrySet()) {
+            rescheduled += ShardContext.callOnShard(shard.getKey(),
+                () -> taskTransitions.rescheduleTasks(shard.getValue()).size());
+        }
+        log.info("Rescheduled {} walks on {} to their group times", rescheduled, date);
+        return rescheduled;
+    }
+    
+    private PlanningRules rules(WalkPlanRequestDto request) {
+        return new PlanningRules(
+            request.getMaxGroupSize() != null ? request.getMaxGroupSize() : properties.getMaxGroupSize(),
+            request.getWindowMinutes() != null
+                ? request.getWindowMinutes() : (int) properties.getWindow().toMinutes(),
+            request.getWalkMinutes() != null
+                ? request.getWalkMinutes() : (int) properties.getWalkLength().toMinutes(),
+            request.getIncompatibleDogs());
+    }
+    
+    private Duration timeBudget(WalkPlanRequestDto request) {
+        Duration requested = request.getTimeBudgetMs() != null
+            ? Duration.ofMillis(request.getTimeBudgetMs())
+            : properties.getTimeBudget();
+        return requested.compareTo(properties.getMaxTimeBudget()) > 0 ? properties.getMaxTimeBudget() : requested;
+    }
+    
+    private static WalkGroupDto toDto(WalkPlan.Group group) {
+        return WalkGroupDto.builder()
+            .walker(group.walker())
+            .startTime(LocalTime.MIN.plusMinutes(group.minute()))
+            .dogIds(group.walks().stream().map(PlannedWalk::dogId).toList())
+            .taskIds(group.walks().stream().map(PlannedWalk::taskId).toList())
+            .build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.EggTart.dyst.EggTart.service;
+
+import com.EggTart.dyst.EggTart.dto.response.WalkSearchResultDto;
+import com.EggTart.dyst.EggTart.projection.WalkDetail;
+import com.EggTart.dyst.EggTart.repository.WalkRecordRepository;
+import com.EggTart.dyst.EggTart.search.WalkNoteIndex;
+import com.EggTart.dyst.EggTart.search.WalkSearchHit;
+import com.EggTart.dyst.EggTart.sharding.ShardContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class WalkSearchService {
+    
+    private final WalkNoteIndex walkNoteIndex;
+    private final WalkRecordRepository walkRecordRepository;
+    
+    public List<WalkSearchResultDto> searchWalks(String query, Long dogId,
+                                                 LocalDateTime from, LocalDateTime to, int limit) {
+        log.debug("Searching walks for '{}' (dog: {}, from: {}, to: {})", query, dogId, from, to);
+        
+        List<WalkSearchHit> hits = walkNoteIndex.search(query, dogId, from, to, limit);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        
+        // Only the top hits are loaded from the database, in ranked order, one query per shard
+        Map<Integer, List<Long>> idsByShard = hits.stream()
+            .map(WalkSearchHit::walkRecordId)
+            .collect(Collectors.groupingBy(id -> ShardContext.directory().shardForId(id)));
+        Map<Long, WalkDetail> records = new HashMap<>();
+        idsByShard.forEach((shard, ids) -> ShardContext.callOnShard(shard, () -> walkRecordRepository.findDetailsByIdIn(ids))
+            .forEach(record -> records.put(record.id(), record)));
+        
+        return hits.stream()
+            .filter(hit -> records.containsKey(hit.walkRecordId()))
+            .map(hit -> WalkSearchResultDto.from(records.get(hit.walkRecordId()), hit.score()))
+            .collect(Collectors.toList());
+    }
+    
+    public int rebuildIndex() {
+        log.info("Rebuilding walk note index");
+        return walkNoteIndex.rebuild();
+    }
+}
@@ -0,0 +1,53 @@
+package com.EggTart.dyst.EggTart.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring assigning buckets to shards.
+ *
+ * Each shard contributes {@code virtualNodes} points; a bucket belongs to the
+ * first point clockwise from its own hash. Adding a shard therefore only
+ * moves roughly {@code 1/N} of the buckets.
+ */
+public class ConsistentHashRing {
+    
+    private final TreeMap<Long, Integer> ring = new TreeMap<>();
+    
+    public ConsistentHashRing(int shardCount, int virtualNodes) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                ring.put(hash("shard-" + shard + "#" + node), shard);
+            }
+        }
+    }
+    
+    public int shardFor(int bucket) {
+        Map.Entry<Long, Integer> owner = ring.ceilingEntry(hash("bucket-" + bucket));
+        return owner != null ? owner.getValue() : ring.firstEntry().getValue();
+    }
+    
+    public int[] assignments() {
+        int[] owners = new int[ShardIds.BUCKETS];
+        for (int bucket = 0; bucket < ShardIds.BUCKETS; bucket++) {
+            owners[bucket] = shardFor(bucket);
+        }
+        return owners;
+    }
+    
+    // 64-bit FNV-1a followed by a murmur finalizer for good spread on short keys
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
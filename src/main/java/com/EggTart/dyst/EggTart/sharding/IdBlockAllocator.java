@@ -0,0 +1,117 @@
+package com.EggTart.dyst.EggTart.sharding;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out globally unique id sequence numbers in blocks (hi/lo).
+ *
+ * The block counter is a database sequence on shard 0, so ids stay unique
+ * across shards and across application instances, and a bucket can move to
+ * another shard without renumbering its rows.
+ *
+ * Blocks are usually allocated from inside a flush, when the caller's
+ * transaction already holds a connection to the dog's shard. The allocator
+ * therefore talks to shard 0's pool directly and in a transaction of its
+ * own, never through the routing data source.
+ *
+ * With sharding off, ids carry no bucket: each table counts up from 1 on a
+ * block sequence of its own, as it would with an identity column. Turning
+ * sharding on later needs the rows renumbered, since their ids do not name
+ * their dog's bucket.
+ *
+ * The allocator reaches {@link ShardAwareIdGenerator} through the Hibernate
+ * settings, so each persistence unit uses the allocator of its own context.
+ */
+@Component
+@Slf4j
+public class IdBlockAllocator implements HibernatePropertiesCustomizer {
+    
+    static final String SETTING = "eggtart.ids.allocator";
+    
+    private static final String SHARED_SEQUENCE = "eggtart_id_blocks";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+    private final boolean sharded;
+    private final Block shared = new Block(SHARED_SEQUENCE, 0);
+    private final Map<String, Block> tableBlocks = new HashMap<>();
+    
+    public IdBlockAllocator(DataSource dataSource,
+                            @Value("${eggtart.ids.block-size:1000}") int blockSize,
+                            @Value("${eggtart.sharding.enabled:false}") boolean sharded) {
+        DataSource shardZero = ShardRoutingDataSource.shardZero(dataSource);
+        this.jdbcTemplate = new JdbcTemplate(shardZero);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(shardZero));
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+        this.sharded = sharded;
+    }
+    
+    @PostConstruct
+    void init() {
+        createSequence(SHARED_SEQUENCE);
+    }
+    
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(SETTING, this);
+    }
+    
+    /**
+     * Id for a new row of the table, owned by a dog in the given bucket: a
+     * shard-aware id with sharding on, otherwise the table's next number.
+     */
+    public synchronized long nextId(String table, int bucket) {
+        if (sharded) {
+            return ShardIds.compose(shared.next(), bucket);
+        }
+        // Numbered from the first block on, so the table's first id is 1
+        return tableBlocks.computeIfAbsent(table, name -> {
+            Block block = new Block(name + "_id_blocks", 1);
+            createSequence(block.sequence);
+            return block;
+        }).next() + 1;
+    }
+    
+    private void createSequence(String sequence) {
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence + " START WITH 1"));
+    }
+    
+    private final class Block {
+        
+        private final String sequence;
+        private final long firstBlock;
+        private long next;
+        private long limit;
+        
+        private Block(String sequence, long firstBlock) {
+            this.sequence = sequence;
+            this.firstBlock = firstBlock;
+        }
+        
+        private long next() {
+            if (next == limit) {
+                Long block = transactionTemplate.execute(status ->
+                    jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence, Long.class));
+                next = (block - firstBlock) * blockSize;
+                limit = next + blockSize;
+                log.debug("Allocated id block {} of {}", block, sequence);
+            }
+            return next++;
+        }
+    }
+}
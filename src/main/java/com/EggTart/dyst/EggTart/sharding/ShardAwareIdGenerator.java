@@ -0,0 +1,64 @@
+package com.EggTart.dyst.EggTart.sharding;
+
+import com.EggTart.dyst.EggTart.model.entity.DogProfile;
+import com.EggTart.dyst.EggTart.model.entity.MeasurementChunk;
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.entity.TaskTemplate;
+import com.EggTart.dyst.EggTart.model.entity.WalkRecord;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+/**
+ * Generates {@link ShardIds shard-aware ids}: new dogs get the bucket chosen
+ * for them by {@link ShardContext}, every other row inherits its dog's bucket.
+ * With sharding off the {@link IdBlockAllocator} numbers each table from 1.
+ */
+public class ShardAwareIdGenerator implements BeforeExecutionGenerator {
+    
+    private final IdBlockAllocator allocator;
+    private final String table;
+    
+    public ShardAwareIdGenerator(ShardAwareId config, Member member, CustomIdGeneratorCreationContext context) {
+        Object allocator = context.getServiceRegistry().requireService(ConfigurationService.class)
+            .getSettings().get(IdBlockAllocator.SETTING);
+        if (!(allocator instanceof IdBlockAllocator)) {
+            throw new IllegalStateException("No id allocator in the Hibernate setting " + IdBlockAllocator.SETTING);
+        }
+        this.allocator = (IdBlockAllocator) allocator;
+        this.table = context.getPersistentClass().getTable().getName();
+    }
+    
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner,
+                           Object currentValue, EventType eventType) {
+        return allocator.nextId(table, bucketFor(owner));
+    }
+    
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+    
+    private int bucketFor(Object owner) {
+        Long dogId = null;
+        if (owner instanceof DogProfile) {
+            return ShardContext.bucketForNewDog();
+        } else if (owner instanceof TaskInstance task) {
+            dogId = task.getDogId();
+        } else if (owner instanceof TaskTemplate template) {
+            dogId = template.getDogId();
+        } else if (owner instanceof WalkRecord walk) {
+            dogId = walk.getDogId();
+        } else if (owner instanceof MeasurementChunk chunk) {
+            dogId = chunk.getDogId();
+        }
+        return dogId != null ? ShardIds.bucketOf(dogId) : ShardContext.bucketForNewDog();
+    }
+}
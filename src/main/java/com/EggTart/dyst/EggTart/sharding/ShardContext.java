@@ -0,0 +1,105 @@
+package com.EggTart.dyst.EggTart.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound shard selection consulted by {@link ShardRoutingDataSource}
+ * and by id generation.
+ *
+ * The shard must be bound before a transaction starts, since the connection
+ * is taken from the routing data source when the transaction begins. When
+ * sharding is disabled the directory has a single shard and binding is a
+ * no-op for routing.
+ */
+public final class ShardContext {
+    
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+    private static final ThreadLocal<Integer> NEW_DOG_BUCKET = new ThreadLocal<>();
+    private static volatile ShardDirectory directory = ShardDirectory.SINGLE;
+    
+    private ShardContext() {
+    }
+    
+    public static ShardDirectory directory() {
+        return directory;
+    }
+    
+    static void setDirectory(ShardDirectory newDirectory) {
+        directory = newDirectory;
+    }
+    
+    /** Shard bound to this thread, or shard 0 when nothing is bound. */
+    public static int currentShard() {
+        Integer shard = CURRENT_SHARD.get();
+        return shard != null ? shard : 0;
+    }
+    
+    public static void bindShard(int shard) {
+        CURRENT_SHARD.set(shard);
+    }
+    
+    /**
+     * Binds the shard owning an id. Works for dog ids as well as for ids of
+     * rows belonging to a dog, since both carry the dog's bucket.
+     */
+    public static void bindDog(long id) {
+        CURRENT_SHARD.set(directory.shardForId(id));
+    }
+    
+    /**
+     * Whether the bucket of an id is being moved. Background jobs leave such
+     * rows alone, the way {@link ShardRoutingInterceptor} turns requests
+     * away, and pick them up on a later run.
+     */
+    public static boolean isFrozen(long id) {
+        return directory.isFrozen(ShardIds.bucketOf(id));
+    }
+    
+    /** Places a dog that is about to be created and binds its shard. */
+    public static void bindNewDog() {
+        int bucket = directory.randomBucket();
+        NEW_DOG_BUCKET.set(bucket);
+        CURRENT_SHARD.set(directory.shardForBucket(bucket));
+    }
+    
+    /**
+     * Bucket for a dog being inserted: the one chosen by {@link #bindNewDog()},
+     * otherwise any bucket owned by the bound shard.
+     */
+    public static int bucketForNewDog() {
+        Integer bucket = NEW_DOG_BUCKET.get();
+        if (bucket != null) {
+            return bucket;
+        }
+        int[] owned = directory.bucketsOf(currentShard());
+        return owned.length > 0 ? owned[directory.randomBucket() % owned.length] : directory.randomBucket();
+    }
+    
+    public static void clear() {
+        CURRENT_SHARD.remove();
+        NEW_DOG_BUCKET.remove();
+    }
+    
+    public static <T> T callOnShard(int shard, Supplier<T> work) {
+        Integer previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CURRENT_SHARD.set(previous);
+            } else {
+                CURRENT_SHARD.remove();
+            }
+        }
+    }
+    
+    public static void forEachShard(Runnable work) {
+        for (int shard = 0; shard < directory.shardCount(); shard++) {
+            callOnShard(shard, () -> {
+                work.run();
+                return null;
+            });
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.EggTart.dyst.EggTart.sharding;
+
+import java.util.BitSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Current bucket-to-shard ownership. Replaced wholesale on every refresh
+ * from {@link ShardDirectoryStore}, so readers never see a half-updated table.
+ */
+public final class ShardDirectory {
+    
+    public static final ShardDirectory SINGLE = new ShardDirectory(1, new int[ShardIds.BUCKETS], new BitSet());
+    
+    private final int shardCount;
+    private final int[] ownerOfBucket;
+    private final BitSet frozenBuckets;
+    
+    public ShardDirectory(int shardCount, int[] ownerOfBucket, BitSet frozenBuckets) {
+        this.shardCount = shardCount;
+        this.ownerOfBucket = ownerOfBucket.clone();
+        this.frozenBuckets = (BitSet) frozenBuckets.clone();
+    }
+    
+    public int shardCount() {
+        return shardCount;
+    }
+    
+    public int shardForBucket(int bucket) {
+        return ownerOfBucket[bucket];
+    }
+    
+    public int shardForId(long id) {
+        return shardForBucket(ShardIds.bucketOf(id));
+    }
+    
+    public int[] bucketsOf(int shard) {
+        return IntStream.range(0, ShardIds.BUCKETS).filter(b -> ownerOfBucket[b] == shard).toArray();
+    }
+    
+    /**
+     * Picks a bucket for a new dog. Buckets are chosen uniformly, so shards
+     * fill up in proportion to the buckets they own.
+     */
+    public int randomBucket() {
+        return ThreadLocalRandom.current().nextInt(ShardIds.BUCKETS);
+    }
+    
+    public boolean isFrozen(int bucket) {
+        return frozenBuckets.get(bucket);
+    }
+}
@@ -0,0 +1,157 @@
+package com.EggTart.dyst.EggTart.sharding;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Persists bucket ownership in {@code shard_buckets} on shard 0 and keeps
+ * {@link ShardContext}'s directory in sync with it.
+ *
+ * Ownership is stored rather than recomputed from the ring so that adding a
+ * shard does not re-route buckets before their rows have been migrated.
+ *
+ * The table is the source of truth for every instance: besides the owner it
+ * records whether a bucket is frozen, which shard it is moving to and which
+ * shard still holds copied rows to delete. Each instance re-reads it on a
+ * fixed delay, so a freeze set by the rebalancer reaches all of them.
+ */
+@Slf4j
+public class ShardDirectoryStore {
+    
+    /** One row of {@code shard_buckets}. */
+    public record BucketState(int bucket, int shard, boolean frozen, Integer movingTo, Integer cleanupShard) {
+    }
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int shardCount;
+    private final int virtualNodes;
+    private boolean closed;
+    
+    public ShardDirectoryStore(DataSource dataSource, int shardCount, int virtualNodes) {
+        DataSource shardZero = ShardRoutingDataSource.shardZero(dataSource);
+        this.jdbcTemplate = new JdbcTemplate(shardZero);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(shardZero));
+        this.shardCount = shardCount;
+        this.virtualNodes = virtualNodes;
+    }
+    
+    public void load() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute(
+                "CREATE TABLE IF NOT EXISTS shard_buckets (bucket INT PRIMARY KEY, shard INT NOT NULL)");
+            jdbcTemplate.execute(
+                "ALTER TABLE shard_buckets ADD COLUMN IF NOT EXISTS frozen BOOLEAN DEFAULT FALSE NOT NULL");
+            jdbcTemplate.execute("ALTER TABLE shard_buckets ADD COLUMN IF NOT EXISTS moving_to INT");
+            jdbcTemplate.execute("ALTER TABLE shard_buckets ADD COLUMN IF NOT EXISTS cleanup_shard INT");
+            
+            Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM shard_buckets", Integer.class);
+            if (rows == 0) {
+                int[] owners = new ConsistentHashRing(shardCount, virtualNodes).assignments();
+                for (int bucket = 0; bucket < owners.length; bucket++) {
+                    jdbcTemplate.update("INSERT INTO shard_buckets (bucket, shard) VALUES (?, ?)", bucket, owners[bucket]);
+                }
+                log.info("Initialized shard directory for {} shards", shardCount);
+            }
+        });
+        refresh();
+    }
+    
+    /**
+     * Re-reads the table into {@link ShardContext}. Runs on every instance, so
+     * freezes and ownership changes made by another instance take effect here
+     * within one refresh interval.
+     *
+     * Synchronized so that a scheduled refresh that read the table before a
+     * move committed cannot publish its directory after the rebalancer's own
+     * refresh has published the newer one.
+     */
+    @Scheduled(fixedDelayString = "${eggtart.sharding.directory-refresh-ms:1000}")
+    public synchronized void refresh() {
+        if (closed) {
+            return;
+        }
+        int[] owners = new int[ShardIds.BUCKETS];
+        BitSet frozen = new BitSet();
+        for (BucketState state : states()) {
+            if (state.shard() >= shardCount) {
+                throw new IllegalStateException(String.format(
+                    "Bucket %d is owned by shard %d but only %d shards are configured",
+                    state.bucket(), state.shard(), shardCount));
+            }
+            owners[state.bucket()] = state.shard();
+            frozen.set(state.bucket(), state.frozen());
+        }
+        ShardContext.setDirectory(new ShardDirectory(shardCount, owners, frozen));
+    }
+    
+    /**
+     * Puts {@link ShardContext} back on a single shard, so an application
+     * started later in the same JVM does not route by this one's directory.
+     */
+    @PreDestroy
+    synchronized void reset() {
+        closed = true;
+        ShardContext.setDirectory(ShardDirectory.SINGLE);
+    }
+    
+    public List<BucketState> states() {
+        return jdbcTemplate.query(
+            "SELECT bucket, shard, frozen, moving_to, cleanup_shard FROM shard_buckets ORDER BY bucket",
+            (rs, rowNum) -> new BucketState(rs.getInt("bucket"), rs.getInt("shard"), rs.getBoolean("frozen"),
+                rs.getObject("moving_to", Integer.class), rs.getObject("cleanup_shard", Integer.class)));
+    }
+    
+    /**
+     * Freezes a bucket and records where it is going. Fails when the bucket
+     * is already moving elsewhere or still has rows to clean up.
+     */
+    public void beginMove(int bucket, int to) {
+        int updated = jdbcTemplate.update(
+            "UPDATE shard_buckets SET frozen = TRUE, moving_to = ? WHERE bucket = ? AND cleanup_shard IS NULL"
+                + " AND (moving_to IS NULL OR moving_to = ?)", to, bucket, to);
+        if (updated == 0) {
+            throw new IllegalStateException("Bucket " + bucket + " is already being moved");
+        }
+        refresh();
+    }
+    
+    /**
+     * Switches a frozen bucket to its new owner and unfreezes it, remembering
+     * the old owner for cleanup. Must run inside a transaction on shard 0's
+     * pool (see {@link #inTransaction}) so that it commits after the copy.
+     */
+    public void switchOwner(int bucket, int from, int to) {
+        int updated = jdbcTemplate.update(
+            "UPDATE shard_buckets SET shard = ?, frozen = FALSE, moving_to = NULL, cleanup_shard = ?"
+                + " WHERE bucket = ? AND shard = ? AND moving_to = ?", to, from, bucket, from, to);
+        if (updated == 0) {
+            throw new IllegalStateException("Bucket " + bucket + " is no longer moving from " + from + " to " + to);
+        }
+    }
+    
+    public void cleanedUp(int bucket) {
+        jdbcTemplate.update("UPDATE shard_buckets SET cleanup_shard = NULL WHERE bucket = ?", bucket);
+    }
+    
+    /** Runs work in a transaction on shard 0's pool, joining one that is already open there. */
+    public void inTransaction(Runnable work) {
+        transactionTemplate.executeWithoutResult(status -> work.run());
+    }
+    
+    public int shardCount() {
+        return shardCount;
+    }
+    
+    public int virtualNodes() {
+        return virtualNodes;
+    }
+}
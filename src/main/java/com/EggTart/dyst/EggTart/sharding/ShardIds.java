@@ -0,0 +1,26 @@
+package com.EggTart.dyst.EggTart.sharding;
+
+/**
+ * Layout of shard-aware ids: {@code (sequence << 6) | bucket}.
+ *
+ * Every dog lives in one of 64 buckets, and every row that belongs to a dog
+ * (templates, task instances, walk records) is given an id in the same
+ * bucket. A bucket is the unit of placement and of rebalancing, so any id
+ * alone is enough to route a call to the right shard.
+ */
+public final class ShardIds {
+    
+    public static final int BUCKET_BITS = 6;
+    public static final int BUCKETS = 1 << BUCKET_BITS;
+    
+    private ShardIds() {
+    }
+    
+    public static int bucketOf(long id) {
+        return (int) (id & (BUCKETS - 1));
+    }
+    
+    public static long compose(long sequence, int bucket) {
+        return (sequence << BUCKET_BITS) | bucket;
+    }
+}
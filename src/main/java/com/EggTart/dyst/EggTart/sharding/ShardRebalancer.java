@@ -0,0 +1,183 @@
+package com.EggTart.dyst.EggTart.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Moves buckets whose stored owner differs from the consistent hash ring for
+ * the configured shard count, e.g. after a shard has been added.
+ *
+ * A move is recorded in the directory table and runs in three steps:
+ * <ol>
+ *   <li>freeze the bucket and wait out the freeze grace, so every instance
+ *   has picked up the freeze and turns requests for the bucket away;</li>
+ *   <li>copy the bucket's rows to the target in one transaction on the
+ *   target, with the ownership switch committed right after it on shard 0;</li>
+ *   <li>delete the rows from the source in one transaction on the source,
+ *   with the cleanup marker cleared right after it on shard 0.</li>
+ * </ol>
+ * Outbox events move with their dog, so the relay never sees a dog's events
+ * split across two shards; it leaves frozen buckets alone meanwhile.
+ * When the source or target is shard 0 itself the directory update joins
+ * that shard's transaction. A move interrupted at any step is picked up
+ * again by the next {@link #rebalance()}: the copy clears the target first,
+ * and the delete only touches the shard recorded for cleanup.
+ */
+@Slf4j
+public class ShardRebalancer {
+    
+    private static final int BATCH_SIZE = 1000;
+    
+    /**
+     * @param keyColumn unique column the copy pages through in order
+     * @param keepsId whether the key is copied as is, or left to the target's identity column
+     */
+    private record ShardedTable(String name, String bucketColumn, String keyColumn, boolean keepsId) {
+    }
+    
+    private static final List<ShardedTable> TABLES = List.of(
+        new ShardedTable("dog_profiles", "id", "id", true),
+        new ShardedTable("task_templates", "id", "id", true),
+        new ShardedTable("task_instances", "id", "id", true),
+        new ShardedTable("walk_records", "id", "id", true),
+        new ShardedTable("measurement_chunks", "id", "id", true),
+        new ShardedTable("sync_tombstones", "dog_id", "id", false),
+        new ShardedTable("behaviour_sketches", "dog_id", "task_template_id", true),
+        // Copied in id order, so the target's identity keeps each dog's events in sequence
+        new ShardedTable("outbox_events", "dog_id", "id", false)
+    );
+    
+    private final ShardRoutingDataSource dataSource;
+    private final ShardDirectoryStore directoryStore;
+    private final long freezeGraceMs;
+    
+    public ShardRebalancer(ShardRoutingDataSource dataSource, ShardDirectoryStore directoryStore, long freezeGraceMs) {
+        this.dataSource = dataSource;
+        this.directoryStore = directoryStore;
+        this.freezeGraceMs = freezeGraceMs;
+    }
+    
+    /**
+     * @return number of buckets moved
+     */
+    public int rebalance() {
+        resumeInterruptedMoves();
+        ConsistentHashRing ring = new ConsistentHashRing(directoryStore.shardCount(), directoryStore.virtualNodes());
+        int moved = 0;
+        for (ShardDirectoryStore.BucketState state : directoryStore.states()) {
+            int target = ring.shardFor(state.bucket());
+            if (state.shard() != target) {
+                moveBucket(state.bucket(), state.shard(), target);
+                moved++;
+            }
+        }
+        log.info("Shard rebalance finished, {} buckets moved", moved);
+        return moved;
+    }
+    
+    public void moveBucket(int bucket, int from, int to) {
+        log.info("Moving bucket {} from shard {} to shard {}", bucket, from, to);
+        directoryStore.beginMove(bucket, to);
+        awaitFreezeGrace();
+        
+        directoryStore.inTransaction(() -> {
+            inTransaction(to, () -> {
+                for (ShardedTable table : TABLES.reversed()) {
+                    deleteBucket(table, bucket, to);
+                }
+                for (ShardedTable table : TABLES) {
+                    long copied = copyTable(table, bucket, from, to);
+                    log.debug("Copied {} rows of {} for bucket {}", copied, table.name(), bucket);
+                }
+            });
+            directoryStore.switchOwner(bucket, from, to);
+        });
+        directoryStore.refresh();
+        
+        cleanUp(bucket, from);
+    }
+    
+    private void resumeInterruptedMoves() {
+        for (ShardDirectoryStore.BucketState state : directoryStore.states()) {
+            if (state.movingTo() != null) {
+                log.info("Resuming interrupted move of bucket {}", state.bucket());
+                moveBucket(state.bucket(), state.shard(), state.movingTo());
+            } else if (state.cleanupShard() != null) {
+                cleanUp(state.bucket(), state.cleanupShard());
+            }
+        }
+    }
+    
+    private void cleanUp(int bucket, int shard) {
+        directoryStore.inTransaction(() -> {
+            inTransaction(shard, () -> {
+                for (ShardedTable table : TABLES.reversed()) {
+                    deleteBucket(table, bucket, shard);
+                }
+            });
+            directoryStore.cleanedUp(bucket);
+        });
+        log.debug("Removed rows of bucket {} from shard {}", bucket, shard);
+    }
+    
+    private void awaitFreezeGrace() {
+        try {
+            Thread.sleep(freezeGraceMs);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the freeze to propagate", ex);
+        }
+    }
+    
+    private void deleteBucket(ShardedTable table, int bucket, int shard) {
+        jdbc(shard).update("DELETE FROM " + table.name() + " WHERE MOD(" + table.bucketColumn() + ", ?) = ?",
+            ShardIds.BUCKETS, bucket);
+    }
+    
+    private long copyTable(ShardedTable table, int bucket, int from, int to) {
+        long copied = 0;
+        long afterKey = Long.MIN_VALUE;
+        List<Map<String, Object>> rows;
+        do {
+            rows = jdbc(from).queryForList(
+                "SELECT * FROM " + table.name() + " WHERE MOD(" + table.bucketColumn() + ", ?) = ? AND "
+                    + table.keyColumn() + " > ? ORDER BY " + table.keyColumn() + " LIMIT ?",
+                ShardIds.BUCKETS, bucket, afterKey, BATCH_SIZE);
+            if (rows.isEmpty()) {
+                break;
+            }
+            insertRows(table, rows, to);
+            afterKey = ((Number) rows.get(rows.size() - 1).get(table.keyColumn().toUpperCase())).longValue();
+            copied += rows.size();
+        } while (rows.size() == BATCH_SIZE);
+        return copied;
+    }
+    
+    private void insertRows(ShardedTable table, List<Map<String, Object>> rows, int to) {
+        List<String> columns = rows.get(0).keySet().stream()
+            .filter(column -> table.keepsId() || !table.keyColumn().equalsIgnoreCase(column))
+            .toList();
+        String sql = "INSERT INTO " + table.name() + " (" + String.join(", ", columns) + ") VALUES ("
+            + columns.stream().map(c -> "?").collect(Collectors.joining(", ")) + ")";
+        List<Object[]> arguments = rows.stream()
+            .map(row -> columns.stream().map(row::get).toArray())
+            .toList();
+        jdbc(to).batchUpdate(sql, arguments);
+    }
+    
+    private JdbcTemplate jdbc(int shard) {
+        return new JdbcTemplate(dataSource.shard(shard));
+    }
+    
+    private void inTransaction(int shard, Runnable work) {
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource.shard(shard)))
+            .executeWithoutResult(status -> work.run());
+    }
+}
@@ -0,0 +1,29 @@
+package com.EggTart.dyst.EggTart.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes each connection request to the shard bound in {@link ShardContext}.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.currentShard();
+    }
+    
+    /**
+     * The pool behind one shard, for work that must not join whatever
+     * connection the current transaction has bound.
+     */
+    public DataSource shard(int shard) {
+        return getResolvedDataSources().get(shard);
+    }
+    
+    /** Shard 0 of a sharded data source, or the data source itself when unsharded. */
+    public static DataSource shardZero(DataSource dataSource) {
+        return dataSource instanceof ShardRoutingDataSource routing ? routing.shard(0) : dataSource;
+    }
+}
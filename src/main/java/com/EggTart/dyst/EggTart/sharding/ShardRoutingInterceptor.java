@@ -0,0 +1,64 @@
+package com.EggTart.dyst.EggTart.sharding;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Binds the shard for an API request before the controller (and therefore
+ * the service transaction) runs.
+ *
+ * Dog-scoped requests route on the dog id ({@code /api/dogs/{id}} or a
+ * {@code dogId} parameter), task-scoped requests on the task id, which
+ * carries its dog's bucket. Creating a dog places it on a fresh bucket.
+ * Requests touching a bucket that is being migrated are turned away with 503.
+ */
+public class ShardRoutingInterceptor implements HandlerInterceptor {
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String path = request.getRequestURI();
+        Long routingId = null;
+        
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String id = variables instanceof Map<?, ?> map ? (String) map.get("id") : null;
+        
+        if (path.startsWith("/api/dogs") && id == null && "POST".equals(request.getMethod())) {
+            ShardContext.bindNewDog();
+            return true;
+        }
+        if (id != null && (path.startsWith("/api/dogs/") || path.startsWith("/api/tasks/"))) {
+            routingId = parse(id);
+        } else if (request.getParameter("dogId") != null) {
+            routingId = parse(request.getParameter("dogId"));
+        }
+        
+        if (routingId != null) {
+            if (ShardContext.directory().isFrozen(ShardIds.bucketOf(routingId))) {
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                response.setHeader("Retry-After", "5");
+                return false;
+            }
+            ShardContext.bindDog(routingId);
+        }
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        ShardContext.clear();
+    }
+    
+    private static Long parse(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.EggTart.dyst.EggTart.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "eggtart.sharding")
+public class ShardingProperties {
+    
+    private boolean enabled = false;
+    
+    /** Points per shard on the consistent hash ring. */
+    private int virtualNodes = 128;
+    
+    private int maximumPoolSize = 10;
+    
+    /**
+     * How long a bucket stays frozen before its rows are copied. Must cover
+     * the directory refresh interval plus the longest request, so that no
+     * instance is still writing to the bucket when the copy starts.
+     */
+    private long freezeGraceMs = 5000;
+    
+    private List<Shard> shards = new ArrayList<>();
+    
+    @Data
+    public static class Shard {
+        private String url;
+        private String username = "sa";
+        private String password = "";
+    }
+}
@@ -0,0 +1,9 @@
+package com.EggTart.dyst.EggTart.stats;
+
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+
+import java.time.LocalDate;
+
+public record CounterKey(TaskStatus status, TaskType type, LocalDate day) {
+}
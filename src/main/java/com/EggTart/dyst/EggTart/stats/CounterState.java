@@ -0,0 +1,14 @@
+package com.EggTart.dyst.EggTart.stats;
+
+/**
+ * One counter as seen by the reconciler: its count, how many transitions
+ * have been applied to it so far, and how many are waiting on a commit.
+ */
+public record CounterState(long count, long generation, long pending) {
+    
+    static final CounterState EMPTY = new CounterState(0, 0, 0);
+    
+    boolean settledSince(CounterState earlier) {
+        return pending == 0 && earlier.pending == 0 && generation == earlier.generation;
+    }
+}
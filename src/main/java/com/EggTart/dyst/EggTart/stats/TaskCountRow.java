@@ -0,0 +1,16 @@
+package com.EggTart.dyst.EggTart.stats;
+
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+
+import java.time.LocalDate;
+
+/**
+ * One group of the reconciliation count query.
+ */
+public record TaskCountRow(TaskStatus status, TaskType type, LocalDate day, Long count) {
+    
+    public CounterKey key() {
+        return new CounterKey(status, type, day);
+    }
+}
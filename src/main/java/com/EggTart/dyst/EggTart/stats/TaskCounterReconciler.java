@@ -0,0 +1,59 @@
+package com.EggTart.dyst.EggTart.stats;
+
+import com.EggTart.dyst.EggTart.archive.TaskHistory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Brings {@link TaskCounters} back in line with the database and the task
+ * archive on startup and on a schedule, covering rows written outside
+ * TaskService (seeding) and events lost to a crash. Archived instances stay
+ * counted, so statistics for days past the archival horizon are kept.
+ *
+ * A counter is only corrected when no transition touched it, or was waiting
+ * to commit against it, between the snapshot taken before the query and the
+ * correction after it. Otherwise the query may or may not have seen that
+ * transition, so the counter is left for the next run rather than guessed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskCounterReconciler {
+    
+    private final TaskHistory taskHistory;
+    private final TaskCounters taskCounters;
+    
+    private volatile boolean reconciled;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        // Usually already done by the warm-up
+        if (!reconciled) {
+            reconcile();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${eggtart.stats.reconcile-interval-ms:300000}",
+               initialDelayString = "${eggtart.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        Map<CounterKey, CounterState> before = taskCounters.states();
+        Map<CounterKey, Long> actual = taskHistory.counts();
+        TaskCounters.Correction correction = taskCounters.correct(before, actual);
+        
+        reconciled = true;
+        
+        if (correction.drift() > 0) {
+            log.info("Reconciled task counters, corrected drift of {} across {} groups",
+                correction.drift(), actual.size());
+        }
+        if (correction.skipped() > 0) {
+            log.debug("Left {} task counter groups with transitions in flight for the next run", correction.skipped());
+        }
+    }
+}
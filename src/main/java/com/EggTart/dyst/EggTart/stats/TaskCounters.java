@@ -0,0 +1,202 @@
+package com.EggTart.dyst.EggTart.stats;
+
+import com.EggTart.dyst.EggTart.event.TaskTransitionEvent;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process task counts per status, type and day.
+ *
+ * Each counter is a {@link LongAdder}, which stripes its cells across
+ * contending threads, so concurrent transitions never serialise on a shared
+ * counter. Counts move after commit on every {@link TaskTransitionEvent} and
+ * are corrected against the database and the archive by
+ * {@link TaskCounterReconciler}.
+ *
+ * Besides the count, every counter tracks a generation (transitions applied)
+ * and the transitions published but not yet committed. Transitions take the
+ * shared side of a read/write lock; the reconciler takes the exclusive side
+ * to read and to correct counters, and only corrects those whose generation
+ * did not move and which had nothing pending while it queried the database.
+ */
+@Component
+public class TaskCounters {
+    
+    private static final class Counter {
+        final LongAdder count = new LongAdder();
+        final LongAdder generation = new LongAdder();
+        final LongAdder pending = new LongAdder();
+        
+        CounterState state() {
+            return new CounterState(count.sum(), generation.sum(), pending.sum());
+        }
+    }
+    
+    private final ConcurrentMap<CounterKey, Counter> counts = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    public TaskCounters(MeterRegistry meterRegistry) {
+        for (TaskStatus status : TaskStatus.values()) {
+            for (TaskType type : TaskType.values()) {
+                Gauge.builder("eggtart.tasks.today", this, counters -> counters.count(status, type, LocalDate.now()))
+                    .description("Task instances scheduled today")
+                    .tags("status", status.name(), "type", type.name())
+                    .register(meterRegistry);
+            }
+            Gauge.builder("eggtart.tasks.total", this, counters -> counters.countByStatus(status))
+                .description("Task instances, including archived ones")
+                .tag("status", status.name())
+                .register(meterRegistry);
+        }
+    }
+    
+    /**
+     * Marks the transition pending right away and applies it once its
+     * transaction commits; outside a transaction it is applied directly.
+     */
+    @EventListener
+    public void onTaskTransition(TaskTransitionEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            withSharedLock(() -> apply(event));
+            return;
+        }
+        withSharedLock(() -> keysOf(event).forEach(key -> counter(key).pending.increment()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                withSharedLock(() -> {
+                    if (status == STATUS_COMMITTED) {
+                        apply(event);
+                    }
+                    keysOf(event).forEach(key -> counter(key).pending.decrement());
+                });
+            }
+        });
+    }
+    
+    public long count(TaskStatus status, TaskType type, LocalDate day) {
+        Counter counter = counts.get(new CounterKey(status, type, day));
+        return counter != null ? counter.count.sum() : 0;
+    }
+    
+    public long countByStatus(TaskStatus status) {
+        long total = 0;
+        for (Map.Entry<CounterKey, Counter> entry : counts.entrySet()) {
+            if (entry.getKey().status() == status) {
+                total += entry.getValue().count.sum();
+            }
+        }
+        return total;
+    }
+    
+    /** Consistent view of every counter, taken with transitions held off. */
+    Map<CounterKey, CounterState> states() {
+        Lock exclusive = lock.writeLock();
+        exclusive.lock();
+        try {
+            Map<CounterKey, CounterState> states = new HashMap<>();
+            counts.forEach((key, counter) -> states.put(key, counter.state()));
+            return states;
+        } finally {
+            exclusive.unlock();
+        }
+    }
+    
+    /**
+     * Sets every counter that stayed settled since {@code before} to its
+     * actual count, with transitions held off.
+     *
+     * @return the total correction, and how many counters were skipped
+     */
+    Correction correct(Map<CounterKey, CounterState> before, Map<CounterKey, Long> actual) {
+        Set<CounterKey> keys = new HashSet<>(before.keySet());
+        keys.addAll(actual.keySet());
+        
+        Lock exclusive = lock.writeLock();
+        exclusive.lock();
+        try {
+            long drift = 0;
+            int skipped = 0;
+            for (CounterKey key : keys) {
+                Counter counter = counts.get(key);
+                CounterState now = counter != null ? counter.state() : CounterState.EMPTY;
+                if (!now.settledSince(before.getOrDefault(key, CounterState.EMPTY))) {
+                    skipped++;
+                    continue;
+                }
+                long delta = actual.getOrDefault(key, 0L) - now.count();
+                if (delta != 0) {
+                    counter(key).count.add(delta);
+                    drift += Math.abs(delta);
+                }
+                if (!actual.containsKey(key)) {
+                    counts.computeIfPresent(key, (k, c) -> c.count.sum() == 0 && c.pending.sum() == 0 ? null : c);
+                }
+            }
+            return new Correction(drift, skipped);
+        } finally {
+            exclusive.unlock();
+        }
+    }
+    
+    record Correction(long drift, int skipped) {
+    }
+    
+    private void apply(TaskTransitionEvent event) {
+        if (event.previousStatus() != null) {
+            Counter previous = counter(new CounterKey(event.previousStatus(), event.type(), event.previousDay()));
+            previous.count.decrement();
+            previous.generation.increment();
+        }
+        if (event.status() != null) {
+            Counter current = counter(new CounterKey(event.status(), event.type(), event.day()));
+            current.count.increment();
+            current.generation.increment();
+        }
+    }
+    
+    private static List<CounterKey> keysOf(TaskTransitionEvent event) {
+        List<CounterKey> keys = new ArrayList<>(2);
+        if (event.previousStatus() != null) {
+            keys.add(new CounterKey(event.previousStatus(), event.type(), event.previousDay()));
+        }
+        if (event.status() != null) {
+            keys.add(new CounterKey(event.status(), event.type(), event.day()));
+        }
+        return keys;
+    }
+    
+    private void withSharedLock(Runnable work) {
+        Lock shared = lock.readLock();
+        shared.lock();
+        try {
+            work.run();
+        } finally {
+            shared.unlock();
+        }
+    }
+    
+    private Counter counter(CounterKey key) {
+        return counts.computeIfAbsent(key, k -> new Counter());
+    }
+}
@@ -0,0 +1,43 @@
+package com.EggTart.dyst.EggTart.sync;
+
+import com.EggTart.dyst.EggTart.exception.InvalidSyncCursorException;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Opaque client cursor: the newest {@code updatedAt} and change sequence the
+ * client has seen, encoded as {@code <updatedAtMillis>:<changeSeq>}.
+ */
+public record SyncCursor(LocalDateTime updatedAt, long changeSeq) {
+    
+    public static final SyncCursor INITIAL = new SyncCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+    
+    public static SyncCursor parse(String value) {
+        if (value == null || value.isBlank()) {
+            return INITIAL;
+        }
+        String[] parts = value.split(":");
+        if (parts.length != 2) {
+            throw new InvalidSyncCursorException(value);
+        }
+        try {
+            LocalDateTime updatedAt = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(Long.parseLong(parts[0])), ZoneId.systemDefault());
+            return new SyncCursor(updatedAt, Long.parseLong(parts[1]));
+        } catch (NumberFormatException ex) {
+            throw new InvalidSyncCursorException(value);
+        }
+    }
+    
+    public SyncCursor advance(LocalDateTime seenUpdatedAt, Long seenChangeSeq) {
+        LocalDateTime newest = seenUpdatedAt != null && seenUpdatedAt.isAfter(updatedAt) ? seenUpdatedAt : updatedAt;
+        long highest = seenChangeSeq != null ? Math.max(changeSeq, seenChangeSeq) : changeSeq;
+        return new SyncCursor(newest, highest);
+    }
+    
+    public String encode() {
+        return updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + ":" + changeSeq;
+    }
+}
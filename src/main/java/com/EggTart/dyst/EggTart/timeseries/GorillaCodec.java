@@ -0,0 +1,195 @@
+package com.EggTart.dyst.EggTart.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * Compresses a sorted series of (epoch second, double) readings as in
+ * Facebook's Gorilla paper.
+ *
+ * The first point is stored raw. Each later timestamp stores the difference
+ * between its delta and the previous delta in a variable-width bucket, which
+ * costs a single bit for a regularly sampling scale. Each later value is
+ * XORed with the previous one and only the meaningful bits are stored,
+ * reusing the previous leading/trailing zero window when it fits. Slowly
+ * drifting readings such as weight take a few bits each.
+ */
+public final class GorillaCodec {
+    
+    private GorillaCodec() {
+    }
+    
+    public static byte[] encode(SeriesPoints points) {
+        BitWriter out = new BitWriter(points.size() * 2 + 16);
+        if (points.size() == 0) {
+            return out.toByteArray();
+        }
+        
+        long previousTime = points.time(0);
+        long previousBits = Double.doubleToRawLongBits(points.value(0));
+        out.writeBits(previousTime, 64);
+        out.writeBits(previousBits, 64);
+        
+        long previousDelta = 0;
+        int previousLeading = -1;
+        int previousTrailing = 0;
+        for (int i = 1; i < points.size(); i++) {
+            long delta = points.time(i) - previousTime;
+            writeDeltaOfDelta(out, delta - previousDelta);
+            previousDelta = delta;
+            previousTime = points.time(i);
+            
+            long bits = Double.doubleToRawLongBits(points.value(i));
+            long xor = bits ^ previousBits;
+            previousBits = bits;
+            if (xor == 0) {
+                out.writeBit(false);
+                continue;
+            }
+            out.writeBit(true);
+            
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                out.writeBit(false);
+                out.writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            } else {
+                int meaningful = 64 - leading - trailing;
+                out.writeBit(true);
+                out.writeBits(leading, 5);
+                // 64 meaningful bits cannot occur together with a 6-bit length, so 0 stands for it
+                out.writeBits(meaningful == 64 ? 0 : meaningful, 6);
+                out.writeBits(xor >>> trailing, meaningful);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+        return out.toByteArray();
+    }
+    
+    public static SeriesPoints decode(byte[] data, int count) {
+        SeriesPoints points = new SeriesPoints(count);
+        if (count == 0) {
+            return points;
+        }
+        
+        BitReader in = new BitReader(data);
+        long time = in.readBits(64);
+        long bits = in.readBits(64);
+        points.append(time, Double.longBitsToDouble(bits));
+        
+        long delta = 0;
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 1; i < count; i++) {
+            delta += readDeltaOfDelta(in);
+            time += delta;
+            
+            if (in.readBit()) {
+                if (in.readBit()) {
+                    leading = (int) in.readBits(5);
+                    int meaningful = (int) in.readBits(6);
+                    if (meaningful == 0) {
+                        meaningful = 64;
+                    }
+                    trailing = 64 - leading - meaningful;
+                }
+                bits ^= in.readBits(64 - leading - trailing) << trailing;
+            }
+            points.append(time, Double.longBitsToDouble(bits));
+        }
+        return points;
+    }
+    
+    private static void writeDeltaOfDelta(BitWriter out, long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            out.writeBit(false);
+        } else if (deltaOfDelta >= -64 && deltaOfDelta <= 63) {
+            out.writeBits(0b10, 2);
+            out.writeBits(deltaOfDelta, 7);
+        } else if (deltaOfDelta >= -256 && deltaOfDelta <= 255) {
+            out.writeBits(0b110, 3);
+            out.writeBits(deltaOfDelta, 9);
+        } else if (deltaOfDelta >= -2048 && deltaOfDelta <= 2047) {
+            out.writeBits(0b1110, 4);
+            out.writeBits(deltaOfDelta, 12);
+        } else {
+            out.writeBits(0b1111, 4);
+            out.writeBits(deltaOfDelta, 64);
+        }
+    }
+    
+    private static long readDeltaOfDelta(BitReader in) {
+        if (!in.readBit()) {
+            return 0;
+        }
+        if (!in.readBit()) {
+            return signExtend(in.readBits(7), 7);
+        }
+        if (!in.readBit()) {
+            return signExtend(in.readBits(9), 9);
+        }
+        if (!in.readBit()) {
+            return signExtend(in.readBits(12), 12);
+        }
+        return in.readBits(64);
+    }
+    
+    private static long signExtend(long value, int bits) {
+        int shift = 64 - bits;
+        return (value << shift) >> shift;
+    }
+    
+    private static final class BitWriter {
+        private byte[] buffer;
+        private long bitPosition;
+        
+        BitWriter(int initialBytes) {
+            this.buffer = new byte[initialBytes];
+        }
+        
+        void writeBit(boolean bit) {
+            writeBits(bit ? 1 : 0, 1);
+        }
+        
+        /** Writes the low {@code count} bits of {@code value}, most significant first. */
+        void writeBits(long value, int count) {
+            for (int i = count - 1; i >= 0; i--) {
+                int byteIndex = (int) (bitPosition >>> 3);
+                if (byteIndex == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                if (((value >>> i) & 1) != 0) {
+                    buffer[byteIndex] |= (byte) (0x80 >>> (bitPosition & 7));
+                }
+                bitPosition++;
+            }
+        }
+        
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, (int) ((bitPosition + 7) >>> 3));
+        }
+    }
+    
+    private static final class BitReader {
+        private final byte[] buffer;
+        private long bitPosition;
+        
+        BitReader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+        
+        boolean readBit() {
+            return readBits(1) != 0;
+        }
+        
+        long readBits(int count) {
+            long value = 0;
+            for (int i = 0; i < count; i++) {
+                int bit = (buffer[(int) (bitPosition >>> 3)] >>> (7 - (bitPosition & 7))) & 1;
+                value = (value << 1) | bit;
+                bitPosition++;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.EggTart.dyst.EggTart.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * A sorted run of readings held in two primitive arrays rather than one
+ * object per point.
+ */
+public final class SeriesPoints {
+    
+    private long[] times;
+    private double[] values;
+    private int size;
+    
+    public SeriesPoints(int capacity) {
+        this.times = new long[Math.max(capacity, 4)];
+        this.values = new double[Math.max(capacity, 4)];
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public long time(int index) {
+        return times[index];
+    }
+    
+    public double value(int index) {
+        return values[index];
+    }
+    
+    /**
+     * Adds a reading, keeping the run sorted; a reading at an existing
+     * timestamp replaces the old value.
+     */
+    public void put(long time, double value) {
+        if (size == 0 || time > times[size - 1]) {
+            append(time, value);
+            return;
+        }
+        
+        int index = Arrays.binarySearch(times, 0, size, time);
+        if (index >= 0) {
+            values[index] = value;
+            return;
+        }
+        
+        int insertAt = -index - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(times, insertAt, times, insertAt + 1, size - insertAt);
+        System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+        times[insertAt] = time;
+        values[insertAt] = value;
+        size++;
+    }
+    
+    /** Readings {@code [from, to)} as a run of their own. */
+    public SeriesPoints slice(int from, int to) {
+        SeriesPoints slice = new SeriesPoints(to - from);
+        System.arraycopy(times, from, slice.times, 0, to - from);
+        System.arraycopy(values, from, slice.values, 0, to - from);
+        slice.size = to - from;
+        return slice;
+    }
+    
+    void append(long time, double value) {
+        ensureCapacity(size + 1);
+        times[size] = time;
+        values[size] = value;
+        size++;
+    }
+    
+    private void ensureCapacity(int capacity) {
+        if (capacity > times.length) {
+            int grown = Math.max(capacity, times.length * 2);
+            times = Arrays.copyOf(times, grown);
+            values = Arrays.copyOf(values, grown);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.EggTart.dyst.EggTart.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Appends kept spans as JSON lines to {@code spans-<date>.jsonl}, one file
+ * per day, so traces can be inspected without running a collector.
+ */
+@Slf4j
+public class FileSpanExporter implements SpanExporter {
+    
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private LocalDate currentDay;
+    private BufferedWriter writer;
+    
+    public FileSpanExporter(ObjectMapper objectMapper, String directory) {
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(directory);
+    }
+    
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            BufferedWriter out = writerFor(LocalDate.now());
+            for (SpanData span : spans) {
+                out.write(objectMapper.writeValueAsString(RecordedSpan.from(span)));
+                out.newLine();
+            }
+            out.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException ex) {
+            log.warn("Could not write {} spans to {}", spans.size(), directory, ex);
+            return CompletableResultCode.ofFailure();
+        }
+    }
+    
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+    
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        try {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException ex) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+    
+    private BufferedWriter writerFor(LocalDate day) throws IOException {
+        if (writer != null && day.equals(currentDay)) {
+            return writer;
+        }
+        if (writer != null) {
+            writer.close();
+        }
+        Files.createDirectories(directory);
+        writer = Files.newBufferedWriter(directory.resolve("spans-" + day + ".jsonl"), StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        currentDay = day;
+        return writer;
+    }
+}
@@ -0,0 +1,44 @@
+package com.EggTart.dyst.EggTart.tracing;
+
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Exported form of a span, written to the trace files and returned by the
+ * traces endpoint.
+ */
+public record RecordedSpan(
+    String traceId,
+    String spanId,
+    String parentSpanId,
+    String name,
+    String kind,
+    Instant start,
+    double durationMs,
+    boolean error,
+    String statusMessage,
+    Map<String, String> attributes
+) {
+    
+    public static RecordedSpan from(SpanData span) {
+        Map<String, String> attributes = new TreeMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), String.valueOf(value)));
+        String statusMessage = span.getStatus().getDescription();
+        return new RecordedSpan(
+            span.getTraceId(),
+            span.getSpanId(),
+            span.getParentSpanContext().isValid() ? span.getParentSpanId() : null,
+            span.getName(),
+            span.getKind().name(),
+            Instant.ofEpochSecond(0, span.getStartEpochNanos()),
+            (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000_000.0,
+            span.getStatus().getStatusCode() == StatusCode.ERROR,
+            statusMessage != null && !statusMessage.isEmpty() ? statusMessage : null,
+            attributes
+        );
+    }
+}
@@ -0,0 +1,76 @@
+package com.EggTart.dyst.EggTart.tracing;
+
+import com.EggTart.dyst.EggTart.warmup.WarmupRunner;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Wraps a method call in a child span of the current one, named
+ * {@code Type.method}. Failures mark the span as an error, which makes the
+ * tail sampler keep the trace. Calls made for a warm-up request, which has
+ * no server span, are not traced.
+ */
+class SpanInterceptor implements MethodInterceptor {
+    
+    private final ObjectProvider<Tracer> tracerProvider;
+    private final String component;
+    private volatile Tracer tracer;
+    
+    SpanInterceptor(ObjectProvider<Tracer> tracerProvider, String component) {
+        this.tracerProvider = tracerProvider;
+        this.component = component;
+    }
+    
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (inWarmupRequest()) {
+            return invocation.proceed();
+        }
+        Tracer tracer = tracer();
+        Span span = tracer.nextSpan()
+            .name(typeName(invocation) + "." + invocation.getMethod().getName())
+            .tag("component", component)
+            .start();
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            return invocation.proceed();
+        } catch (Throwable ex) {
+            span.error(ex);
+            throw ex;
+        } finally {
+            span.end();
+        }
+    }
+    
+    private Tracer tracer() {
+        // Resolved on first use: the advisor is created before the tracing beans
+        Tracer current = tracer;
+        if (current == null) {
+            current = tracerProvider.getIfAvailable(() -> Tracer.NOOP);
+            tracer = current;
+        }
+        return current;
+    }
+    
+    private static boolean inWarmupRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+            && WarmupRunner.isSynthetic(attributes.getRequest());
+    }
+    
+    private static String typeName(MethodInvocation invocation) {
+        // Spring Data proxies list the repository interface first
+        if (invocation.getThis() instanceof Advised advised && advised.getProxiedInterfaces().length > 0) {
+            return advised.getProxiedInterfaces()[0].getSimpleName();
+        }
+        Object target = invocation.getThis();
+        return target != null
+            ? ClassUtils.getUserClass(target).getSimpleName()
+            : invocation.getMethod().getDeclaringClass().getSimpleName();
+    }
+}
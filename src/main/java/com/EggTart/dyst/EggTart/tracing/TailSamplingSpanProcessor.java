@@ -0,0 +1,169 @@
+package com.EggTart.dyst.EggTart.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tail-based sampling: buffers the spans of each trace until its local root
+ * ends, then keeps the whole trace if the root was slow or any span failed,
+ * and only a small random share of the rest. Every span has to be recorded
+ * for this to work, so head sampling is left at 100%.
+ *
+ * Kept spans are handed to the delegate, normally a batch processor in front
+ * of the file and in-memory exporters.
+ */
+@Slf4j
+public class TailSamplingSpanProcessor implements SpanProcessor {
+    
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+    private static final long SWEEP_INTERVAL_NANOS = 10_000_000_000L;
+    
+    private final SpanProcessor delegate;
+    private final TracingProperties properties;
+    private final Map<String, PendingTrace> pending = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime() + SWEEP_INTERVAL_NANOS);
+    private final Counter keptSlow;
+    private final Counter keptError;
+    private final Counter keptSampled;
+    private final Counter dropped;
+    private final Counter overflow;
+    
+    public TailSamplingSpanProcessor(SpanProcessor delegate, TracingProperties properties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.keptSlow = meterRegistry.counter("eggtart.tracing.traces", "decision", "slow");
+        this.keptError = meterRegistry.counter("eggtart.tracing.traces", "decision", "error");
+        this.keptSampled = meterRegistry.counter("eggtart.tracing.traces", "decision", "sampled");
+        this.dropped = meterRegistry.counter("eggtart.tracing.traces", "decision", "dropped");
+        this.overflow = meterRegistry.counter("eggtart.tracing.spans.overflow");
+        meterRegistry.gaugeMapSize("eggtart.tracing.pending", List.of(), pending);
+    }
+    
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+    
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+    
+    @Override
+    public void onEnd(ReadableSpan span) {
+        String traceId = span.getSpanContext().getTraceId();
+        SpanContext parent = span.getParentSpanContext();
+        boolean localRoot = !parent.isValid() || parent.isRemote();
+        
+        PendingTrace trace;
+        if (localRoot) {
+            trace = pending.remove(traceId);
+        } else {
+            trace = pending.get(traceId);
+            if (trace == null) {
+                if (pending.size() >= properties.getMaxPendingTraces()) {
+                    overflow.increment();
+                    return;
+                }
+                trace = pending.computeIfAbsent(traceId, id -> new PendingTrace());
+            }
+            if (!trace.add(span, properties.getMaxSpansPerTrace())) {
+                overflow.increment();
+            }
+        }
+        
+        if (localRoot) {
+            complete(span, trace);
+        }
+        sweepIfDue();
+    }
+    
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+    
+    @Override
+    public CompletableResultCode forceFlush() {
+        return delegate.forceFlush();
+    }
+    
+    @Override
+    public CompletableResultCode shutdown() {
+        return delegate.shutdown();
+    }
+    
+    private void complete(ReadableSpan root, PendingTrace trace) {
+        List<ReadableSpan> children = trace != null ? trace.spans() : List.of();
+        boolean slow = root.getLatencyNanos() >= properties.getSlowThreshold().toNanos();
+        boolean error = isError(root) || children.stream().anyMatch(TailSamplingSpanProcessor::isError);
+        
+        if (slow) {
+            keptSlow.increment();
+        } else if (error) {
+            keptError.increment();
+        } else if (ThreadLocalRandom.current().nextDouble() < properties.getSampleRate()) {
+            keptSampled.increment();
+        } else {
+            dropped.increment();
+            return;
+        }
+        
+        children.forEach(delegate::onEnd);
+        delegate.onEnd(root);
+    }
+    
+    private static boolean isError(ReadableSpan span) {
+        return span.toSpanData().getStatus().getStatusCode() == StatusCode.ERROR
+            || "SERVER_ERROR".equals(span.getAttribute(OUTCOME));
+    }
+    
+    private void sweepIfDue() {
+        long now = System.nanoTime();
+        long due = nextSweep.get();
+        if (now - due < 0 || !nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) {
+            return;
+        }
+        long timeout = properties.getPendingTimeout().toNanos();
+        int before = pending.size();
+        pending.values().removeIf(trace -> now - trace.createdAt > timeout);
+        int evicted = before - pending.size();
+        if (evicted > 0) {
+            dropped.increment(evicted);
+            log.debug("Discarded {} traces whose root span never ended", evicted);
+        }
+    }
+    
+    private static class PendingTrace {
+        
+        private final long createdAt = System.nanoTime();
+        private final List<ReadableSpan> spans = new ArrayList<>();
+        
+        synchronized boolean add(ReadableSpan span, int limit) {
+            if (spans.size() >= limit) {
+                return false;
+            }
+            spans.add(span);
+            return true;
+        }
+        
+        synchronized List<ReadableSpan> spans() {
+            return List.copyOf(spans);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.EggTart.dyst.EggTart.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The most recently kept traces, held in memory. Backs the {@code traces}
+ * actuator endpoint and lets tests assert on spans without reading files.
+ *
+ * Deliberately not a {@link SpanExporter} bean itself: Spring Boot sends
+ * every span to those, bypassing the tail sampler.
+ */
+public class TraceStore {
+    
+    private final Map<String, List<RecordedSpan>> traces;
+    
+    public TraceStore(int capacity) {
+        this.traces = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<RecordedSpan>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+    
+    public synchronized List<TraceSummary> recent() {
+        List<TraceSummary> summaries = new ArrayList<>(traces.size());
+        traces.forEach((traceId, spans) -> summaries.add(TraceSummary.of(traceId, spans)));
+        summaries.sort(Comparator.comparing(TraceSummary::start).reversed());
+        return summaries;
+    }
+    
+    public synchronized List<RecordedSpan> trace(String traceId) {
+        List<RecordedSpan> spans = traces.get(traceId);
+        if (spans == null) {
+            return List.of();
+        }
+        return spans.stream()
+            .sorted(Comparator.comparing(RecordedSpan::start))
+            .toList();
+    }
+    
+    public synchronized void clear() {
+        traces.clear();
+    }
+    
+    public SpanExporter exporter() {
+        return new SpanExporter() {
+            @Override
+            public CompletableResultCode export(Collection<SpanData> spans) {
+                record(spans);
+                return CompletableResultCode.ofSuccess();
+            }
+            
+            @Override
+            public CompletableResultCode flush() {
+                return CompletableResultCode.ofSuccess();
+            }
+            
+            @Override
+            public CompletableResultCode shutdown() {
+                return CompletableResultCode.ofSuccess();
+            }
+        };
+    }
+    
+    private synchronized void record(Collection<SpanData> spans) {
+        for (SpanData span : spans) {
+            traces.computeIfAbsent(span.getTraceId(), id -> new ArrayList<>()).add(RecordedSpan.from(span));
+        }
+    }
+    
+    /** One kept trace; the root is the span whose parent is not part of the trace. */
+    public record TraceSummary(String traceId, String root, Instant start, double durationMs, int spans, boolean error) {
+        
+        static TraceSummary of(String traceId, List<RecordedSpan> spans) {
+            List<String> ids = spans.stream().map(RecordedSpan::spanId).toList();
+            RecordedSpan root = spans.stream()
+                .filter(span -> span.parentSpanId() == null || !ids.contains(span.parentSpanId()))
+                .max(Comparator.comparingDouble(RecordedSpan::durationMs))
+                .orElse(spans.get(0));
+            boolean error = spans.stream().anyMatch(RecordedSpan::error);
+            return new TraceSummary(traceId, root.name(), root.start(), root.durationMs(), spans.size(), error);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.EggTart.dyst.EggTart.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/traces} lists the traces kept by the tail sampler,
+ * newest first; {@code GET /actuator/traces/{traceId}} returns their spans.
+ */
+@Endpoint(id = "traces")
+@RequiredArgsConstructor
+public class TracesEndpoint {
+    
+    private final TraceStore traceStore;
+    
+    @ReadOperation
+    public List<TraceStore.TraceSummary> traces() {
+        return traceStore.recent();
+    }
+    
+    @ReadOperation
+    public WebEndpointResponse<List<RecordedSpan>> trace(@Selector String traceId) {
+        List<RecordedSpan> spans = traceStore.trace(traceId);
+        if (spans.isEmpty()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(spans);
+    }
+    
+    @DeleteOperation
+    public void clear() {
+        traceStore.clear();
+    }
+}
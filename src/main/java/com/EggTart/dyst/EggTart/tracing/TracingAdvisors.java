@@ -0,0 +1,71 @@
+package com.EggTart.dyst.EggTart.tracing;
+
+import com.EggTart.dyst.EggTart.service.TaskService;
+import com.EggTart.dyst.EggTart.service.TaskTransitions;
+import io.micrometer.tracing.Tracer;
+import org.reactivestreams.Publisher;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Advisors that attach span interceptors, registered as infrastructure beans
+ * like the JFR ones. They run outside the transaction advisor, so a service
+ * span also covers the commit and the inserts flushed by it.
+ */
+public final class TracingAdvisors {
+    
+    private TracingAdvisors() {
+    }
+    
+    /** Request handler methods of the REST controllers. */
+    public static Advisor controllers(ObjectProvider<Tracer> tracerProvider) {
+        return advisor(new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return AnnotatedElementUtils.hasAnnotation(targetClass, RestController.class)
+                    && AnnotatedElementUtils.hasAnnotation(method, RequestMapping.class);
+            }
+        }, new SpanInterceptor(tracerProvider, "controller"));
+    }
+    
+    /** Public methods of {@link TaskService} and the other {@link TaskTransitions} implementations. */
+    public static Advisor taskServices(ObjectProvider<Tracer> tracerProvider) {
+        return advisor(new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return (TaskService.class.isAssignableFrom(targetClass) || TaskTransitions.class.isAssignableFrom(targetClass))
+                    && Modifier.isPublic(method.getModifiers())
+                    && method.getDeclaringClass() != Object.class;
+            }
+        }, new SpanInterceptor(tracerProvider, "service"));
+    }
+    
+    /** Every method of every blocking Spring Data repository. */
+    public static Advisor repositories(ObjectProvider<Tracer> tracerProvider) {
+        return advisor(new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                // Reactive repositories return before any work is done
+                return Repository.class.isAssignableFrom(targetClass)
+                    && method.getDeclaringClass() != Object.class
+                    && !Publisher.class.isAssignableFrom(method.getReturnType());
+            }
+        }, new SpanInterceptor(tracerProvider, "repository"));
+    }
+    
+    private static Advisor advisor(StaticMethodMatcherPointcut pointcut, SpanInterceptor interceptor) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, interceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
@@ -0,0 +1,48 @@
+package com.EggTart.dyst.EggTart.tracing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "eggtart.tracing")
+public class TracingProperties {
+    
+    private boolean enabled = true;
+    
+    /** Traces whose local root takes at least this long are always kept. */
+    private Duration slowThreshold = Duration.ofMillis(500);
+    
+    /** Share of the remaining fast, successful traces kept as a baseline. */
+    private double sampleRate = 0.01;
+    
+    /** Traces buffered while waiting for their root span; spans of further traces are dropped. */
+    private int maxPendingTraces = 10_000;
+    
+    /** Spans kept per trace; the rest of a very large trace is dropped. */
+    private int maxSpansPerTrace = 500;
+    
+    /** Buffered traces whose root never ends here, e.g. late async spans, are discarded after this. */
+    private Duration pendingTimeout = Duration.ofMinutes(1);
+    
+    private File file = new File();
+    
+    private Memory memory = new Memory();
+    
+    @Data
+    public static class File {
+        
+        private boolean enabled = true;
+        
+        /** Kept spans are appended to one JSON-lines file per day. */
+        private String directory = "data/traces";
+    }
+    
+    @Data
+    public static class Memory {
+        
+        /** Most recent kept traces served by the traces actuator endpoint. */
+        private int capacity = 200;
+    }
+}
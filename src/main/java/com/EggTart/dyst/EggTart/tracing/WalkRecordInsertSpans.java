@@ -0,0 +1,80 @@
+package com.EggTart.dyst.EggTart.tracing;
+
+import com.EggTart.dyst.EggTart.model.entity.WalkRecord;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PreInsertEvent;
+import org.hibernate.event.spi.PreInsertEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Span around the SQL insert of each walk record. Walk record ids are
+ * assigned, so the insert only runs when the session flushes, usually at
+ * commit, and the repository {@code save} span does not contain it.
+ *
+ * Hibernate fires the pre and post insert events right around the statement
+ * as long as JDBC batching is off, which it is here. A failed insert gets no
+ * post event, so every span is also ended, as an error, once the transaction
+ * rolls back.
+ */
+public class WalkRecordInsertSpans implements PreInsertEventListener, PostInsertEventListener {
+    
+    private final Map<Object, Span> open = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final Tracer tracer;
+    
+    public WalkRecordInsertSpans(Tracer tracer) {
+        this.tracer = tracer;
+    }
+    
+    @Override
+    public boolean onPreInsert(PreInsertEvent event) {
+        if (event.getEntity() instanceof WalkRecord record) {
+            Span span = tracer.nextSpan()
+                .name("WalkRecord insert")
+                .tag("component", "database")
+                .tag("db.operation", "INSERT")
+                .tag("db.table", "walk_records")
+                .tag("dog.id", String.valueOf(record.getDogId()))
+                .start();
+            Span previous = open.put(record, span);
+            if (previous != null) {
+                failed(previous);
+            }
+            event.getSession().getActionQueue().registerProcess((success, session) -> {
+                Span unfinished = open.remove(record);
+                if (unfinished != null && success) {
+                    unfinished.end();
+                } else if (unfinished != null) {
+                    failed(unfinished);
+                }
+            });
+        }
+        return false;
+    }
+    
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof WalkRecord) {
+            Span span = open.remove(event.getEntity());
+            if (span != null) {
+                span.end();
+            }
+        }
+    }
+    
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+    
+    private static void failed(Span span) {
+        span.error(new IllegalStateException("Walk record insert did not complete"));
+        span.end();
+    }
+}
@@ -0,0 +1,27 @@
+package com.EggTart.dyst.EggTart.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "eggtart.warmup")
+public class WarmupProperties {
+    
+    private boolean enabled = true;
+    
+    /** Upper bound on the whole warm-up; the instance goes ready once it is spent. */
+    private Duration maxDuration = Duration.ofSeconds(60);
+    
+    /** How long to wait for each connection pool to fill to its minimum idle size. */
+    private Duration poolFillTimeout = Duration.ofSeconds(10);
+    
+    /** Times each repository query is run per shard. */
+    private int queryRounds = 200;
+    
+    /** Synthetic API requests, spread over the endpoints below. */
+    private int requests = 2000;
+    
+    private int threads = 4;
+}
@@ -0,0 +1,288 @@
+package com.EggTart.dyst.EggTart.warmup;
+
+import com.EggTart.dyst.EggTart.model.entity.DogProfile;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.EggTart.dyst.EggTart.repository.DogRepository;
+import com.EggTart.dyst.EggTart.repository.TaskInstanceRepository;
+import com.EggTart.dyst.EggTart.repository.TaskTemplateRepository;
+import com.EggTart.dyst.EggTart.search.WalkNoteIndex;
+import com.EggTart.dyst.EggTart.sharding.ShardContext;
+import com.EggTart.dyst.EggTart.stats.TaskCounterReconciler;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warms a freshly started instance up before it reports ready.
+ *
+ * Spring Boot only switches readiness to ACCEPTING_TRAFFIC once every
+ * application runner has finished, and this one runs last; it also keeps
+ * the readiness health group OUT_OF_SERVICE until it is done. In order, it
+ * fills the connection pools, runs the task and template queries so their
+ * plans are cached, preloads the task counters and the walk note index, and
+ * sends synthetic GETs through the real HTTP stack so filters, controllers
+ * and Jackson are compiled before users arrive. A failure is logged and the
+ * instance goes ready cold rather than never.
+ *
+ * The synthetic requests carry {@link #HEADER} with a value only this
+ * process knows, so load shedding, request logging and tracing can leave
+ * them out without letting clients opt out of them.
+ */
+@Component("warmup")
+@EnableConfigurationProperties(WarmupProperties.class)
+@Order(Ordered.LOWEST_PRECEDENCE)
+@Slf4j
+public class WarmupRunner implements ApplicationRunner, HealthIndicator {
+    
+    public static final String HEADER = "X-EggTart-Warmup";
+    
+    private static final String TOKEN = UUID.randomUUID().toString();
+    
+    // Matches no rows; the queries only need to be planned and executed
+    private static final long PROBE_DOG_ID = -1L;
+    
+    private final WarmupProperties properties;
+    private final DataSource dataSource;
+    private final TaskInstanceRepository taskInstanceRepository;
+    private final TaskTemplateRepository taskTemplateRepository;
+    private final DogRepository dogRepository;
+    private final TaskCounterReconciler taskCounterReconciler;
+    private final WalkNoteIndex walkNoteIndex;
+    private final Environment environment;
+    
+    private volatile boolean done;
+    private volatile long durationNanos;
+    private volatile long coldP99Nanos;
+    private volatile long warmP99Nanos;
+    
+    public WarmupRunner(WarmupProperties properties,
+                        DataSource dataSource,
+                        TaskInstanceRepository taskInstanceRepository,
+                        TaskTemplateRepository taskTemplateRepository,
+                        DogRepository dogRepository,
+                        TaskCounterReconciler taskCounterReconciler,
+                        WalkNoteIndex walkNoteIndex,
+                        Environment environment,
+                        MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.dataSource = dataSource;
+        this.taskInstanceRepository = taskInstanceRepository;
+        this.taskTemplateRepository = taskTemplateRepository;
+        this.dogRepository = dogRepository;
+        this.taskCounterReconciler = taskCounterReconciler;
+        this.walkNoteIndex = walkNoteIndex;
+        this.environment = environment;
+        
+        TimeGauge.builder("eggtart.warmup.duration", this, TimeUnit.NANOSECONDS, warmup -> warmup.durationNanos)
+            .register(meterRegistry);
+        TimeGauge.builder("eggtart.warmup.latency.p99", this, TimeUnit.NANOSECONDS, warmup -> warmup.coldP99Nanos)
+            .tag("phase", "cold")
+            .register(meterRegistry);
+        TimeGauge.builder("eggtart.warmup.latency.p99", this, TimeUnit.NANOSECONDS, warmup -> warmup.warmP99Nanos)
+            .tag("phase", "warm")
+            .register(meterRegistry);
+    }
+    
+    /** Whether the request is one of the synthetic GETs sent while warming up. */
+    public static boolean isSynthetic(HttpServletRequest request) {
+        return TOKEN.equals(request.getHeader(HEADER));
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            done = true;
+            return;
+        }
+        
+        long started = System.nanoTime();
+        long deadline = started + properties.getMaxDuration().toNanos();
+        try {
+            fillConnectionPools(deadline);
+            prepareQueries(deadline);
+            preloadCaches();
+            exerciseApi(deadline);
+        } catch (RuntimeException ex) {
+            log.warn("Warm-up failed, going ready without it", ex);
+        } finally {
+            durationNanos = System.nanoTime() - started;
+            done = true;
+        }
+        
+        log.info("Warm-up finished in {} ms, synthetic p99 {} ms cold and {} ms warm",
+            durationNanos / 1_000_000, coldP99Nanos / 1_000_000, warmP99Nanos / 1_000_000);
+    }
+    
+    @Override
+    public Health health() {
+        if (!done) {
+            return Health.outOfService().withDetail("phase", "warming up").build();
+        }
+        return Health.up()
+            .withDetail("durationMs", durationNanos / 1_000_000)
+            .withDetail("warmP99Ms", warmP99Nanos / 1_000_000)
+            .build();
+    }
+    
+    /**
+     * Opens a connection in every Hikari pool behind the data source (shards
+     * and replicas included) and waits for each to reach its minimum idle
+     * size, instead of letting the first requests pay for the handshakes.
+     */
+    private void fillConnectionPools(long deadline) {
+        Set<HikariDataSource> pools = Collections.newSetFromMap(new IdentityHashMap<>());
+        collectPools(dataSource, pools);
+        long fillDeadline = Math.min(deadline, System.nanoTime() + properties.getPoolFillTimeout().toNanos());
+        
+        for (HikariDataSource pool : pools) {
+            try (Connection connection = pool.getConnection()) {
+                connection.isValid(1);
+            } catch (SQLException ex) {
+                log.warn("Could not open a connection in pool {}", pool.getPoolName(), ex);
+                continue;
+            }
+            
+            HikariPoolMXBean stats = pool.getHikariPoolMXBean();
+            while (stats != null && stats.getTotalConnections() < pool.getMinimumIdle()
+                    && System.nanoTime() < fillDeadline) {
+                pause(20);
+            }
+            log.debug("Pool {} warmed with {} connections", pool.getPoolName(),
+                stats != null ? stats.getTotalConnections() : 0);
+        }
+    }
+    
+    private static void collectPools(DataSource candidate, Set<HikariDataSource> pools) {
+        if (candidate instanceof HikariDataSource hikari) {
+            pools.add(hikari);
+        } else if (candidate instanceof AbstractRoutingDataSource routing) {
+            routing.getResolvedDataSources().values().forEach(target -> collectPools(target, pools));
+        } else if (candidate instanceof DelegatingDataSource delegating && delegating.getTargetDataSource() != null) {
+            collectPools(delegating.getTargetDataSource(), pools);
+        }
+    }
+    
+    private void prepareQueries(long deadline) {
+        LocalDateTime start = LocalDate.now().atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        List<Long> probeDogs = List.of(PROBE_DOG_ID);
+        
+        ShardContext.forEachShard(() -> {
+            for (int round = 0; round < properties.getQueryRounds() && System.nanoTime() < deadline; round++) {
+                taskInstanceRepository.findById(PROBE_DOG_ID);
+                taskInstanceRepository.findByDogIdAndScheduledTimeBetween(PROBE_DOG_ID, start, end);
+                taskInstanceRepository.findByDogIdAndScheduledTimeAfterAndStatus(PROBE_DOG_ID, start, TaskStatus.PENDING);
+                taskInstanceRepository.findChangedSince(PROBE_DOG_ID, start, 0L, start);
+                taskInstanceRepository.findScheduledSlots(probeDogs, start, end);
+                taskTemplateRepository.findByDogIdOrderByDefaultTime(PROBE_DOG_ID);
+                taskTemplateRepository.findByDogIdAndTypeOrderByDefaultTime(PROBE_DOG_ID, TaskType.WALK);
+                taskTemplateRepository.findChangedSince(PROBE_DOG_ID, 0L, start);
+            }
+        });
+    }
+    
+    private void preloadCaches() {
+        taskCounterReconciler.reconcile();
+        walkNoteIndex.rebuild();
+    }
+    
+    private void exerciseApi(long deadline) {
+        String port = environment.getProperty("local.server.port");
+        if (port == null) {
+            log.debug("No local server port, skipping synthetic requests");
+            return;
+        }
+        
+        RestClient client = RestClient.builder()
+            .baseUrl("http://localhost:" + port)
+            .defaultHeader(HEADER, TOKEN)
+            .build();
+        long dogId = dogRepository.findFirstByOrderByIdAsc().map(DogProfile::getId).orElse(1L);
+        List<String> paths = List.of(
+            "/api/tasks?dogId=" + dogId,
+            "/api/dogs/" + dogId,
+            "/api/dogs/" + dogId + "/templates",
+            "/api/dogs/" + dogId + "/calendar",
+            "/api/stats/tasks"
+        );
+        
+        long[] latencies = new long[properties.getRequests()];
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(properties.getThreads());
+        try {
+            for (int worker = 0; worker < properties.getThreads(); worker++) {
+                workers.execute(() -> {
+                    int index;
+                    while ((index = next.getAndIncrement()) < latencies.length && System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        try {
+                            client.get().uri(paths.get(index % paths.size())).exchange((request, response) -> {
+                                response.getBody().readAllBytes();
+                                return response.getStatusCode();
+                            });
+                            latencies[index] = System.nanoTime() - sent;
+                        } catch (RestClientException ex) {
+                            log.debug("Synthetic request failed: {}", ex.getMessage());
+                        }
+                    }
+                });
+            }
+            workers.shutdown();
+            workers.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            workers.shutdownNow();
+        }
+        
+        long[] samples = Arrays.stream(latencies).filter(latency -> latency > 0).toArray();
+        if (samples.length == 0) {
+            return;
+        }
+        // The first and last tenth of the requests, in the order they were sent
+        int window = Math.max(1, samples.length / 10);
+        coldP99Nanos = p99(Arrays.copyOfRange(samples, 0, window));
+        warmP99Nanos = p99(Arrays.copyOfRange(samples, samples.length - window, samples.length));
+    }
+    
+    private static long p99(long[] latencies) {
+        Arrays.sort(latencies);
+        return latencies[(int) Math.ceil(latencies.length * 0.99) - 1];
+    }
+    
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.EggTart.dyst.EggTart.writebehind;
+
+import com.EggTart.dyst.EggTart.dto.request.WalkRecordDto;
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.service.TaskStateRules;
+
+import java.time.LocalDateTime;
+
+/**
+ * After-image of a task following one transition, plus the walk record
+ * submitted with it. Replaying an image twice leaves the same row, so
+ * recovery never has to know which entries already reached the database.
+ *
+ * The entry also records which transition produced the image, so that it
+ * can be applied again, as a transition, to a row that was changed outside
+ * the store. Entries written before the kind was recorded have none.
+ */
+record JournalEntry(
+    long sequence,
+    long taskId,
+    TaskStatus status,
+    LocalDateTime scheduledTime,
+    LocalDateTime startTime,
+    LocalDateTime endTime,
+    LocalDateTime countdownStartTime,
+    WalkRecordDto walkRecord,
+    Kind kind,
+    Integer delayMinutes
+) {
+    
+    enum Kind {
+        START, COMPLETE, DELAY, SKIP
+    }
+    
+    static JournalEntry of(TaskInstance task, WalkRecordDto walkRecord, Kind kind, Integer delayMinutes) {
+        return new JournalEntry(0, task.getId(), task.getStatus(), task.getScheduledTime(),
+            task.getStartTime(), task.getEndTime(), task.getCountdownStartTime(), walkRecord, kind, delayMinutes);
+    }
+    
+    JournalEntry withSequence(long newSequence) {
+        return new JournalEntry(newSequence, taskId, status, scheduledTime,
+            startTime, endTime, countdownStartTime, walkRecord, kind, delayMinutes);
+    }
+    
+    void applyTo(TaskInstance task) {
+        task.setStatus(status);
+        task.setScheduledTime(scheduledTime);
+        task.setStartTime(startTime);
+        task.setEndTime(endTime);
+        task.setCountdownStartTime(countdownStartTime);
+    }
+    
+    /**
+     * Runs the transition again on the given state, at the time it was first
+     * accepted. Throws {@link com.EggTart.dyst.EggTart.exception.InvalidTaskStateException}
+     * when the state no longer allows it.
+     */
+    void reapplyTo(TaskInstance task) {
+        if (kind == null) {
+            applyTo(task);
+            return;
+        }
+        switch (kind) {
+            case START -> TaskStateRules.start(task, startTime);
+            case COMPLETE -> TaskStateRules.complete(task, endTime);
+            case DELAY -> TaskStateRules.delay(task, delayMinutes);
+            case SKIP -> TaskStateRules.skip(task, endTime);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.EggTart.dyst.EggTart.writebehind;
+
+import com.EggTart.dyst.EggTart.dto.request.WalkRecordDto;
+import com.EggTart.dyst.EggTart.model.enums.Mood;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, fsynced log of task transitions awaiting their database flush.
+ *
+ * Appends are written under one lock and made durable with group commit:
+ * whichever caller reaches {@code force} first syncs everything written so
+ * far, and callers whose bytes it covered return without forcing again.
+ * Each record is length-prefixed and checksummed, so a torn tail left by a
+ * crash is detected and cut off on open. A checkpoint file holds the highest
+ * sequence below which everything has been flushed; once nothing is
+ * outstanding the log is truncated.
+ */
+@Slf4j
+class TransitionJournal implements Closeable {
+    
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    
+    private final Path checkpointFile;
+    private final FileChannel channel;
+    private final Object appendLock = new Object();
+    private final Object syncLock = new Object();
+    private final ConcurrentSkipListSet<Long> unflushed = new ConcurrentSkipListSet<>();
+    private final List<JournalEntry> recovered;
+    
+    private long nextSequence;
+    private long writtenPosition;
+    private volatile long syncedPosition;
+    private volatile boolean failed;
+    
+    TransitionJournal(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.checkpointFile = directory.resolve("checkpoint");
+        long checkpoint = readCheckpoint();
+        
+        this.channel = FileChannel.open(directory.resolve("transitions.log"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.recovered = new ArrayList<>();
+        long validEnd = readValidEntries(checkpoint);
+        if (validEnd < channel.size()) {
+            log.warn("Cutting {} bytes of torn records from the transition journal", channel.size() - validEnd);
+            channel.truncate(validEnd);
+        }
+        channel.position(validEnd);
+        
+        this.writtenPosition = validEnd;
+        this.syncedPosition = validEnd;
+        this.nextSequence = Math.max(checkpoint,
+            recovered.isEmpty() ? 0 : recovered.get(recovered.size() - 1).sequence()) + 1;
+    }
+    
+    /** Entries written after the last checkpoint, in append order. */
+    List<JournalEntry> recoveredEntries() {
+        return recovered;
+    }
+    
+    /**
+     * Appends an entry and returns once it is on stable storage. The returned
+     * copy carries the assigned sequence.
+     */
+    JournalEntry append(JournalEntry draft) {
+        if (failed) {
+            throw new IllegalStateException("Transition journal is unavailable after an I/O failure");
+        }
+        
+        JournalEntry entry;
+        long end;
+        synchronized (appendLock) {
+            entry = draft.withSequence(nextSequence++);
+            ByteBuffer record = encode(entry);
+            unflushed.add(entry.sequence());
+            try {
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+            } catch (IOException ex) {
+                failed = true;
+                unflushed.remove(entry.sequence());
+                throw new UncheckedIOException("Failed to append to the transition journal", ex);
+            }
+            writtenPosition += record.limit();
+            end = writtenPosition;
+        }
+        
+        sync(end);
+        return entry;
+    }
+    
+    /**
+     * Records that entries reached the database, advancing the checkpoint and
+     * truncating the log once nothing is outstanding.
+     */
+    void markFlushed(Collection<JournalEntry> entries) {
+        entries.forEach(entry -> unflushed.remove(entry.sequence()));
+        
+        synchronized (appendLock) {
+            boolean drained = unflushed.isEmpty();
+            long checkpoint = drained ? nextSequence - 1 : unflushed.first() - 1;
+            try {
+                writeCheckpoint(checkpoint);
+                if (drained) {
+                    // Nothing is mid-append, since every append stays unflushed until written to the database
+                    channel.truncate(0);
+                    writtenPosition = 0;
+                    syncedPosition = 0;
+                }
+            } catch (IOException ex) {
+                // Replaying after-images is idempotent, so a stale checkpoint only costs recovery time
+                log.warn("Failed to checkpoint the transition journal: {}", ex.getMessage());
+            }
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    private void sync(long end) {
+        if (syncedPosition >= end) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedPosition >= end) {
+                return;
+            }
+            long target;
+            synchronized (appendLock) {
+                target = writtenPosition;
+            }
+            try {
+                channel.force(false);
+            } catch (IOException ex) {
+                failed = true;
+                throw new UncheckedIOException("Failed to sync the transition journal", ex);
+            }
+            syncedPosition = target;
+        }
+    }
+    
+    private long readValidEntries(long checkpoint) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            channel.read(header, position);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length <= 0 || position + HEADER_BYTES + length > size) {
+                break;
+            }
+            
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            channel.read(payload, position + HEADER_BYTES);
+            if (checksum(payload.array()) != checksum) {
+                break;
+            }
+            
+            JournalEntry entry = decode(payload.array());
+            if (entry.sequence() > checkpoint) {
+                recovered.add(entry);
+            }
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+    
+    private long readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return 0;
+        }
+        return Long.parseLong(Files.readString(checkpointFile).trim());
+    }
+    
+    private void writeCheckpoint(long checkpoint) throws IOException {
+        Path temp = checkpointFile.resolveSibling("checkpoint.tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.write(ByteBuffer.wrap(Long.toString(checkpoint).getBytes(StandardCharsets.US_ASCII)));
+            out.force(true);
+        }
+        Files.move(temp, checkpointFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    private static ByteBuffer encode(JournalEntry entry) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeLong(entry.sequence());
+            out.writeLong(entry.taskId());
+            out.writeUTF(entry.status().name());
+            writeTime(out, entry.scheduledTime());
+            writeTime(out, entry.startTime());
+            writeTime(out, entry.endTime());
+            writeTime(out, entry.countdownStartTime());
+            
+            WalkRecordDto walk = entry.walkRecord();
+            out.writeBoolean(walk != null);
+            if (walk != null) {
+                writeFlag(out, walk.getPee());
+                writeFlag(out, walk.getPoo());
+                writeString(out, walk.getMood() != null ? walk.getMood().name() : null);
+                writeString(out, walk.getPhotoURL());
+                writeString(out, walk.getNotes());
+            }
+            writeString(out, entry.kind() != null ? entry.kind().name() : null);
+            out.writeInt(entry.delayMinutes() != null ? entry.delayMinutes() : Integer.MIN_VALUE);
+            
+            byte[] payload = bytes.toByteArray();
+            ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+            record.putInt(payload.length).putInt(checksum(payload)).put(payload).flip();
+            return record;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    private static JournalEntry decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        long sequence = in.readLong();
+        long taskId = in.readLong();
+        TaskStatus status = TaskStatus.valueOf(in.readUTF());
+        LocalDateTime scheduledTime = readTime(in);
+        LocalDateTime startTime = readTime(in);
+        LocalDateTime endTime = readTime(in);
+        LocalDateTime countdownStartTime = readTime(in);
+        
+        WalkRecordDto walk = null;
+        if (in.readBoolean()) {
+            Boolean pee = readFlag(in);
+            Boolean poo = readFlag(in);
+            String mood = readString(in);
+            walk = WalkRecordDto.builder()
+                .pee(pee)
+                .poo(poo)
+                .mood(mood != null ? Mood.valueOf(mood) : null)
+                .photoURL(readString(in))
+                .notes(readString(in))
+                .build();
+        }
+        
+        // Records written before the transition kind was added end here
+        JournalEntry.Kind kind = null;
+        Integer delayMinutes = null;
+        if (in.available() > 0) {
+            String name = readString(in);
+            kind = name != null ? JournalEntry.Kind.valueOf(name) : null;
+            int minutes = in.readInt();
+            delayMinutes = minutes != Integer.MIN_VALUE ? minutes : null;
+        }
+        return new JournalEntry(sequence, taskId, status, scheduledTime,
+            startTime, endTime, countdownStartTime, walk, kind, delayMinutes);
+    }
+    
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+    
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeBoolean(time != null);
+        if (time != null) {
+            out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(time.getNano());
+        }
+    }
+    
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long seconds = in.readLong();
+        return LocalDateTime.ofEpochSecond(seconds, in.readInt(), ZoneOffset.UTC);
+    }
+    
+    private static void writeFlag(DataOutputStream out, Boolean flag) throws IOException {
+        out.writeByte(flag == null ? -1 : flag ? 1 : 0);
+    }
+    
+    private static Boolean readFlag(DataInputStream in) throws IOException {
+        byte flag = in.readByte();
+        return flag < 0 ? null : flag == 1;
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,493 @@
+package com.EggTart.dyst.EggTart.writebehind;
+
+import com.EggTart.dyst.EggTart.dto.request.WalkRecordDto;
+import com.EggTart.dyst.EggTart.dto.response.TaskInstanceResponseDto;
+import com.EggTart.dyst.EggTart.event.TaskTransitionEvent;
+import com.EggTart.dyst.EggTart.event.WalkRecordCreatedEvent;
+import com.EggTart.dyst.EggTart.exception.EntityNotFoundException;
+import com.EggTart.dyst.EggTart.exception.InvalidTaskStateException;
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.entity.WalkRecord;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.EggTart.dyst.EggTart.repository.TaskInstanceRepository;
+import com.EggTart.dyst.EggTart.repository.WalkRecordRepository;
+import com.EggTart.dyst.EggTart.service.TaskService;
+import com.EggTart.dyst.EggTart.service.TaskStateRules;
+import com.EggTart.dyst.EggTart.service.TaskTransitions;
+import com.EggTart.dyst.EggTart.sharding.ShardContext;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Write-behind task transitions, enabled with
+ * {@code eggtart.write-behind.enabled=true}.
+ *
+ * Each transition is validated against the in-memory state of its task,
+ * appended to the {@link TransitionJournal} and acknowledged once the append
+ * is durable. A background flusher then writes the latest state of every
+ * touched task in grouped transactions, one per shard and batch, and
+ * publishes the usual events after commit. Tasks whose state has been
+ * flushed are dropped from memory and reloaded from the database on their
+ * next transition. On startup the journal is replayed before any transition
+ * is accepted.
+ *
+ * Task list reads still come from the database and trail an acknowledged
+ * transition by at most one flush interval. Deletions are not written
+ * behind: {@link TaskService} deletes the rows in the caller's transaction,
+ * tasks whose unflushed state rules the deletion out are kept, and
+ * transitions on the tasks being deleted are refused until the transaction
+ * completes.
+ *
+ * Slots are installed and evicted under a per-task lock, so a slot is never
+ * loaded from a row read before its predecessor's images were written. A
+ * slot remembers the change sequence of the row it was loaded from or last
+ * flushed to. If the row has moved on by flush time, something wrote it
+ * without going through this store (another instance, a job, a manual fix):
+ * the slot's acknowledged transitions are then run again, in order, on the
+ * current row instead of writing its images over it. One the row no longer
+ * allows is logged as an error and left out.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "eggtart.write-behind.enabled", havingValue = "true")
+@Slf4j
+public class WriteBehindTaskStore implements TaskTransitions, ApplicationRunner {
+    
+    private static final long RECOVERY_WAIT_SECONDS = 30;
+    private static final int INSTALL_STRIPES = 64;
+    
+    private final TaskInstanceRepository taskInstanceRepository;
+    private final TaskService taskService;
+    private final WalkRecordRepository walkRecordRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TransitionJournal journal;
+    private final long flushIntervalMs;
+    private final int maxBatchSize;
+    
+    private final ConcurrentMap<Long, TaskSlot> slots = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<Pending> pending = new ConcurrentLinkedDeque<>();
+    private final Set<Long> deleting = ConcurrentHashMap.newKeySet();
+    private final Object[] installLocks = new Object[INSTALL_STRIPES];
+    private final CountDownLatch recovered = new CountDownLatch(1);
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "write-behind-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public WriteBehindTaskStore(TaskInstanceRepository taskInstanceRepository,
+                                TaskService taskService,
+                                WalkRecordRepository walkRecordRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${eggtart.write-behind.journal-directory:data/journal}") Path journalDirectory,
+                                @Value("${eggtart.write-behind.flush-interval-ms:50}") long flushIntervalMs,
+                                @Value("${eggtart.write-behind.max-batch-size:1000}") int maxBatchSize) throws IOException {
+        this.taskInstanceRepository = taskInstanceRepository;
+        this.taskService = taskService;
+        this.walkRecordRepository = walkRecordRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.journal = new TransitionJournal(journalDirectory);
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxBatchSize = maxBatchSize;
+        for (int i = 0; i < INSTALL_STRIPES; i++) {
+            installLocks[i] = new Object();
+        }
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        List<JournalEntry> unflushed = journal.recoveredEntries();
+        if (!unflushed.isEmpty()) {
+            log.info("Replaying {} journaled task transitions", unflushed.size());
+            List<Pending> replay = unflushed.stream().map(entry -> new Pending(entry, null)).toList();
+            for (int from = 0; from < replay.size(); from += maxBatchSize) {
+                writeBatch(replay.subList(from, Math.min(from + maxBatchSize, replay.size())));
+            }
+            journal.markFlushed(unflushed);
+        }
+        
+        recovered.countDown();
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(RECOVERY_WAIT_SECONDS, TimeUnit.SECONDS);
+        flush();
+        journal.close();
+    }
+    
+    @Override
+    public Optional<TaskInstance> findTask(Long taskId) {
+        awaitRecovery();
+        try {
+            TaskSlot slot = slot(taskId);
+            synchronized (slot) {
+                return Optional.of(copyOf(slot.state));
+            }
+        } catch (EntityNotFoundException ex) {
+            return Optional.empty();
+        }
+    }
+    
+    @Override
+    public List<Long> deletePendingTasks(Collection<Long> taskIds) {
+        // The row may still say PENDING while an accepted start waits to be written
+        return delete(taskIds, state -> state.getStatus() == TaskStatus.PENDING, taskService::deletePendingTasks);
+    }
+    
+    @Override
+    public List<Long> deleteArchivedTasks(Collection<Long> taskIds) {
+        // The archive holds the rows, so a task with accepted transitions stays until they are written
+        return delete(taskIds, state -> false, taskService::deleteArchivedTasks);
+    }
+    
+    /**
+     * Deletes the tasks through {@link TaskService}, leaving out those with
+     * unflushed state that is not deletable. Transitions on the tasks are
+     * refused until the caller's transaction completes, and their slots are
+     * dropped if it commits.
+     */
+    private List<Long> delete(Collection<Long> taskIds, Predicate<TaskInstance> deletableState,
+                              Function<List<Long>, List<Long>> deleteRows) {
+        awaitRecovery();
+        List<Long> deletable = new ArrayList<>();
+        for (Long taskId : taskIds) {
+            // Claimed before the slot is checked, so a slot loaded meanwhile sees the claim
+            deleting.add(taskId);
+            TaskSlot slot = slots.get(taskId);
+            if (slot == null) {
+                deletable.add(taskId);
+                continue;
+            }
+            synchronized (slot) {
+                if (slot.evicted || deletableState.test(slot.state)) {
+                    deletable.add(taskId);
+                } else {
+                    deleting.remove(taskId);
+                }
+            }
+        }
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release(deletable, status == STATUS_COMMITTED);
+                }
+            });
+            return deleteRows.apply(deletable);
+        }
+        
+        boolean committed = false;
+        try {
+            List<Long> deleted = deleteRows.apply(deletable);
+            committed = true;
+            return deleted;
+        } finally {
+            release(deletable, committed);
+        }
+    }
+    
+    private void release(List<Long> taskIds, boolean deleted) {
+        for (Long taskId : taskIds) {
+            TaskSlot slot = slots.get(taskId);
+            if (deleted && slot != null) {
+                evict(taskId, slot);
+            }
+            deleting.remove(taskId);
+        }
+    }
+    
+    @Override
+    public TaskInstanceResponseDto startTask(Long taskId) {
+        return transition(taskId, null, JournalEntry.Kind.START, null,
+            task -> TaskStateRules.start(task, LocalDateTime.now()));
+    }
+    
+    @Override
+    public TaskInstanceResponseDto completeTask(Long taskId, WalkRecordDto walkRecordDto) {
+        return transition(taskId, walkRecordDto, JournalEntry.Kind.COMPLETE, null,
+            task -> TaskStateRules.complete(task, LocalDateTime.now()));
+    }
+    
+    @Override
+    public TaskInstanceResponseDto delayTask(Long taskId, Integer delayMinutes) {
+        return transition(taskId, null, JournalEntry.Kind.DELAY, delayMinutes,
+            task -> TaskStateRules.delay(task, delayMinutes));
+    }
+    
+    @Override
+    public TaskInstanceResponseDto skipTask(Long taskId) {
+        return transition(taskId, null, JournalEntry.Kind.SKIP, null,
+            task -> TaskStateRules.skip(task, LocalDateTime.now()));
+    }
+    
+    private TaskInstanceResponseDto transition(Long taskId, WalkRecordDto walkRecordDto, JournalEntry.Kind kind,
+                                               Integer delayMinutes, Consumer<TaskInstance> rule) {
+        awaitRecovery();
+        while (true) {
+            TaskSlot slot = slot(taskId);
+            synchronized (slot) {
+                if (slot.evicted) {
+                    continue;
+                }
+                if (deleting.contains(taskId)) {
+                    throw new InvalidTaskStateException(String.format("Task %s is being deleted", taskId));
+                }
+                
+                // Apply to a copy so a rejected transition or failed append leaves the state untouched
+                TaskInstance next = copyOf(slot.state);
+                rule.accept(next);
+                next.setUpdatedAt(LocalDateTime.now());
+                
+                WalkRecordDto walk = next.getType() == TaskType.WALK ? walkRecordDto : null;
+                JournalEntry entry = journal.append(JournalEntry.of(next, walk, kind, delayMinutes));
+                
+                slot.state = next;
+                slot.lastSequence = entry.sequence();
+                pending.add(new Pending(entry, slot));
+                return TaskInstanceResponseDto.from(next);
+            }
+        }
+    }
+    
+    private TaskSlot slot(Long taskId) {
+        TaskSlot slot = slots.get(taskId);
+        if (slot != null) {
+            return slot;
+        }
+        
+        // Evictions take the same lock after the slot's images are committed, so the row read here has them
+        synchronized (installLock(taskId)) {
+            slot = slots.get(taskId);
+            if (slot != null) {
+                return slot;
+            }
+            // Read-write template so the load goes to the primary, never to a lagging replica
+            TaskInstance loaded = ShardContext.callOnShard(ShardContext.directory().shardForId(taskId),
+                    () -> transactionTemplate.execute(status -> taskInstanceRepository.findById(taskId)))
+                .orElseThrow(() -> new EntityNotFoundException(
+                    String.format("Task not found with ID: %s", taskId)
+                ));
+            TaskSlot fresh = new TaskSlot(loaded);
+            slots.put(taskId, fresh);
+            return fresh;
+        }
+    }
+    
+    private void evict(Long taskId, TaskSlot slot) {
+        synchronized (installLock(taskId)) {
+            synchronized (slot) {
+                slot.evicted = true;
+                slots.remove(taskId, slot);
+            }
+        }
+    }
+    
+    private Object installLock(Long taskId) {
+        return installLocks[(int) (taskId ^ (taskId >>> 32)) & (INSTALL_STRIPES - 1)];
+    }
+    
+    private void awaitRecovery() {
+        try {
+            if (!recovered.await(RECOVERY_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Write-behind journal recovery has not finished");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for journal recovery", ex);
+        }
+    }
+    
+    private void flush() {
+        while (!pending.isEmpty()) {
+            List<Pending> batch = new ArrayList<>();
+            Pending entry;
+            while (batch.size() < maxBatchSize && (entry = pending.poll()) != null) {
+                batch.add(entry);
+            }
+            
+            try {
+                writeBatch(batch);
+            } catch (RuntimeException ex) {
+                log.warn("Write-behind flush of {} transitions failed, retrying: {}", batch.size(), ex.getMessage());
+                for (int i = batch.size() - 1; i >= 0; i--) {
+                    pending.addFirst(batch.get(i));
+                }
+                return;
+            }
+            
+            journal.markFlushed(batch.stream().map(Pending::entry).toList());
+            evictFlushed(batch);
+        }
+    }
+    
+    private void writeBatch(List<Pending> batch) {
+        // Later images supersede earlier ones; a walk record may come from any of them
+        Map<Integer, Map<Long, List<Pending>>> byShard = new HashMap<>();
+        Map<Long, WalkRecordDto> walks = new HashMap<>();
+        for (Pending entry : batch) {
+            if (entry.slot() != null && entry.slot().evicted) {
+                continue;
+            }
+            long taskId = entry.entry().taskId();
+            int shard = ShardContext.directory().shardForId(taskId);
+            byShard.computeIfAbsent(shard, s -> new HashMap<>())
+                .computeIfAbsent(taskId, id -> new ArrayList<>())
+                .add(entry);
+            if (entry.entry().walkRecord() != null) {
+                walks.put(taskId, entry.entry().walkRecord());
+            }
+        }
+        
+        byShard.forEach((shard, entries) -> ShardContext.callOnShard(shard, () -> {
+            List<TaskInstance> written = transactionTemplate.execute(status -> writeImages(entries, walks));
+            for (TaskInstance task : written) {
+                TaskSlot slot = entries.get(task.getId()).get(0).slot();
+                if (slot != null) {
+                    slot.flushedChangeSeq = task.getChangeSeq();
+                }
+            }
+            return null;
+        }));
+    }
+    
+    private List<TaskInstance> writeImages(Map<Long, List<Pending>> entries, Map<Long, WalkRecordDto> walks) {
+        List<TaskInstance> tasks = new ArrayList<>();
+        for (TaskInstance task : taskInstanceRepository.findAllById(entries.keySet())) {
+            List<Pending> transitions = entries.get(task.getId());
+            JournalEntry image = transitions.get(transitions.size() - 1).entry();
+            TaskSlot slot = transitions.get(0).slot();
+            TaskStatus previousStatus = task.getStatus();
+            LocalDateTime previousScheduledTime = task.getScheduledTime();
+            
+            // Replayed images have no slot: nothing can have written the row before recovery finished
+            if (slot != null && (slot.rebased || !Objects.equals(slot.flushedChangeSeq, task.getChangeSeq()))) {
+                // Later images of the slot were built on the same outdated state, so they are re-run too
+                slot.rebased = true;
+                reapply(task, transitions);
+            } else {
+                image.applyTo(task);
+            }
+            
+            WalkRecordDto walk = walks.get(task.getId());
+            if (walk != null && task.getStatus() == TaskStatus.COMPLETED
+                    && walkRecordRepository.findByTaskId(task.getId()) == null) {
+                saveWalkRecord(TaskStateRules.walkRecordFor(task, walk, task.getEndTime()));
+            }
+            
+            // A replayed image that is already in place must not move the counters again
+            if (previousStatus != task.getStatus() || !previousScheduledTime.equals(task.getScheduledTime())) {
+                eventPublisher.publishEvent(new TaskTransitionEvent(
+                    task.getId(), task.getDogId(), task.getTaskTemplateId(), task.getType(),
+                    previousStatus, previousScheduledTime.toLocalDate(), task.getStatus(),
+                    task.getScheduledTime().toLocalDate(), previousScheduledTime, task.getScheduledTime(),
+                    task.getStartTime()
+                ));
+            }
+            tasks.add(task);
+        }
+        // Flushes here so the change sequence stamped on update is on the returned entities
+        return taskInstanceRepository.saveAllAndFlush(tasks);
+    }
+    
+    private void reapply(TaskInstance task, List<Pending> transitions) {
+        log.warn("Task {} was changed outside the write-behind store, re-applying {} transitions to its row",
+            task.getId(), transitions.size());
+        for (Pending transition : transitions) {
+            try {
+                transition.entry().reapplyTo(task);
+            } catch (InvalidTaskStateException ex) {
+                log.error("Acknowledged {} of task {} (journal sequence {}) no longer applies to its row: {}",
+                    transition.entry().kind(), task.getId(), transition.entry().sequence(), ex.getMessage());
+            }
+        }
+    }
+    
+    private void saveWalkRecord(WalkRecord record) {
+        WalkRecord savedRecord = walkRecordRepository.save(record);
+        eventPublisher.publishEvent(new WalkRecordCreatedEvent(
+            savedRecord.getId(),
+            savedRecord.getDogId(),
+            savedRecord.getStartTime(),
+            savedRecord.getMood(),
+            savedRecord.getNotes()
+        ));
+    }
+    
+    private void evictFlushed(List<Pending> batch) {
+        for (Pending entry : batch) {
+            TaskSlot slot = entry.slot();
+            if (slot == null) {
+                continue;
+            }
+            synchronized (installLock(entry.entry().taskId())) {
+                synchronized (slot) {
+                    if (!slot.evicted && slot.lastSequence <= entry.entry().sequence()) {
+                        slot.evicted = true;
+                        slots.remove(entry.entry().taskId(), slot);
+                    }
+                }
+            }
+        }
+    }
+    
+    private static TaskInstance copyOf(TaskInstance task) {
+        return TaskInstance.builder()
+            .id(task.getId())
+            .taskTemplateId(task.getTaskTemplateId())
+            .dogId(task.getDogId())
+            .type(task.getType())
+            .scheduledTime(task.getScheduledTime())
+            .slotTime(task.getSlotTime())
+            .status(task.getStatus())
+            .startTime(task.getStartTime())
+            .endTime(task.getEndTime())
+            .countdownStartTime(task.getCountdownStartTime())
+            .createdAt(task.getCreatedAt())
+            .updatedAt(task.getUpdatedAt())
+            .changeSeq(task.getChangeSeq())
+            .build();
+    }
+    
+    private record Pending(JournalEntry entry, TaskSlot slot) {
+    }
+    
+    private static final class TaskSlot {
+        private TaskInstance state;
+        private long lastSequence;
+        private volatile boolean evicted;
+        private volatile Long flushedChangeSeq;
+        private volatile boolean rebased;
+        
+        private TaskSlot(TaskInstance state) {
+            this.state = state;
+            this.flushedChangeSeq = state.getChangeSeq();
+        }
+    }
+}
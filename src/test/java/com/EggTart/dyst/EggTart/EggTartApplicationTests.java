@@ -1,13 +1,26 @@
 package com.EggTart.dyst.EggTart;
 
+import com.EggTart.dyst.EggTart.model.entity.DogProfile;
+import com.EggTart.dyst.EggTart.repository.DogRepository;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 @SpringBootTest
 class EggTartApplicationTests {
 
+	@Autowired
+	private DogRepository dogRepository;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void seededDogHasTheFirstIdWithShardingOff() {
+		assertThat(dogRepository.findById(1L)).get().extracting(DogProfile::getName).isEqualTo("EggTart");
+	}
+
 }
@@ -0,0 +1,121 @@
+package com.EggTart.dyst.EggTart.archive;
+
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import org.assertj.core.api.recursive.comparison.RecursiveComparisonConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskArchiveCodecTest {
+    
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 3, 1, 0, 0);
+    
+    // The bytecode enhancer's bookkeeping fields differ between any two instances
+    private static final RecursiveComparisonConfiguration ENTITY_FIELDS = RecursiveComparisonConfiguration.builder()
+        .withIgnoredFieldsMatchingRegexes("\\$\\$_hibernate_.*")
+        .build();
+    
+    @Test
+    void rowsComeBackSortedByScheduledTimeAtSecondPrecision() throws IOException {
+        TaskInstance walk = TaskInstance.builder()
+            .id(500L).dogId(7L).taskTemplateId(null).type(TaskType.WALK).status(TaskStatus.COMPLETED)
+            .scheduledTime(DAY.plusHours(8).plusNanos(123_456_789))
+            .startTime(DAY.plusHours(8).plusMinutes(5).plusSeconds(30).plusNanos(999_000_000))
+            .endTime(DAY.plusHours(8).plusMinutes(45))
+            .countdownStartTime(DAY.plusHours(8).plusMinutes(5).plusSeconds(30))
+            // Created the evening before, so the offset from the scheduled time is negative
+            .createdAt(DAY.minusHours(1).plusNanos(1))
+            .updatedAt(null)
+            .build();
+        TaskInstance meal = TaskInstance.builder()
+            .id(20L).dogId(3L).taskTemplateId(0L).type(TaskType.MEAL).status(TaskStatus.PENDING)
+            .scheduledTime(DAY.plusHours(7))
+            .createdAt(DAY.plusHours(7))
+            .build();
+        // Smaller id and dog id than the row before it, two days later
+        TaskInstance drink = TaskInstance.builder()
+            .id(10L).dogId(1L).taskTemplateId(Long.MAX_VALUE - 1).type(TaskType.DRINK).status(TaskStatus.SKIPPED)
+            .scheduledTime(DAY.plusDays(2).plusHours(9))
+            .endTime(DAY.plusDays(2).plusHours(9).plusSeconds(1))
+            .updatedAt(DAY.plusDays(3))
+            .build();
+        
+        List<TaskInstance> read = roundTrip(List.of(walk, drink, meal));
+        
+        assertThat(read).usingRecursiveFieldByFieldElementComparator(ENTITY_FIELDS)
+            .containsExactly(truncated(meal), truncated(walk), truncated(drink));
+    }
+    
+    @Test
+    void everyStatusAndTypeSurvives() throws IOException {
+        List<TaskInstance> tasks = new ArrayList<>();
+        long id = 1;
+        for (TaskType type : TaskType.values()) {
+            for (TaskStatus status : TaskStatus.values()) {
+                tasks.add(TaskInstance.builder()
+                    .id(id).dogId(id % 3).type(type).status(status)
+                    .scheduledTime(DAY.plusMinutes(id))
+                    .build());
+                id++;
+            }
+        }
+        
+        assertThat(roundTrip(tasks)).usingRecursiveFieldByFieldElementComparator(ENTITY_FIELDS)
+            .containsExactlyElementsOf(tasks);
+    }
+    
+    @Test
+    void emptyChunkRoundTrips() throws IOException {
+        assertThat(roundTrip(List.of())).isEmpty();
+    }
+    
+    @Test
+    void otherFilesAreRejected() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(new byte[]{1, 2, 3, 4, 0, 0, 0, 0});
+        }
+        
+        assertThatThrownBy(() -> TaskArchiveCodec.read(new ByteArrayInputStream(bytes.toByteArray())))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("Not a task archive");
+    }
+    
+    private static List<TaskInstance> roundTrip(List<TaskInstance> tasks) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TaskArchiveCodec.write(tasks, bytes);
+        return TaskArchiveCodec.read(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+    
+    private static TaskInstance truncated(TaskInstance task) {
+        return TaskInstance.builder()
+            .id(task.getId())
+            .dogId(task.getDogId())
+            .taskTemplateId(task.getTaskTemplateId())
+            .type(task.getType())
+            .status(task.getStatus())
+            .scheduledTime(seconds(task.getScheduledTime()))
+            .startTime(seconds(task.getStartTime()))
+            .endTime(seconds(task.getEndTime()))
+            .countdownStartTime(seconds(task.getCountdownStartTime()))
+            .createdAt(seconds(task.getCreatedAt()))
+            .updatedAt(seconds(task.getUpdatedAt()))
+            .build();
+    }
+    
+    private static LocalDateTime seconds(LocalDateTime value) {
+        return value != null ? value.truncatedTo(ChronoUnit.SECONDS) : null;
+    }
+}
@@ -0,0 +1,79 @@
+package com.EggTart.dyst.EggTart.archive;
+
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.EggTart.dyst.EggTart.stats.CounterKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskArchiveTest {
+    
+    private static final LocalDate FIRST = LocalDate.of(2025, 1, 30);
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void dogsDaysAreReadBackAcrossPartitions() {
+        TaskArchive archive = new TaskArchive(directory.toString());
+        // Dogs 3 and 19 share a bucket, dog 4 has its own
+        archive.write(FIRST, TaskArchive.bucketOf(3L), List.of(task(1, 3, FIRST.atTime(7, 0)), task(2, 19, FIRST.atTime(7, 0))));
+        archive.write(FIRST, TaskArchive.bucketOf(4L), List.of(task(3, 4, FIRST.atTime(8, 0))));
+        archive.write(FIRST.plusDays(1), TaskArchive.bucketOf(3L), List.of(task(4, 3, FIRST.plusDays(1).atTime(23, 30))));
+        archive.write(FIRST.plusDays(2), TaskArchive.bucketOf(3L), List.of(
+            task(5, 3, FIRST.plusDays(2).atTime(6, 0)), task(6, 3, FIRST.plusDays(2).atTime(20, 0))));
+        
+        List<TaskInstance> read = archive.read(3L, FIRST.atTime(7, 0), FIRST.plusDays(2).atTime(12, 0));
+        
+        assertThat(read).extracting(TaskInstance::getId).containsExactlyInAnyOrder(1L, 4L, 5L);
+        assertThat(archive.dates()).containsExactly(FIRST, FIRST.plusDays(1), FIRST.plusDays(2));
+        assertThat(archive.hasDate(FIRST.plusDays(1))).isTrue();
+        assertThat(archive.hasDate(FIRST.plusDays(3))).isFalse();
+        assertThat(archive.read(3L, FIRST.plusDays(5).atStartOfDay(), FIRST.plusDays(6).atStartOfDay())).isEmpty();
+    }
+    
+    @Test
+    void countsAnInstanceArchivedTwiceOnceAndLeavesOutExcludedIds() {
+        TaskArchive archive = new TaskArchive(directory.toString());
+        TaskInstance walk = task(1, 3, FIRST.atTime(9, 0));
+        TaskInstance meal = task(2, 4, FIRST.atTime(7, 0));
+        meal.setType(TaskType.MEAL);
+        archive.write(FIRST, TaskArchive.bucketOf(3L), List.of(walk));
+        // An interrupted run archives the same chunk again
+        archive.write(FIRST, TaskArchive.bucketOf(3L), List.of(walk));
+        archive.write(FIRST, TaskArchive.bucketOf(4L), List.of(meal));
+        
+        assertThat(archive.count(FIRST, Set.of())).containsExactlyInAnyOrderEntriesOf(Map.of(
+            new CounterKey(TaskStatus.COMPLETED, TaskType.WALK, FIRST), 1L,
+            new CounterKey(TaskStatus.COMPLETED, TaskType.MEAL, FIRST), 1L));
+        assertThat(archive.count(FIRST, Set.of(1L))).containsExactlyInAnyOrderEntriesOf(Map.of(
+            new CounterKey(TaskStatus.COMPLETED, TaskType.MEAL, FIRST), 1L));
+        
+        // Writing the day again drops its cached count
+        archive.write(FIRST, TaskArchive.bucketOf(3L), List.of(task(7, 3, FIRST.atTime(18, 0))));
+        assertThat(archive.count(FIRST, Set.of()))
+            .containsEntry(new CounterKey(TaskStatus.COMPLETED, TaskType.WALK, FIRST), 2L);
+    }
+    
+    private static TaskInstance task(long id, long dogId, LocalDateTime scheduledTime) {
+        return TaskInstance.builder()
+            .id(id)
+            .dogId(dogId)
+            .type(TaskType.WALK)
+            .status(TaskStatus.COMPLETED)
+            .scheduledTime(scheduledTime)
+            .startTime(scheduledTime.plusMinutes(2))
+            .endTime(scheduledTime.plusMinutes(40))
+            .build();
+    }
+}
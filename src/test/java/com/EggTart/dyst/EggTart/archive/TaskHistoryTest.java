@@ -0,0 +1,101 @@
+package com.EggTart.dyst.EggTart.archive;
+
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.EggTart.dyst.EggTart.repository.TaskInstanceRepository;
+import com.EggTart.dyst.EggTart.stats.CounterKey;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Live rows and archived copies of days long past, so nothing else in the
+ * shared database falls on them.
+ */
+@SpringBootTest
+class TaskHistoryTest {
+    
+    private static final LocalDate DAY = LocalDate.of(2019, 6, 3);
+    private static final long DOG = 9_001L;
+    
+    @DynamicPropertySource
+    static void archiveDirectory(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("task-history-test").toString();
+        registry.add("eggtart.archive.directory", () -> directory);
+    }
+    
+    @Autowired
+    private TaskHistory taskHistory;
+    
+    @Autowired
+    private TaskArchive taskArchive;
+    
+    @Autowired
+    private TaskInstanceRepository taskInstanceRepository;
+    
+    @Test
+    void liveRowsWinOverTheirArchivedCopiesInHistoryAndCounts() {
+        // Archived by a run that was interrupted before the delete, then completed in the hot table
+        TaskInstance live = taskInstanceRepository.save(task(null, DOG, DAY.atTime(8, 0), TaskStatus.COMPLETED));
+        TaskInstance staleCopy = task(live.getId(), DOG, DAY.atTime(8, 0), TaskStatus.PENDING);
+        TaskInstance archivedOnly = task(8_000_001L, DOG, DAY.plusDays(1).atTime(7, 0), TaskStatus.SKIPPED);
+        TaskInstance otherDog = task(8_000_002L, DOG + TaskArchive.BUCKETS, DAY.plusDays(1).atTime(9, 0),
+            TaskStatus.COMPLETED);
+        taskArchive.write(DAY, TaskArchive.bucketOf(DOG), List.of(staleCopy));
+        taskArchive.write(DAY.plusDays(1), TaskArchive.bucketOf(DOG), List.of(archivedOnly, otherDog));
+        // A rerun archives the start of the same chunk again, within the same millisecond
+        taskArchive.write(DAY.plusDays(1), TaskArchive.bucketOf(DOG), List.of(archivedOnly));
+        
+        List<TaskInstance> history = taskHistory.withArchived(List.of(live), DOG,
+            DAY.atStartOfDay(), DAY.plusDays(2).atStartOfDay());
+        
+        assertThat(history)
+            .extracting(TaskInstance::getId, TaskInstance::getStatus)
+            .containsExactly(
+                tuple(live.getId(), TaskStatus.COMPLETED),
+                tuple(archivedOnly.getId(), TaskStatus.SKIPPED));
+        assertThat(countsOn(DAY, DAY.plusDays(1))).containsExactlyInAnyOrderEntriesOf(Map.of(
+            new CounterKey(TaskStatus.COMPLETED, TaskType.WALK, DAY), 1L,
+            new CounterKey(TaskStatus.SKIPPED, TaskType.WALK, DAY.plusDays(1)), 1L,
+            new CounterKey(TaskStatus.COMPLETED, TaskType.WALK, DAY.plusDays(1)), 1L));
+    }
+    
+    @Test
+    void rangeWithoutArchivedDaysReturnsTheLiveRowsAsTheyAre() {
+        List<TaskInstance> live = List.of(task(1L, DOG, DAY.minusYears(1).atTime(8, 0), TaskStatus.COMPLETED));
+        
+        assertThat(taskHistory.withArchived(live, DOG, DAY.minusYears(1).atStartOfDay(),
+            DAY.minusYears(1).plusDays(1).atStartOfDay())).isSameAs(live);
+    }
+    
+    private Map<CounterKey, Long> countsOn(LocalDate... days) {
+        List<LocalDate> wanted = List.of(days);
+        return taskHistory.counts().entrySet().stream()
+            .filter(entry -> wanted.contains(entry.getKey().day()))
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+    
+    private static TaskInstance task(Long id, long dogId, LocalDateTime scheduledTime, TaskStatus status) {
+        return TaskInstance.builder()
+            .id(id)
+            .dogId(dogId)
+            .type(TaskType.WALK)
+            .status(status)
+            .scheduledTime(scheduledTime)
+            .build();
+    }
+}
@@ -0,0 +1,145 @@
+package com.EggTart.dyst.EggTart.behaviour;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OffsetSketchTest {
+    
+    @Test
+    void everyOffsetMapsWithinHalfItsBucketWidth() {
+        for (int minutes = -720; minutes <= 720; minutes++) {
+            int error = Math.abs(OffsetSketch.valueOf(OffsetSketch.bucketOf(minutes)) - minutes);
+            assertThat(error)
+                .as("offset %d", minutes)
+                .isLessThanOrEqualTo(halfWidth(minutes));
+        }
+    }
+    
+    @Test
+    void bucketBoundariesFollowTheDocumentedWidths() {
+        // One minute wide up to an hour
+        assertThat(OffsetSketch.bucketOf(59)).isNotEqualTo(OffsetSketch.bucketOf(60));
+        assertThat(OffsetSketch.bucketOf(60)).isNotEqualTo(OffsetSketch.bucketOf(61));
+        // Five minutes wide from 61 to 240
+        assertThat(OffsetSketch.bucketOf(61)).isEqualTo(OffsetSketch.bucketOf(65));
+        assertThat(OffsetSketch.bucketOf(65)).isNotEqualTo(OffsetSketch.bucketOf(66));
+        assertThat(OffsetSketch.bucketOf(236)).isEqualTo(OffsetSketch.bucketOf(240));
+        // Thirty minutes wide from 241 to 720
+        assertThat(OffsetSketch.bucketOf(240)).isNotEqualTo(OffsetSketch.bucketOf(241));
+        assertThat(OffsetSketch.bucketOf(241)).isEqualTo(OffsetSketch.bucketOf(270));
+        assertThat(OffsetSketch.bucketOf(691)).isEqualTo(OffsetSketch.bucketOf(720));
+    }
+    
+    @Test
+    void bucketsAreOrderedAndSymmetric() {
+        for (int minutes = -720; minutes < 720; minutes++) {
+            assertThat(OffsetSketch.bucketOf(minutes + 1)).isGreaterThanOrEqualTo(OffsetSketch.bucketOf(minutes));
+            assertThat(OffsetSketch.valueOf(OffsetSketch.bucketOf(-minutes)))
+                .isEqualTo(-OffsetSketch.valueOf(OffsetSketch.bucketOf(minutes)));
+        }
+    }
+    
+    @Test
+    void offsetsBeyondTwelveHoursAreClamped() {
+        assertThat(OffsetSketch.bucketOf(10_000)).isEqualTo(OffsetSketch.bucketOf(720));
+        assertThat(OffsetSketch.bucketOf(-10_000)).isEqualTo(OffsetSketch.bucketOf(-720));
+        assertThat(OffsetSketch.bucketOf(Long.MIN_VALUE + 1)).isEqualTo(OffsetSketch.bucketOf(-720));
+    }
+    
+    @Test
+    void quantilesStayWithinHalfABucketOfTheExactValue() {
+        Random random = new Random(11);
+        long[] values = new long[5_000];
+        OffsetSketch sketch = new OffsetSketch();
+        for (int i = 0; i < values.length; i++) {
+            // Mostly small delays with a long tail either way
+            values[i] = Math.round(Math.max(-720, Math.min(720, random.nextGaussian() * 40 + 10
+                + (random.nextInt(10) == 0 ? random.nextInt(600) : 0))));
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+        
+        for (double q : new double[] {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1.0}) {
+            long exact = values[(int) Math.max(1, Math.ceil(q * values.length)) - 1];
+            assertThat(Math.abs(sketch.quantile(q) - exact))
+                .as("quantile %s", q)
+                .isLessThanOrEqualTo(halfWidth(exact));
+        }
+    }
+    
+    @Test
+    void emptySketchHasNoQuantile() {
+        assertThat(new OffsetSketch().quantile(0.5)).isNull();
+        assertThat(new OffsetSketch().count()).isZero();
+    }
+    
+    @Test
+    void mergeEqualsAddingEverythingToOneSketch() {
+        Random random = new Random(5);
+        OffsetSketch left = new OffsetSketch();
+        OffsetSketch right = new OffsetSketch();
+        OffsetSketch all = new OffsetSketch();
+        for (int i = 0; i < 2_000; i++) {
+            long minutes = random.nextInt(1_601) - 800;
+            (i % 3 == 0 ? left : right).add(minutes);
+            all.add(minutes);
+        }
+        
+        OffsetSketch merged = left.copy();
+        merged.merge(right);
+        
+        assertThat(merged.count()).isEqualTo(all.count());
+        for (double q = 0.0; q <= 1.0; q += 0.05) {
+            assertThat(merged.quantile(q)).as("quantile %s", q).isEqualTo(all.quantile(q));
+        }
+        // The copy is independent of what it was copied from
+        assertThat(left.count()).isEqualTo(all.count() - right.count());
+    }
+    
+    @Test
+    void writtenSketchReadsBackTheSame() throws IOException {
+        OffsetSketch sketch = new OffsetSketch();
+        for (long minutes : new long[] {-700, -45, -45, 0, 3, 3, 3, 62, 300, 5_000}) {
+            sketch.add(minutes);
+        }
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.write(new DataOutputStream(bytes));
+        OffsetSketch read = OffsetSketch.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        
+        // Seven non-empty buckets of six bytes after the two-byte count
+        assertThat(bytes.size()).isEqualTo(2 + 7 * 6);
+        assertThat(read.count()).isEqualTo(sketch.count());
+        for (double q = 0.1; q <= 1.0; q += 0.1) {
+            assertThat(read.quantile(q)).isEqualTo(sketch.quantile(q));
+        }
+    }
+    
+    @Test
+    void bucketOutOfRangeIsRejected() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeShort(1);
+        out.writeShort(9_999);
+        out.writeInt(1);
+        
+        assertThatThrownBy(() -> OffsetSketch.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("9999");
+    }
+    
+    private static int halfWidth(long minutes) {
+        long magnitude = Math.abs(minutes);
+        return magnitude <= 60 ? 0 : magnitude <= 240 ? 2 : 15;
+    }
+}
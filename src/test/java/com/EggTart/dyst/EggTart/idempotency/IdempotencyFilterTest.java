@@ -0,0 +1,92 @@
+package com.EggTart.dyst.EggTart.idempotency;
+
+import com.EggTart.dyst.EggTart.repository.DogRepository;
+import com.EggTart.dyst.EggTart.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyFilterTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    
+    @Autowired
+    private DogRepository dogRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Test
+    void retryWithTheSameBodyReplaysWithoutRunningAgain() throws Exception {
+        long dogsBefore = dogRepository.count();
+        
+        MvcResult first = createDog("replay-key", "Pepper");
+        MvcResult retry = createDog("replay-key", "Pepper");
+        
+        assertThat(first.getResponse().getStatus()).isEqualTo(201);
+        assertThat(retry.getResponse().getStatus()).isEqualTo(201);
+        assertThat(retry.getResponse().getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getResponse().getContentAsString()).isEqualTo(first.getResponse().getContentAsString());
+        assertThat(dogRepository.count()).isEqualTo(dogsBefore + 1);
+    }
+    
+    @Test
+    void sameKeyWithAnotherBodyIsRejected() throws Exception {
+        createDog("body-key", "Pepper");
+        
+        MvcResult other = createDog("body-key", "Salt");
+        
+        assertThat(other.getResponse().getStatus()).isEqualTo(422);
+    }
+    
+    @Test
+    void keyReservedElsewhereIsAConflict() throws Exception {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.insertInProgress(
+            "reserved-key", "POST /api/dogs elsewhere", now, now.plusMinutes(5)));
+        
+        MvcResult result = createDog("reserved-key", "Pepper");
+        
+        assertThat(result.getResponse().getStatus()).isEqualTo(409);
+    }
+    
+    @Test
+    void expiredReservationIsTakenOver() throws Exception {
+        LocalDateTime then = LocalDateTime.now().minusMinutes(10).truncatedTo(ChronoUnit.MICROS);
+        transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.insertInProgress(
+            "abandoned-key", "POST /api/dogs crashed", then, then.plusMinutes(5)));
+        
+        MvcResult result = createDog("abandoned-key", "Pepper");
+        
+        assertThat(result.getResponse().getStatus()).isEqualTo(201);
+        assertThat(idempotencyRecordRepository.findById("abandoned-key"))
+            .hasValueSatisfying(record -> assertThat(record.getResponseStatus()).isEqualTo(201));
+    }
+    
+    private MvcResult createDog(String key, String name) throws Exception {
+        return mockMvc.perform(post("/api/dogs")
+                .header(IdempotencyFilter.KEY_HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"dogName":"%s","ageMo":12,"mealTimes":["08:00:00"],"walkTimes":["09:00:00"]}
+                    """.formatted(name)))
+            .andReturn();
+    }
+}
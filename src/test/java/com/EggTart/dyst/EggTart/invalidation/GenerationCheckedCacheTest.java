@@ -0,0 +1,52 @@
+package com.EggTart.dyst.EggTart.invalidation;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GenerationCheckedCacheTest {
+    
+    private final GenerationCheckedCache cache = new GenerationCheckedCache("test", Caffeine.newBuilder().build(), true);
+    
+    @Test
+    void loadedValueIsCached() {
+        assertThat(cache.get(1L, () -> "fresh")).isEqualTo("fresh");
+        
+        assertThat(cache.get(1L, () -> "reloaded")).isEqualTo("fresh");
+    }
+    
+    @Test
+    void valueLoadedAcrossAnEvictionIsNotCached() {
+        String served = cache.get(1L, () -> {
+            // The writer commits and evicts while this read is in flight
+            cache.evict(1L);
+            return "stale";
+        });
+        
+        assertThat(served).isEqualTo("stale");
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(1L, () -> "fresh")).isEqualTo("fresh");
+    }
+    
+    @Test
+    void valueLoadedAcrossAClearIsNotCached() {
+        cache.get(1L, () -> {
+            cache.clear();
+            return "stale";
+        });
+        
+        assertThat(cache.get(1L)).isNull();
+    }
+    
+    @Test
+    void evictionOfAnotherStripeDoesNotDropTheLoad() {
+        // 1 and 2 hash onto different stripes
+        cache.get(1L, () -> {
+            cache.evict(2L);
+            return "fresh";
+        });
+        
+        assertThat(cache.get(1L)).isNotNull();
+    }
+}
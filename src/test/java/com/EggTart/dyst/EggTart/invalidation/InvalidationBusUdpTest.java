@@ -0,0 +1,171 @@
+package com.EggTart.dyst.EggTart.invalidation;
+
+import com.EggTart.dyst.EggTart.EggTartApplication;
+import com.EggTart.dyst.EggTart.dto.request.MeasurementDto;
+import com.EggTart.dyst.EggTart.dto.request.OnboardingDto;
+import com.EggTart.dyst.EggTart.dto.response.DogProfileResponseDto;
+import com.EggTart.dyst.EggTart.model.enums.MeasurementType;
+import com.EggTart.dyst.EggTart.projection.FieldSelection;
+import com.EggTart.dyst.EggTart.service.DogService;
+import com.EggTart.dyst.EggTart.service.MeasurementService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.DatagramSocket;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application contexts on one database, each with its own caches,
+ * exchanging invalidations over UDP on loopback.
+ */
+class InvalidationBusUdpTest {
+    
+    private static final int BURST = 1000;
+    
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    
+    @BeforeAll
+    static void startNodes() throws IOException {
+        int portA = freeUdpPort();
+        int portB = freeUdpPort();
+        nodeA = start(portA, portB, "create-drop");
+        // Same database, so only the first node owns the schema
+        nodeB = start(portB, portA, "none");
+    }
+    
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+    
+    @Test
+    void weighInOnOneNodeEvictsTheProfileCachedOnTheOther() throws InterruptedException {
+        MeterRegistry metersA = nodeA.getBean(MeterRegistry.class);
+        MeterRegistry metersB = nodeB.getBean(MeterRegistry.class);
+        double sentBefore = sent(metersA, "entries");
+        double receivedBefore = received(metersB, "entries");
+        Long dogId = nodeA.getBean(DogService.class).createDogProfile(OnboardingDto.builder()
+            .dogName("Biscuit")
+            .ageMo(14)
+            .weight(new BigDecimal("10.00"))
+            .mealTimes(List.of(LocalTime.of(7, 0)))
+            .walkTimes(List.of(LocalTime.of(8, 0)))
+            .build()).getId();
+        // The new dog's own invalidation must land on B before B caches it,
+        // or it evicts the profile the weigh-in is meant to evict
+        assertThat(await(() -> sent(metersA, "entries") > sentBefore
+            && received(metersB, "entries") - receivedBefore >= sent(metersA, "entries") - sentBefore)).isTrue();
+        DogService dogServiceB = nodeB.getBean(DogService.class);
+        Cache profilesB = nodeB.getBean(CacheManager.class).getCache(DogCaches.PROFILES);
+        dogServiceB.getDogProfile(dogId, FieldSelection.all(DogProfileResponseDto.class));
+        assertThat(profilesB.get(dogId)).isNotNull();
+        
+        nodeA.getBean(MeasurementService.class).recordMeasurements(dogId, List.of(MeasurementDto.builder()
+            .type(MeasurementType.WEIGHT)
+            .value(11.5)
+            .build()));
+        long committed = System.nanoTime();
+        boolean evicted = await(() -> profilesB.get(dogId) == null);
+        double latencyMs = (System.nanoTime() - committed) / 1e6;
+        
+        System.out.printf("Cross-node eviction after a weigh-in: %.2f ms%n", latencyMs);
+        assertThat(evicted).isTrue();
+        assertThat(dogServiceB.getDogProfile(dogId, FieldSelection.all(DogProfileResponseDto.class)).getWeight())
+            .isEqualByComparingTo("11.50");
+    }
+    
+    @Test
+    void burstOfInvalidationsIsBatchedIntoFewDatagrams() throws InterruptedException {
+        MeterRegistry metersA = nodeA.getBean(MeterRegistry.class);
+        MeterRegistry metersB = nodeB.getBean(MeterRegistry.class);
+        double messagesBefore = sent(metersA, "messages");
+        double bytesBefore = sent(metersA, "bytes");
+        double receivedBefore = received(metersB, "entries");
+        Timer propagation = metersB.get("eggtart.invalidation.propagation").timer();
+        long propagatedBefore = propagation.count();
+        
+        InvalidationBus busA = nodeA.getBean(InvalidationBus.class);
+        long started = System.nanoTime();
+        for (long dogId = 1_000_000; dogId < 1_000_000 + BURST; dogId++) {
+            busA.invalidate(InvalidationScope.DOG, dogId);
+        }
+        double enqueueMs = (System.nanoTime() - started) / 1e6;
+        boolean arrived = await(() -> received(metersB, "entries") - receivedBefore >= BURST);
+        double elapsedMs = (System.nanoTime() - started) / 1e6;
+        
+        double messages = sent(metersA, "messages") - messagesBefore;
+        double bytes = sent(metersA, "bytes") - bytesBefore;
+        System.out.printf("%d invalidations: %.0f datagrams, %.0f bytes (%.2f bytes/entry), all applied after %.1f ms, "
+                + "propagation mean %.2f ms over %d batches, max %.2f ms%n",
+            BURST, messages, bytes, bytes / BURST, elapsedMs,
+            propagation.mean(TimeUnit.MILLISECONDS), propagation.count() - propagatedBefore,
+            propagation.max(TimeUnit.MILLISECONDS));
+        
+        assertThat(arrived).isTrue();
+        assertThat(metersB.get("eggtart.invalidation.gaps").counter().count()).isZero();
+        // 128 entries per datagram, plus a partial one for each batch window the enqueueing spanned
+        // and any heartbeat that fell inside it
+        InvalidationProperties properties = nodeA.getBean(InvalidationProperties.class);
+        double windows = Math.ceil(enqueueMs / properties.getBatchWindow().toMillis()) + 1;
+        double heartbeats = Math.ceil(elapsedMs / properties.getHeartbeatInterval().toMillis()) + 1;
+        assertThat(messages).isLessThanOrEqualTo(Math.ceil(BURST / 128.0) + windows + heartbeats);
+        assertThat(bytes / BURST).isLessThan(InvalidationMessage.ENTRY_BYTES + 1);
+    }
+    
+    private static ConfigurableApplicationContext start(int port, int peerPort, String ddlAuto) {
+        // Arguments, as builder properties would lose to application.properties
+        return new SpringApplicationBuilder(EggTartApplication.class).run(
+            "--spring.main.web-application-type=none",
+            "--spring.datasource.url=jdbc:h2:mem:invalidation-bus;DB_CLOSE_DELAY=-1",
+            "--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+            "--eggtart.invalidation.transport=udp",
+            "--eggtart.invalidation.udp.bind-address=127.0.0.1",
+            "--eggtart.invalidation.udp.port=" + port,
+            "--eggtart.invalidation.udp.peers=127.0.0.1:" + peerPort);
+    }
+    
+    private static double sent(MeterRegistry registry, String meter) {
+        return registry.get("eggtart.invalidation." + meter).tag("direction", "sent").counter().count();
+    }
+    
+    private static double received(MeterRegistry registry, String meter) {
+        return registry.get("eggtart.invalidation." + meter).tag("direction", "received").counter().count();
+    }
+    
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+    
+    private static int freeUdpPort() throws IOException {
+        try (DatagramSocket socket = new DatagramSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
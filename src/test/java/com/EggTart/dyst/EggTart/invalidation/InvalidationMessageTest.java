@@ -0,0 +1,102 @@
+package com.EggTart.dyst.EggTart.invalidation;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InvalidationMessageTest {
+    
+    @Test
+    void batchSurvivesARoundTrip() {
+        InvalidationMessage message = new InvalidationMessage(-42L, 7L, 1_700_000_000_123L, false, List.of(
+            new InvalidationMessage.Entry(InvalidationScope.DOG, 1L),
+            new InvalidationMessage.Entry(InvalidationScope.TASKS, Long.MAX_VALUE)));
+        
+        byte[] bytes = message.encode();
+        
+        assertThat(bytes).hasSize(InvalidationMessage.HEADER_BYTES + 2 * InvalidationMessage.ENTRY_BYTES);
+        assertThat(InvalidationMessage.decode(bytes)).isEqualTo(message);
+    }
+    
+    @Test
+    void heartbeatHasNoEntries() {
+        InvalidationMessage heartbeat = InvalidationMessage.heartbeat(3L, 99L, 1_700_000_000_000L);
+        
+        byte[] bytes = heartbeat.encode();
+        InvalidationMessage decoded = InvalidationMessage.decode(bytes);
+        
+        assertThat(bytes).hasSize(InvalidationMessage.HEADER_BYTES);
+        assertThat(decoded.heartbeat()).isTrue();
+        assertThat(decoded.sequence()).isEqualTo(99L);
+        assertThat(decoded.entries()).isEmpty();
+    }
+    
+    @Test
+    void fullBatchFitsOneDatagram() {
+        List<InvalidationMessage.Entry> entries = new ArrayList<>();
+        for (long dogId = 1; dogId <= 128; dogId++) {
+            entries.add(new InvalidationMessage.Entry(InvalidationScope.DOG, dogId));
+        }
+        
+        byte[] bytes = new InvalidationMessage(1L, 1L, 0L, false, entries).encode();
+        
+        assertThat(bytes).hasSize(1182);
+        assertThat(InvalidationMessage.decode(bytes).entries()).isEqualTo(entries);
+    }
+    
+    @Test
+    void entryCountIsReadUnsigned() {
+        List<InvalidationMessage.Entry> entries = new ArrayList<>();
+        for (long dogId = 0; dogId < 40_000; dogId++) {
+            entries.add(new InvalidationMessage.Entry(InvalidationScope.TASKS, dogId));
+        }
+        
+        InvalidationMessage decoded = InvalidationMessage.decode(new InvalidationMessage(1L, 1L, 0L, false, entries).encode());
+        
+        assertThat(decoded.entries()).hasSize(40_000);
+    }
+    
+    @Test
+    void foreignOrDamagedBytesAreRejected() {
+        byte[] valid = new InvalidationMessage(1L, 1L, 0L, false,
+            List.of(new InvalidationMessage.Entry(InvalidationScope.DOG, 5L))).encode();
+        
+        byte[] wrongMagic = valid.clone();
+        wrongMagic[0] = 0;
+        byte[] wrongVersion = valid.clone();
+        wrongVersion[2] = 2;
+        byte[] unknownScope = valid.clone();
+        unknownScope[InvalidationMessage.HEADER_BYTES] = 9;
+        
+        assertThatThrownBy(() -> InvalidationMessage.decode(wrongMagic))
+            .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Not an invalidation message");
+        assertThatThrownBy(() -> InvalidationMessage.decode(wrongVersion))
+            .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("version 2");
+        assertThatThrownBy(() -> InvalidationMessage.decode(unknownScope))
+            .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("scope 9");
+        assertThatThrownBy(() -> InvalidationMessage.decode(Arrays.copyOf(valid, valid.length - 1)))
+            .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Truncated");
+        assertThatThrownBy(() -> InvalidationMessage.decode(new byte[0]))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void layoutIsBigEndianAsDocumented() {
+        byte[] bytes = new InvalidationMessage(0x0102030405060708L, 9L, 10L, true, List.of()).encode();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        
+        assertThat(buffer.getShort()).isEqualTo((short) 0x4549);
+        assertThat(buffer.get()).isEqualTo((byte) 1);
+        assertThat(buffer.get()).isEqualTo((byte) 1);
+        assertThat(buffer.getLong()).isEqualTo(0x0102030405060708L);
+        assertThat(buffer.getLong()).isEqualTo(9L);
+        assertThat(buffer.getLong()).isEqualTo(10L);
+        assertThat(buffer.getShort()).isZero();
+    }
+}
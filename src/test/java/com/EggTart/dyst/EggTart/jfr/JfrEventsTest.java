@@ -0,0 +1,89 @@
+package com.EggTart.dyst.EggTart.jfr;
+
+import com.EggTart.dyst.EggTart.dto.request.OnboardingDto;
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.EggTart.dyst.EggTart.repository.TaskInstanceRepository;
+import com.EggTart.dyst.EggTart.service.DogService;
+import com.EggTart.dyst.EggTart.service.TaskTransitions;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs a transition through the advised beans with a recording of its own
+ * and reads back what the interceptors committed.
+ */
+@SpringBootTest
+class JfrEventsTest {
+    
+    @Autowired
+    private DogService dogService;
+    
+    @Autowired
+    private TaskTransitions taskTransitions;
+    
+    @Autowired
+    private TaskInstanceRepository taskInstanceRepository;
+    
+    @TempDir
+    private Path directory;
+    
+    @Test
+    void transitionIsRecordedWithItsDogAndTaskType() throws Exception {
+        Long dogId = dogService.createDogProfile(OnboardingDto.builder()
+            .dogName("Biscuit")
+            .ageMo(14)
+            .mealTimes(List.of(LocalTime.of(7, 0)))
+            .walkTimes(List.of(LocalTime.of(9, 0)))
+            .build()).getId();
+        TaskInstance walk = taskInstanceRepository.findByDogIdAndScheduledTimeBetween(
+                dogId, LocalDate.now().atStartOfDay(), LocalDate.now().atTime(LocalTime.MAX)).stream()
+            .filter(task -> task.getType() == TaskType.WALK)
+            .findFirst()
+            .orElseThrow();
+        
+        Path file = directory.resolve("transition.jfr");
+        try (Recording recording = new Recording(Map.of(
+                "eggtart.TaskTransition#enabled", "true",
+                "eggtart.RepositoryCall#enabled", "true",
+                "eggtart.RepositoryCall#threshold", "0 ms"))) {
+            recording.start();
+            taskTransitions.startTask(walk.getId());
+            recording.stop();
+            recording.dump(file);
+        }
+        
+        List<RecordedEvent> transitions = RecordingFile.readAllEvents(file).stream()
+            .filter(event -> event.getEventType().getName().equals("eggtart.TaskTransition"))
+            .filter(event -> event.getLong("taskId") == walk.getId())
+            .toList();
+        assertThat(transitions).singleElement().satisfies(event -> {
+            assertThat(event.getString("transition")).isEqualTo("startTask");
+            assertThat(event.getLong("dogId")).isEqualTo(dogId);
+            assertThat(event.getString("taskType")).isEqualTo("WALK");
+            assertThat(event.getString("outcome")).isEqualTo("OK");
+        });
+        
+        JfrHotSpotAnalyzer.Summary summary = JfrHotSpotAnalyzer.analyze(file);
+        assertThat(summary.operations()).anySatisfy(operation -> {
+            assertThat(operation.operation()).isEqualTo("transition startTask");
+            assertThat(operation.count()).isEqualTo(1);
+            assertThat(operation.totalMs()).isPositive();
+        });
+        assertThat(summary.operations()).anySatisfy(operation ->
+            assertThat(operation.operation()).startsWith("repository TaskInstanceRepository."));
+    }
+}
@@ -0,0 +1,113 @@
+package com.EggTart.dyst.EggTart.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientLimiterTest {
+    
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+    
+    private final ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+    private final GradientLimiter limiter = new GradientLimiter(properties);
+    
+    @Test
+    void rejectsOnceTheLimitIsInFlight() {
+        for (int i = 0; i < properties.getInitialLimit(); i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.isSaturated()).isTrue();
+        
+        limiter.release(-1);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+    
+    @Test
+    void growsWhileFullyUsedAtSteadyLatency() {
+        for (int i = 0; i < 20; i++) {
+            runAtLimit(FAST);
+        }
+        
+        assertThat(limiter.getLimit()).isGreaterThan(properties.getInitialLimit());
+    }
+    
+    @Test
+    void shrinksWhenLatencyClimbsAboveTheBaseline() {
+        for (int i = 0; i < 20; i++) {
+            runAtLimit(FAST);
+        }
+        int grown = limiter.getLimit();
+        
+        for (int i = 0; i < 5; i++) {
+            runAtLimit(SLOW);
+        }
+        
+        assertThat(limiter.getLimit()).isLessThan(grown);
+    }
+    
+    @Test
+    void doesNotGrowWhileMostlyIdle() {
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(FAST);
+        }
+        
+        assertThat(limiter.getLimit()).isEqualTo(properties.getInitialLimit());
+    }
+    
+    @Test
+    void failedRequestsReleaseWithoutMovingTheLimit() {
+        for (int i = 0; i < properties.getInitialLimit(); i++) {
+            limiter.tryAcquire();
+        }
+        for (int i = 0; i < properties.getInitialLimit(); i++) {
+            limiter.release(-1);
+        }
+        
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.getLimit()).isEqualTo(properties.getInitialLimit());
+    }
+    
+    @Test
+    void staysWithinItsBounds() {
+        for (int i = 0; i < 500; i++) {
+            runAtLimit(FAST);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(properties.getMaxLimit());
+        
+        // Keeps climbing so the baseline never catches up with the latest latency
+        long latency = SLOW;
+        for (int i = 0; i < 50; i++) {
+            runAtLimit(latency);
+            latency *= 2;
+        }
+        assertThat(limiter.getLimit()).isEqualTo(properties.getMinLimit());
+    }
+    
+    @Test
+    void retryAfterFollowsTheBaselineLatency() {
+        assertThat(limiter.retryAfterSeconds()).isEqualTo(1);
+        
+        for (int i = 0; i < 10; i++) {
+            runAtLimit(TimeUnit.SECONDS.toNanos(3));
+        }
+        
+        assertThat(limiter.retryAfterSeconds()).isEqualTo(3);
+    }
+    
+    /** Fills every permit, then releases them all with the same latency. */
+    private void runAtLimit(long rttNanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(rttNanos);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.EggTart.dyst.EggTart.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadTestGateTest {
+    
+    private static final long MILLI = 1_000_000L;
+    
+    @Test
+    void passesWithinLimits() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 0; i < 1000; i++) {
+            recorder.record("GET /api/tasks", 20 * MILLI, 200);
+        }
+        // Rejections are expected under concurrency and do not count as errors
+        for (int i = 0; i < 100; i++) {
+            recorder.record("POST /api/tasks/{id}/start", 10 * MILLI, 409);
+        }
+        
+        assertThat(gate(Duration.ofMillis(100), Map.of(), 0.01).breaches(recorder.results())).isEmpty();
+    }
+    
+    @Test
+    void failsWhenAnEndpointP99IsOverItsLimit() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 0; i < 1000; i++) {
+            recorder.record("GET /api/tasks", (i < 950 ? 20 : 400) * MILLI, 200);
+            recorder.record("POST /api/tasks/{id}/skip", 30 * MILLI, 200);
+        }
+        
+        List<String> breaches = gate(Duration.ofMillis(100), Map.of(), 1.0).breaches(recorder.results());
+        
+        assertThat(breaches).singleElement().asString().startsWith("GET /api/tasks p99");
+    }
+    
+    @Test
+    void endpointLimitOverridesTheDefault() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 0; i < 1000; i++) {
+            recorder.record("GET /api/tasks", 400 * MILLI, 200);
+            recorder.record("POST /api/tasks/{id}/skip", 150 * MILLI, 200);
+        }
+        
+        List<String> breaches = gate(Duration.ofMillis(100), Map.of("GET /api/tasks", Duration.ofSeconds(1)), 1.0)
+            .breaches(recorder.results());
+        
+        assertThat(breaches).singleElement().asString().startsWith("POST /api/tasks/{id}/skip p99");
+    }
+    
+    @Test
+    void failsWhenTheErrorRateIsTooHigh() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 0; i < 1000; i++) {
+            recorder.record("GET /api/tasks", 5 * MILLI, i < 20 ? 503 : 200);
+        }
+        recorder.record("POST /api/tasks/{id}/start", 5 * MILLI, -1);
+        
+        List<String> breaches = gate(null, Map.of(), 0.01).breaches(recorder.results());
+        
+        assertThat(breaches).singleElement().asString().startsWith("error rate 0.0210 (21 of 1001 requests)");
+    }
+    
+    private static LoadTestGate gate(Duration maxP99, Map<String, Duration> byEndpoint, double maxErrorRate) {
+        LoadTestProperties properties = new LoadTestProperties();
+        properties.setMaxP99(maxP99);
+        properties.setMaxP99ByEndpoint(byEndpoint);
+        properties.setMaxErrorRate(maxErrorRate);
+        return new LoadTestGate(properties);
+    }
+}
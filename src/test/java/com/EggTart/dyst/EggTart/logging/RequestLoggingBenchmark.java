@@ -0,0 +1,259 @@
+package com.EggTart.dyst.EggTart.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.EggTart.dyst.EggTart.controller.TaskController;
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.repository.TaskInstanceRepository;
+import com.EggTart.dyst.EggTart.service.TaskService;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Request-thread cost of logging for {@code POST /api/tasks/{id}/delay}: the
+ * old three INFO lines per request written synchronously, against the one
+ * structured event per request handed to an asynchronous appender. Both
+ * write to files, so console speed does not decide the result.
+ *
+ * The logging path is measured on its own, through the filter and the same
+ * loggers with no work in between, and as part of whole requests through
+ * MockMvc. Modes alternate over several rounds so JIT warm-up and table
+ * growth do not favour either.
+ *
+ * The configured async appender drops events instead of blocking, so a
+ * fast time can come from logging less. Each row reports how many of the
+ * expected lines never reached the file, and a lossless async mode (blocking
+ * when full, never discarding) shows the cost of keeping every event.
+ *
+ * Run with {@code mvn test -Dgroups=benchmark -DexcludedGroups=none -Dtest=RequestLoggingBenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "eggtart.concurrency.enabled=false"
+})
+@AutoConfigureMockMvc
+class RequestLoggingBenchmark {
+    
+    private static final int ROUNDS = 3;
+    private static final int STEP_LINES = 3;
+    private static final String BOOT_PATTERN =
+        "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n";
+    
+    private static final org.slf4j.Logger CONTROLLER_LOG = LoggerFactory.getLogger(TaskController.class);
+    private static final org.slf4j.Logger SERVICE_LOG = LoggerFactory.getLogger(TaskService.class);
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private RequestLoggingProperties properties;
+    
+    @Autowired
+    private TaskInstanceRepository taskInstanceRepository;
+    
+    @TempDir
+    private Path directory;
+    
+    private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    
+    @Test
+    void compareStepLinesWithRequestEvent() throws Exception {
+        Long taskId = taskInstanceRepository.findAll().stream()
+            .filter(task -> task.getStatus() == TaskStatus.PENDING)
+            .map(TaskInstance::getId)
+            .findFirst()
+            .orElseThrow();
+        RequestLoggingFilter filter = new RequestLoggingFilter(properties);
+        
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%n%-48s %10s %10s %10s %12s %10s%n",
+            "mode", "mean us", "p50 us", "p99 us", "log lines", "dropped"));
+        for (int round = 1; round <= ROUNDS; round++) {
+            report.append(measure("logging only, 3 sync INFO lines", round, 200_000, 1_000_000,
+                STEP_LINES, this::logStepsSynchronously, () -> filterOnly(filter, taskId)));
+            report.append(measure("logging only, 1 async event", round, 200_000, 1_000_000,
+                1, file -> logRequestEventsAsynchronously(file, false), () -> filterOnly(filter, taskId)));
+            report.append(measure("logging only, 1 async event, lossless", round, 200_000, 1_000_000,
+                1, file -> logRequestEventsAsynchronously(file, true), () -> filterOnly(filter, taskId)));
+        }
+        for (int round = 1; round <= ROUNDS; round++) {
+            report.append(measure("request, 3 sync INFO lines", round, 3_000, 10_000,
+                STEP_LINES, this::logStepsSynchronously, () -> delay(taskId)));
+            report.append(measure("request, 1 async event", round, 3_000, 10_000,
+                1, file -> logRequestEventsAsynchronously(file, false), () -> delay(taskId)));
+            report.append(measure("request, 1 async event, lossless", round, 3_000, 10_000,
+                1, file -> logRequestEventsAsynchronously(file, true), () -> delay(taskId)));
+        }
+        System.out.print(report);
+    }
+    
+    private String measure(String mode, int round, int warmup, int measured, int linesPerRequest,
+                           LoggingSetup setup, Request request) throws Exception {
+        Path file = directory.resolve(mode.replaceAll("\\W+", "-") + "-" + round + ".log");
+        Runnable restore = setup.apply(file);
+        long[] nanos = new long[measured];
+        try {
+            for (int i = 0; i < warmup; i++) {
+                request.run();
+            }
+            for (int i = 0; i < nanos.length; i++) {
+                long started = System.nanoTime();
+                request.run();
+                nanos[i] = System.nanoTime() - started;
+            }
+        } finally {
+            restore.run();
+        }
+        
+        Arrays.sort(nanos);
+        long lines = lineCount(file);
+        return String.format("%-48s %10.2f %10.2f %10.2f %12d %10d%n", "round " + round + ", " + mode,
+            Arrays.stream(nanos).average().orElse(0) / 1000.0,
+            nanos[nanos.length / 2] / 1000.0,
+            nanos[(int) (nanos.length * 0.99)] / 1000.0,
+            lines,
+            (long) (warmup + measured) * linesPerRequest - lines);
+    }
+    
+    // Includes the warm-up
+    private static long lineCount(Path file) throws Exception {
+        try (var lines = Files.lines(file)) {
+            return lines.count();
+        }
+    }
+    
+    /**
+     * The filter around a chain that only logs what the delay endpoint logs.
+     */
+    private void filterOnly(RequestLoggingFilter filter, Long taskId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/tasks/" + taskId + "/delay");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/tasks/{id}/delay");
+        FilterChain chain = (req, res) -> {
+            CONTROLLER_LOG.debug("POST /api/tasks/{}/delay - minutes: {}", taskId, 1);
+            SERVICE_LOG.debug("Delaying task {} by {} minutes", taskId, 1);
+            SERVICE_LOG.debug("Task {} delayed successfully", taskId);
+        };
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+    }
+    
+    private void delay(Long taskId) throws Exception {
+        mockMvc.perform(post("/api/tasks/{id}/delay", taskId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"delayMinutes\":1}"))
+            .andExpect(status().isOk());
+    }
+    
+    /**
+     * The logging before the change: the per-step lines that are now DEBUG
+     * enabled again, on a synchronous appender, and no request event.
+     */
+    private Runnable logStepsSynchronously(Path file) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(BOOT_PATTERN);
+        encoder.setCharset(StandardCharsets.UTF_8);
+        encoder.start();
+        Appender<ILoggingEvent> appender = fileAppender(file, encoder);
+        
+        properties.setEnabled(false);
+        Logger[] loggers = {context.getLogger(TaskController.class), context.getLogger(TaskService.class)};
+        for (Logger logger : loggers) {
+            logger.setLevel(Level.DEBUG);
+            logger.setAdditive(false);
+            logger.addAppender(appender);
+        }
+        return () -> {
+            for (Logger logger : loggers) {
+                logger.detachAppender(appender);
+                logger.setAdditive(true);
+                logger.setLevel(null);
+            }
+            appender.stop();
+            properties.setEnabled(true);
+        };
+    }
+    
+    /**
+     * The logging after the change, as configured in logback-spring.xml but
+     * writing to a file. A lossless appender blocks the request thread when
+     * its queue is full instead of dropping the event.
+     */
+    private Runnable logRequestEventsAsynchronously(Path file, boolean lossless) {
+        StructuredLogEncoder encoder = new StructuredLogEncoder();
+        encoder.setContext(context);
+        encoder.setFormat("ecs");
+        encoder.setCharset(StandardCharsets.UTF_8);
+        encoder.start();
+        
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(16384);
+        async.setDiscardingThreshold(lossless ? 0 : 3276);
+        async.setNeverBlock(!lossless);
+        // Wait for the queue to drain on stop, so only the queue's own drops are missing
+        async.setMaxFlushTime(0);
+        async.addAppender(fileAppender(file, encoder));
+        async.start();
+        
+        Logger requests = context.getLogger("eggtart.requests");
+        Appender<ILoggingEvent> configured = requests.getAppender("ASYNC_REQUESTS");
+        if (configured != null) {
+            requests.detachAppender(configured);
+        }
+        requests.addAppender(async);
+        return () -> {
+            requests.detachAppender(async);
+            async.stop();
+            if (configured != null) {
+                requests.addAppender(configured);
+            }
+        };
+    }
+    
+    private FileAppender<ILoggingEvent> fileAppender(Path file, Encoder<ILoggingEvent> encoder) {
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setFile(file.toString());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+    
+    @FunctionalInterface
+    private interface LoggingSetup {
+        Runnable apply(Path file);
+    }
+    
+    @FunctionalInterface
+    private interface Request {
+        void run() throws Exception;
+    }
+}
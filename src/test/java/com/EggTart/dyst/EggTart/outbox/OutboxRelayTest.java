@@ -0,0 +1,89 @@
+package com.EggTart.dyst.EggTart.outbox;
+
+import com.EggTart.dyst.EggTart.model.entity.OutboxEvent;
+import com.EggTart.dyst.EggTart.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Relays through the HTTP sink to the local stub, which fails a share of
+ * the requests; every dog's events must still arrive exactly once, in order.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT, properties = {
+    "management.server.port=0",
+    "eggtart.outbox.stub.enabled=true",
+    "eggtart.outbox.stub.failure-rate=0.4",
+    "eggtart.outbox.poll-interval-ms=20",
+    "eggtart.outbox.batch-size=4",
+    "eggtart.outbox.dogs-per-claim=2",
+    "eggtart.outbox.initial-backoff=20ms",
+    "eggtart.outbox.max-backoff=100ms",
+    "eggtart.outbox.max-attempts=1000"
+})
+class OutboxRelayTest {
+    
+    private static final int DOGS = 3;
+    private static final int EVENTS_PER_DOG = 25;
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private OutboxStubController outboxStub;
+    
+    @DynamicPropertySource
+    static void stubUrl(DynamicPropertyRegistry registry) throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        registry.add("server.port", () -> port);
+        registry.add("eggtart.outbox.http.url", () -> "http://localhost:" + port + "/outbox-stub/events");
+    }
+    
+    @Test
+    void failedDeliveriesAreRetriedWithoutReorderingADogsEvents() throws InterruptedException {
+        outboxStub.reset();
+        
+        // More events per dog than fit in a batch, so a dog's leases span several batches
+        List<OutboxEvent> events = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int n = 0; n < EVENTS_PER_DOG; n++) {
+            for (long dogId = 1; dogId <= DOGS; dogId++) {
+                events.add(OutboxEvent.builder()
+                    .dogId(dogId)
+                    .aggregateId((long) n)
+                    .eventType("TASK_COMPLETED")
+                    .payload("{\"n\":" + n + "}")
+                    .nextAttemptAt(now)
+                    .createdAt(now)
+                    .build());
+            }
+        }
+        outboxEventRepository.saveAll(events);
+        
+        long deadline = System.nanoTime() + 60_000_000_000L;
+        while (outboxEventRepository.count() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        
+        Map<String, Long> stats = outboxStub.stats();
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(stats.get("events")).isEqualTo((long) DOGS * EVENTS_PER_DOG);
+        assertThat(stats.get("nonIncreasing")).isZero();
+        assertThat(stats.get("rejected")).isPositive();
+        assertThat(stats.get("dogs")).isEqualTo((long) DOGS);
+    }
+}
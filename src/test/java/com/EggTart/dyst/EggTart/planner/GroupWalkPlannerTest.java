@@ -0,0 +1,122 @@
+package com.EggTart.dyst.EggTart.planner;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the plan's rules on random households. The walks crowd a few hours
+ * so most of them have to share, and the search has room to break a rule.
+ */
+class GroupWalkPlannerTest {
+    
+    private static final ForkJoinPool POOL = new ForkJoinPool(2);
+    private static final Duration BUDGET = Duration.ofMillis(50);
+    
+    private final GroupWalkPlanner planner = new GroupWalkPlanner(POOL);
+    
+    @AfterAll
+    static void shutDown() {
+        POOL.shutdown();
+    }
+    
+    @Test
+    void randomPlansKeepEveryRule() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            int dogs = 3 + random.nextInt(20);
+            List<PlannedWalk> walks = new ArrayList<>();
+            for (int i = 0; i < 2 * dogs; i++) {
+                walks.add(new PlannedWalk(i, random.nextInt(dogs), 7 * 60 + random.nextInt(4 * 60)));
+            }
+            List<List<Long>> incompatible = new ArrayList<>();
+            for (int i = 0; i < dogs / 2; i++) {
+                incompatible.add(List.of((long) random.nextInt(dogs), (long) random.nextInt(dogs)));
+            }
+            PlanningRules rules = new PlanningRules(2 + random.nextInt(5), random.nextInt(61), 45, incompatible);
+            
+            assertKeepsRules(walks, rules, planner.plan(walks, rules, BUDGET));
+        }
+    }
+    
+    @Test
+    void walksOfOneDogAndIncompatibleDogsNeverShareAGroup() {
+        // Everything at once, so grouping is limited by the rules alone
+        List<PlannedWalk> walks = List.of(
+            new PlannedWalk(1, 1, 600), new PlannedWalk(2, 1, 600),
+            new PlannedWalk(3, 2, 600), new PlannedWalk(4, 3, 600));
+        PlanningRules rules = new PlanningRules(4, 30, 45, List.of(List.of(2L, 3L)));
+        
+        WalkPlan plan = planner.plan(walks, rules, BUDGET);
+        
+        assertKeepsRules(walks, rules, plan);
+        assertThat(plan.groups()).hasSize(2);
+        assertThat(plan.totalShiftMinutes()).isZero();
+    }
+    
+    @Test
+    void walksTooFarApartForTheWindowStaySeparate() {
+        List<PlannedWalk> walks = List.of(new PlannedWalk(1, 1, 480), new PlannedWalk(2, 2, 541));
+        PlanningRules rules = new PlanningRules(6, 30, 45, List.of());
+        
+        WalkPlan plan = planner.plan(walks, rules, BUDGET);
+        
+        assertKeepsRules(walks, rules, plan);
+        assertThat(plan.groups()).extracting(WalkPlan.Group::minute).containsExactly(480, 541);
+        assertThat(plan.walkers()).isEqualTo(1);
+    }
+    
+    @Test
+    void invalidRulesAreRejected() {
+        List<PlannedWalk> walks = List.of(new PlannedWalk(1, 1, 480));
+        
+        assertThatThrownBy(() -> planner.plan(walks, new PlanningRules(0, 30, 45, List.of()), BUDGET))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> planner.plan(walks, new PlanningRules(2, 30, 45, List.of(List.of(1L))), BUDGET))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private static void assertKeepsRules(List<PlannedWalk> walks, PlanningRules rules, WalkPlan plan) {
+        assertThat(plan.groups().stream().flatMap(group -> group.walks().stream()))
+            .containsExactlyInAnyOrderElementsOf(walks);
+        
+        Set<Set<Long>> incompatible = new HashSet<>();
+        rules.incompatibleDogs().forEach(pair -> incompatible.add(Set.copyOf(new HashSet<>(pair))));
+        Map<Integer, List<WalkPlan.Group>> byWalker = new HashMap<>();
+        for (WalkPlan.Group group : plan.groups()) {
+            assertThat(group.walks()).hasSizeBetween(1, rules.maxGroupSize());
+            assertThat(group.walks()).extracting(PlannedWalk::dogId).doesNotHaveDuplicates();
+            List<PlannedWalk> members = group.walks();
+            for (int i = 0; i < members.size(); i++) {
+                assertThat(Math.abs(group.minute() - members.get(i).minute()))
+                    .as("shift of walk %d", members.get(i).taskId())
+                    .isLessThanOrEqualTo(rules.windowMinutes());
+                for (int j = i + 1; j < members.size(); j++) {
+                    assertThat(incompatible).doesNotContain(Set.of(members.get(i).dogId(), members.get(j).dogId()));
+                }
+            }
+            byWalker.computeIfAbsent(group.walker(), walker -> new ArrayList<>()).add(group);
+        }
+        
+        assertThat(byWalker.keySet()).allMatch(walker -> walker >= 0 && walker < plan.walkers());
+        for (List<WalkPlan.Group> shift : byWalker.values()) {
+            shift.sort(Comparator.comparingInt(WalkPlan.Group::minute));
+            for (int i = 1; i < shift.size(); i++) {
+                assertThat(shift.get(i).minute()).isGreaterThanOrEqualTo(shift.get(i - 1).minute() + rules.walkMinutes());
+            }
+        }
+    }
+}
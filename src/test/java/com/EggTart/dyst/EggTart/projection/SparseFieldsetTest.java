@@ -0,0 +1,172 @@
+package com.EggTart.dyst.EggTart.projection;
+
+import com.EggTart.dyst.EggTart.dto.request.OnboardingDto;
+import com.EggTart.dyst.EggTart.dto.response.TaskInstanceResponseDto;
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.EggTart.dyst.EggTart.repository.TaskInstanceRepository;
+import com.EggTart.dyst.EggTart.service.DogService;
+import com.EggTart.dyst.EggTart.service.TaskService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Sparse fieldsets on {@code GET /api/tasks}, from the JSON written down to
+ * the SQL Hibernate sends, which a statement inspector records.
+ */
+@SpringBootTest(properties =
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.EggTart.dyst.EggTart.projection.SparseFieldsetTest$RecordingInspector")
+@AutoConfigureMockMvc
+class SparseFieldsetTest {
+    
+    private static final FieldSelection ID_AND_STATUS = FieldSelection.parse("id,status", TaskInstanceResponseDto.class);
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private DogService dogService;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private TaskInstanceRepository taskInstanceRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Long dogId;
+    private TaskInstance drink;
+    
+    @BeforeEach
+    void setUp() {
+        dogId = dogService.createDogProfile(OnboardingDto.builder()
+            .dogName("Mochi")
+            .ageMo(20)
+            .mealTimes(List.of(LocalTime.of(7, 0)))
+            .walkTimes(List.of(LocalTime.of(8, 0)))
+            .build()).getId();
+        drink = taskInstanceRepository.save(TaskInstance.builder()
+            .dogId(dogId)
+            .type(TaskType.DRINK)
+            .scheduledTime(LocalDate.now().atTime(12, 34))
+            .build());
+    }
+    
+    @Test
+    void requestedFieldsAreTheOnlyOnesWritten() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/tasks")
+                .param("dogId", dogId.toString())
+                .param("fields", "id,status"))
+            .andReturn();
+        
+        assertThat(result.getResponse().getStatus()).isEqualTo(200);
+        JsonNode tasks = objectMapper.readTree(result.getResponse().getContentAsString()).get("data");
+        assertThat(tasks).isNotEmpty();
+        for (JsonNode task : tasks) {
+            assertThat(fieldNames(task)).containsExactlyInAnyOrder("id", "status");
+        }
+    }
+    
+    @Test
+    void unknownFieldIsABadRequest() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/tasks")
+                .param("dogId", dogId.toString())
+                .param("fields", "id,colour"))
+            .andReturn();
+        
+        assertThat(result.getResponse().getStatus()).isEqualTo(400);
+        assertThat(result.getResponse().getContentAsString()).contains("Unknown field 'colour'");
+    }
+    
+    @Test
+    void projectionSelectsOnlyTheRequestedColumns() {
+        RecordingInspector.STATEMENTS.clear();
+        RecordingInspector.recording = Thread.currentThread();
+        List<TaskInstanceResponseDto> tasks;
+        try {
+            tasks = taskService.getTasksForDate(dogId, LocalDate.now(), ID_AND_STATUS);
+        } finally {
+            RecordingInspector.recording = null;
+        }
+        
+        assertThat(tasks).extracting(TaskInstanceResponseDto::getId).contains(drink.getId());
+        assertThat(tasks).allSatisfy(task -> assertThat(task.getScheduledTime()).isNull());
+        List<String> selects = RecordingInspector.STATEMENTS.stream()
+            .filter(sql -> sql.startsWith("select") && sql.contains(" from task_instances "))
+            .toList();
+        assertThat(selects).hasSize(1);
+        String columns = selects.get(0).substring("select ".length(), selects.get(0).indexOf(" from "));
+        assertThat(Arrays.stream(columns.split(",")).map(column -> column.substring(column.indexOf('.') + 1)))
+            .containsExactly("id", "status");
+    }
+    
+    @Test
+    void subsetOfTodaysTasksBypassesTheCache() {
+        FieldSelection all = FieldSelection.all(TaskInstanceResponseDto.class);
+        assertThat(status(taskService.getTodayTasks(dogId, all))).isEqualTo(TaskStatus.PENDING);
+        
+        // Behind the cache's back, so only a query sees it
+        jdbcTemplate.update("UPDATE task_instances SET status = 'SKIPPED' WHERE id = ?", drink.getId());
+        
+        assertThat(status(taskService.getTodayTasks(dogId, all))).isEqualTo(TaskStatus.PENDING);
+        assertThat(status(taskService.getTodayTasks(dogId, ID_AND_STATUS))).isEqualTo(TaskStatus.SKIPPED);
+    }
+    
+    private TaskStatus status(List<TaskInstanceResponseDto> tasks) {
+        return tasks.stream()
+            .filter(task -> task.getId().equals(drink.getId()))
+            .findFirst()
+            .orElseThrow()
+            .getStatus();
+    }
+    
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+    
+    /**
+     * Created by Hibernate from its class name; keeps the statements of the
+     * recording thread, leaving out those of scheduled jobs.
+     */
+    public static class RecordingInspector implements StatementInspector {
+        
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+        static volatile Thread recording;
+        
+        @Override
+        public String inspect(String sql) {
+            if (Thread.currentThread() == recording) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.EggTart.dyst.EggTart.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:reactive-routes;DB_CLOSE_DELAY=-1",
+    "spring.r2dbc.url=r2dbc:h2:mem:///reactive-routes;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("reactive")
+class ReactiveRoutesTest {
+    
+    @Autowired
+    private WebTestClient webTestClient;
+    
+    @Test
+    void dogProfileWritesOnlyTheRequestedFields() {
+        long dogId = createDog("Biscuit");
+        
+        webTestClient.get().uri("/api/dogs/{id}?fields=id,name", dogId)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.data.id").isEqualTo(dogId)
+            .jsonPath("$.data.name").isEqualTo("Biscuit")
+            .jsonPath("$.data.ageMo").doesNotExist()
+            .jsonPath("$.data.taskTemplates").doesNotExist();
+    }
+    
+    @Test
+    void templatesAndTasksWriteOnlyTheRequestedFields() {
+        long dogId = createDog("Crumble");
+        
+        webTestClient.get().uri("/api/dogs/{id}/templates?fields=type", dogId)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.data[0].type").exists()
+            .jsonPath("$.data[0].id").doesNotExist();
+        
+        webTestClient.get().uri("/api/tasks?dogId={id}&fields=id,status", dogId)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.data[0].status").isEqualTo("PENDING")
+            .jsonPath("$.data[0].scheduledTime").doesNotExist();
+    }
+    
+    @Test
+    void unknownFieldIsABadRequest() {
+        long dogId = createDog("Nacho");
+        
+        webTestClient.get().uri("/api/dogs/{id}?fields=colour", dogId)
+            .exchange()
+            .expectStatus().isBadRequest();
+        webTestClient.get().uri("/api/tasks?dogId={id}&fields=colour", dogId)
+            .exchange()
+            .expectStatus().isBadRequest();
+    }
+    
+    @Test
+    void scheduleSuggestionsAreServed() {
+        long dogId = createDog("Pretzel");
+        
+        webTestClient.get().uri("/api/dogs/{id}/schedule-suggestions", dogId)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.data.dogId").isEqualTo(dogId)
+            .jsonPath("$.data.suggestions").isArray();
+        
+        webTestClient.get().uri("/api/dogs/{id}/schedule-suggestions", Long.MAX_VALUE)
+            .exchange()
+            .expectStatus().isNotFound();
+    }
+    
+    private long createDog(String name) {
+        Map<?, ?> response = webTestClient.post().uri("/api/dogs")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(Map.of(
+                "dogName", name,
+                "ageMo", 24,
+                "mealTimes", new String[] {"08:00"},
+                "walkTimes", new String[] {"23:59"}))
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody(Map.class)
+            .returnResult()
+            .getResponseBody();
+        
+        assertThat(response).isNotNull();
+        return ((Number) ((Map<?, ?>) response.get("data")).get("id")).longValue();
+    }
+}
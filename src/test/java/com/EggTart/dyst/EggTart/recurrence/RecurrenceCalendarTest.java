@@ -0,0 +1,160 @@
+package com.EggTart.dyst.EggTart.recurrence;
+
+import com.EggTart.dyst.EggTart.exception.InvalidRecurrenceRuleException;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecurrenceCalendarTest {
+    
+    private static final LocalDate FROM = LocalDate.of(2027, 12, 20);
+    private static final LocalDate TO = LocalDate.of(2029, 3, 10);
+    
+    private final RecurrenceCalendar calendar = new RecurrenceCalendar(FROM, TO);
+    
+    @Test
+    void weekendRuleSelectsSaturdaysAndSundays() {
+        List<LocalDate> dates = dates("FREQ=WEEKLY;BYDAY=SA,SU;DTSTART=20280101;UNTIL=20280116");
+        
+        assertThat(dates).containsExactly(
+            LocalDate.of(2028, 1, 1), LocalDate.of(2028, 1, 2), LocalDate.of(2028, 1, 8),
+            LocalDate.of(2028, 1, 9), LocalDate.of(2028, 1, 15), LocalDate.of(2028, 1, 16));
+    }
+    
+    @Test
+    void dailyIntervalCountsFromDtstartEvenBeforeTheCalendar() {
+        List<LocalDate> dates = dates("FREQ=DAILY;INTERVAL=3;DTSTART=20271201;UNTIL=20271231");
+        
+        assertThat(dates).containsExactly(
+            LocalDate.of(2027, 12, 22), LocalDate.of(2027, 12, 25), LocalDate.of(2027, 12, 28),
+            LocalDate.of(2027, 12, 31));
+    }
+    
+    @Test
+    void lastDayOfMonthFollowsLeapYears() {
+        List<LocalDate> dates = dates("FREQ=MONTHLY;BYMONTHDAY=-1;DTSTART=20280101;UNTIL=20280430");
+        
+        assertThat(dates).containsExactly(
+            LocalDate.of(2028, 1, 31), LocalDate.of(2028, 2, 29), LocalDate.of(2028, 3, 31),
+            LocalDate.of(2028, 4, 30));
+    }
+    
+    @Test
+    void monthlyRuleOnThe31stSkipsShorterMonths() {
+        List<LocalDate> dates = dates("FREQ=MONTHLY;DTSTART=20280131;UNTIL=20280630");
+        
+        assertThat(dates).containsExactly(
+            LocalDate.of(2028, 1, 31), LocalDate.of(2028, 3, 31), LocalDate.of(2028, 5, 31));
+    }
+    
+    @Test
+    void yearlyRuleDefaultsToTheDtstartDate() {
+        assertThat(dates("FREQ=YEARLY;DTSTART=20260305")).containsExactly(
+            LocalDate.of(2028, 3, 5), LocalDate.of(2029, 3, 5));
+        assertThat(dates("FREQ=YEARLY;INTERVAL=2;DTSTART=20260305")).containsExactly(LocalDate.of(2028, 3, 5));
+    }
+    
+    @Test
+    void biweeklyRuleAlternatesWeeks() {
+        List<LocalDate> dates = dates("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO;DTSTART=20280105;UNTIL=20280210");
+        
+        // DTSTART is a Wednesday, so its week's Monday is before DTSTART
+        assertThat(dates).containsExactly(
+            LocalDate.of(2028, 1, 17), LocalDate.of(2028, 1, 31));
+    }
+    
+    @Test
+    void normalizedRuleExpandsLikeTheOriginal() {
+        String normalized = RecurrenceRule.normalize("freq=weekly;byday=tu", LocalDate.of(2028, 1, 5));
+        
+        assertThat(normalized).isEqualTo("FREQ=WEEKLY;BYDAY=TU;DTSTART=20280105");
+        assertThat(RecurrenceRule.normalize(normalized, LocalDate.EPOCH)).isEqualTo(normalized);
+    }
+    
+    @Test
+    void invalidRulesAreRejected() {
+        assertThatThrownBy(() -> RecurrenceRule.compile("BYDAY=MO"))
+            .isInstanceOf(InvalidRecurrenceRuleException.class);
+        assertThatThrownBy(() -> RecurrenceRule.compile("FREQ=DAILY;BYMONTHDAY=0"))
+            .isInstanceOf(InvalidRecurrenceRuleException.class);
+        assertThatThrownBy(() -> RecurrenceRule.compile("FREQ=DAILY;DTSTART=20280105;UNTIL=20280101"))
+            .isInstanceOf(InvalidRecurrenceRuleException.class);
+        assertThatThrownBy(() -> RecurrenceRule.compile("FREQ=HOURLY"))
+            .isInstanceOf(InvalidRecurrenceRuleException.class);
+    }
+    
+    @Test
+    void randomRulesMatchDayByDayEvaluation() {
+        Random random = new Random(5);
+        String[] weekdays = {"MO", "TU", "WE", "TH", "FR", "SA", "SU"};
+        RecurrenceRule.Frequency[] frequencies = RecurrenceRule.Frequency.values();
+        for (int run = 0; run < 500; run++) {
+            StringBuilder text = new StringBuilder("FREQ=").append(frequencies[random.nextInt(frequencies.length)]);
+            if (random.nextBoolean()) {
+                text.append(";INTERVAL=").append(1 + random.nextInt(5));
+            }
+            if (random.nextInt(3) == 0) {
+                text.append(";BYDAY=").append(weekdays[random.nextInt(7)]).append(',').append(weekdays[random.nextInt(7)]);
+            }
+            if (random.nextInt(3) == 0) {
+                text.append(";BYMONTH=").append(1 + random.nextInt(12)).append(',').append(1 + random.nextInt(12));
+            }
+            if (random.nextInt(3) == 0) {
+                int day = random.nextInt(32);
+                text.append(";BYMONTHDAY=").append(day == 0 ? -1 : day);
+            }
+            LocalDate start = FROM.minusDays(400).plusDays(random.nextInt(900));
+            text.append(";DTSTART=").append(start.toString().replace("-", ""));
+            if (random.nextBoolean()) {
+                text.append(";UNTIL=").append(start.plusDays(random.nextInt(500)).toString().replace("-", ""));
+            }
+            
+            RecurrenceRule rule = RecurrenceRule.compile(text.toString());
+            assertThat(calendar.occurrences(rule).dates()).as(text.toString()).isEqualTo(reference(rule));
+        }
+    }
+    
+    private List<LocalDate> dates(String rule) {
+        return calendar.occurrences(RecurrenceRule.compile(rule)).dates();
+    }
+    
+    /** The rule evaluated one date at a time, straight from its definition. */
+    private static List<LocalDate> reference(RecurrenceRule rule) {
+        LocalDate start = LocalDate.ofEpochDay(rule.startEpochDay());
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date = FROM; !date.isAfter(TO); date = date.plusDays(1)) {
+            if (date.isBefore(start) || date.toEpochDay() > rule.untilEpochDay()) {
+                continue;
+            }
+            if (rule.weekdayMask() != 0 && (rule.weekdayMask() & (1 << date.getDayOfWeek().ordinal())) == 0) {
+                continue;
+            }
+            if (rule.monthMask() != 0 && (rule.monthMask() & (1 << (date.getMonthValue() - 1))) == 0) {
+                continue;
+            }
+            boolean lastDay = date.getDayOfMonth() == date.lengthOfMonth();
+            if (rule.monthDayMask() != 0 && (rule.monthDayMask() & (1L << date.getDayOfMonth())) == 0
+                    && !(lastDay && (rule.monthDayMask() & 1L) != 0)) {
+                continue;
+            }
+            long elapsed = switch (rule.frequency()) {
+                case DAILY -> ChronoUnit.DAYS.between(start, date);
+                case WEEKLY -> ChronoUnit.WEEKS.between(start.with(DayOfWeek.MONDAY), date.with(DayOfWeek.MONDAY));
+                case MONTHLY -> ChronoUnit.MONTHS.between(start.withDayOfMonth(1), date.withDayOfMonth(1));
+                case YEARLY -> date.getYear() - start.getYear();
+            };
+            if (elapsed % rule.interval() == 0) {
+                dates.add(date);
+            }
+        }
+        return dates;
+    }
+}
@@ -0,0 +1,165 @@
+package com.EggTart.dyst.EggTart.replica;
+
+import jakarta.servlet.http.Cookie;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes between two in-memory H2 databases wired the way ReplicaConfig
+ * wires the real pools. Each database names itself in a one-row table, so
+ * a query shows which one served it.
+ */
+class ReplicaRoutingTest {
+    
+    private final ReplicaProperties properties = new ReplicaProperties();
+    private DataSource primary;
+    private ReplicaNode replica;
+    private ReplicaPool pool;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = database("primary");
+        replica = new ReplicaNode("replica-0", database("replica-0"));
+        pool = new ReplicaPool(List.of(replica));
+        new JdbcTemplate(replica).execute("CREATE TABLE replication_status (lag_seconds INT)");
+        new JdbcTemplate(replica).update("INSERT INTO replication_status VALUES (0)");
+        properties.setLagQuery("SELECT lag_seconds FROM replication_status");
+        
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(pool);
+        routing.setTargetDataSources(Map.of(ReplicaRoutingDataSource.PRIMARY, primary, replica.getName(), replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        // The proxy reads the connection defaults from its first connection, a
+        // write as far as routing goes; in the application Hibernate's startup does that
+        try (Connection connection = dataSource.getConnection()) {
+            connection.isValid(1);
+        }
+        
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("SHUTDOWN");
+        new JdbcTemplate(replica).execute("SHUTDOWN");
+        RequestContextHolder.resetRequestAttributes();
+        ReplicaContext.clear();
+    }
+    
+    @Test
+    void readOnlyTransactionsGoToTheReplicaAndWritesToThePrimary() {
+        assertThat(read()).isEqualTo("replica-0");
+        assertThat(write()).isEqualTo("primary");
+        // Outside a request nothing pins the thread
+        assertThat(read()).isEqualTo("replica-0");
+        assertThat(replica.getInFlight()).isZero();
+    }
+    
+    @Test
+    void readsLaterInTheRequestStayOnThePrimaryAfterAWrite() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        
+        assertThat(read()).isEqualTo("replica-0");
+        assertThat(write()).isEqualTo("primary");
+        assertThat(read()).isEqualTo("primary");
+    }
+    
+    @Test
+    void cookieFromAWriteKeepsTheClientsNextRequestsOnThePrimary() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(properties.getReadYourWritesSeconds());
+        MockHttpServletResponse postResponse = new MockHttpServletResponse();
+        filter.doFilter(request("POST"), postResponse, (request, response) -> write());
+        Cookie cookie = postResponse.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.getMaxAge()).isEqualTo(properties.getReadYourWritesSeconds());
+        
+        AtomicReference<String> servedBy = new AtomicReference<>();
+        MockHttpServletRequest withCookie = request("GET");
+        withCookie.setCookies(cookie);
+        filter.doFilter(withCookie, new MockHttpServletResponse(), (request, response) -> servedBy.set(read()));
+        assertThat(servedBy).hasValue("primary");
+        assertThat(ReplicaContext.isPrimaryForced()).isFalse();
+        
+        filter.doFilter(request("GET"), new MockHttpServletResponse(), (request, response) -> servedBy.set(read()));
+        assertThat(servedBy).hasValue("replica-0");
+        
+        MockHttpServletRequest withExpiredCookie = request("GET");
+        withExpiredCookie.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME,
+            Long.toString(System.currentTimeMillis() - 1)));
+        filter.doFilter(withExpiredCookie, new MockHttpServletResponse(), (request, response) -> servedBy.set(read()));
+        assertThat(servedBy).hasValue("replica-0");
+    }
+    
+    @Test
+    void laggingReplicaIsEjectedUntilItCatchesUp() {
+        ReplicaHealthChecker checker = new ReplicaHealthChecker(pool, properties);
+        checker.checkReplicas();
+        assertThat(checker.health().getStatus()).isEqualTo(Status.UP);
+        
+        setLag(properties.getMaxLagSeconds() + 1);
+        checker.checkReplicas();
+        assertThat(replica.isHealthy()).isFalse();
+        assertThat(checker.health().getStatus()).isEqualTo(new Status("DEGRADED"));
+        assertThat(checker.health().getDetails()).containsEntry("replica-0", "ejected");
+        assertThat(read()).isEqualTo("primary");
+        
+        setLag(properties.getMaxLagSeconds());
+        checker.checkReplicas();
+        assertThat(checker.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(read()).isEqualTo("replica-0");
+    }
+    
+    private String read() {
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+    
+    private String write() {
+        transactionTemplate.setReadOnly(false);
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.update("UPDATE node SET writes = writes + 1");
+            return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+        });
+    }
+    
+    private void setLag(int seconds) {
+        new JdbcTemplate(replica).update("UPDATE replication_status SET lag_seconds = ?", seconds);
+    }
+    
+    private static MockHttpServletRequest request(String method) {
+        return new MockHttpServletRequest(method, "/api/tasks");
+    }
+    
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:replica-routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(32), writes INT)");
+        jdbcTemplate.update("INSERT INTO node VALUES (?, 0)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,120 @@
+package com.EggTart.dyst.EggTart.report;
+
+import com.EggTart.dyst.EggTart.dto.request.OnboardingDto;
+import com.EggTart.dyst.EggTart.dto.request.ReportRequestDto;
+import com.EggTart.dyst.EggTart.exception.ReportCapacityExceededException;
+import com.EggTart.dyst.EggTart.model.entity.ReportJob;
+import com.EggTart.dyst.EggTart.model.enums.ReportFormat;
+import com.EggTart.dyst.EggTart.model.enums.ReportStatus;
+import com.EggTart.dyst.EggTart.repository.ReportJobRepository;
+import com.EggTart.dyst.EggTart.service.DogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+    "eggtart.reports.directory=target/test-reports",
+    "eggtart.reports.lease-check-ms=3600000"
+})
+class ReportJobServiceTest {
+    
+    private static final LocalDate TODAY = LocalDate.now();
+    
+    @Autowired
+    private ReportJobService reportJobService;
+    
+    @Autowired
+    private ReportJobRepository reportJobRepository;
+    
+    @Autowired
+    private DogService dogService;
+    
+    @Test
+    void slotsHeldByAnotherInstanceCountTowardsTheCap() {
+        Long dogId = createDog();
+        reportJobRepository.save(jobOf(dogId, 0, "other-instance", LocalDateTime.now().plusMinutes(5)));
+        reportJobRepository.save(jobOf(dogId, 1, "other-instance", LocalDateTime.now().plusMinutes(5)));
+        
+        assertThatThrownBy(() -> reportJobService.submit(request(dogId)))
+            .isInstanceOf(ReportCapacityExceededException.class);
+    }
+    
+    @Test
+    void finishedJobGivesUpItsSlot() throws InterruptedException {
+        Long dogId = createDog();
+        reportJobRepository.save(jobOf(dogId, 0, "other-instance", LocalDateTime.now().plusMinutes(5)));
+        
+        ReportJob job = awaitFinished(reportJobService.submit(request(dogId)).getId());
+        
+        assertThat(job.getStatus()).isEqualTo(ReportStatus.COMPLETED);
+        assertThat(job.getActiveSlot()).isNull();
+        assertThat(job.getClaimedBy()).isNull();
+        assertThat(reportJobService.submit(request(dogId)).getActiveSlot()).isEqualTo(1);
+    }
+    
+    @Test
+    void onlyJobsWithAnExpiredLeaseAreResumed() throws InterruptedException {
+        Long dogId = createDog();
+        ReportJob live = reportJobRepository.save(jobOf(dogId, 0, "other-instance", LocalDateTime.now().plusMinutes(5)));
+        ReportJob abandoned = reportJobRepository.save(jobOf(dogId, 1, "crashed-instance", LocalDateTime.now().minusSeconds(1)));
+        
+        reportJobService.resumeUnfinishedJobs();
+        
+        assertThat(awaitFinished(abandoned.getId()).getStatus()).isEqualTo(ReportStatus.COMPLETED);
+        ReportJob untouched = reportJobRepository.findById(live.getId()).orElseThrow();
+        assertThat(untouched.getStatus()).isEqualTo(ReportStatus.RUNNING);
+        assertThat(untouched.getClaimedBy()).isEqualTo("other-instance");
+        assertThat(untouched.getVersion()).isEqualTo(live.getVersion());
+    }
+    
+    private ReportJob awaitFinished(Long reportId) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        ReportJob job = reportJobRepository.findById(reportId).orElseThrow();
+        while (!job.getStatus().isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            job = reportJobRepository.findById(reportId).orElseThrow();
+        }
+        return job;
+    }
+    
+    private Long createDog() {
+        return dogService.createDogProfile(OnboardingDto.builder()
+            .dogName("Biscuit")
+            .ageMo(14)
+            .mealTimes(List.of(LocalTime.of(7, 0)))
+            .walkTimes(List.of(LocalTime.of(8, 0)))
+            .build()).getId();
+    }
+    
+    private static ReportRequestDto request(Long dogId) {
+        return ReportRequestDto.builder()
+            .dogId(dogId)
+            .from(TODAY.minusDays(6))
+            .to(TODAY)
+            .format(ReportFormat.CSV)
+            .build();
+    }
+    
+    private static ReportJob jobOf(Long dogId, int slot, String owner, LocalDateTime claimedUntil) {
+        return ReportJob.builder()
+            .dogId(dogId)
+            .format(ReportFormat.CSV)
+            .fromDate(TODAY.minusDays(6))
+            .toDate(TODAY)
+            .status(ReportStatus.RUNNING)
+            .activeSlot(slot)
+            .claimedBy(owner)
+            .claimedUntil(claimedUntil)
+            .createdAt(LocalDateTime.now())
+            .startedAt(LocalDateTime.now())
+            .build();
+    }
+}
@@ -0,0 +1,217 @@
+package com.EggTart.dyst.EggTart.report;
+
+import com.EggTart.dyst.EggTart.model.entity.WalkRecord;
+import com.EggTart.dyst.EggTart.model.enums.Mood;
+import com.EggTart.dyst.EggTart.projection.WalkSummary;
+import com.EggTart.dyst.EggTart.repository.WalkRecordRepository;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A year of walks with long notes for several dogs, read a month at a time:
+ * as entities with every column, the shape before the photo URL and notes
+ * became lazy, as entities with the lazy group left unloaded, and as
+ * {@link WalkSummary} rows, all with the same indexed predicate. The care
+ * history report's own query is measured last. Reports the time per read, the bytes
+ * allocated per read and the heap retained per walk while every month of
+ * every dog is held.
+ *
+ * The database is a file with a page cache far smaller than the table, so
+ * the notes are decoded afresh on each read as they would be from a server;
+ * an in-memory H2 hands back the very strings it stores.
+ *
+ * Run with {@code mvn test -Dgroups=benchmark -DexcludedGroups=none -Dtest=WalkRecordLoadingBenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "eggtart.concurrency.enabled=false"
+})
+class WalkRecordLoadingBenchmark {
+    
+    private static final int DOGS = 10;
+    private static final int DAYS = 365;
+    private static final int WALKS_PER_DAY = 3;
+    private static final int NOTES_LENGTH = 1_500;
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final int QUERIES = 300;
+    
+    private static final String MONTH = """
+        WHERE w.dogId = :dogId AND w.startTime >= :startDate AND w.startTime < :endDate
+        ORDER BY w.startTime
+        """;
+    private static final String ENTITIES = "SELECT w FROM WalkRecord w " + MONTH;
+    private static final String SUMMARIES = """
+        SELECT new com.EggTart.dyst.EggTart.projection.WalkSummary(
+            w.id, w.taskId, w.dogId, w.startTime, w.endTime, w.pee, w.poo, w.mood)
+        FROM WalkRecord w
+        """ + MONTH;
+    
+    @DynamicPropertySource
+    static void fileDatabase(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("walk-loading-benchmark").toString();
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + directory + "/eggtart;CACHE_SIZE=1024");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+    }
+    
+    @Autowired
+    private WalkRecordRepository walkRecordRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Test
+    void monthOfWalks() {
+        seed();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        
+        LongFunction<List<?>> eager = read -> readOnly.execute(status -> entities(read, true));
+        LongFunction<List<?>> lazy = read -> readOnly.execute(status -> entities(read, false));
+        LongFunction<List<?>> summaries = read -> readOnly.execute(status -> month(
+            entityManager.createQuery(SUMMARIES, WalkSummary.class), read));
+        LongFunction<List<?>> report = read -> readOnly.execute(status ->
+            walkRecordRepository.findSummariesByDogIdAndStartTimeBetween(dog(read), from(read), from(read).plusMonths(1)));
+        
+        WalkRecord loaded = (WalkRecord) eager.apply(0).get(0);
+        assertThat(Hibernate.isPropertyInitialized(loaded, "notes")).isTrue();
+        WalkRecord unloaded = (WalkRecord) lazy.apply(0).get(0);
+        assertThat(Hibernate.isPropertyInitialized(unloaded, "notes")).isFalse();
+        
+        System.out.printf("%,d walks, about %,d per monthly read, %,d characters of notes each%n",
+            DOGS * DAYS * WALKS_PER_DAY, summaries.apply(0).size(), NOTES_LENGTH);
+        System.out.printf("%-28s %12s %16s %16s%n", "", "us / read", "allocated / read", "retained / walk");
+        measure("entities, all columns", eager);
+        measure("entities, details lazy", lazy);
+        measure("WalkSummary projection", summaries);
+        measure("care history report query", report);
+    }
+    
+    // A fetch graph naming the lazy attributes loads them in the same select
+    private List<WalkRecord> entities(long read, boolean withDetails) {
+        TypedQuery<WalkRecord> query = entityManager.createQuery(ENTITIES, WalkRecord.class);
+        if (withDetails) {
+            EntityGraph<WalkRecord> graph = entityManager.createEntityGraph(WalkRecord.class);
+            graph.addAttributeNodes("photoURL", "notes");
+            query.setHint("jakarta.persistence.fetchgraph", graph);
+        }
+        return month(query, read);
+    }
+    
+    private static <T> List<T> month(TypedQuery<T> query, long read) {
+        return query
+            .setParameter("dogId", dog(read))
+            .setParameter("startDate", from(read))
+            .setParameter("endDate", from(read).plusMonths(1))
+            .getResultList();
+    }
+    
+    // Read n is of dog 1 + n % DOGS, in month n / DOGS % 12, so consecutive reads touch different pages
+    private static long dog(long read) {
+        return 1 + read % DOGS;
+    }
+    
+    private static LocalDateTime from(long read) {
+        return BASE.plusMonths(read / DOGS % 12);
+    }
+    
+    private void measure(String label, LongFunction<List<?>> reader) {
+        for (int warm = 0; warm < QUERIES; warm++) {
+            reader.apply(warm);
+        }
+        
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            reader.apply(i);
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        
+        long usedBefore = usedHeap();
+        List<List<?>> held = new ArrayList<>(DOGS * 12);
+        for (long read = 0; read < DOGS * 12; read++) {
+            held.add(reader.apply(read));
+        }
+        long retained = usedHeap() - usedBefore;
+        long walks = held.stream().mapToLong(List::size).sum();
+        
+        System.out.printf("%-28s %12.0f %14.0f B %14.0f B%n", label,
+            nanos / 1_000.0 / QUERIES, (double) allocated / QUERIES, (double) retained / walks);
+    }
+    
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+    
+    private void seed() {
+        Random random = new Random(5);
+        Mood[] moods = Mood.values();
+        long id = 1;
+        for (long dogId = 1; dogId <= DOGS; dogId++) {
+            List<Object[]> rows = new ArrayList<>(DAYS * WALKS_PER_DAY);
+            for (int day = 0; day < DAYS; day++) {
+                for (int walk = 0; walk < WALKS_PER_DAY; walk++) {
+                    LocalDateTime start = BASE.plusDays(day).plusHours(7 + walk * 5L);
+                    rows.add(new Object[]{
+                        id, id, dogId,
+                        Timestamp.valueOf(start), Timestamp.valueOf(start.plusMinutes(20 + random.nextInt(40))),
+                        random.nextBoolean(), random.nextBoolean(), moods[random.nextInt(moods.length)].name(),
+                        "https://photos.eggtart.example/dogs/" + dogId + "/walks/" + id + "/original.jpg",
+                        notes(random),
+                        Timestamp.valueOf(start)
+                    });
+                    id++;
+                }
+            }
+            jdbcTemplate.batchUpdate("""
+                INSERT INTO walk_records
+                    (id, task_id, dog_id, start_time, end_time, pee, poo, mood, photo_url, notes, created_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, rows);
+        }
+    }
+    
+    private static String notes(Random random) {
+        String[] words = {"sniffed", "the", "park", "pulled", "towards", "squirrel", "calm", "on", "lead", "met", "puppy"};
+        StringBuilder notes = new StringBuilder(NOTES_LENGTH + 16);
+        while (notes.length() < NOTES_LENGTH) {
+            notes.append(words[random.nextInt(words.length)]).append(' ');
+        }
+        return notes.substring(0, NOTES_LENGTH);
+    }
+}
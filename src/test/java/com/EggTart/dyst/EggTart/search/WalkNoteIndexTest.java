@@ -0,0 +1,128 @@
+package com.EggTart.dyst.EggTart.search;
+
+import com.EggTart.dyst.EggTart.model.enums.Mood;
+import com.EggTart.dyst.EggTart.repository.WalkRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * The index over a stand-in repository that serves its walks in id order,
+ * as the rebuild query does.
+ */
+class WalkNoteIndexTest {
+    
+    private static final LocalDateTime MORNING = LocalDateTime.of(2025, 5, 10, 8, 0);
+    
+    private final List<IndexedWalk> stored = new ArrayList<>();
+    private Runnable duringRebuild = () -> { };
+    private final WalkNoteIndex index = new WalkNoteIndex(repository());
+    
+    @Test
+    void scoresByTermFrequencyRarityAndNoteLength() {
+        stored.add(walk(1, 1, "squirrel squirrel in the park"));
+        stored.add(walk(2, 1, "park loop, long and slow with a squirrel near the pond and lots of sniffing"));
+        stored.add(walk(3, 1, "park park park"));
+        stored.add(walk(4, 1, "park with the neighbours"));
+        index.rebuild();
+        
+        // More occurrences in a shorter note rank first
+        assertThat(index.search("squirrel", null, null, null, 10))
+            .extracting(WalkSearchHit::walkRecordId)
+            .containsExactly(1L, 2L);
+        // Every term must match, and the rare term outweighs the common one
+        List<WalkSearchHit> hits = index.search("Park SQUIRREL", null, null, null, 10);
+        assertThat(hits).extracting(WalkSearchHit::walkRecordId).containsExactly(1L, 2L);
+        assertThat(hits.get(0).score()).isGreaterThan(hits.get(1).score());
+        assertThat(index.search("park", null, null, null, 10).get(0).walkRecordId()).isEqualTo(3L);
+        assertThat(index.search("park", null, null, null, 2)).hasSize(2);
+        assertThat(index.search("squirrel pond", null, null, null, 10))
+            .extracting(WalkSearchHit::walkRecordId)
+            .containsExactly(2L);
+        // Stop words and unknown terms
+        assertThat(index.search("the and", null, null, null, 10)).isEmpty();
+        assertThat(index.search("squirrel cat", null, null, null, 10)).isEmpty();
+    }
+    
+    @Test
+    void filtersByDogTimeAndMood() {
+        stored.add(walk(1, 1, "beach run"));
+        stored.add(new IndexedWalk(2L, 2L, MORNING.plusDays(1), Mood.EXCITED, "beach run"));
+        stored.add(new IndexedWalk(3L, 1L, MORNING.plusDays(2), Mood.TIRED, "beach"));
+        index.rebuild();
+        
+        assertThat(index.search("beach", 1L, null, null, 10))
+            .extracting(WalkSearchHit::walkRecordId)
+            .containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.search("beach", null, MORNING.plusHours(1), MORNING.plusDays(1), 10))
+            .extracting(WalkSearchHit::walkRecordId)
+            .containsExactly(2L);
+        assertThat(index.search("excited beach", null, null, null, 10))
+            .extracting(WalkSearchHit::walkRecordId, WalkSearchHit::dogId)
+            .containsExactly(tuple(2L, 2L));
+        assertThat(index.search("beach", 99L, null, null, 10)).isEmpty();
+    }
+    
+    @Test
+    void walksAddedAfterARebuildAreFoundOnce() {
+        stored.add(walk(1, 1, "met a spaniel"));
+        assertThat(index.rebuild()).isEqualTo(1);
+        
+        IndexedWalk added = walk(2, 1, "spaniel again at the gate");
+        index.add(added);
+        index.add(added);
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.search("spaniel gate", 1L, null, null, 10))
+            .extracting(WalkSearchHit::walkRecordId)
+            .containsExactly(2L);
+        
+        // The next rebuild reads the added walk from the database as well
+        stored.add(added);
+        assertThat(index.rebuild()).isEqualTo(2);
+        assertThat(index.search("spaniel", null, null, null, 10)).hasSize(2);
+    }
+    
+    @Test
+    void walksAddedWhileRebuildingSurviveTheSwap() {
+        stored.add(walk(1, 1, "rainy walk"));
+        index.rebuild();
+        duringRebuild = () -> index.add(walk(5, 1, "rainy puddles"));
+        
+        assertThat(index.rebuild()).isEqualTo(2);
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search("puddles", null, null, null, 10))
+            .extracting(WalkSearchHit::walkRecordId)
+            .containsExactly(5L);
+    }
+    
+    private WalkRecordRepository repository() {
+        return (WalkRecordRepository) Proxy.newProxyInstance(
+            WalkRecordRepository.class.getClassLoader(),
+            new Class<?>[]{WalkRecordRepository.class},
+            (proxy, method, args) -> {
+                if (!method.getName().equals("findIndexBatch")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                duringRebuild.run();
+                long afterId = (Long) args[0];
+                int size = ((Pageable) args[1]).getPageSize();
+                return stored.stream()
+                    .filter(walk -> walk.walkRecordId() > afterId)
+                    .sorted(Comparator.comparing(IndexedWalk::walkRecordId))
+                    .limit(size)
+                    .toList();
+            });
+    }
+    
+    private static IndexedWalk walk(long id, long dogId, String notes) {
+        return new IndexedWalk(id, dogId, MORNING, null, notes);
+    }
+}
@@ -0,0 +1,102 @@
+package com.EggTart.dyst.EggTart.service;
+
+import com.EggTart.dyst.EggTart.model.entity.MeasurementChunk;
+import com.EggTart.dyst.EggTart.model.enums.MeasurementType;
+import com.EggTart.dyst.EggTart.repository.MeasurementChunkRepository;
+import com.EggTart.dyst.EggTart.timeseries.GorillaCodec;
+import com.EggTart.dyst.EggTart.timeseries.SeriesPoints;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+    "eggtart.measurements.chunk-points=8"
+})
+class MeasurementServiceTest {
+    
+    private static final long BASE = 1_700_000_000L;
+    
+    @Autowired
+    private MeasurementService measurementService;
+    
+    @Autowired
+    private MeasurementChunkRepository measurementChunkRepository;
+    
+    @Test
+    void readingsInOrderFillChunksOfTheConfiguredSize() {
+        long dogId = 9_100_001;
+        for (int i = 0; i < 20; i++) {
+            append(dogId, BASE + i * 60L, i);
+        }
+        
+        List<MeasurementChunk> chunks = chunks(dogId);
+        assertThat(chunks).extracting(MeasurementChunk::getPointCount).containsExactly(8, 8, 4);
+        assertThat(chunks).extracting(MeasurementChunk::getSealed).containsExactly(true, true, false);
+    }
+    
+    @Test
+    void lateReadingsKeepRangesApartAndSplitFullChunks() {
+        long dogId = 9_100_002;
+        List<Long> times = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            times.add(BASE + i * 60L);
+        }
+        Collections.shuffle(times, new Random(11));
+        
+        TreeMap<Long, Double> expected = new TreeMap<>();
+        for (long time : times) {
+            append(dogId, time, time % 97);
+            expected.put(time, (double) (time % 97));
+        }
+        // A reading that replaces an earlier one must not be stored twice
+        append(dogId, BASE, -1);
+        expected.put(BASE, -1.0);
+        
+        List<MeasurementChunk> chunks = chunks(dogId);
+        TreeMap<Long, Double> stored = new TreeMap<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            MeasurementChunk chunk = chunks.get(i);
+            assertThat(chunk.getPointCount()).isBetween(1, 16);
+            if (i > 0) {
+                assertThat(chunk.getStartEpoch()).isGreaterThan(chunks.get(i - 1).getEndEpoch());
+            }
+            if (i < chunks.size() - 1) {
+                assertThat(chunk.getSealed()).isTrue();
+            }
+            SeriesPoints points = GorillaCodec.decode(chunk.getData(), chunk.getPointCount());
+            for (int p = 0; p < points.size(); p++) {
+                assertThat(stored.put(points.time(p), points.value(p))).isNull();
+            }
+        }
+        assertThat(stored).isEqualTo(expected);
+    }
+    
+    @Test
+    void readingBeforeTheFirstChunkExtendsIt() {
+        long dogId = 9_100_003;
+        append(dogId, BASE, 1);
+        append(dogId, BASE - 60, 2);
+        
+        assertThat(chunks(dogId)).singleElement()
+            .satisfies(chunk -> assertThat(chunk.getStartEpoch()).isEqualTo(BASE - 60));
+    }
+    
+    private void append(long dogId, long epoch, double value) {
+        measurementService.append(dogId, MeasurementType.WEIGHT,
+            LocalDateTime.ofEpochSecond(epoch, 0, ZoneOffset.UTC), value);
+    }
+    
+    private List<MeasurementChunk> chunks(long dogId) {
+        return measurementChunkRepository.findOverlapping(dogId, MeasurementType.WEIGHT, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+}
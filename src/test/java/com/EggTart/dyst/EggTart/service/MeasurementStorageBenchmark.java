@@ -0,0 +1,135 @@
+package com.EggTart.dyst.EggTart.service;
+
+import com.EggTart.dyst.EggTart.model.enums.MeasurementType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Hourly readings for several dogs stored through {@link MeasurementService}
+ * as Gorilla chunks and, for comparison, as one row per reading. Reports the
+ * table sizes and the time to aggregate a month at daily resolution and the
+ * whole series at weekly resolution from each. The database is a file so
+ * that H2 reports the space each table takes.
+ *
+ * Run with {@code mvn test -Dgroups=benchmark -DexcludedGroups=none -Dtest=MeasurementStorageBenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "eggtart.concurrency.enabled=false"
+})
+class MeasurementStorageBenchmark {
+    
+    private static final int DOGS = 10;
+    private static final int HOURS = 24 * 180;
+    private static final long BASE = LocalDateTime.of(2026, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private static final int QUERIES = 200;
+    
+    @DynamicPropertySource
+    static void fileDatabase(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("measurement-benchmark").toString();
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + directory + "/eggtart");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+    }
+    
+    @Autowired
+    private MeasurementService measurementService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void storageAndQueries() {
+        jdbcTemplate.execute("""
+            CREATE TABLE measurement_rows (
+                dog_id BIGINT NOT NULL,
+                type VARCHAR(30) NOT NULL,
+                epoch BIGINT NOT NULL,
+                measurement_value DOUBLE PRECISION NOT NULL,
+                PRIMARY KEY (dog_id, type, epoch))
+            """);
+        
+        Random random = new Random(3);
+        for (long dogId = 1; dogId <= DOGS; dogId++) {
+            double temperature = 38.5;
+            List<Object[]> rows = new ArrayList<>(HOURS);
+            for (int hour = 0; hour < HOURS; hour++) {
+                long epoch = BASE + hour * 3_600L;
+                temperature = Math.round((temperature + random.nextGaussian() * 0.05) * 10) / 10.0;
+                measurementService.append(dogId, MeasurementType.BODY_TEMPERATURE,
+                    LocalDateTime.ofEpochSecond(epoch, 0, ZoneOffset.UTC), temperature);
+                rows.add(new Object[]{dogId, MeasurementType.BODY_TEMPERATURE.name(), epoch, temperature});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO measurement_rows VALUES (?, ?, ?, ?)", rows);
+        }
+        
+        long points = (long) DOGS * HOURS;
+        long chunkData = jdbcTemplate.queryForObject(
+            "SELECT SUM(OCTET_LENGTH(data)) FROM measurement_chunks WHERE type = 'BODY_TEMPERATURE'", Long.class);
+        long chunks = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM measurement_chunks WHERE type = 'BODY_TEMPERATURE'", Long.class);
+        System.out.printf("%,d readings in %,d chunks%n", points, chunks);
+        System.out.printf("%-26s %14s %14s%n", "", "chunks", "rows");
+        System.out.printf("%-26s %14.2f %14.2f%n", "payload bytes / reading",
+            (double) chunkData / points, 8.0 + 8 + 8);
+        System.out.printf("%-26s %,14d %,14d%n", "table disk space (bytes)",
+            diskSpace("MEASUREMENT_CHUNKS"), diskSpace("MEASUREMENT_ROWS"));
+        
+        LocalDateTime monthStart = LocalDateTime.ofEpochSecond(BASE, 0, ZoneOffset.UTC).plusDays(60);
+        compare("30 days, daily", monthStart, monthStart.plusDays(30), Duration.ofDays(1));
+        LocalDateTime start = LocalDateTime.ofEpochSecond(BASE, 0, ZoneOffset.UTC);
+        compare("180 days, weekly", start, start.plusDays(180), Duration.ofDays(7));
+    }
+    
+    private void compare(String label, LocalDateTime from, LocalDateTime to, Duration resolution) {
+        long fromEpoch = from.toEpochSecond(ZoneOffset.UTC);
+        long toEpoch = to.toEpochSecond(ZoneOffset.UTC);
+        long step = resolution.getSeconds();
+        String sql = """
+            SELECT bucket, COUNT(*), MIN(measurement_value), MAX(measurement_value), AVG(measurement_value)
+            FROM (SELECT epoch / ? * ? AS bucket, measurement_value
+                  FROM measurement_rows
+                  WHERE dog_id = ? AND type = 'BODY_TEMPERATURE' AND epoch BETWEEN ? AND ?)
+            GROUP BY bucket
+            ORDER BY bucket
+            """;
+        
+        for (int warm = 0; warm < QUERIES; warm++) {
+            long dogId = 1 + warm % DOGS;
+            measurementService.getSeries(dogId, MeasurementType.BODY_TEMPERATURE, from, to, resolution);
+            jdbcTemplate.queryForList(sql, step, step, dogId, fromEpoch, toEpoch);
+        }
+        
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            measurementService.getSeries(1L + i % DOGS, MeasurementType.BODY_TEMPERATURE, from, to, resolution);
+        }
+        long chunkNanos = System.nanoTime() - start;
+        
+        start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            jdbcTemplate.queryForList(sql, step, step, 1L + i % DOGS, fromEpoch, toEpoch);
+        }
+        long rowNanos = System.nanoTime() - start;
+        
+        System.out.printf("%-26s %11.0f us %11.0f us%n", label,
+            chunkNanos / 1_000.0 / QUERIES, rowNanos / 1_000.0 / QUERIES);
+    }
+    
+    private long diskSpace(String table) {
+        return jdbcTemplate.queryForObject("SELECT DISK_SPACE_USED(?)", Long.class, table);
+    }
+}
@@ -0,0 +1,263 @@
+package com.EggTart.dyst.EggTart.service;
+
+import com.EggTart.dyst.EggTart.dto.request.OfflineOperationDto;
+import com.EggTart.dyst.EggTart.dto.request.OnboardingDto;
+import com.EggTart.dyst.EggTart.dto.request.SyncRequestDto;
+import com.EggTart.dyst.EggTart.dto.request.WalkRecordDto;
+import com.EggTart.dyst.EggTart.dto.response.SyncOperationResultDto;
+import com.EggTart.dyst.EggTart.dto.response.SyncResponseDto;
+import com.EggTart.dyst.EggTart.dto.response.TaskInstanceResponseDto;
+import com.EggTart.dyst.EggTart.exception.InvalidSyncCursorException;
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.enums.Mood;
+import com.EggTart.dyst.EggTart.model.enums.SyncAction;
+import com.EggTart.dyst.EggTart.model.enums.SyncOutcome;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.EggTart.dyst.EggTart.repository.TaskInstanceRepository;
+import com.EggTart.dyst.EggTart.sync.SyncCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = {
+    "eggtart.sync.grace-seconds=5"
+})
+class SyncServiceTest {
+    
+    private static final LocalDate TOMORROW = LocalDate.now().plusDays(1);
+    
+    @Autowired
+    private SyncService syncService;
+    
+    @Autowired
+    private DogService dogService;
+    
+    @Autowired
+    private TaskTransitions taskTransitions;
+    
+    @Autowired
+    private TaskInstanceRepository taskInstanceRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void delayQueuedBeforeAServerChangeTheClientHasNotSeenConflicts() {
+        Long dogId = createDog();
+        TaskInstance walk = walk(dogId);
+        String cursor = sync(dogId, null).getCursor();
+        
+        taskTransitions.delayTask(walk.getId(), 10);
+        // A client clock running ahead makes the delay look newer than the change, which must not matter
+        SyncResponseDto response = sync(dogId, cursor,
+            delay(walk.getId(), LocalDateTime.now().plusHours(3), 30));
+        
+        assertThat(response.getOperationResults())
+            .extracting(SyncOperationResultDto::getOutcome)
+            .containsExactly(SyncOutcome.CONFLICT);
+        assertThat(reload(walk).getScheduledTime()).isEqualTo(walk.getScheduledTime().plusMinutes(10));
+    }
+    
+    @Test
+    void delayQueuedAfterTheLastSyncIsAppliedWhateverTheClientClockSays() {
+        Long dogId = createDog();
+        TaskInstance walk = walk(dogId);
+        String cursor = sync(dogId, null).getCursor();
+        
+        // A clock running hours behind, and a second delay that follows the batch's own first one
+        LocalDateTime queuedAt = LocalDateTime.now().minusHours(6);
+        SyncResponseDto response = sync(dogId, cursor,
+            delay(walk.getId(), queuedAt, 15),
+            delay(walk.getId(), queuedAt.plusMinutes(1), 5));
+        
+        assertThat(response.getOperationResults())
+            .extracting(SyncOperationResultDto::getOutcome)
+            .containsExactly(SyncOutcome.APPLIED, SyncOutcome.APPLIED);
+        assertThat(reload(walk).getScheduledTime()).isEqualTo(walk.getScheduledTime().plusMinutes(20));
+    }
+    
+    @Test
+    void delayFromAClientThatNeverSyncedIsApplied() {
+        Long dogId = createDog();
+        TaskInstance walk = walk(dogId);
+        taskTransitions.delayTask(walk.getId(), 10);
+        
+        SyncResponseDto response = sync(dogId, null, delay(walk.getId(), LocalDateTime.now(), 5));
+        
+        assertThat(response.getOperationResults())
+            .extracting(SyncOperationResultDto::getOutcome)
+            .containsExactly(SyncOutcome.APPLIED);
+        assertThat(reload(walk).getScheduledTime()).isEqualTo(walk.getScheduledTime().plusMinutes(15));
+    }
+    
+    @Test
+    void transitionsAlreadyOnTheServerAreReportedAsDuplicates() {
+        Long dogId = createDog();
+        TaskInstance walk = walk(dogId);
+        TaskInstance meal = tomorrow(dogId, TaskType.MEAL);
+        taskTransitions.startTask(walk.getId());
+        taskTransitions.skipTask(meal.getId());
+        LocalDateTime queuedAt = LocalDateTime.now().minusMinutes(30);
+        
+        SyncResponseDto response = sync(dogId, null,
+            operation(walk.getId(), SyncAction.START, queuedAt),
+            operation(walk.getId(), SyncAction.COMPLETE, queuedAt.plusMinutes(1)),
+            operation(walk.getId(), SyncAction.COMPLETE, queuedAt.plusMinutes(2)),
+            operation(meal.getId(), SyncAction.SKIP, queuedAt.plusMinutes(3)),
+            operation(meal.getId(), SyncAction.START, queuedAt.plusMinutes(4)));
+        
+        assertThat(response.getOperationResults())
+            .extracting(SyncOperationResultDto::getTaskId, SyncOperationResultDto::getAction,
+                SyncOperationResultDto::getOutcome)
+            .containsExactly(
+                tuple(walk.getId(), SyncAction.START, SyncOutcome.DUPLICATE),
+                tuple(walk.getId(), SyncAction.COMPLETE, SyncOutcome.APPLIED),
+                tuple(walk.getId(), SyncAction.COMPLETE, SyncOutcome.DUPLICATE),
+                tuple(meal.getId(), SyncAction.SKIP, SyncOutcome.DUPLICATE),
+                tuple(meal.getId(), SyncAction.START, SyncOutcome.CONFLICT));
+        assertThat(reload(walk).getStatus()).isEqualTo(TaskStatus.COMPLETED);
+    }
+    
+    @Test
+    void operationsOnAnotherDogsTaskAreNotFound() {
+        Long dogId = createDog();
+        Long otherDogId = createDog();
+        TaskInstance otherWalk = walk(otherDogId);
+        
+        SyncResponseDto response = sync(dogId, null, operation(otherWalk.getId(), SyncAction.SKIP, LocalDateTime.now()));
+        
+        assertThat(response.getOperationResults())
+            .extracting(SyncOperationResultDto::getOutcome)
+            .containsExactly(SyncOutcome.NOT_FOUND);
+        assertThat(reload(otherWalk).getStatus()).isEqualTo(TaskStatus.PENDING);
+    }
+    
+    @Test
+    void cursorAdvancesToTheNewestChangeAndReturnsOnlyLaterOnes() {
+        Long dogId = createDog();
+        TaskInstance walk = walk(dogId);
+        SyncResponseDto first = sync(dogId, null);
+        assertThat(first.getDog()).isNotNull();
+        assertThat(first.getTasks()).extracting(TaskInstanceResponseDto::getId).contains(walk.getId());
+        
+        SyncCursor cursor = SyncCursor.parse(first.getCursor());
+        assertThat(cursor.changeSeq()).isGreaterThanOrEqualTo(taskInstanceRepository.findAll().stream()
+            .filter(task -> task.getDogId().equals(dogId))
+            .mapToLong(TaskInstance::getChangeSeq)
+            .max().orElseThrow());
+        assertThat(cursor.encode()).isEqualTo(first.getCursor());
+        
+        // Past the grace window nothing is sent again
+        String later = new SyncCursor(cursor.updatedAt().plusSeconds(30), cursor.changeSeq()).encode();
+        assertThat(sync(dogId, later).getTasks()).isEmpty();
+        
+        taskTransitions.delayTask(walk.getId(), 10);
+        SyncResponseDto second = sync(dogId, later);
+        assertThat(second.getDog()).isNull();
+        assertThat(second.getTasks()).extracting(TaskInstanceResponseDto::getId).containsExactly(walk.getId());
+        assertThat(SyncCursor.parse(second.getCursor()).changeSeq()).isEqualTo(reload(walk).getChangeSeq());
+    }
+    
+    @Test
+    void changeCommittedLateWithALowerSequenceIsCaughtByTheGraceWindow() {
+        Long dogId = createDog();
+        TaskInstance walk = walk(dogId);
+        String cursor = sync(dogId, null).getCursor();
+        SyncCursor seen = SyncCursor.parse(cursor);
+        
+        // A transaction that drew its sequence before the client's last sync but committed after it
+        LocalDateTime committedAt = seen.updatedAt().minusSeconds(3);
+        jdbcTemplate.update("UPDATE task_instances SET scheduled_time = ?, updated_at = ?, change_seq = ? WHERE id = ?",
+            Timestamp.valueOf(walk.getScheduledTime().plusMinutes(45)), Timestamp.valueOf(committedAt),
+            seen.changeSeq() - 1, walk.getId());
+        
+        assertThat(sync(dogId, cursor).getTasks())
+            .extracting(TaskInstanceResponseDto::getId, TaskInstanceResponseDto::getScheduledTime)
+            .contains(tuple(walk.getId(), walk.getScheduledTime().plusMinutes(45)));
+        String pastGrace = new SyncCursor(committedAt.plusSeconds(6), seen.changeSeq()).encode();
+        assertThat(sync(dogId, pastGrace).getTasks())
+            .extracting(TaskInstanceResponseDto::getId)
+            .doesNotContain(walk.getId());
+    }
+    
+    @Test
+    void cursorIsMillisAndChangeSequence() {
+        LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        SyncCursor cursor = new SyncCursor(updatedAt, 42L);
+        
+        assertThat(cursor.encode()).endsWith(":42");
+        assertThat(SyncCursor.parse(cursor.encode())).isEqualTo(cursor);
+        assertThat(SyncCursor.parse(null)).isEqualTo(SyncCursor.INITIAL);
+        assertThat(SyncCursor.parse(" ")).isEqualTo(SyncCursor.INITIAL);
+        assertThat(cursor.advance(updatedAt.minusSeconds(1), 40L)).isEqualTo(cursor);
+        assertThat(cursor.advance(updatedAt.plusSeconds(1), null))
+            .isEqualTo(new SyncCursor(updatedAt.plusSeconds(1), 42L));
+        assertThatThrownBy(() -> SyncCursor.parse("123")).isInstanceOf(InvalidSyncCursorException.class);
+        assertThatThrownBy(() -> SyncCursor.parse("abc:1")).isInstanceOf(InvalidSyncCursorException.class);
+    }
+    
+    private SyncResponseDto sync(Long dogId, String cursor, OfflineOperationDto... operations) {
+        return syncService.sync(SyncRequestDto.builder()
+            .dogId(dogId)
+            .cursor(cursor)
+            .operations(List.of(operations))
+            .build());
+    }
+    
+    private static OfflineOperationDto delay(Long taskId, LocalDateTime occurredAt, int minutes) {
+        return OfflineOperationDto.builder()
+            .taskId(taskId)
+            .action(SyncAction.DELAY)
+            .occurredAt(occurredAt)
+            .delayMinutes(minutes)
+            .build();
+    }
+    
+    private static OfflineOperationDto operation(Long taskId, SyncAction action, LocalDateTime occurredAt) {
+        return OfflineOperationDto.builder()
+            .taskId(taskId)
+            .action(action)
+            .occurredAt(occurredAt)
+            .walkRecord(action == SyncAction.COMPLETE
+                ? WalkRecordDto.builder().pee(true).poo(true).mood(Mood.HAPPY).build()
+                : null)
+            .build();
+    }
+    
+    private Long createDog() {
+        return dogService.createDogProfile(OnboardingDto.builder()
+            .dogName("Biscuit")
+            .ageMo(14)
+            .mealTimes(List.of(LocalTime.of(7, 0)))
+            .walkTimes(List.of(LocalTime.of(8, 0)))
+            .build()).getId();
+    }
+    
+    private TaskInstance walk(Long dogId) {
+        return tomorrow(dogId, TaskType.WALK);
+    }
+    
+    private TaskInstance tomorrow(Long dogId, TaskType type) {
+        return taskInstanceRepository.findByDogIdAndScheduledTimeBetween(
+                dogId, TOMORROW.atStartOfDay(), TOMORROW.atTime(LocalTime.MAX)).stream()
+            .filter(task -> task.getType() == type)
+            .findFirst().orElseThrow();
+    }
+    
+    private TaskInstance reload(TaskInstance task) {
+        return taskInstanceRepository.findById(task.getId()).orElseThrow();
+    }
+}
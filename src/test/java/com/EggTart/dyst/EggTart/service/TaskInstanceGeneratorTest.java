@@ -0,0 +1,100 @@
+package com.EggTart.dyst.EggTart.service;
+
+import com.EggTart.dyst.EggTart.dto.request.OnboardingDto;
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.EggTart.dyst.EggTart.repository.TaskInstanceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class TaskInstanceGeneratorTest {
+    
+    private static final LocalDate TOMORROW = LocalDate.now().plusDays(1);
+    
+    @Autowired
+    private DogService dogService;
+    
+    @Autowired
+    private TaskTransitions taskTransitions;
+    
+    @Autowired
+    private TaskInstanceGenerator taskInstanceGenerator;
+    
+    @Autowired
+    private TaskInstanceRepository taskInstanceRepository;
+    
+    @Test
+    void delayedTaskKeepsItsSlotEvenOnAnotherTasksTime() {
+        Long dogId = dogService.createDogProfile(onboarding(List.of(LocalTime.of(8, 0), LocalTime.of(12, 0)))).getId();
+        TaskInstance earlyWalk = tomorrow(dogId, TaskType.WALK).get(0);
+        
+        taskTransitions.delayTask(earlyWalk.getId(), 240);
+        int created = taskInstanceGenerator.generateForDog(dogId);
+        
+        assertThat(created).isZero();
+        assertThat(tomorrow(dogId, TaskType.WALK))
+            .extracting(TaskInstance::getScheduledTime)
+            .containsExactly(TOMORROW.atTime(12, 0), TOMORROW.atTime(12, 0));
+    }
+    
+    @Test
+    void changedTemplatesReplaceUpcomingPendingTasksOnly() {
+        Long dogId = dogService.createDogProfile(onboarding(List.of(LocalTime.of(8, 0), LocalTime.of(12, 0)))).getId();
+        TaskInstance meal = tomorrow(dogId, TaskType.MEAL).get(0);
+        taskTransitions.startTask(meal.getId());
+        
+        dogService.updateDogProfile(dogId, onboarding(List.of(LocalTime.of(9, 0))));
+        
+        assertThat(tomorrow(dogId, TaskType.WALK))
+            .extracting(TaskInstance::getScheduledTime, TaskInstance::getStatus)
+            .containsExactly(tuple(TOMORROW.atTime(9, 0), TaskStatus.PENDING));
+        // The started meal keeps its slot, so the new meal template does not add a second one
+        assertThat(tomorrow(dogId, TaskType.MEAL))
+            .extracting(TaskInstance::getId, TaskInstance::getStatus)
+            .containsExactly(tuple(meal.getId(), TaskStatus.IN_PROGRESS));
+    }
+    
+    @Test
+    void secondInstanceForTheSameSlotIsRejected() {
+        Long dogId = dogService.createDogProfile(onboarding(List.of(LocalTime.of(8, 0)))).getId();
+        TaskInstance walk = tomorrow(dogId, TaskType.WALK).get(0);
+        
+        assertThatThrownBy(() -> taskInstanceRepository.saveAndFlush(TaskInstance.builder()
+            .dogId(dogId)
+            .type(TaskType.WALK)
+            .scheduledTime(walk.getSlotTime())
+            .slotTime(walk.getSlotTime())
+            .build()))
+            .isInstanceOf(DataIntegrityViolationException.class);
+    }
+    
+    private List<TaskInstance> tomorrow(Long dogId, TaskType type) {
+        return taskInstanceRepository.findByDogIdAndScheduledTimeBetween(
+                dogId, TOMORROW.atStartOfDay(), TOMORROW.atTime(LocalTime.MAX)).stream()
+            .filter(task -> task.getType() == type)
+            .sorted(Comparator.comparing(TaskInstance::getScheduledTime))
+            .toList();
+    }
+    
+    private static OnboardingDto onboarding(List<LocalTime> walkTimes) {
+        return OnboardingDto.builder()
+            .dogName("Biscuit")
+            .ageMo(14)
+            .mealTimes(List.of(LocalTime.of(7, 0)))
+            .walkTimes(walkTimes)
+            .build();
+    }
+}
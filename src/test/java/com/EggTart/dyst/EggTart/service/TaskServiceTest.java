@@ -0,0 +1,71 @@
+package com.EggTart.dyst.EggTart.service;
+
+import com.EggTart.dyst.EggTart.dto.request.OnboardingDto;
+import com.EggTart.dyst.EggTart.dto.response.TaskInstanceResponseDto;
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.EggTart.dyst.EggTart.repository.TaskInstanceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class TaskServiceTest {
+    
+    private static final LocalDate TOMORROW = LocalDate.now().plusDays(1);
+    
+    @Autowired
+    private DogService dogService;
+    
+    @Autowired
+    private TaskTransitions taskTransitions;
+    
+    @Autowired
+    private TaskInstanceRepository taskInstanceRepository;
+    
+    @Test
+    void rescheduleMovesPendingTasksOnly() {
+        Long dogId = dogService.createDogProfile(OnboardingDto.builder()
+            .dogName("Pepper")
+            .ageMo(30)
+            .mealTimes(List.of(LocalTime.of(7, 0)))
+            .walkTimes(List.of(LocalTime.of(8, 0), LocalTime.of(12, 0), LocalTime.of(18, 0)))
+            .build()).getId();
+        List<TaskInstance> walks = tomorrowsWalks(dogId);
+        TaskInstance started = walks.get(0);
+        TaskInstance unmoved = walks.get(1);
+        TaskInstance pending = walks.get(2);
+        taskTransitions.startTask(started.getId());
+        
+        List<TaskInstanceResponseDto> moved = taskTransitions.rescheduleTasks(Map.of(
+            started.getId(), TOMORROW.atTime(8, 30),
+            unmoved.getId(), unmoved.getScheduledTime(),
+            pending.getId(), TOMORROW.atTime(17, 15)));
+        
+        assertThat(moved).extracting(TaskInstanceResponseDto::getId).containsExactly(pending.getId());
+        assertThat(tomorrowsWalks(dogId))
+            .extracting(TaskInstance::getId, TaskInstance::getStatus, TaskInstance::getScheduledTime)
+            .containsExactlyInAnyOrder(
+                tuple(started.getId(), TaskStatus.IN_PROGRESS, TOMORROW.atTime(8, 0)),
+                tuple(unmoved.getId(), TaskStatus.PENDING, TOMORROW.atTime(12, 0)),
+                tuple(pending.getId(), TaskStatus.PENDING, TOMORROW.atTime(17, 15)));
+    }
+    
+    private List<TaskInstance> tomorrowsWalks(Long dogId) {
+        return taskInstanceRepository.findByDogIdAndScheduledTimeBetween(
+                dogId, TOMORROW.atStartOfDay(), TOMORROW.atTime(LocalTime.MAX)).stream()
+            .filter(task -> task.getType() == TaskType.WALK)
+            .sorted(Comparator.comparing(TaskInstance::getScheduledTime))
+            .toList();
+    }
+}
@@ -0,0 +1,57 @@
+package com.EggTart.dyst.EggTart.sharding;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdBlockAllocatorTest {
+    
+    @Test
+    void withShardingOffEachTableCountsFromOne() {
+        DataSource dataSource = dataSource("ids-unsharded");
+        IdBlockAllocator allocator = allocator(dataSource, false);
+        
+        List<Long> dogs = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            dogs.add(allocator.nextId("dog_profiles", 17));
+        }
+        
+        assertThat(dogs).containsExactlyElementsOf(LongStream.rangeClosed(1, 7).boxed().toList());
+        assertThat(allocator.nextId("task_templates", 17)).isEqualTo(1);
+        // A restart continues after the blocks already handed out
+        assertThat(allocator(dataSource, false).nextId("dog_profiles", 17)).isEqualTo(10);
+    }
+    
+    @Test
+    void withShardingOnIdsCarryTheBucketAndShareOneSequence() {
+        IdBlockAllocator allocator = allocator(dataSource("ids-sharded"), true);
+        
+        long dog = allocator.nextId("dog_profiles", 17);
+        long template = allocator.nextId("task_templates", 17);
+        long otherDog = allocator.nextId("dog_profiles", 40);
+        
+        assertThat(ShardIds.bucketOf(dog)).isEqualTo(17);
+        assertThat(ShardIds.bucketOf(template)).isEqualTo(17);
+        assertThat(ShardIds.bucketOf(otherDog)).isEqualTo(40);
+        assertThat(List.of(dog >> ShardIds.BUCKET_BITS, template >> ShardIds.BUCKET_BITS, otherDog >> ShardIds.BUCKET_BITS))
+            .containsExactly(3L, 4L, 5L);
+    }
+    
+    private static IdBlockAllocator allocator(DataSource dataSource, boolean sharded) {
+        IdBlockAllocator allocator = new IdBlockAllocator(dataSource, 3, sharded);
+        allocator.init();
+        return allocator;
+    }
+    
+    private static DataSource dataSource(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+}
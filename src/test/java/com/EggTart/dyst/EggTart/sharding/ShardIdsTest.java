@@ -0,0 +1,29 @@
+package com.EggTart.dyst.EggTart.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardIdsTest {
+    
+    @Test
+    void composedIdCarriesItsBucket() {
+        for (int bucket = 0; bucket < ShardIds.BUCKETS; bucket++) {
+            assertThat(ShardIds.bucketOf(ShardIds.compose(12_345, bucket))).isEqualTo(bucket);
+        }
+    }
+    
+    @Test
+    void idsFromDifferentSequencesNeverCollide() {
+        assertThat(ShardIds.compose(1, 63)).isNotEqualTo(ShardIds.compose(2, 63));
+        assertThat(ShardIds.compose(1, 63)).isLessThan(ShardIds.compose(2, 0));
+    }
+    
+    @Test
+    void idsStayPositiveForLargeSequences() {
+        long id = ShardIds.compose(Long.MAX_VALUE >> ShardIds.BUCKET_BITS, ShardIds.BUCKETS - 1);
+        
+        assertThat(id).isPositive();
+        assertThat(ShardIds.bucketOf(id)).isEqualTo(ShardIds.BUCKETS - 1);
+    }
+}
@@ -0,0 +1,304 @@
+package com.EggTart.dyst.EggTart.sharding;
+
+import com.EggTart.dyst.EggTart.archive.TaskArchiveJob;
+import com.EggTart.dyst.EggTart.service.DogAgeingJob;
+import com.EggTart.dyst.EggTart.service.TaskInstanceGenerator;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Runs the application on three in-memory H2 shards. A small id block size
+ * makes most block allocations happen mid-flush on a shard other than 0.
+ * The context is closed afterwards, which puts the static shard directory
+ * back on a single shard for the tests that follow.
+ */
+@SpringBootTest(properties = {
+    "eggtart.sharding.enabled=true",
+    "eggtart.sharding.shards[0].url=jdbc:h2:mem:sharding-test-0;DB_CLOSE_DELAY=-1",
+    "eggtart.sharding.shards[1].url=jdbc:h2:mem:sharding-test-1;DB_CLOSE_DELAY=-1",
+    "eggtart.sharding.shards[2].url=jdbc:h2:mem:sharding-test-2;DB_CLOSE_DELAY=-1",
+    "eggtart.sharding.freeze-grace-ms=300",
+    "eggtart.sharding.directory-refresh-ms=100",
+    "eggtart.ids.block-size=5",
+    "eggtart.archive.directory=target/sharding-test-archive"
+})
+@AutoConfigureMockMvc
+@DirtiesContext
+class ShardingIntegrationTest {
+    
+    private static final String[] SHARDED_TABLES = {"dog_profiles", "task_templates", "task_instances"};
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+    
+    @Autowired
+    private ShardDirectoryStore shardDirectoryStore;
+    
+    @Autowired
+    private TaskInstanceGenerator taskInstanceGenerator;
+    
+    @Autowired
+    private DogAgeingJob dogAgeingJob;
+    
+    @Autowired
+    private TaskArchiveJob taskArchiveJob;
+    
+    @Test
+    void dogAndItsRowsLiveOnTheShardOwningItsBucket() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            long dogId = createDog("Routed" + i);
+            int owner = ShardContext.directory().shardForId(dogId);
+            
+            for (int shard = 0; shard < 3; shard++) {
+                int expected = shard == owner ? 1 : 0;
+                assertThat(count(shard, "SELECT COUNT(*) FROM dog_profiles WHERE id = ?", dogId))
+                    .as("dog %d on shard %d", dogId, shard).isEqualTo(expected);
+            }
+            List<Long> templateIds = shard(owner).queryForList(
+                "SELECT id FROM task_templates WHERE dog_id = ?", Long.class, dogId);
+            assertThat(templateIds).isNotEmpty()
+                .allSatisfy(id -> assertThat(ShardIds.bucketOf(id)).isEqualTo(ShardIds.bucketOf(dogId)));
+            
+            mockMvc.perform(get("/api/dogs/{id}", dogId))
+                .andExpect(result -> assertThat(result.getResponse().getStatus()).isEqualTo(200));
+        }
+    }
+    
+    @Test
+    void idsAreUniqueAcrossShardsAndConcurrentWriters() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Long>> created = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                String name = "Unique" + i;
+                created.add(executor.submit(() -> createDog(name)));
+            }
+            for (Future<Long> dog : created) {
+                dog.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        
+        for (String table : SHARDED_TABLES) {
+            List<Long> ids = new ArrayList<>();
+            for (int shard = 0; shard < 3; shard++) {
+                ids.addAll(shard(shard).queryForList("SELECT id FROM " + table, Long.class));
+            }
+            assertThat(new HashSet<>(ids)).as(table).hasSameSizeAs(ids);
+        }
+    }
+    
+    @Test
+    void rebalanceMovesADogWhileItKeepsBeingUpdated() throws Exception {
+        long dogId = createDog("Mover");
+        int bucket = ShardIds.bucketOf(dogId);
+        int from = ShardContext.directory().shardForBucket(bucket);
+        int to = (from + 1) % 3;
+        
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger lastAcknowledged = new AtomicInteger(-1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Integer> unexpected = new ArrayList<>();
+        Thread writer = new Thread(() -> {
+            for (int n = 0; running.get(); n++) {
+                try {
+                    int status = mockMvc.perform(put("/api/dogs/{id}", dogId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(dogJson("Mover" + n)))
+                        .andReturn().getResponse().getStatus();
+                    if (status == 200) {
+                        lastAcknowledged.set(n);
+                    } else if (status == 503) {
+                        rejected.incrementAndGet();
+                    } else {
+                        unexpected.add(status);
+                    }
+                } catch (Exception ex) {
+                    unexpected.add(-1);
+                }
+            }
+        });
+        writer.start();
+        Thread.sleep(200);
+        
+        shardRebalancer.moveBucket(bucket, from, to);
+        
+        int acknowledgedAtMove = lastAcknowledged.get();
+        while (lastAcknowledged.get() < acknowledgedAtMove + 5) {
+            Thread.sleep(10);
+        }
+        running.set(false);
+        writer.join();
+        
+        assertThat(unexpected).isEmpty();
+        assertThat(rejected.get()).isPositive();
+        assertThat(ShardContext.directory().shardForBucket(bucket)).isEqualTo(to);
+        assertThat(ShardContext.directory().isFrozen(bucket)).isFalse();
+        assertThat(count(from, "SELECT COUNT(*) FROM dog_profiles WHERE MOD(id, 64) = ?", bucket)).isZero();
+        assertThat(shard(to).queryForObject("SELECT name FROM dog_profiles WHERE id = ?", String.class, dogId))
+            .isEqualTo("Mover" + lastAcknowledged.get());
+        
+        ShardDirectoryStore.BucketState state = shardDirectoryStore.states().get(bucket);
+        assertThat(state.movingTo()).isNull();
+        assertThat(state.cleanupShard()).isNull();
+    }
+    
+    @Test
+    void rebalanceMovesTheDogsBehaviourSketches() throws Exception {
+        long dogId = createDog("Sketched");
+        int bucket = ShardIds.bucketOf(dogId);
+        int from = ShardContext.directory().shardForBucket(bucket);
+        int to = (from + 1) % 3;
+        List<Long> templateIds = shard(from).queryForList(
+            "SELECT id FROM task_templates WHERE dog_id = ? ORDER BY id", Long.class, dogId);
+        for (Long templateId : templateIds) {
+            shard(from).update("""
+                INSERT INTO behaviour_sketches (task_template_id, dog_id, data, updated_at, version)
+                VALUES (?, ?, ?, CURRENT_TIMESTAMP, 3)
+                """, templateId, dogId, new byte[]{1, 2, (byte) templateId.intValue()});
+        }
+        
+        shardRebalancer.moveBucket(bucket, from, to);
+        
+        assertThat(count(from, "SELECT COUNT(*) FROM behaviour_sketches WHERE dog_id = ?", dogId)).isZero();
+        assertThat(shard(to).queryForList(
+                "SELECT task_template_id FROM behaviour_sketches WHERE dog_id = ? AND version = 3 ORDER BY 1",
+                Long.class, dogId))
+            .isEqualTo(templateIds);
+    }
+    
+    @Test
+    void rebalanceMovesTheDogsOutboxEventsInOrder() throws Exception {
+        long dogId = createDog("Outboxed");
+        int bucket = ShardIds.bucketOf(dogId);
+        int from = ShardContext.directory().shardForBucket(bucket);
+        int to = (from + 1) % 3;
+        // Not due for an hour, so the relay leaves them where they are
+        for (int n = 0; n < 5; n++) {
+            shard(from).update("""
+                INSERT INTO outbox_events (dog_id, aggregate_id, event_type, payload, status, attempts,
+                    next_attempt_at, created_at)
+                VALUES (?, ?, 'TEST', '{}', 'PENDING', 0, DATEADD('HOUR', 1, CURRENT_TIMESTAMP), CURRENT_TIMESTAMP)
+                """, dogId, n);
+        }
+        
+        shardRebalancer.moveBucket(bucket, from, to);
+        
+        assertThat(count(from, "SELECT COUNT(*) FROM outbox_events WHERE dog_id = ?", dogId)).isZero();
+        assertThat(shard(to).queryForList(
+                "SELECT aggregate_id FROM outbox_events WHERE dog_id = ? AND event_type = 'TEST' ORDER BY id",
+                Long.class, dogId))
+            .containsExactly(0L, 1L, 2L, 3L, 4L);
+    }
+    
+    @Test
+    void jobsLeaveTheRowsOfAFrozenBucketAlone() throws Exception {
+        long frozenDog = createDog("Frozen");
+        long otherDog = createDog("Thawed");
+        while (ShardIds.bucketOf(otherDog) == ShardIds.bucketOf(frozenDog)) {
+            otherDog = createDog("Thawed");
+        }
+        long[] dogs = {frozenDog, otherDog};
+        for (long dogId : dogs) {
+            JdbcTemplate owner = shard(ShardContext.directory().shardForId(dogId));
+            owner.update("UPDATE dog_profiles SET age_recorded_on = ? WHERE id = ?",
+                LocalDate.now().minusMonths(2), dogId);
+            owner.update("""
+                UPDATE task_instances SET scheduled_time = DATEADD('DAY', -200, scheduled_time), slot_time = NULL
+                WHERE dog_id = ?
+                """, dogId);
+        }
+        
+        JdbcTemplate frozen = shard(ShardContext.directory().shardForId(frozenDog));
+        int frozenTasks = count(frozen, "SELECT COUNT(*) FROM task_instances WHERE dog_id = ?", frozenDog);
+        
+        setFrozen(ShardIds.bucketOf(frozenDog), true);
+        try {
+            taskArchiveJob.archiveOldTasks();
+            dogAgeingJob.ageDogs();
+            taskInstanceGenerator.generateAll();
+            
+            assertThat(count(frozen, "SELECT COUNT(*) FROM task_instances WHERE dog_id = ?", frozenDog))
+                .as("old tasks kept, none generated").isEqualTo(frozenTasks);
+            assertThat(frozen.queryForObject("SELECT age_months FROM dog_profiles WHERE id = ?", Integer.class, frozenDog))
+                .isEqualTo(24);
+            
+            JdbcTemplate thawed = shard(ShardContext.directory().shardForId(otherDog));
+            assertThat(count(thawed, """
+                SELECT COUNT(*) FROM task_instances WHERE dog_id = ? AND scheduled_time < DATEADD('DAY', -90, CURRENT_DATE)
+                """, otherDog)).as("old tasks archived").isZero();
+            assertThat(count(thawed, "SELECT COUNT(*) FROM task_instances WHERE dog_id = ?", otherDog))
+                .as("tasks generated").isPositive();
+            assertThat(thawed.queryForObject("SELECT age_months FROM dog_profiles WHERE id = ?", Integer.class, otherDog))
+                .isEqualTo(26);
+        } finally {
+            setFrozen(ShardIds.bucketOf(frozenDog), false);
+        }
+    }
+    
+    private void setFrozen(int bucket, boolean frozen) {
+        shard(0).update("UPDATE shard_buckets SET frozen = ? WHERE bucket = ?", frozen, bucket);
+        shardDirectoryStore.refresh();
+    }
+    
+    private long createDog(String name) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/dogs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(dogJson(name)))
+            .andReturn();
+        assertThat(result.getResponse().getStatus()).isEqualTo(201);
+        return ((Number) JsonPath.read(result.getResponse().getContentAsString(), "$.data.id")).longValue();
+    }
+    
+    private static String dogJson(String name) {
+        return """
+            {"dogName": "%s", "ageMo": 24, "weight": 12.5,
+             "mealTimes": ["08:00", "18:00"], "walkTimes": ["09:00"]}
+            """.formatted(name);
+    }
+    
+    private JdbcTemplate shard(int shard) {
+        return new JdbcTemplate(((ShardRoutingDataSource) dataSource).shard(shard));
+    }
+    
+    private int count(int shard, String sql, Object... args) {
+        return count(shard(shard), sql, args);
+    }
+    
+    private static int count(JdbcTemplate shard, String sql, Object... args) {
+        return shard.queryForObject(sql, Integer.class, args);
+    }
+}
@@ -0,0 +1,83 @@
+package com.EggTart.dyst.EggTart.stats;
+
+import com.EggTart.dyst.EggTart.event.TaskTransitionEvent;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskCountersTest {
+    
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+    private static final CounterKey PENDING_WALKS = new CounterKey(TaskStatus.PENDING, TaskType.WALK, DAY);
+    
+    private final TaskCounters counters = new TaskCounters(new SimpleMeterRegistry());
+    
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    void settledCounterIsSetToTheActualCount() {
+        Map<CounterKey, CounterState> before = counters.states();
+        
+        TaskCounters.Correction correction = counters.correct(before, Map.of(PENDING_WALKS, 5L));
+        
+        assertThat(counters.count(TaskStatus.PENDING, TaskType.WALK, DAY)).isEqualTo(5);
+        assertThat(correction.drift()).isEqualTo(5);
+        assertThat(correction.skipped()).isZero();
+    }
+    
+    @Test
+    void transitionAppliedDuringTheQueryIsNotCountedTwice() {
+        Map<CounterKey, CounterState> before = counters.states();
+        counters.onTaskTransition(created());
+        
+        TaskCounters.Correction correction = counters.correct(before, Map.of(PENDING_WALKS, 1L));
+        
+        assertThat(counters.count(TaskStatus.PENDING, TaskType.WALK, DAY)).isEqualTo(1);
+        assertThat(correction.skipped()).isEqualTo(1);
+    }
+    
+    @Test
+    void transitionWaitingOnItsCommitIsNotCountedTwice() {
+        TransactionSynchronizationManager.initSynchronization();
+        counters.onTaskTransition(created());
+        Map<CounterKey, CounterState> before = counters.states();
+        
+        // The query already sees the row, the commit callback has not run yet
+        counters.correct(before, Map.of(PENDING_WALKS, 1L));
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        
+        assertThat(counters.count(TaskStatus.PENDING, TaskType.WALK, DAY)).isEqualTo(1);
+        assertThat(counters.states().get(PENDING_WALKS).pending()).isZero();
+    }
+    
+    @Test
+    void rolledBackTransitionIsNeverApplied() {
+        TransactionSynchronizationManager.initSynchronization();
+        counters.onTaskTransition(created());
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        
+        assertThat(counters.count(TaskStatus.PENDING, TaskType.WALK, DAY)).isZero();
+        assertThat(counters.states().get(PENDING_WALKS)).isEqualTo(new CounterState(0, 0, 0));
+    }
+    
+    private static TaskTransitionEvent created() {
+        return new TaskTransitionEvent(1L, 2L, 3L, TaskType.WALK, null, null, TaskStatus.PENDING, DAY,
+            null, DAY.atTime(9, 0), null);
+    }
+}
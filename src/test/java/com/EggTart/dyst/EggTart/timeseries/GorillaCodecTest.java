@@ -0,0 +1,78 @@
+package com.EggTart.dyst.EggTart.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GorillaCodecTest {
+    
+    @Test
+    void emptySeriesRoundTrips() {
+        SeriesPoints decoded = GorillaCodec.decode(GorillaCodec.encode(new SeriesPoints(0)), 0);
+        
+        assertThat(decoded.size()).isZero();
+    }
+    
+    @Test
+    void regularWeighInsRoundTrip() {
+        SeriesPoints points = new SeriesPoints(240);
+        double weight = 24.5;
+        for (int i = 0; i < 240; i++) {
+            weight += i % 3 == 0 ? 0.1 : 0;
+            points.put(1_700_000_000L + i * 86_400L, Math.round(weight * 100) / 100.0);
+        }
+        
+        assertRoundTrips(points);
+    }
+    
+    @Test
+    void irregularTimesAndExtremeValuesRoundTrip() {
+        double[] values = {0.0, -0.0, Double.NaN, Double.MIN_VALUE, Double.MAX_VALUE,
+            Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, -1.5, 1e-300, 42.0};
+        long[] times = {-86_400L, 0, 1, 2, 62, 4_000, 4_001, 1L << 40, (1L << 40) + 7, Long.MAX_VALUE / 2};
+        SeriesPoints points = new SeriesPoints(values.length);
+        for (int i = 0; i < values.length; i++) {
+            points.put(times[i], values[i]);
+        }
+        
+        assertRoundTrips(points);
+    }
+    
+    @Test
+    void randomSeriesRoundTrip() {
+        Random random = new Random(7);
+        for (int run = 0; run < 50; run++) {
+            SeriesPoints points = new SeriesPoints(0);
+            long time = random.nextInt(1 << 30);
+            for (int i = 0; i < 1 + random.nextInt(500); i++) {
+                time += 1 + random.nextInt(random.nextBoolean() ? 10 : 100_000);
+                points.put(time, random.nextBoolean() ? random.nextGaussian() : random.nextInt(5));
+            }
+            
+            assertRoundTrips(points);
+        }
+    }
+    
+    @Test
+    void slowlyDriftingReadingsCompressWell() {
+        SeriesPoints points = new SeriesPoints(240);
+        for (int i = 0; i < 240; i++) {
+            points.put(1_700_000_000L + i * 3_600L, 30.0 + (i / 24) * 0.25);
+        }
+        
+        assertThat(GorillaCodec.encode(points).length).isLessThan(240 * 16 / 10);
+    }
+    
+    private static void assertRoundTrips(SeriesPoints points) {
+        SeriesPoints decoded = GorillaCodec.decode(GorillaCodec.encode(points), points.size());
+        
+        assertThat(decoded.size()).isEqualTo(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            assertThat(decoded.time(i)).isEqualTo(points.time(i));
+            assertThat(Double.doubleToRawLongBits(decoded.value(i)))
+                .isEqualTo(Double.doubleToRawLongBits(points.value(i)));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.EggTart.dyst.EggTart.tracing;
+
+import com.EggTart.dyst.EggTart.model.entity.WalkRecord;
+import com.EggTart.dyst.EggTart.repository.WalkRecordRepository;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Reads the spans back from the in-memory {@link TraceStore}; every trace
+ * is kept so fast successful ones show up too.
+ */
+@SpringBootTest(properties = {
+    "eggtart.tracing.enabled=true",
+    "eggtart.tracing.sample-rate=1.0",
+    "eggtart.tracing.file.enabled=false"
+})
+class WalkRecordInsertSpansTest {
+    
+    private static final String INSERT_SPAN = "WalkRecord insert";
+    
+    @Autowired
+    private Tracer tracer;
+    
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+    
+    @Autowired
+    private TraceStore traceStore;
+    
+    @Autowired
+    private WalkRecordRepository walkRecordRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Test
+    void insertGetsAChildSpanOfTheTransaction() {
+        String traceId = traced(() -> transactionTemplate.executeWithoutResult(status ->
+            walkRecordRepository.save(walk(1L))));
+        
+        List<RecordedSpan> inserts = insertSpans(traceId);
+        assertThat(inserts).hasSize(1);
+        assertThat(inserts.get(0).error()).isFalse();
+        assertThat(inserts.get(0).attributes()).containsEntry("db.table", "walk_records");
+    }
+    
+    @Test
+    void failedInsertEndsItsSpanAsAnError() {
+        WalkRecord invalid = walk(2L);
+        invalid.setTaskId(null);
+        
+        String failedTrace = traced(() -> assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status ->
+            walkRecordRepository.save(invalid)))
+            .isInstanceOf(DataIntegrityViolationException.class));
+        String nextTrace = traced(() -> transactionTemplate.executeWithoutResult(status ->
+            walkRecordRepository.save(walk(2L))));
+        
+        List<RecordedSpan> failed = insertSpans(failedTrace);
+        assertThat(failed).hasSize(1);
+        assertThat(failed.get(0).error()).isTrue();
+        
+        // Nothing of the failed insert leaks into the next one on this thread
+        List<RecordedSpan> next = insertSpans(nextTrace);
+        assertThat(next).hasSize(1);
+        assertThat(next.get(0).error()).isFalse();
+    }
+    
+    private String traced(Runnable work) {
+        Span root = tracer.nextSpan().name("test").start();
+        try (Tracer.SpanInScope scope = tracer.withSpan(root)) {
+            work.run();
+        } finally {
+            root.end();
+        }
+        return root.context().traceId();
+    }
+    
+    private List<RecordedSpan> insertSpans(String traceId) {
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+        return traceStore.trace(traceId).stream()
+            .filter(span -> INSERT_SPAN.equals(span.name()))
+            .toList();
+    }
+    
+    private static WalkRecord walk(Long dogId) {
+        LocalDateTime end = LocalDateTime.now();
+        return WalkRecord.builder()
+            .taskId(dogId * 100)
+            .dogId(dogId)
+            .startTime(end.minusMinutes(30))
+            .endTime(end)
+            .build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.EggTart.dyst.EggTart.warmup;
+
+import com.EggTart.dyst.EggTart.tracing.TraceStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Warms up through the real HTTP stack with every trace kept, then checks
+ * that none of the synthetic requests left a trace behind while a client's
+ * request, even one guessing the header, does.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "eggtart.warmup.enabled=true",
+    "eggtart.warmup.query-rounds=2",
+    "eggtart.warmup.requests=50",
+    "eggtart.warmup.threads=2",
+    "eggtart.tracing.enabled=true",
+    "eggtart.tracing.sample-rate=1.0",
+    "eggtart.tracing.file.enabled=false"
+})
+class WarmupRunnerTest {
+    
+    @Autowired
+    private TestRestTemplate restTemplate;
+    
+    @Autowired
+    private TraceStore traceStore;
+    
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Test
+    void syntheticRequestsLeaveNoTraces() {
+        assertThat(meterRegistry.get("eggtart.warmup.latency.p99").tag("phase", "warm").timeGauge()
+            .value(TimeUnit.NANOSECONDS)).isPositive();
+        assertThat(requestTraces()).isEmpty();
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(WarmupRunner.HEADER, "guessed");
+        restTemplate.exchange("/api/dogs/1", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        
+        assertThat(requestTraces()).hasSize(1);
+    }
+    
+    private List<String> requestTraces() {
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+        return traceStore.recent().stream()
+            .map(TraceStore.TraceSummary::root)
+            // Server spans and controller spans; the test client traces its own side as "http get"
+            .filter(root -> root.contains("/api/") || root.contains("Controller"))
+            .toList();
+    }
+}
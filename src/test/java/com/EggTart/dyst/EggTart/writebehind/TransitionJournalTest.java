@@ -0,0 +1,171 @@
+package com.EggTart.dyst.EggTart.writebehind;
+
+import com.EggTart.dyst.EggTart.dto.request.WalkRecordDto;
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.enums.Mood;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransitionJournalTest {
+    
+    private static final LocalDateTime SCHEDULED = LocalDateTime.of(2026, 3, 1, 9, 0);
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void appendedEntriesAreRecoveredOnReopen() throws IOException {
+        WalkRecordDto walk = WalkRecordDto.builder()
+            .pee(true).poo(null).mood(Mood.HAPPY).photoURL(null).notes("Met a puppy, ünïcode")
+            .build();
+        List<JournalEntry> appended;
+        try (TransitionJournal journal = new TransitionJournal(directory)) {
+            appended = List.of(
+                journal.append(entry(1, TaskStatus.IN_PROGRESS, JournalEntry.Kind.START, null, null)),
+                journal.append(entry(1, TaskStatus.PENDING, JournalEntry.Kind.DELAY, 15, null)),
+                journal.append(entry(2, TaskStatus.COMPLETED, JournalEntry.Kind.COMPLETE, null, walk)));
+        }
+        
+        try (TransitionJournal reopened = new TransitionJournal(directory)) {
+            assertThat(reopened.recoveredEntries()).containsExactlyElementsOf(appended);
+            assertThat(appended).extracting(JournalEntry::sequence).containsExactly(1L, 2L, 3L);
+            // Sequences continue after the recovered ones
+            assertThat(reopened.append(entry(3, TaskStatus.SKIPPED, JournalEntry.Kind.SKIP, null, null)).sequence())
+                .isEqualTo(4);
+        }
+    }
+    
+    @Test
+    void tornTailIsCutOffOnOpen() throws IOException {
+        try (TransitionJournal journal = new TransitionJournal(directory)) {
+            journal.append(entry(1, TaskStatus.IN_PROGRESS, JournalEntry.Kind.START, null, null));
+            journal.append(entry(2, TaskStatus.IN_PROGRESS, JournalEntry.Kind.START, null, null));
+        }
+        Path log = directory.resolve("transitions.log");
+        long intact = Files.size(log);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            // A record whose header promises more bytes than the crash left behind
+            channel.write(ByteBuffer.allocate(12).putInt(200).putInt(7).putInt(42).flip());
+        }
+        
+        try (TransitionJournal reopened = new TransitionJournal(directory)) {
+            assertThat(reopened.recoveredEntries()).extracting(JournalEntry::taskId).containsExactly(1L, 2L);
+            assertThat(Files.size(log)).isEqualTo(intact);
+            reopened.append(entry(3, TaskStatus.SKIPPED, JournalEntry.Kind.SKIP, null, null));
+        }
+        try (TransitionJournal reopened = new TransitionJournal(directory)) {
+            assertThat(reopened.recoveredEntries()).extracting(JournalEntry::taskId).containsExactly(1L, 2L, 3L);
+        }
+    }
+    
+    @Test
+    void corruptRecordEndsTheValidEntries() throws IOException {
+        try (TransitionJournal journal = new TransitionJournal(directory)) {
+            journal.append(entry(1, TaskStatus.IN_PROGRESS, JournalEntry.Kind.START, null, null));
+            journal.append(entry(2, TaskStatus.IN_PROGRESS, JournalEntry.Kind.START, null, null));
+        }
+        Path log = directory.resolve("transitions.log");
+        long size = Files.size(log);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            // Flip the last payload byte of the second record so its checksum fails
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), size - 1);
+        }
+        
+        try (TransitionJournal reopened = new TransitionJournal(directory)) {
+            assertThat(reopened.recoveredEntries()).extracting(JournalEntry::taskId).containsExactly(1L);
+            assertThat(Files.size(log)).isEqualTo(size / 2);
+        }
+    }
+    
+    @Test
+    void flushedEntriesAreCheckpointedAndTheLogTruncatedWhenDrained() throws IOException {
+        Path log = directory.resolve("transitions.log");
+        try (TransitionJournal journal = new TransitionJournal(directory)) {
+            JournalEntry first = journal.append(entry(1, TaskStatus.IN_PROGRESS, JournalEntry.Kind.START, null, null));
+            JournalEntry second = journal.append(entry(2, TaskStatus.IN_PROGRESS, JournalEntry.Kind.START, null, null));
+            JournalEntry third = journal.append(entry(3, TaskStatus.IN_PROGRESS, JournalEntry.Kind.START, null, null));
+            
+            // Out of order: the checkpoint stays below the oldest entry still outstanding
+            journal.markFlushed(List.of(second));
+            assertThat(Files.readString(directory.resolve("checkpoint"))).isEqualTo("0");
+            journal.markFlushed(List.of(first));
+            assertThat(Files.readString(directory.resolve("checkpoint"))).isEqualTo("2");
+            assertThat(Files.size(log)).isPositive();
+            
+            journal.markFlushed(List.of(third));
+            assertThat(Files.size(log)).isZero();
+        }
+        
+        try (TransitionJournal reopened = new TransitionJournal(directory)) {
+            assertThat(reopened.recoveredEntries()).isEmpty();
+            assertThat(reopened.append(entry(4, TaskStatus.SKIPPED, JournalEntry.Kind.SKIP, null, null)).sequence())
+                .isEqualTo(4);
+        }
+    }
+    
+    @Test
+    void reopenAfterAPartialCheckpointRecoversOnlyTheOutstandingEntries() throws IOException {
+        try (TransitionJournal journal = new TransitionJournal(directory)) {
+            JournalEntry first = journal.append(entry(1, TaskStatus.IN_PROGRESS, JournalEntry.Kind.START, null, null));
+            journal.append(entry(2, TaskStatus.IN_PROGRESS, JournalEntry.Kind.START, null, null));
+            journal.markFlushed(List.of(first));
+        }
+        
+        try (TransitionJournal reopened = new TransitionJournal(directory)) {
+            assertThat(reopened.recoveredEntries()).extracting(JournalEntry::taskId).containsExactly(2L);
+        }
+    }
+    
+    @Test
+    void reappliedTransitionsRunAgainOnTheCurrentState() {
+        TaskInstance task = task(1, TaskStatus.PENDING);
+        JournalEntry delay = entry(1, TaskStatus.PENDING, JournalEntry.Kind.DELAY, 15, null);
+        
+        // The image would put the scheduled time back; the transition moves the current one
+        task.setScheduledTime(SCHEDULED.plusHours(2));
+        delay.reapplyTo(task);
+        assertThat(task.getScheduledTime()).isEqualTo(SCHEDULED.plusHours(2).plusMinutes(15));
+        
+        JournalEntry start = entry(1, TaskStatus.IN_PROGRESS, JournalEntry.Kind.START, null, null);
+        start.reapplyTo(task);
+        assertThat(task.getStatus()).isEqualTo(TaskStatus.IN_PROGRESS);
+        assertThat(task.getStartTime()).isEqualTo(start.startTime());
+    }
+    
+    private static JournalEntry entry(long taskId, TaskStatus status, JournalEntry.Kind kind,
+                                      Integer delayMinutes, WalkRecordDto walk) {
+        TaskInstance task = task(taskId, status);
+        if (status != TaskStatus.PENDING) {
+            task.setStartTime(SCHEDULED.plusSeconds(taskId).plusNanos(123_000));
+            task.setCountdownStartTime(task.getStartTime());
+        }
+        if (delayMinutes != null) {
+            task.setScheduledTime(SCHEDULED.plusMinutes(delayMinutes));
+        }
+        if (status == TaskStatus.COMPLETED || status == TaskStatus.SKIPPED) {
+            task.setEndTime(SCHEDULED.plusMinutes(40));
+        }
+        return JournalEntry.of(task, walk, kind, delayMinutes);
+    }
+    
+    private static TaskInstance task(long taskId, TaskStatus status) {
+        return TaskInstance.builder()
+            .id(taskId)
+            .dogId(7L)
+            .scheduledTime(SCHEDULED)
+            .status(status)
+            .build();
+    }
+}
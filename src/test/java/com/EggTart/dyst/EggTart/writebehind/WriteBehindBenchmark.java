@@ -0,0 +1,135 @@
+package com.EggTart.dyst.EggTart.writebehind;
+
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.EggTart.dyst.EggTart.repository.TaskInstanceRepository;
+import com.EggTart.dyst.EggTart.service.TaskService;
+import com.EggTart.dyst.EggTart.service.TaskTransitions;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Delay transitions from several threads through {@link TaskService}, one
+ * transaction per call, against {@link WriteBehindTaskStore}. Reports the
+ * acknowledged rate, the rate until every transition is in task_instances,
+ * and per-call latency. Modes alternate over several rounds, each on fresh
+ * tasks, so neither gets the warmer JIT or the smaller table.
+ *
+ * Run with {@code mvn test -Dgroups=benchmark -DexcludedGroups=none -Dtest=WriteBehindBenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "eggtart.write-behind.enabled=true",
+    "eggtart.concurrency.enabled=false"
+})
+class WriteBehindBenchmark {
+    
+    private static final int TASKS = 4_000;
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 3;
+    private static final LocalDateTime SCHEDULED = LocalDate.now().plusDays(30).atTime(9, 0);
+    
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("write-behind-benchmark").toString();
+        registry.add("eggtart.write-behind.journal-directory", () -> directory);
+    }
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private WriteBehindTaskStore writeBehindTaskStore;
+    
+    @Autowired
+    private TaskInstanceRepository taskInstanceRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void commitThroughput() throws Exception {
+        long dogId = 1_000_000;
+        System.out.printf("%-5s %-24s %12s %12s %9s %9s%n",
+            "round", "mode", "acked/s", "durable/s", "p50 us", "p99 us");
+        for (int round = 1; round <= ROUNDS; round++) {
+            run(round, "transaction per call", taskService, dogId++);
+            run(round, "write-behind", writeBehindTaskStore, dogId++);
+        }
+    }
+    
+    private void run(int round, String mode, TaskTransitions transitions, long dogId) throws Exception {
+        List<Long> taskIds = createTasks(dogId);
+        Recorder recorder = new Recorder(3);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int worker = 0; worker < THREADS; worker++) {
+            int first = worker;
+            workers.add(executor.submit(() -> {
+                for (int i = first; i < taskIds.size(); i += THREADS) {
+                    long begin = System.nanoTime();
+                    transitions.delayTask(taskIds.get(i), 1);
+                    recorder.recordValue(System.nanoTime() - begin);
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        long acknowledged = System.nanoTime();
+        executor.shutdown();
+        
+        while (durableCount(dogId) < TASKS) {
+            Thread.sleep(1);
+        }
+        long durable = System.nanoTime();
+        
+        Histogram latency = recorder.getIntervalHistogram();
+        System.out.printf("%-5d %-24s %12.0f %12.0f %9.0f %9.0f%n", round, mode,
+            TASKS / seconds(acknowledged - start), TASKS / seconds(durable - start),
+            latency.getValueAtPercentile(50) / 1_000.0, latency.getValueAtPercentile(99) / 1_000.0);
+    }
+    
+    private List<Long> createTasks(long dogId) {
+        List<TaskInstance> tasks = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(TaskInstance.builder()
+                .dogId(dogId)
+                .type(TaskType.WALK)
+                .scheduledTime(SCHEDULED)
+                .status(TaskStatus.PENDING)
+                .build());
+        }
+        return taskInstanceRepository.saveAll(tasks).stream().map(TaskInstance::getId).toList();
+    }
+    
+    private int durableCount(long dogId) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM task_instances WHERE dog_id = ? AND scheduled_time = ?",
+            Integer.class, dogId, SCHEDULED.plusMinutes(1));
+    }
+    
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+}
@@ -0,0 +1,145 @@
+package com.EggTart.dyst.EggTart.writebehind;
+
+import com.EggTart.dyst.EggTart.dto.request.WalkRecordDto;
+import com.EggTart.dyst.EggTart.model.entity.TaskInstance;
+import com.EggTart.dyst.EggTart.model.enums.Mood;
+import com.EggTart.dyst.EggTart.model.enums.TaskStatus;
+import com.EggTart.dyst.EggTart.model.enums.TaskType;
+import com.EggTart.dyst.EggTart.repository.TaskInstanceRepository;
+import com.EggTart.dyst.EggTart.repository.WalkRecordRepository;
+import com.EggTart.dyst.EggTart.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Builds stores by hand on the context's repositories, each on its own
+ * journal directory, with a flush interval long enough that only
+ * {@link WriteBehindTaskStore#shutdown()} flushes.
+ */
+@SpringBootTest
+class WriteBehindTaskStoreTest {
+    
+    private static final LocalDateTime SCHEDULED = LocalDateTime.of(2026, 5, 4, 8, 0);
+    
+    @TempDir
+    Path directory;
+    
+    @Autowired
+    private TaskInstanceRepository taskInstanceRepository;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private WalkRecordRepository walkRecordRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Test
+    void replayingTheSameJournalTwiceLeavesTheSameRow() throws Exception {
+        TaskInstance task = createTask(100L);
+        Path journalDirectory = directory.resolve("journal");
+        try (TransitionJournal journal = new TransitionJournal(journalDirectory)) {
+            TaskInstance image = copy(task);
+            image.setStatus(TaskStatus.IN_PROGRESS);
+            image.setStartTime(SCHEDULED.plusMinutes(2));
+            image.setCountdownStartTime(image.getStartTime());
+            journal.append(JournalEntry.of(image, null, JournalEntry.Kind.START, null));
+            image.setStatus(TaskStatus.COMPLETED);
+            image.setEndTime(SCHEDULED.plusMinutes(40));
+            WalkRecordDto walk = WalkRecordDto.builder().pee(true).poo(false).mood(Mood.TIRED).build();
+            journal.append(JournalEntry.of(image, walk, JournalEntry.Kind.COMPLETE, null));
+        }
+        // A crash after the rows were written but before the checkpoint leaves the same journal behind
+        Path copy = directory.resolve("copy");
+        Files.createDirectories(copy);
+        try (var files = Files.list(journalDirectory)) {
+            for (Path file : files.toList()) {
+                Files.copy(file, copy.resolve(file.getFileName()));
+            }
+        }
+        
+        recover(journalDirectory);
+        TaskInstance replayed = taskInstanceRepository.findById(task.getId()).orElseThrow();
+        assertThat(replayed.getStatus()).isEqualTo(TaskStatus.COMPLETED);
+        assertThat(replayed.getEndTime()).isEqualTo(SCHEDULED.plusMinutes(40));
+        assertThat(walkRecordRepository.findByTaskId(task.getId()).getMood()).isEqualTo(Mood.TIRED);
+        try (TransitionJournal drained = new TransitionJournal(journalDirectory)) {
+            assertThat(drained.recoveredEntries()).isEmpty();
+        }
+        
+        recover(copy);
+        TaskInstance again = taskInstanceRepository.findById(task.getId()).orElseThrow();
+        assertThat(again.getStatus()).isEqualTo(TaskStatus.COMPLETED);
+        assertThat(again.getStartTime()).isEqualTo(replayed.getStartTime());
+        assertThat(again.getEndTime()).isEqualTo(replayed.getEndTime());
+        assertThat(walkRecordRepository.findAll())
+            .filteredOn(record -> record.getTaskId().equals(task.getId()))
+            .hasSize(1);
+    }
+    
+    @Test
+    void acknowledgedTransitionIsReappliedToARowChangedOutsideTheStore() throws Exception {
+        TaskInstance task = createTask(101L);
+        WriteBehindTaskStore store = store(directory.resolve("journal"));
+        store.run(null);
+        
+        store.delayTask(task.getId(), 15);
+        TaskInstance changed = taskInstanceRepository.findById(task.getId()).orElseThrow();
+        changed.setScheduledTime(SCHEDULED.plusHours(2));
+        taskInstanceRepository.save(changed);
+        store.delayTask(task.getId(), 5);
+        store.shutdown();
+        
+        // Both delays land on the externally moved time rather than being dropped or overwriting it
+        TaskInstance flushed = taskInstanceRepository.findById(task.getId()).orElseThrow();
+        assertThat(flushed.getScheduledTime()).isEqualTo(SCHEDULED.plusHours(2).plusMinutes(20));
+        assertThat(flushed.getStatus()).isEqualTo(TaskStatus.PENDING);
+    }
+    
+    private void recover(Path journalDirectory) throws Exception {
+        WriteBehindTaskStore store = store(journalDirectory);
+        store.run(null);
+        store.shutdown();
+    }
+    
+    private WriteBehindTaskStore store(Path journalDirectory) throws IOException {
+        return new WriteBehindTaskStore(taskInstanceRepository, taskService, walkRecordRepository,
+            eventPublisher, transactionTemplate, journalDirectory, 3_600_000, 1_000);
+    }
+    
+    private TaskInstance createTask(long dogId) {
+        return taskInstanceRepository.saveAll(List.of(TaskInstance.builder()
+            .dogId(dogId)
+            .type(TaskType.WALK)
+            .scheduledTime(SCHEDULED)
+            .status(TaskStatus.PENDING)
+            .build())).get(0);
+    }
+    
+    private static TaskInstance copy(TaskInstance task) {
+        return TaskInstance.builder()
+            .id(task.getId())
+            .dogId(task.getDogId())
+            .type(task.getType())
+            .scheduledTime(task.getScheduledTime())
+            .status(task.getStatus())
+            .build();
+    }
+}